@@ -0,0 +1,3 @@
+-- Per-listener outbox delivery: names of the listeners that already handled an event waiting for a
+-- retry, so the retry skips them.
+ALTER TABLE outbox_events ADD COLUMN IF NOT EXISTS delivered_to VARCHAR(1000);
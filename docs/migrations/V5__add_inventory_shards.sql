@@ -0,0 +1,10 @@
+-- Sub-counters for products in sharded stock mode (app.inventory.sharding.product-ids).
+-- A sharded product's stock is spread over these rows and its inventory row holds 0, so reservations
+-- lock one shard instead of the product's single inventory row.
+CREATE TABLE IF NOT EXISTS inventory_shards (
+    product_id BIGINT NOT NULL REFERENCES products(product_id) ON DELETE CASCADE,
+    shard_no INT NOT NULL,
+    quantity INT NOT NULL DEFAULT 0 CHECK (quantity >= 0),
+    version BIGINT NOT NULL DEFAULT 0,
+    PRIMARY KEY (product_id, shard_no)
+);
@@ -0,0 +1,11 @@
+-- Order and order line ids move from BIGSERIAL defaults to sequences the application draws from
+-- 50 ids at a time (Hibernate pooled optimizer), so new orders can be inserted as JDBC batches.
+-- Each sequence starts past the current maximum id; the old column defaults are dropped so nothing
+-- else hands out ids from a range the application may already have reserved.
+CREATE SEQUENCE IF NOT EXISTS orders_seq START WITH 1 INCREMENT BY 50;
+SELECT setval('orders_seq', COALESCE((SELECT MAX(order_id) FROM orders), 0) + 50, false);
+ALTER TABLE orders ALTER COLUMN order_id DROP DEFAULT;
+
+CREATE SEQUENCE IF NOT EXISTS order_items_seq START WITH 1 INCREMENT BY 50;
+SELECT setval('order_items_seq', COALESCE((SELECT MAX(order_item_id) FROM order_items), 0) + 50, false);
+ALTER TABLE order_items ALTER COLUMN order_item_id DROP DEFAULT;
@@ -0,0 +1,15 @@
+-- Queue for async checkout (app.orders.async.enabled). Each row is an accepted order request;
+-- workers create the order and record its id, or the reason it was rejected.
+CREATE TABLE IF NOT EXISTS order_tickets (
+    ticket_id BIGSERIAL PRIMARY KEY,
+    user_id BIGINT NOT NULL REFERENCES users(user_id) ON DELETE CASCADE,
+    status VARCHAR(20) NOT NULL,
+    payload TEXT NOT NULL,
+    order_id BIGINT,
+    failure_reason VARCHAR(255),
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    processed_at TIMESTAMP
+);
+
+-- Workers read the oldest queued tickets.
+CREATE INDEX IF NOT EXISTS idx_order_tickets_status ON order_tickets(status, ticket_id);
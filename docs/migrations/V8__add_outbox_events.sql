@@ -0,0 +1,16 @@
+-- Transactional outbox. Order and inventory changes append their domain events here in the same
+-- transaction; the relay delivers them to listeners and deletes them. Rows that stay behind are
+-- either waiting for a retry (next_attempt_at) or gave up after app.outbox.max-attempts.
+CREATE TABLE IF NOT EXISTS outbox_events (
+    event_id BIGSERIAL PRIMARY KEY,
+    event_type VARCHAR(50) NOT NULL,
+    aggregate_id BIGINT NOT NULL,
+    payload TEXT NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    attempts INT NOT NULL DEFAULT 0,
+    next_attempt_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    last_error VARCHAR(500)
+);
+
+-- The relay claims due events oldest first.
+CREATE INDEX IF NOT EXISTS idx_outbox_events_due ON outbox_events(next_attempt_at, event_id);
@@ -0,0 +1,4 @@
+-- Async checkout retries: tickets hitting a transient error stay queued with a growing delay until
+-- app.orders.async.max-attempts is used up.
+ALTER TABLE order_tickets ADD COLUMN IF NOT EXISTS attempts INT NOT NULL DEFAULT 0;
+ALTER TABLE order_tickets ADD COLUMN IF NOT EXISTS next_attempt_at TIMESTAMP;
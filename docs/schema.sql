@@ -5,6 +5,8 @@
 -- DROP TABLES (Dependency Order)
 -- =========================
 
+DROP TABLE IF EXISTS outbox_events;
+DROP TABLE IF EXISTS order_tickets;
 DROP TABLE IF EXISTS order_items;
 DROP TABLE IF EXISTS orders;
 DROP TABLE IF EXISTS cart_items;
@@ -18,6 +20,9 @@ DROP TABLE IF EXISTS products;
 DROP TABLE IF EXISTS categories;
 DROP TABLE IF EXISTS users;
 
+DROP SEQUENCE IF EXISTS order_items_seq;
+DROP SEQUENCE IF EXISTS orders_seq;
+
 -- =========================
 -- DROP ENUM TYPES
 -- =========================
@@ -94,6 +99,15 @@ CREATE TABLE inventory (
     version BIGINT NOT NULL DEFAULT 0
 );
 
+-- Stock sub-counters for products in sharded stock mode; their inventory row then holds 0
+CREATE TABLE inventory_shards (
+    product_id BIGINT NOT NULL REFERENCES products(product_id) ON DELETE CASCADE,
+    shard_no INT NOT NULL,
+    quantity INT NOT NULL DEFAULT 0 CHECK (quantity >= 0),
+    version BIGINT NOT NULL DEFAULT 0,
+    PRIMARY KEY (product_id, shard_no)
+);
+
 -- =========================
 -- CART TABLES
 -- =========================
@@ -122,8 +136,11 @@ CREATE TABLE cart_items (
 -- ORDERS TABLE
 -- =========================
 
+-- Ids are assigned by the application, 50 per sequence call (Hibernate pooled optimizer).
+CREATE SEQUENCE orders_seq START WITH 1 INCREMENT BY 50;
+
 CREATE TABLE orders (
-    order_id BIGSERIAL PRIMARY KEY,
+    order_id BIGINT PRIMARY KEY,
     user_id BIGINT NOT NULL REFERENCES users(user_id) ON DELETE CASCADE,
     order_date TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     status order_status NOT NULL DEFAULT 'PENDING',
@@ -135,8 +152,10 @@ CREATE TABLE orders (
 -- ORDER ITEMS TABLE
 -- =========================
 
+CREATE SEQUENCE order_items_seq START WITH 1 INCREMENT BY 50;
+
 CREATE TABLE order_items (
-    order_item_id BIGSERIAL PRIMARY KEY,
+    order_item_id BIGINT PRIMARY KEY,
     order_id BIGINT NOT NULL REFERENCES orders(order_id) ON DELETE CASCADE,
     product_id BIGINT NOT NULL REFERENCES products(product_id),
     quantity INT NOT NULL CHECK (quantity > 0),
@@ -145,6 +164,35 @@ CREATE TABLE order_items (
     version BIGINT NOT NULL DEFAULT 0
 );
 
+-- =========================
+-- ORDER TICKETS TABLE (async checkout queue)
+-- =========================
+
+CREATE TABLE order_tickets (
+    ticket_id BIGSERIAL PRIMARY KEY,
+    user_id BIGINT NOT NULL REFERENCES users(user_id) ON DELETE CASCADE,
+    status VARCHAR(20) NOT NULL,
+    payload TEXT NOT NULL,
+    order_id BIGINT,
+    failure_reason VARCHAR(255),
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    processed_at TIMESTAMP,
+    attempts INT NOT NULL DEFAULT 0,
+    next_attempt_at TIMESTAMP
+);
+
+CREATE TABLE outbox_events (
+    event_id BIGSERIAL PRIMARY KEY,
+    event_type VARCHAR(50) NOT NULL,
+    aggregate_id BIGINT NOT NULL,
+    payload TEXT NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    attempts INT NOT NULL DEFAULT 0,
+    next_attempt_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    last_error VARCHAR(500),
+    delivered_to VARCHAR(1000)
+);
+
 -- =========================
 -- INDEXES
 -- =========================
@@ -158,6 +206,8 @@ CREATE INDEX idx_carts_user_id ON carts (user_id);
 CREATE INDEX idx_cart_items_cart_id ON cart_items (cart_id);
 CREATE INDEX idx_cart_items_product_id ON cart_items (product_id);
 CREATE INDEX idx_orders_user_id ON orders (user_id);
+CREATE INDEX idx_order_tickets_status ON order_tickets (status, ticket_id);
+CREATE INDEX idx_outbox_events_due ON outbox_events (next_attempt_at, event_id);
 
 -- =========================
 -- SAMPLE DATA
@@ -5,6 +5,7 @@ import io.micrometer.core.instrument.Tags;
 import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
 import java.util.concurrent.Executor;
 import java.util.concurrent.ThreadPoolExecutor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
@@ -13,7 +14,7 @@ import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
 @Configuration
 @EnableAsync
-@EnableConfigurationProperties(AsyncExecutorProperties.class)
+@EnableConfigurationProperties({AsyncExecutorProperties.class, OrderTicketProperties.class, OutboxProperties.class})
 public class AsyncConfig {
 
     @Bean(name = "taskExecutor")
@@ -43,4 +44,31 @@ public class AsyncConfig {
 
         return executor;
     }
+
+    /**
+     * Workers for async checkout. The dispatcher hands over at most one batch at a time and waits for
+     * it, so the queue only needs to hold that batch.
+     */
+    @Bean(name = "orderTicketExecutor")
+    @ConditionalOnProperty(name = "app.orders.async.enabled", havingValue = "true")
+    public ThreadPoolTaskExecutor orderTicketExecutor(OrderTicketProperties properties, MeterRegistry meterRegistry) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(properties.getWorkers());
+        executor.setMaxPoolSize(properties.getWorkers());
+        executor.setQueueCapacity(properties.getBatchSize());
+        executor.setThreadNamePrefix("order-ticket-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        executor.initialize();
+
+        ExecutorServiceMetrics.monitor(
+            meterRegistry,
+            executor.getThreadPoolExecutor(),
+            "app.async.executor",
+            Tags.of("name", "orderTicketExecutor")
+        );
+
+        return executor;
+    }
 }
@@ -1,18 +1,119 @@
 package com.eyarko.ecom.config;
 
+import com.eyarko.ecom.infrastructure.cache.CacheValueLoader;
+import com.eyarko.ecom.infrastructure.cache.CoalescingCache;
+import com.eyarko.ecom.infrastructure.cache.TaggedCache;
 import com.eyarko.ecom.infrastructure.web.IdempotencyEntry;
+import com.eyarko.ecom.service.ProductCacheEvictor;
+import com.eyarko.ecom.util.ObjectSizeEstimator;
 import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.CacheLoader;
 import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
 @Configuration
 @EnableCaching
+@EnableConfigurationProperties({CacheSpecProperties.class, CacheWarmupProperties.class})
 @ConditionalOnProperty(name = "app.cache.enabled", havingValue = "true", matchIfMissing = true)
 public class CacheConfig {
+    /** Same tag Boot's cache metrics registrar uses, so meters line up with auto-bound caches. */
+    private static final String CACHE_MANAGER_TAG = "cache.manager";
+    private static final String CACHE_MANAGER_NAME = "cacheManager";
+
+    /**
+     * Caffeine cache manager that builds every cache from its {@code app.cache.specs} entry layered over
+     * the default spec, binds its stats to Micrometer under the cache name, and wraps
+     * {@code productLists} in a {@link TaggedCache} so listing pages can be evicted per product. Every cache is wrapped in a
+     * {@link CoalescingCache} so concurrent misses on a key share one load. Caches with a
+     * {@link CacheValueLoader} become loading caches that refresh on {@code cacheRefreshExecutor}.
+     */
+    @Bean
+    public CacheManager cacheManager(
+        CacheSpecProperties properties,
+        ObjectProvider<MeterRegistry> meterRegistry,
+        ObjectProvider<CacheValueLoader> loaders,
+        ThreadPoolTaskExecutor cacheRefreshExecutor
+    ) {
+        checkBounded(properties);
+        return new CaffeineCacheManager() {
+            @Override
+            protected Cache<Object, Object> createNativeCaffeineCache(String name) {
+                // Resolved on first use of the cache rather than at startup, so loaders may depend on
+                // beans that themselves need the cache manager.
+                CacheValueLoader loader = loaders.orderedStream()
+                    .filter(candidate -> name.equals(candidate.cacheName()))
+                    .findFirst()
+                    .orElse(null);
+                Caffeine<Object, Object> builder = builderFor(name, properties.specFor(name), loader);
+                if (loader == null) {
+                    return builder.build();
+                }
+                return builder.executor(cacheRefreshExecutor).build(refreshingLoader(loader));
+            }
+
+            @Override
+            protected org.springframework.cache.Cache adaptCaffeineCache(String name, Cache<Object, Object> cache) {
+                CoalescingCache adapted = new CoalescingCache(super.adaptCaffeineCache(name, cache));
+                MeterRegistry registry = meterRegistry.getIfAvailable();
+                if (registry != null) {
+                    CaffeineCacheMetrics.monitor(registry, cache, name, CACHE_MANAGER_TAG, CACHE_MANAGER_NAME);
+                    bindCoalescingMetrics(registry, name, adapted);
+                }
+                if (ProductCacheEvictor.PRODUCT_LISTS.equals(name)) {
+                    return new TaggedCache(adapted, ProductCacheEvictor::tagsOf);
+                }
+                return adapted;
+            }
+        };
+    }
+
+    /**
+     * Small bounded pool for background cache reloads. When it is saturated, refreshes are skipped and
+     * readers keep the cached value instead of queueing unbounded work or loading on their own thread.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor cacheRefreshExecutor(
+        CacheSpecProperties properties,
+        ObjectProvider<MeterRegistry> meterRegistry
+    ) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(properties.getRefresh().getPoolSize());
+        executor.setMaxPoolSize(properties.getRefresh().getPoolSize());
+        executor.setQueueCapacity(properties.getRefresh().getQueueCapacity());
+        executor.setThreadNamePrefix("cache-refresh-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.initialize();
+
+        MeterRegistry registry = meterRegistry.getIfAvailable();
+        if (registry != null) {
+            ExecutorServiceMetrics.monitor(
+                registry,
+                executor.getThreadPoolExecutor(),
+                "app.cache.refresh.executor",
+                Tags.of("name", "cacheRefreshExecutor")
+            );
+        }
+        return executor;
+    }
 
     @Bean
     public Cache<String, IdempotencyEntry> idempotencyCache() {
@@ -21,5 +122,85 @@ public class CacheConfig {
             .maximumSize(100_000)
             .build();
     }
-}
 
+    static Caffeine<Object, Object> builderFor(String name, CacheSpecProperties.Spec spec, CacheValueLoader loader) {
+        Caffeine<Object, Object> builder = Caffeine.newBuilder();
+        if (spec.getMaximumWeight() != null) {
+            builder.maximumWeight(spec.getMaximumWeight())
+                .weigher((key, value) -> (int) Math.min(
+                    Integer.MAX_VALUE,
+                    ObjectSizeEstimator.estimate(key) + ObjectSizeEstimator.estimate(value)
+                ));
+        } else if (spec.getMaximumSize() != null) {
+            builder.maximumSize(spec.getMaximumSize());
+        }
+        if (spec.getExpireAfterWrite() != null) {
+            builder.expireAfterWrite(spec.getExpireAfterWrite());
+        }
+        if (spec.getExpireAfterAccess() != null) {
+            builder.expireAfterAccess(spec.getExpireAfterAccess());
+        }
+        if (spec.getRefreshAfterWrite() != null) {
+            if (loader == null) {
+                throw new IllegalStateException(
+                    "app.cache.specs." + name + ".refresh-after-write needs a cache loader, which this cache does not have"
+                );
+            }
+            builder.refreshAfterWrite(spec.getRefreshAfterWrite());
+        }
+        if (!Boolean.FALSE.equals(spec.getRecordStats())) {
+            builder.recordStats();
+        }
+        return builder;
+    }
+
+    /**
+     * Fails startup when the default spec has neither a size nor a weight bound. Every cache inherits
+     * the bound unless it sets its own, and caches are only built on first use, so without this check
+     * a missing bound would surface as unbounded growth rather than as a configuration error.
+     */
+    static void checkBounded(CacheSpecProperties properties) {
+        CacheSpecProperties.Spec spec = properties.getDefaultSpec();
+        if (spec.getMaximumSize() == null && spec.getMaximumWeight() == null) {
+            throw new IllegalStateException("app.cache.default-spec needs a maximum-size or maximum-weight bound");
+        }
+    }
+
+    private static void bindCoalescingMetrics(MeterRegistry registry, String name, CoalescingCache cache) {
+        Gauge.builder("cache.loads.in.flight", cache, CoalescingCache::inFlightCount)
+            .description("Keys with a load currently running after a miss")
+            .tags("cache", name, CACHE_MANAGER_TAG, CACHE_MANAGER_NAME)
+            .register(registry);
+        FunctionCounter.builder("cache.loads.started", cache, CoalescingCache::loadCount)
+            .description("Loads run after a miss")
+            .tags("cache", name, CACHE_MANAGER_TAG, CACHE_MANAGER_NAME)
+            .register(registry);
+        FunctionCounter.builder("cache.loads.coalesced", cache, CoalescingCache::coalescedCount)
+            .description("Misses served by waiting on another caller's load")
+            .tags("cache", name, CACHE_MANAGER_TAG, CACHE_MANAGER_NAME)
+            .register(registry);
+    }
+
+    /**
+     * Adapts a {@link CacheValueLoader} for Caffeine. A reload the executor rejects completes with the
+     * old value, so the entry keeps being served and is retried after the next refresh interval.
+     */
+    static CacheLoader<Object, Object> refreshingLoader(CacheValueLoader loader) {
+        return new CacheLoader<>() {
+            @Override
+            public Object load(Object key) {
+                return loader.load(key);
+            }
+
+            @Override
+            public CompletableFuture<? extends Object> asyncReload(Object key, Object oldValue, Executor executor)
+                throws Exception {
+                try {
+                    return CacheLoader.super.asyncReload(key, oldValue, executor);
+                } catch (RejectedExecutionException ex) {
+                    return CompletableFuture.completedFuture(oldValue);
+                }
+            }
+        };
+    }
+}
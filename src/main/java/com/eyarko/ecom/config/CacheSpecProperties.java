@@ -0,0 +1,170 @@
+package com.eyarko.ecom.config;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Per-cache Caffeine settings under {@code app.cache.specs.<cacheName>}, layered over
+ * {@code app.cache.default-spec}: a cache's entry only overrides the settings it names.
+ */
+@ConfigurationProperties(prefix = "app.cache")
+public class CacheSpecProperties {
+    private boolean enabled = true;
+    private Spec defaultSpec = Spec.defaults();
+    private Map<String, Spec> specs = new LinkedHashMap<>();
+    private Refresh refresh = new Refresh();
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public Spec getDefaultSpec() {
+        return defaultSpec;
+    }
+
+    public void setDefaultSpec(Spec defaultSpec) {
+        this.defaultSpec = defaultSpec;
+    }
+
+    public Map<String, Spec> getSpecs() {
+        return specs;
+    }
+
+    public void setSpecs(Map<String, Spec> specs) {
+        this.specs = specs;
+    }
+
+    public Refresh getRefresh() {
+        return refresh;
+    }
+
+    public void setRefresh(Refresh refresh) {
+        this.refresh = refresh;
+    }
+
+    /**
+     * @param cacheName cache name
+     * @return the cache's own settings with anything it leaves unset taken from the default spec
+     */
+    public Spec specFor(String cacheName) {
+        Spec spec = specs.get(cacheName);
+        return spec == null ? defaultSpec : spec.over(defaultSpec);
+    }
+
+    /**
+     * Bounds and expiry for one cache. The bound is a maximum size in entries or, when set, a maximum
+     * weight in estimated bytes, which takes precedence. Unset settings are {@code null}.
+     */
+    public static class Spec {
+        private Long maximumSize;
+        private Long maximumWeight;
+        private Duration expireAfterWrite;
+        private Duration expireAfterAccess;
+        private Duration refreshAfterWrite;
+        private Boolean recordStats;
+
+        static Spec defaults() {
+            Spec spec = new Spec();
+            spec.setMaximumSize(10_000L);
+            spec.setRecordStats(true);
+            return spec;
+        }
+
+        /**
+         * @param defaults settings to fall back on
+         * @return a copy of this spec with its unset settings taken from {@code defaults}
+         */
+        public Spec over(Spec defaults) {
+            Spec merged = new Spec();
+            merged.setMaximumSize(maximumSize != null ? maximumSize : defaults.getMaximumSize());
+            merged.setMaximumWeight(maximumWeight != null ? maximumWeight : defaults.getMaximumWeight());
+            merged.setExpireAfterWrite(expireAfterWrite != null ? expireAfterWrite : defaults.getExpireAfterWrite());
+            merged.setExpireAfterAccess(
+                expireAfterAccess != null ? expireAfterAccess : defaults.getExpireAfterAccess()
+            );
+            merged.setRefreshAfterWrite(
+                refreshAfterWrite != null ? refreshAfterWrite : defaults.getRefreshAfterWrite()
+            );
+            merged.setRecordStats(recordStats != null ? recordStats : defaults.getRecordStats());
+            return merged;
+        }
+
+        public Long getMaximumSize() {
+            return maximumSize;
+        }
+
+        public void setMaximumSize(Long maximumSize) {
+            this.maximumSize = maximumSize;
+        }
+
+        public Long getMaximumWeight() {
+            return maximumWeight;
+        }
+
+        public void setMaximumWeight(Long maximumWeight) {
+            this.maximumWeight = maximumWeight;
+        }
+
+        public Duration getExpireAfterWrite() {
+            return expireAfterWrite;
+        }
+
+        public void setExpireAfterWrite(Duration expireAfterWrite) {
+            this.expireAfterWrite = expireAfterWrite;
+        }
+
+        public Duration getExpireAfterAccess() {
+            return expireAfterAccess;
+        }
+
+        public void setExpireAfterAccess(Duration expireAfterAccess) {
+            this.expireAfterAccess = expireAfterAccess;
+        }
+
+        public Duration getRefreshAfterWrite() {
+            return refreshAfterWrite;
+        }
+
+        public void setRefreshAfterWrite(Duration refreshAfterWrite) {
+            this.refreshAfterWrite = refreshAfterWrite;
+        }
+
+        public Boolean getRecordStats() {
+            return recordStats;
+        }
+
+        public void setRecordStats(Boolean recordStats) {
+            this.recordStats = recordStats;
+        }
+    }
+
+    /**
+     * Bounded executor that runs background reloads for caches with {@code refresh-after-write}.
+     */
+    public static class Refresh {
+        private int poolSize = 2;
+        private int queueCapacity = 500;
+
+        public int getPoolSize() {
+            return poolSize;
+        }
+
+        public void setPoolSize(int poolSize) {
+            this.poolSize = poolSize;
+        }
+
+        public int getQueueCapacity() {
+            return queueCapacity;
+        }
+
+        public void setQueueCapacity(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+        }
+    }
+}
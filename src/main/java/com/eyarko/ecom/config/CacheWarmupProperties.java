@@ -0,0 +1,62 @@
+package com.eyarko.ecom.config;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "app.cache.warmup")
+public class CacheWarmupProperties {
+    private boolean enabled = true;
+    private int topProducts = 200;
+    private int pagesPerCategory = 1;
+    private int pageSize = 20;
+    private int jitIterations = 2_000;
+    private Duration maxDuration = Duration.ofSeconds(30);
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getTopProducts() {
+        return topProducts;
+    }
+
+    public void setTopProducts(int topProducts) {
+        this.topProducts = topProducts;
+    }
+
+    public int getPagesPerCategory() {
+        return pagesPerCategory;
+    }
+
+    public void setPagesPerCategory(int pagesPerCategory) {
+        this.pagesPerCategory = pagesPerCategory;
+    }
+
+    public int getPageSize() {
+        return pageSize;
+    }
+
+    public void setPageSize(int pageSize) {
+        this.pageSize = pageSize;
+    }
+
+    public int getJitIterations() {
+        return jitIterations;
+    }
+
+    public void setJitIterations(int jitIterations) {
+        this.jitIterations = jitIterations;
+    }
+
+    public Duration getMaxDuration() {
+        return maxDuration;
+    }
+
+    public void setMaxDuration(Duration maxDuration) {
+        this.maxDuration = maxDuration;
+    }
+}
@@ -0,0 +1,185 @@
+package com.eyarko.ecom.config;
+
+import com.eyarko.ecom.dto.CategoryResponse;
+import com.eyarko.ecom.dto.PagedResponse;
+import com.eyarko.ecom.dto.ProductResponse;
+import com.eyarko.ecom.infrastructure.cache.StockLevelCache;
+import com.eyarko.ecom.mapper.ProductMapper;
+import com.eyarko.ecom.repository.ProductRepository;
+import com.eyarko.ecom.service.CategoryService;
+import com.eyarko.ecom.service.ProductCacheEvictor;
+import com.eyarko.ecom.service.ProductCatalogService;
+import com.eyarko.ecom.service.ProductService;
+import com.eyarko.ecom.util.ResponseUtil;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Fills the product and category caches before the instance reports ready.
+ *
+ * <p>Runs as an {@link ApplicationRunner}, so Spring Boot only publishes
+ * {@link ReadinessState#ACCEPTING_TRAFFIC} once it returns; readiness is also set to
+ * {@link ReadinessState#REFUSING_TRAFFIC} explicitly at the start. It loads the category list, the
+ * first pages of the default product listing and of each category (with the controller's default
+ * sort and page size, so the cache keys match real requests), and the most-ordered product details.
+ * A short loop over the response mapper and JSON serialization then gets those paths compiled.
+ * Warm-up stops at {@code app.cache.warmup.max-duration} and never fails startup.
+ */
+@Component
+@ConditionalOnProperty(
+    name = {"app.cache.enabled", "app.cache.warmup.enabled"},
+    havingValue = "true",
+    matchIfMissing = true
+)
+public class CacheWarmupRunner implements ApplicationRunner {
+    private static final Logger logger = LoggerFactory.getLogger(CacheWarmupRunner.class);
+    private static final Sort DEFAULT_PRODUCT_SORT = Sort.by(Sort.Direction.ASC, "name");
+
+    private final CacheWarmupProperties properties;
+    private final CategoryService categoryService;
+    private final ProductService productService;
+    private final ProductCatalogService productCatalogService;
+    private final ProductRepository productRepository;
+    private final StockLevelCache stockLevelCache;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, AtomicLong> warmedEntries = new ConcurrentHashMap<>();
+
+    public CacheWarmupRunner(
+        CacheWarmupProperties properties,
+        CategoryService categoryService,
+        ProductService productService,
+        ProductCatalogService productCatalogService,
+        ProductRepository productRepository,
+        StockLevelCache stockLevelCache,
+        ObjectMapper objectMapper,
+        ApplicationEventPublisher eventPublisher,
+        MeterRegistry meterRegistry
+    ) {
+        this.properties = properties;
+        this.categoryService = categoryService;
+        this.productService = productService;
+        this.productCatalogService = productCatalogService;
+        this.productRepository = productRepository;
+        this.stockLevelCache = stockLevelCache;
+        this.objectMapper = objectMapper;
+        this.eventPublisher = eventPublisher;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        AvailabilityChangeEvent.publish(eventPublisher, this, ReadinessState.REFUSING_TRAFFIC);
+        long start = System.nanoTime();
+        long deadline = start + properties.getMaxDuration().toNanos();
+        List<ProductResponse> warmed = new ArrayList<>();
+        try {
+            List<CategoryResponse> categories = categoryService.listCategories();
+            record("categoryLists", 1);
+
+            warmListing(null, warmed, deadline);
+            for (CategoryResponse category : categories) {
+                if (System.nanoTime() > deadline) {
+                    break;
+                }
+                warmListing(category.getId(), warmed, deadline);
+            }
+            warmProductDetails(warmed, deadline);
+            warmSerialization(warmed, deadline);
+        } catch (Exception ex) {
+            logger.warn("Cache warm-up stopped early: {}", ex.getMessage());
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            Timer.builder("app.cache.warmup.duration")
+                .description("Time spent warming caches before accepting traffic")
+                .register(meterRegistry)
+                .record(elapsed, TimeUnit.NANOSECONDS);
+            logger.info("Cache warm-up finished in {} ms: {}", elapsed / 1_000_000, warmedEntries);
+        }
+    }
+
+    private void warmListing(Long categoryId, List<ProductResponse> warmed, long deadline) {
+        for (int page = 0; page < properties.getPagesPerCategory() && System.nanoTime() < deadline; page++) {
+            PagedResponse<ProductResponse> response = productService.listProducts(
+                categoryId,
+                null,
+                PageRequest.of(page, properties.getPageSize(), DEFAULT_PRODUCT_SORT)
+            );
+            record(ProductCacheEvictor.PRODUCT_LISTS, 1);
+            if (response.getItems() != null) {
+                warmed.addAll(response.getItems());
+            }
+            if (!response.isHasNext()) {
+                return;
+            }
+        }
+    }
+
+    private void warmProductDetails(List<ProductResponse> warmed, long deadline) {
+        int topProducts = properties.getTopProducts();
+        if (topProducts <= 0) {
+            return;
+        }
+        Set<Long> ids = new LinkedHashSet<>(productRepository.findMostOrderedProductIds(PageRequest.of(0, topProducts)));
+        if (ids.size() < topProducts) {
+            productRepository.findAllBodyRows(
+                PageRequest.of(0, topProducts - ids.size(), Sort.by(Sort.Direction.DESC, "avgRating"))
+            ).forEach(row -> ids.add(row.id()));
+        }
+        stockLevelCache.quantities(ids);
+        for (Long id : ids) {
+            if (System.nanoTime() > deadline) {
+                return;
+            }
+            try {
+                warmed.add(productCatalogService.getProductBody(id));
+                record(ProductCacheEvictor.PRODUCT_BY_ID, 1);
+            } catch (ResponseStatusException ex) {
+                // Deleted since it was ordered; nothing to cache.
+            }
+        }
+    }
+
+    private void warmSerialization(List<ProductResponse> warmed, long deadline) throws JsonProcessingException {
+        if (warmed.isEmpty()) {
+            return;
+        }
+        for (int i = 0; i < properties.getJitIterations() && System.nanoTime() < deadline; i++) {
+            ProductResponse body = warmed.get(i % warmed.size());
+            ProductResponse response = ProductMapper.withStock(body, stockLevelCache.quantity(body.getId()));
+            objectMapper.writeValueAsBytes(ResponseUtil.success("Product retrieved", response));
+        }
+    }
+
+    private void record(String cacheName, long entries) {
+        warmedEntries.computeIfAbsent(cacheName, name -> meterRegistry.gauge(
+            "app.cache.warmup.entries",
+            Tags.of("cache", name),
+            new AtomicLong()
+        )).addAndGet(entries);
+    }
+}
@@ -0,0 +1,86 @@
+package com.eyarko.ecom.config;
+
+import com.eyarko.ecom.infrastructure.datasource.ReadYourWritesTracker;
+import com.eyarko.ecom.infrastructure.datasource.ReplicaRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import javax.sql.DataSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.util.StringUtils;
+
+/**
+ * Splits database traffic between the primary and a read replica when
+ * {@code app.datasource.replica.enabled} is set; otherwise Boot's single {@code spring.datasource}
+ * pool is used unchanged.
+ *
+ * <p>Each side gets its own Hikari pool ({@code primary} and {@code replica}), so Boot binds separate
+ * {@code hikaricp.*} meters for them. Read-only transactions go to the replica; see
+ * {@link ReplicaRoutingDataSource} for the rules.
+ */
+@Configuration
+@EnableConfigurationProperties(ReplicaDataSourceProperties.class)
+@ConditionalOnProperty(name = "app.datasource.replica.enabled", havingValue = "true")
+public class DataSourceRoutingConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName(ReplicaRoutingDataSource.PRIMARY);
+        return dataSource;
+    }
+
+    @Bean
+    @ConfigurationProperties("app.datasource.replica.hikari")
+    public HikariDataSource replicaDataSource(ReplicaDataSourceProperties replica, DataSourceProperties primary) {
+        if (!StringUtils.hasText(replica.getUrl())) {
+            throw new IllegalStateException("app.datasource.replica.url is required when the replica is enabled");
+        }
+        HikariDataSource dataSource = DataSourceBuilder.create()
+            .type(HikariDataSource.class)
+            .url(replica.getUrl())
+            .username(StringUtils.hasText(replica.getUsername()) ? replica.getUsername() : primary.determineUsername())
+            .password(StringUtils.hasText(replica.getPassword()) ? replica.getPassword() : primary.determinePassword())
+            .driverClassName(StringUtils.hasText(replica.getDriverClassName())
+                ? replica.getDriverClassName()
+                : primary.determineDriverClassName())
+            .build();
+        dataSource.setPoolName(ReplicaRoutingDataSource.REPLICA);
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    @Bean
+    public ReadYourWritesTracker readYourWritesTracker(ReplicaDataSourceProperties properties) {
+        return new ReadYourWritesTracker(properties.getReadYourWritesWindow(), properties.getMaxTrackedUsers());
+    }
+
+    /**
+     * The data source JPA and JDBC use. The lazy proxy holds back the physical connection until the
+     * first statement, by which time the transaction's read-only flag is known.
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(
+        @Qualifier("primaryDataSource") DataSource primary,
+        @Qualifier("replicaDataSource") DataSource replica,
+        ReadYourWritesTracker tracker,
+        ObjectProvider<MeterRegistry> meterRegistry
+    ) {
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(
+            primary, replica, tracker, meterRegistry.getIfAvailable()
+        );
+        routing.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+}
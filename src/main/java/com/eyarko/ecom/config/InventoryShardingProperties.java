@@ -0,0 +1,41 @@
+package com.eyarko.ecom.config;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Sharded stock mode for hot products. Listed products keep their stock in {@code shards} sub-counter
+ * rows instead of their single inventory row; removing a product from the list folds its shards back
+ * on the next start.
+ */
+@ConfigurationProperties(prefix = "app.inventory.sharding")
+public class InventoryShardingProperties {
+    private Set<Long> productIds = new LinkedHashSet<>();
+    private int shards = 8;
+    private long rebalanceDelayMs = 5000;
+
+    public Set<Long> getProductIds() {
+        return productIds;
+    }
+
+    public void setProductIds(Set<Long> productIds) {
+        this.productIds = productIds;
+    }
+
+    public int getShards() {
+        return shards;
+    }
+
+    public void setShards(int shards) {
+        this.shards = shards;
+    }
+
+    public long getRebalanceDelayMs() {
+        return rebalanceDelayMs;
+    }
+
+    public void setRebalanceDelayMs(long rebalanceDelayMs) {
+        this.rebalanceDelayMs = rebalanceDelayMs;
+    }
+}
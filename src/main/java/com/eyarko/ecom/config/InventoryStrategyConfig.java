@@ -0,0 +1,64 @@
+package com.eyarko.ecom.config;
+
+import com.eyarko.ecom.infrastructure.cache.StockLevelCache;
+import com.eyarko.ecom.repository.InventoryRepository;
+import com.eyarko.ecom.repository.InventoryShardRepository;
+import com.eyarko.ecom.repository.InventoryStockRepository;
+import com.eyarko.ecom.service.ConditionalUpdateInventoryStrategy;
+import com.eyarko.ecom.service.InventoryLockManager;
+import com.eyarko.ecom.service.InventoryReservationStrategy;
+import com.eyarko.ecom.service.OptimisticInventoryStrategy;
+import com.eyarko.ecom.service.PessimisticInventoryStrategy;
+import com.eyarko.ecom.service.ShardedInventoryStrategy;
+import java.time.Duration;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Picks the inventory concurrency strategy for this deployment from {@code app.inventory.strategy}
+ * ({@code pessimistic}, {@code conditional} or {@code optimistic}). Orders, cancellations and stock
+ * adjustments all go through the one bean. Products listed in {@code app.inventory.sharding.product-ids}
+ * are routed to sharded stock instead; see {@link ShardedInventoryStrategy}.
+ */
+@Configuration
+@EnableConfigurationProperties(InventoryShardingProperties.class)
+public class InventoryStrategyConfig {
+
+    @Bean
+    public InventoryReservationStrategy inventoryReservationStrategy(
+        @Value("${app.inventory.strategy:pessimistic}") String strategy,
+        @Value("${app.inventory.strategy.optimistic.max-attempts:5}") int maxAttempts,
+        @Value("${app.inventory.strategy.optimistic.backoff:5ms}") Duration backoff,
+        InventoryRepository inventoryRepository,
+        InventoryStockRepository stockRepository,
+        InventoryShardRepository shardRepository,
+        InventoryShardingProperties sharding,
+        ObjectProvider<InventoryLockManager> inventoryLockManager,
+        StockLevelCache stockLevelCache
+    ) {
+        InventoryReservationStrategy base = switch (strategy.trim().toLowerCase()) {
+            case InventoryReservationStrategy.PESSIMISTIC -> new PessimisticInventoryStrategy(
+                inventoryRepository, stockRepository, inventoryLockManager.getObject(), stockLevelCache
+            );
+            case InventoryReservationStrategy.CONDITIONAL ->
+                new ConditionalUpdateInventoryStrategy(stockRepository, stockLevelCache);
+            case InventoryReservationStrategy.OPTIMISTIC ->
+                new OptimisticInventoryStrategy(stockRepository, stockLevelCache, maxAttempts, backoff);
+            default -> throw new IllegalStateException(
+                "Unknown app.inventory.strategy '" + strategy + "'; expected pessimistic, conditional or optimistic"
+            );
+        };
+        if (sharding.getProductIds().isEmpty()) {
+            return base;
+        }
+        if (sharding.getShards() < 1) {
+            throw new IllegalStateException("app.inventory.sharding.shards must be positive");
+        }
+        return new ShardedInventoryStrategy(
+            base, shardRepository, stockRepository, stockLevelCache, sharding.getProductIds(), sharding.getShards()
+        );
+    }
+}
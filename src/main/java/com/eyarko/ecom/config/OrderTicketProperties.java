@@ -0,0 +1,76 @@
+package com.eyarko.ecom.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Async checkout mode. When enabled, {@code POST /api/v1/orders} queues the request in
+ * {@code order_tickets} and answers {@code 202 Accepted}; {@code workers} threads create the orders,
+ * taking up to {@code batch-size} queued tickets per pass. A ticket that hits a transient error stays
+ * queued and is tried again after {@code retry-delay-ms}, doubling each time, up to {@code max-attempts}.
+ */
+@ConfigurationProperties(prefix = "app.orders.async")
+public class OrderTicketProperties {
+    private boolean enabled = false;
+    private int queueCapacity = 10000;
+    private int workers = 4;
+    private int batchSize = 50;
+    private long pollDelayMs = 200;
+    private int maxAttempts = 5;
+    private long retryDelayMs = 1000;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public void setQueueCapacity(int queueCapacity) {
+        this.queueCapacity = queueCapacity;
+    }
+
+    public int getWorkers() {
+        return workers;
+    }
+
+    public void setWorkers(int workers) {
+        this.workers = workers;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public long getPollDelayMs() {
+        return pollDelayMs;
+    }
+
+    public void setPollDelayMs(long pollDelayMs) {
+        this.pollDelayMs = pollDelayMs;
+    }
+
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    public void setMaxAttempts(int maxAttempts) {
+        this.maxAttempts = maxAttempts;
+    }
+
+    public long getRetryDelayMs() {
+        return retryDelayMs;
+    }
+
+    public void setRetryDelayMs(long retryDelayMs) {
+        this.retryDelayMs = retryDelayMs;
+    }
+}
@@ -0,0 +1,87 @@
+package com.eyarko.ecom.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Outbox relay. Every {@code poll-delay-ms} the relay delivers due events in batches of
+ * {@code batch-size} until none are left. A failed event is retried after {@code retry-delay-ms},
+ * doubling per attempt, and kept in the table once it has failed {@code max-attempts} times. With
+ * {@code relay-enabled=false} this instance only writes events and leaves delivery to others.
+ * Claimed events are leased for {@code lease-ms} while the listeners run outside the database
+ * transaction; it should cover a batch of slow webhook calls, or another relay delivers them again.
+ */
+@ConfigurationProperties(prefix = "app.outbox")
+public class OutboxProperties {
+    private boolean relayEnabled = true;
+    private int batchSize = 100;
+    private long pollDelayMs = 200;
+    private int maxAttempts = 10;
+    private long retryDelayMs = 1000;
+    private long leaseMs = 300_000;
+    private String webhookUrl;
+    private long webhookTimeoutMs = 2000;
+
+    public boolean isRelayEnabled() {
+        return relayEnabled;
+    }
+
+    public void setRelayEnabled(boolean relayEnabled) {
+        this.relayEnabled = relayEnabled;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public long getPollDelayMs() {
+        return pollDelayMs;
+    }
+
+    public void setPollDelayMs(long pollDelayMs) {
+        this.pollDelayMs = pollDelayMs;
+    }
+
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    public void setMaxAttempts(int maxAttempts) {
+        this.maxAttempts = maxAttempts;
+    }
+
+    public long getRetryDelayMs() {
+        return retryDelayMs;
+    }
+
+    public void setRetryDelayMs(long retryDelayMs) {
+        this.retryDelayMs = retryDelayMs;
+    }
+
+    public long getLeaseMs() {
+        return leaseMs;
+    }
+
+    public void setLeaseMs(long leaseMs) {
+        this.leaseMs = leaseMs;
+    }
+
+    public String getWebhookUrl() {
+        return webhookUrl;
+    }
+
+    public void setWebhookUrl(String webhookUrl) {
+        this.webhookUrl = webhookUrl;
+    }
+
+    public long getWebhookTimeoutMs() {
+        return webhookTimeoutMs;
+    }
+
+    public void setWebhookTimeoutMs(long webhookTimeoutMs) {
+        this.webhookTimeoutMs = webhookTimeoutMs;
+    }
+}
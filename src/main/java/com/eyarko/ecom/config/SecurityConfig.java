@@ -45,6 +45,8 @@ public class SecurityConfig {
                 // Public endpoints
                 .requestMatchers("/api/v1/auth/**", "/swagger-ui/**", "/v3/api-docs/**", 
                     "/actuator/**", "/graphiql/**").permitAll()
+                // Before the public product reads: the export dumps the whole catalog
+                .requestMatchers(HttpMethod.GET, "/api/v1/products/export").hasRole("ADMIN")
                 .requestMatchers(HttpMethod.GET, "/api/v1/products/**", "/api/v1/categories/**", 
                     "/api/v1/reviews/**").permitAll()
                 .requestMatchers(HttpMethod.POST, "/api/v1/users").permitAll()
@@ -64,6 +66,7 @@ public class SecurityConfig {
                 .requestMatchers(HttpMethod.GET, "/api/v1/users").hasRole("ADMIN")
                 .requestMatchers("/api/v1/users/**").hasRole("ADMIN")
                 .requestMatchers("/api/v1/profiling/**").hasRole("ADMIN")
+                .requestMatchers("/api/v1/admin/**").hasRole("ADMIN")
                 
                 .anyRequest().denyAll()
             )
@@ -0,0 +1,36 @@
+package com.eyarko.ecom.controller;
+
+import com.eyarko.ecom.dto.ApiResponse;
+import com.eyarko.ecom.dto.CacheStatsResponse;
+import com.eyarko.ecom.service.CacheAdminService;
+import com.eyarko.ecom.util.ResponseUtil;
+import java.util.List;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Cache inspection endpoints: size, hit/miss statistics and estimated memory per cache.
+ */
+@RestController
+@RequestMapping("/api/v1/admin/caches")
+@PreAuthorize("hasRole('ADMIN')")
+public class CacheAdminController {
+    private final CacheAdminService cacheAdminService;
+
+    public CacheAdminController(CacheAdminService cacheAdminService) {
+        this.cacheAdminService = cacheAdminService;
+    }
+
+    @GetMapping
+    public ApiResponse<List<CacheStatsResponse>> listCaches() {
+        return ResponseUtil.success("Caches retrieved", cacheAdminService.listCaches());
+    }
+
+    @GetMapping("/{name}")
+    public ApiResponse<CacheStatsResponse> getCache(@PathVariable String name) {
+        return ResponseUtil.success("Cache retrieved", cacheAdminService.getCache(name));
+    }
+}
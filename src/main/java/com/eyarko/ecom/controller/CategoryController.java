@@ -3,10 +3,12 @@ package com.eyarko.ecom.controller;
 import com.eyarko.ecom.dto.ApiResponse;
 import com.eyarko.ecom.dto.CategoryRequest;
 import com.eyarko.ecom.dto.CategoryResponse;
+import com.eyarko.ecom.infrastructure.web.EntityTags;
 import com.eyarko.ecom.service.CategoryService;
 import com.eyarko.ecom.util.ResponseUtil;
 import jakarta.validation.Valid;
 import java.util.List;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -23,9 +25,11 @@ import org.springframework.web.bind.annotation.RestController;
 @RequestMapping("/api/v1/categories")
 public class CategoryController {
     private final CategoryService categoryService;
+    private final EntityTags entityTags;
 
-    public CategoryController(CategoryService categoryService) {
+    public CategoryController(CategoryService categoryService, EntityTags entityTags) {
         this.categoryService = categoryService;
+        this.entityTags = entityTags;
     }
 
     /**
@@ -55,24 +59,26 @@ public class CategoryController {
     }
 
     /**
-     * Retrieves a category by id.
+     * Retrieves a category by id. Supports conditional GET via {@code If-None-Match}.
      *
      * @param id category id
-     * @return category details
+     * @return category details, or 304 when the client's copy is current
      */
     @GetMapping("/{id}")
-    public ApiResponse<CategoryResponse> getCategory(@PathVariable Long id) {
-        return ResponseUtil.success("Category retrieved", categoryService.getCategory(id));
+    public ResponseEntity<ApiResponse<CategoryResponse>> getCategory(@PathVariable Long id) {
+        CategoryResponse category = categoryService.getCategory(id);
+        return entityTags.ok(entityTags.of(category), ResponseUtil.success("Category retrieved", category));
     }
 
     /**
-     * Lists all categories.
+     * Lists all categories. Supports conditional GET via {@code If-None-Match}.
      *
-     * @return list of categories
+     * @return list of categories, or 304 when the client's copy is current
      */
     @GetMapping
-    public ApiResponse<List<CategoryResponse>> listCategories() {
-        return ResponseUtil.success("Categories retrieved", categoryService.listCategories());
+    public ResponseEntity<ApiResponse<List<CategoryResponse>>> listCategories() {
+        List<CategoryResponse> categories = categoryService.listCategories();
+        return entityTags.ok(entityTags.of(categories), ResponseUtil.success("Categories retrieved", categories));
     }
 
     /**
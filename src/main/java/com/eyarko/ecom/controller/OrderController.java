@@ -4,13 +4,18 @@ import com.eyarko.ecom.dto.ApiResponse;
 import com.eyarko.ecom.dto.OrderCreateRequest;
 import com.eyarko.ecom.dto.OrderResponse;
 import com.eyarko.ecom.dto.OrderStatusUpdateRequest;
+import com.eyarko.ecom.dto.OrderTicketResponse;
 import com.eyarko.ecom.dto.PagedResponse;
+import com.eyarko.ecom.service.OrderGroupCommitter;
 import com.eyarko.ecom.service.OrderService;
+import com.eyarko.ecom.service.OrderTicketService;
 import com.eyarko.ecom.util.ResponseUtil;
 import jakarta.validation.Valid;
+import java.net.URI;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PatchMapping;
@@ -28,20 +33,50 @@ import org.springframework.web.bind.annotation.RestController;
 @RequestMapping("/api/v1/orders")
 public class OrderController {
     private final OrderService orderService;
+    private final OrderTicketService orderTicketService;
+    private final OrderGroupCommitter orderGroupCommitter;
 
-    public OrderController(OrderService orderService) {
+    public OrderController(
+        OrderService orderService,
+        OrderTicketService orderTicketService,
+        OrderGroupCommitter orderGroupCommitter
+    ) {
         this.orderService = orderService;
+        this.orderTicketService = orderTicketService;
+        this.orderGroupCommitter = orderGroupCommitter;
     }
 
     /**
-     * Creates a new order.
+     * Creates a new order. In async checkout mode the request is queued instead and answered with
+     * {@code 202 Accepted} and a ticket to poll; with group commit on, it shares a transaction with
+     * orders arriving at the same time.
      *
      * @param request order payload
-     * @return created order
+     * @return created order, or the queued ticket
      */
     @PostMapping
-    public ApiResponse<OrderResponse> createOrder(@Valid @RequestBody OrderCreateRequest request) {
-        return ResponseUtil.success("Order created", orderService.createOrder(request));
+    public ResponseEntity<ApiResponse<?>> createOrder(@Valid @RequestBody OrderCreateRequest request) {
+        if (orderTicketService.isEnabled()) {
+            OrderTicketResponse ticket = orderTicketService.enqueue(request);
+            return ResponseEntity.accepted()
+                .location(URI.create("/api/v1/orders/tickets/" + ticket.getTicketId()))
+                .body(ResponseUtil.success("Order accepted", ticket));
+        }
+        OrderResponse order = orderGroupCommitter.isEnabled()
+            ? orderGroupCommitter.place(request)
+            : orderService.createOrder(request);
+        return ResponseEntity.ok(ResponseUtil.success("Order created", order));
+    }
+
+    /**
+     * Retrieves the state of a queued order request.
+     *
+     * @param id ticket id
+     * @return ticket state, with the order id once the order is created
+     */
+    @GetMapping("/tickets/{id}")
+    public ApiResponse<OrderTicketResponse> getOrderTicket(@PathVariable Long id) {
+        return ResponseUtil.success("Order ticket retrieved", orderTicketService.getTicket(id));
     }
 
     /**
@@ -63,6 +98,7 @@ public class OrderController {
      * @param size page size
      * @param sortBy field to sort by
      * @param sortDir sort direction
+     * @param after optional cursor; when present (even empty) keyset pagination is used instead of page
      * @return list of orders
      */
     @GetMapping
@@ -70,9 +106,14 @@ public class OrderController {
         @RequestParam(defaultValue = "0") int page,
         @RequestParam(defaultValue = "20") int size,
         @RequestParam(defaultValue = "orderDate") String sortBy,
-        @RequestParam(defaultValue = "desc") String sortDir
+        @RequestParam(defaultValue = "desc") String sortDir,
+        @RequestParam(required = false) String after
     ) {
-        Pageable pageable = PageRequest.of(page, size, Sort.by(parseDirection(sortDir), sortBy));
+        Sort sort = Sort.by(parseDirection(sortDir), sortBy);
+        if (after != null) {
+            return ResponseUtil.success("Orders retrieved", orderService.scrollOrders(after, size, sort));
+        }
+        Pageable pageable = PageRequest.of(page, size, sort);
         return ResponseUtil.success("Orders retrieved", orderService.listOrders(pageable));
     }
 
@@ -2,23 +2,41 @@ package com.eyarko.ecom.controller;
 
 import com.eyarko.ecom.dto.ApiResponse;
 import com.eyarko.ecom.dto.PagedResponse;
+import com.eyarko.ecom.dto.ProductFacetsResponse;
+import com.eyarko.ecom.dto.ProductImportResponse;
 import com.eyarko.ecom.dto.ProductRequest;
 import com.eyarko.ecom.dto.ProductResponse;
+import com.eyarko.ecom.dto.SuggestionResponse;
+import com.eyarko.ecom.infrastructure.web.EntityTags;
+import com.eyarko.ecom.infrastructure.web.Versioned;
+import com.eyarko.ecom.service.CatalogFormat;
+import com.eyarko.ecom.service.ProductExportService;
+import com.eyarko.ecom.service.ProductImportService;
 import com.eyarko.ecom.service.ProductService;
 import com.eyarko.ecom.util.ResponseUtil;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
+import java.io.InputStream;
+import java.util.List;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.AsyncWebRequest;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 /**
  * Product management endpoints.
@@ -27,9 +45,20 @@ import org.springframework.web.bind.annotation.RestController;
 @RequestMapping("/api/v1/products")
 public class ProductController {
     private final ProductService productService;
+    private final ProductImportService productImportService;
+    private final ProductExportService productExportService;
+    private final EntityTags entityTags;
 
-    public ProductController(ProductService productService) {
+    public ProductController(
+        ProductService productService,
+        ProductImportService productImportService,
+        ProductExportService productExportService,
+        EntityTags entityTags
+    ) {
         this.productService = productService;
+        this.productImportService = productImportService;
+        this.productExportService = productExportService;
+        this.entityTags = entityTags;
     }
 
     /**
@@ -43,6 +72,60 @@ public class ProductController {
         return ResponseUtil.success("Product created", productService.createProduct(request));
     }
 
+    /**
+     * Bulk-imports products with their initial stock. The body is streamed, not buffered.
+     *
+     * @param contentType {@code application/x-ndjson} or {@code text/csv}
+     * @param body one product per line; CSV starts with a header line
+     * @return imported and rejected counts with the first row errors
+     */
+    @PostMapping(value = "/import", consumes = {"application/x-ndjson", "text/csv"})
+    public ApiResponse<ProductImportResponse> importProducts(
+        @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+        InputStream body
+    ) {
+        return ResponseUtil.success(
+            "Products imported",
+            productImportService.importProducts(body, CatalogFormat.fromContentType(contentType))
+        );
+    }
+
+    /**
+     * Streams the whole catalog with current stock. Rows are written as they are read from the
+     * database, so the response has no size limit and no total. The async timeout of this request is
+     * raised to {@code app.products.export.timeout}; other endpoints keep the default.
+     *
+     * @param format {@code ndjson} (default) or {@code csv}
+     * @return streamed attachment
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportProducts(
+        @RequestParam(defaultValue = "ndjson") String format,
+        HttpServletRequest request
+    ) {
+        CatalogFormat catalogFormat = CatalogFormat.fromParameter(format);
+        ContentDisposition disposition = ContentDisposition.attachment()
+            .filename("products." + catalogFormat.getExtension())
+            .build();
+        Runnable release = productExportService.acquireSlot();
+        AsyncWebRequest asyncRequest = WebAsyncUtils.getAsyncManager(request).getAsyncWebRequest();
+        if (asyncRequest != null) {
+            asyncRequest.setTimeout(productExportService.getTimeout().toMillis());
+            // Frees the slot on timeout or error too, when the body never gets to run.
+            asyncRequest.addCompletionHandler(release);
+        }
+        return ResponseEntity.ok()
+            .contentType(catalogFormat.getMediaType())
+            .header(HttpHeaders.CONTENT_DISPOSITION, disposition.toString())
+            .body(out -> {
+                try {
+                    productExportService.exportProducts(out, catalogFormat);
+                } finally {
+                    release.run();
+                }
+            });
+    }
+
     /**
      * Updates an existing product.
      *
@@ -59,14 +142,15 @@ public class ProductController {
     }
 
     /**
-     * Retrieves a product by id.
+     * Retrieves a product by id. Supports conditional GET via {@code If-None-Match}.
      *
      * @param id product id
-     * @return product details
+     * @return product details, or 304 when the client's copy is current
      */
     @GetMapping("/{id}")
-    public ApiResponse<ProductResponse> getProduct(@PathVariable Long id) {
-        return ResponseUtil.success("Product retrieved", productService.getProduct(id));
+    public ResponseEntity<ApiResponse<ProductResponse>> getProduct(@PathVariable Long id) {
+        Versioned<ProductResponse> product = productService.getProductVersioned(id);
+        return entityTags.ok(product.etag(), ResponseUtil.success("Product retrieved", product.body()));
     }
 
     /**
@@ -76,17 +160,18 @@ public class ProductController {
      * @param size page size
      * @param sortBy field to sort by
      * @param sortDir sort direction
-     * @return paged list of products
+     * @param after optional cursor; when present (even empty) keyset pagination is used instead of page
+     * @return paged list of products, or 304 when the client's copy is current
      */
     @GetMapping("/all")
-    public ApiResponse<PagedResponse<ProductResponse>> listAllProducts(
+    public ResponseEntity<ApiResponse<PagedResponse<ProductResponse>>> listAllProducts(
         @RequestParam(defaultValue = "0") int page,
         @RequestParam(defaultValue = "100") int size,
         @RequestParam(defaultValue = "name") String sortBy,
-        @RequestParam(defaultValue = "asc") String sortDir
+        @RequestParam(defaultValue = "asc") String sortDir,
+        @RequestParam(required = false) String after
     ) {
-        Pageable pageable = PageRequest.of(page, size, Sort.by(parseDirection(sortDir), mapSortField(sortBy)));
-        return ResponseUtil.success("Products retrieved", productService.listProducts(null, null, pageable));
+        return listProducts(null, null, page, size, sortBy, sortDir, after);
     }
 
     /**
@@ -98,24 +183,90 @@ public class ProductController {
      * @param size page size
      * @param sortBy field to sort by
      * @param sortDir sort direction
-     * @return list of products
+     * @param after optional cursor; when present (even empty) keyset pagination is used instead of page
+     * @return list of products, or 304 when the client's copy is current
      */
     @GetMapping
-    public ApiResponse<PagedResponse<ProductResponse>> listProducts(
+    public ResponseEntity<ApiResponse<PagedResponse<ProductResponse>>> listProducts(
         @RequestParam(required = false) Long categoryId,
         @RequestParam(required = false) String search,
         @RequestParam(defaultValue = "0") int page,
         @RequestParam(defaultValue = "20") int size,
         @RequestParam(defaultValue = "name") String sortBy,
+        @RequestParam(defaultValue = "asc") String sortDir,
+        @RequestParam(required = false) String after
+    ) {
+        Sort sort = Sort.by(parseDirection(sortDir), mapSortField(sortBy));
+        Versioned<PagedResponse<ProductResponse>> products;
+        if (after != null) {
+            products = productService.scrollProductsVersioned(categoryId, search, after, size, sort);
+        } else {
+            Pageable pageable = PageRequest.of(page, size, sort);
+            products = productService.listProductsVersioned(categoryId, search, pageable);
+        }
+        return entityTags.ok(products.etag(), ResponseUtil.success("Products retrieved", products.body()));
+    }
+
+    /**
+     * Faceted product browsing with counts for every facet value.
+     *
+     * @param categoryIds categories to include; any of them matches
+     * @param priceBucket price bucket indexes to include; any of them matches
+     * @param minRating minimum star rating, 1 to 5
+     * @param inStock only products with stock
+     * @param search optional search query
+     * @param page page index
+     * @param size page size
+     * @param sortBy field to sort by
+     * @param sortDir sort direction
+     * @return page of products with facet counts
+     */
+    @GetMapping("/facets")
+    public ApiResponse<ProductFacetsResponse> facetProducts(
+        @RequestParam(required = false) List<Long> categoryIds,
+        @RequestParam(required = false) List<Integer> priceBucket,
+        @RequestParam(required = false) Integer minRating,
+        @RequestParam(defaultValue = "false") boolean inStock,
+        @RequestParam(required = false) String search,
+        @RequestParam(defaultValue = "0") int page,
+        @RequestParam(defaultValue = "20") int size,
+        @RequestParam(defaultValue = "name") String sortBy,
         @RequestParam(defaultValue = "asc") String sortDir
     ) {
-        Pageable pageable = PageRequest.of(page, size, Sort.by(parseDirection(sortDir), mapSortField(sortBy)));
+        Sort sort = Sort.by(parseDirection(sortDir), mapSortField(sortBy));
         return ResponseUtil.success(
             "Products retrieved",
-            productService.listProducts(categoryId, search, pageable)
+            productService.facetProducts(categoryIds, priceBucket, minRating, inStock, search, page, size, sort)
         );
     }
 
+    /**
+     * Suggests product and category names for a typed prefix. Served from memory; never queries the
+     * database.
+     *
+     * @param q typed prefix
+     * @param limit maximum suggestions (up to 20)
+     * @return suggestions, best ranked first
+     */
+    @GetMapping("/suggest")
+    public ApiResponse<List<SuggestionResponse>> suggest(
+        @RequestParam(defaultValue = "") String q,
+        @RequestParam(defaultValue = "10") int limit
+    ) {
+        return ResponseUtil.success("Suggestions retrieved", productService.suggest(q, limit));
+    }
+
+    /**
+     * Retrieves several products in one round trip. Products that do not exist are left out.
+     *
+     * @param ids comma-separated product ids (up to {@code app.products.batch.max-ids})
+     * @return products in the order requested
+     */
+    @GetMapping("/batch")
+    public ApiResponse<List<ProductResponse>> getProductsByIds(@RequestParam List<Long> ids) {
+        return ResponseUtil.success("Products retrieved", productService.getProductsByIds(ids));
+    }
+
     /**
      * Deletes a product by id.
      *
@@ -4,12 +4,16 @@ import com.eyarko.ecom.dto.ApiResponse;
 import com.eyarko.ecom.dto.PagedResponse;
 import com.eyarko.ecom.dto.ReviewCreateRequest;
 import com.eyarko.ecom.dto.ReviewResponse;
+import com.eyarko.ecom.infrastructure.web.EntityTags;
 import com.eyarko.ecom.service.ReviewService;
 import com.eyarko.ecom.util.ResponseUtil;
 import jakarta.validation.Valid;
+import java.util.Objects;
+import java.util.stream.Collectors;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
@@ -24,9 +28,11 @@ import org.springframework.web.bind.annotation.RestController;
 @RequestMapping("/api/v1/reviews")
 public class ReviewController {
     private final ReviewService reviewService;
+    private final EntityTags entityTags;
 
-    public ReviewController(ReviewService reviewService) {
+    public ReviewController(ReviewService reviewService, EntityTags entityTags) {
         this.reviewService = reviewService;
+        this.entityTags = entityTags;
     }
 
     /**
@@ -49,19 +55,49 @@ public class ReviewController {
      * @param size page size
      * @param sortBy field to sort by
      * @param sortDir sort direction
-     * @return paged list of reviews
+     * @param after optional cursor; when present (even empty) keyset pagination is used instead of page
+     * @return paged list of reviews, or 304 when the client's copy is current
      */
     @GetMapping
-    public ApiResponse<PagedResponse<ReviewResponse>> listReviews(
+    public ResponseEntity<ApiResponse<PagedResponse<ReviewResponse>>> listReviews(
         @RequestParam(required = false) Long productId,
         @RequestParam(required = false) Long userId,
         @RequestParam(defaultValue = "0") int page,
         @RequestParam(defaultValue = "20") int size,
         @RequestParam(defaultValue = "createdAt") String sortBy,
-        @RequestParam(defaultValue = "desc") String sortDir
+        @RequestParam(defaultValue = "desc") String sortDir,
+        @RequestParam(required = false) String after
     ) {
-        Pageable pageable = PageRequest.of(page, size, Sort.by(parseDirection(sortDir), sortBy));
-        return ResponseUtil.success("Reviews retrieved", reviewService.listReviews(productId, userId, pageable));
+        Sort sort = Sort.by(parseDirection(sortDir), sortBy);
+        PagedResponse<ReviewResponse> reviews;
+        if (after != null) {
+            reviews = reviewService.scrollReviews(productId, userId, after, size, sort);
+        } else {
+            Pageable pageable = PageRequest.of(page, size, sort);
+            reviews = reviewService.listReviews(productId, userId, pageable);
+        }
+        return entityTags.ok(etagOf(reviews), ResponseUtil.success("Reviews retrieved", reviews));
+    }
+
+    /**
+     * Reviews are never edited, so a page is identified by the ids it holds and its paging fields.
+     */
+    private String etagOf(PagedResponse<ReviewResponse> reviews) {
+        String ids = reviews.getItems() == null
+            ? ""
+            : reviews.getItems().stream()
+                .map(review -> Objects.toString(review.getId()))
+                .collect(Collectors.joining(","));
+        return entityTags.ofParts(
+            ids,
+            reviews.getPage(),
+            reviews.getSize(),
+            reviews.getTotalElements(),
+            reviews.getTotalPages(),
+            reviews.isHasNext(),
+            reviews.isHasPrevious(),
+            reviews.getNextCursor()
+        );
     }
 
     private Sort.Direction parseDirection(String sortDir) {
@@ -77,6 +77,7 @@ public class UserController {
      * @param size page size
      * @param sortBy field to sort by
      * @param sortDir sort direction
+     * @param after optional cursor; when present (even empty) keyset pagination is used instead of page
      * @return paged list of users
      */
     @GetMapping
@@ -84,9 +85,14 @@ public class UserController {
         @RequestParam(defaultValue = "0") int page,
         @RequestParam(defaultValue = "20") int size,
         @RequestParam(defaultValue = "createdAt") String sortBy,
-        @RequestParam(defaultValue = "desc") String sortDir
+        @RequestParam(defaultValue = "desc") String sortDir,
+        @RequestParam(required = false) String after
     ) {
-        Pageable pageable = PageRequest.of(page, size, Sort.by(parseDirection(sortDir), sortBy));
+        Sort sort = Sort.by(parseDirection(sortDir), sortBy);
+        if (after != null) {
+            return ResponseUtil.success("Users retrieved", userService.scrollUsers(after, size, sort));
+        }
+        Pageable pageable = PageRequest.of(page, size, sort);
         return ResponseUtil.success("Users retrieved", userService.listUsers(pageable));
     }
 
@@ -0,0 +1,37 @@
+package com.eyarko.ecom.dto;
+
+import java.util.Map;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CacheStatsResponse {
+    private String name;
+    private long estimatedSize;
+    /** Configured entry or weight bound; null when unbounded. */
+    private Long maximum;
+    private boolean weighted;
+    /** Total weight (estimated bytes) for weighted caches; null otherwise. */
+    private Long weightedSize;
+    private long hitCount;
+    private long missCount;
+    private double hitRate;
+    private long evictionCount;
+    private long loadSuccessCount;
+    private long loadFailureCount;
+    private double averageLoadPenaltyMillis;
+    /** Estimated heap retained by entries, extrapolated from a sample of entries. */
+    private long estimatedMemoryBytes;
+    private int sampledEntries;
+    private int inFlightLoads;
+    private long coalescedLoads;
+    /** Keys being loaded right now and the number of callers waiting on each, busiest first. */
+    private Map<String, Integer> inFlightKeys;
+}
@@ -0,0 +1,23 @@
+package com.eyarko.ecom.dto;
+
+import com.eyarko.ecom.entity.OrderTicketStatus;
+import java.time.Instant;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderTicketResponse {
+    private Long ticketId;
+    private OrderTicketStatus status;
+    private Long orderId;
+    private String failureReason;
+    private Instant createdAt;
+    private Instant processedAt;
+}
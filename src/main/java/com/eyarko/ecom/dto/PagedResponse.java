@@ -14,11 +14,15 @@ import lombok.Setter;
 @Builder
 public class PagedResponse<T> {
     private List<T> items;
-    private int page;
+    private Integer page;
     private int size;
-    private long totalElements;
-    private int totalPages;
+    private Long totalElements;
+    private Integer totalPages;
     private boolean hasNext;
     private boolean hasPrevious;
+    /**
+     * Opaque cursor for the next page in cursor mode; page and totals are null in that mode.
+     */
+    private String nextCursor;
 }
 
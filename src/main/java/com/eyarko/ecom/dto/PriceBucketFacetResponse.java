@@ -0,0 +1,22 @@
+package com.eyarko.ecom.dto;
+
+import java.math.BigDecimal;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PriceBucketFacetResponse {
+    private int bucket;
+    /** Inclusive lower bound. */
+    private BigDecimal min;
+    /** Exclusive upper bound; null for the last, open-ended bucket. */
+    private BigDecimal max;
+    private long count;
+}
@@ -0,0 +1,31 @@
+package com.eyarko.ecom.dto;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * One product in a catalog export, with its stock at the time it was read.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProductExportRow {
+    private Long id;
+    private Long categoryId;
+    private String categoryName;
+    private String name;
+    private String description;
+    private BigDecimal price;
+    private String imageUrl;
+    private BigDecimal avgRating;
+    private Integer reviewCount;
+    private Integer quantity;
+    private Instant createdAt;
+}
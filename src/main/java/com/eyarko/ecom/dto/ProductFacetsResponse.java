@@ -0,0 +1,27 @@
+package com.eyarko.ecom.dto;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * One page of faceted product results plus the count of every facet value. Each facet's counts apply
+ * the other selected facets but not its own.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProductFacetsResponse {
+    private PagedResponse<ProductResponse> products;
+    /** Matches per category id. */
+    private List<FacetCountResponse> categories;
+    private List<PriceBucketFacetResponse> priceBuckets;
+    /** Matches rated at least {@code value} stars. */
+    private List<FacetCountResponse> ratings;
+    private long inStockCount;
+}
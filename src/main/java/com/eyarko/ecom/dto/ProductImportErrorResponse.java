@@ -0,0 +1,18 @@
+package com.eyarko.ecom.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProductImportErrorResponse {
+    /** 1-based line in the uploaded body. */
+    private long line;
+    private String message;
+}
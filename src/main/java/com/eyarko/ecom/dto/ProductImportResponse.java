@@ -0,0 +1,23 @@
+package com.eyarko.ecom.dto;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProductImportResponse {
+    private long imported;
+    private long rejected;
+    private int batches;
+    /** False when the import stopped early; batches committed before the stop are kept. */
+    private boolean completed;
+    /** First rejected rows, up to {@code app.products.import.max-reported-errors}. */
+    private List<ProductImportErrorResponse> errors;
+}
@@ -0,0 +1,27 @@
+package com.eyarko.ecom.dto;
+
+import java.math.BigDecimal;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * One line of a bulk product import. The category is given either by id or by name.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProductImportRow {
+    private Long categoryId;
+    private String category;
+    private String name;
+    private String description;
+    private BigDecimal price;
+    private String imageUrl;
+    /** Initial stock; defaults to 0. */
+    private Integer quantity;
+}
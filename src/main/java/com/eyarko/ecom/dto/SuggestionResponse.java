@@ -0,0 +1,19 @@
+package com.eyarko.ecom.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SuggestionResponse {
+    /** {@code product} or {@code category}. */
+    private String type;
+    private Long id;
+    private String name;
+}
@@ -13,10 +13,13 @@ import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToMany;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import jakarta.persistence.Version;
 import java.math.BigDecimal;
 import java.time.Instant;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.List;
 import lombok.AllArgsConstructor;
@@ -26,6 +29,10 @@ import lombok.NoArgsConstructor;
 import lombok.Setter;
 /**
  * SQL-backed order model.
+ *
+ * <p>Ids come from the {@code orders_seq} sequence, reserved 50 at a time by Hibernate's pooled
+ * optimizer, so an order and its lines are inserted as JDBC batches; identity columns would force a
+ * round trip per row to read the generated key.
  */
 @Entity
 @Table(
@@ -43,7 +50,8 @@ import lombok.Setter;
 @Builder
 public class Order {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "orders_seq")
+    @SequenceGenerator(name = "orders_seq", sequenceName = "orders_seq", allocationSize = 50)
     @Column(name = "order_id")
     private Long id;
 
@@ -51,7 +59,7 @@ public class Order {
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
 
-    @Column(name = "order_date", insertable = false, updatable = false)
+    @Column(name = "order_date", updatable = false)
     private Instant orderDate;
 
     @Enumerated(EnumType.STRING)
@@ -68,6 +76,12 @@ public class Order {
     @Builder.Default
     @OneToMany(fetch = FetchType.LAZY, mappedBy = "order", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<OrderItem> items = new ArrayList<>();
-}
-
 
+    /** Stamps the order date on the entity so a new order can be returned without re-reading it. */
+    @PrePersist
+    void stampOrderDate() {
+        if (orderDate == null) {
+            orderDate = Instant.now().truncatedTo(ChronoUnit.MICROS);
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.eyarko.ecom.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+import java.time.Instant;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * An order request accepted in async checkout mode and waiting for, or done with, processing.
+ * <p>
+ * The request body is kept as JSON in {@code payload}; once processed the ticket points at the
+ * created order or carries the reason it was rejected.
+ */
+@Entity
+@Table(
+    name = "order_tickets",
+    indexes = @Index(name = "idx_order_tickets_status", columnList = "status, ticket_id")
+)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderTicket {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "ticket_id")
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    private OrderTicketStatus status;
+
+    @Column(name = "payload", nullable = false, columnDefinition = "TEXT")
+    private String payload;
+
+    @Column(name = "order_id")
+    private Long orderId;
+
+    @Column(name = "failure_reason")
+    private String failureReason;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private Instant createdAt;
+
+    @Column(name = "processed_at")
+    private Instant processedAt;
+
+    /** Failed processing attempts that were retried or, on the last one, gave up. */
+    @Column(name = "attempts", nullable = false)
+    private int attempts;
+
+    /** Set after a retryable failure; the ticket is not picked up again before then. */
+    @Column(name = "next_attempt_at")
+    private Instant nextAttemptAt;
+}
@@ -0,0 +1,10 @@
+package com.eyarko.ecom.entity;
+
+/**
+ * Processing state of a queued order request.
+ */
+public enum OrderTicketStatus {
+    QUEUED,
+    COMPLETED,
+    FAILED
+}
@@ -54,6 +54,17 @@ public class QueryController {
         return productService.getProduct(id);
     }
 
+    /**
+     * Fetches several products by id in one query.
+     *
+     * @param ids product ids
+     * @return products in the order requested; unknown ids are left out
+     */
+    @QueryMapping
+    public List<ProductResponse> productsByIds(@Argument List<Long> ids) {
+        return productService.getProductsByIds(ids);
+    }
+
     /**
      * Lists products via GraphQL with optional filters.
      *
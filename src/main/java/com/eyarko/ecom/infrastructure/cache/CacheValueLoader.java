@@ -0,0 +1,21 @@
+package com.eyarko.ecom.infrastructure.cache;
+
+/**
+ * Read-through loader for one named cache. A cache with a registered loader is built as a Caffeine
+ * loading cache, which coalesces concurrent misses per key and can refresh entries in the background
+ * once they pass {@code refresh-after-write}.
+ */
+public interface CacheValueLoader {
+    /**
+     * @return name of the cache this loader fills
+     */
+    String cacheName();
+
+    /**
+     * Loads the current value for a key.
+     *
+     * @param key cache key
+     * @return value to cache, or {@code null} if none exists (the entry is then dropped)
+     */
+    Object load(Object key);
+}
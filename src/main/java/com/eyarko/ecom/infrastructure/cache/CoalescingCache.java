@@ -0,0 +1,252 @@
+package com.eyarko.ecom.infrastructure.cache;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import org.springframework.cache.Cache;
+
+/**
+ * Cache decorator that lets concurrent misses for the same key share one load.
+ *
+ * <p>Applies to {@code @Cacheable(sync = true)} methods, which read through
+ * {@link #get(Object, Callable)}. The first caller to miss runs the method and publishes the result
+ * through a {@link CompletableFuture}; callers that miss while it is running wait on that future
+ * instead of issuing the same queries. The load runs on the caller's thread outside the underlying
+ * cache, so unlike its per-key compute no hash bin is locked while it runs and loads of neighbouring
+ * keys do not block each other.
+ *
+ * <p>An eviction detaches the load in flight for its key, and a detached load's result is handed to
+ * its callers but not stored: it may have been read before the change the eviction announced. The
+ * result is stored inside the in-flight map's own compute for the key, so an eviction either
+ * detaches the load before the store or removes the stored value right after it.
+ */
+public class CoalescingCache implements Cache {
+    /** Result of a batch load for a key it found no value for. */
+    private static final Object ABSENT = new Object();
+
+    private final Cache delegate;
+    private final Map<Object, InFlight> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder loads = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+
+    public CoalescingCache(Cache delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public String getName() {
+        return delegate.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return delegate.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        return delegate.get(key);
+    }
+
+    @Override
+    public <T> T get(Object key, Class<T> type) {
+        return delegate.get(key, type);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        ValueWrapper cached = delegate.get(key);
+        if (cached != null) {
+            return (T) cached.get();
+        }
+        InFlight mine = new InFlight();
+        InFlight running = inFlight.putIfAbsent(key, mine);
+        if (running != null) {
+            coalesced.increment();
+            running.waiters.incrementAndGet();
+            Object shared;
+            try {
+                shared = await(running.result);
+            } finally {
+                running.waiters.decrementAndGet();
+            }
+            // A batch load that found nothing for the key leaves it to this caller's own loader.
+            return shared == ABSENT ? get(key, valueLoader) : (T) shared;
+        }
+        loads.increment();
+        try {
+            T value;
+            try {
+                value = valueLoader.call();
+            } catch (Exception ex) {
+                throw new ValueRetrievalException(key, valueLoader, ex);
+            }
+            publish(key, mine, value);
+            mine.result.complete(value);
+            return value;
+        } catch (RuntimeException | Error ex) {
+            mine.result.completeExceptionally(ex);
+            throw ex;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    /**
+     * Loads several missing keys with one call and stores the results. Every key not already loading
+     * is claimed as an in-flight load before the call, so concurrent misses on it wait for this batch,
+     * and its result is stored on the same terms as a single load: not at all if the key was evicted
+     * meanwhile. Keys that were already loading are loaded too but left for their own load to store.
+     *
+     * @param keys keys missing from the cache
+     * @param loader loads the given keys at once, leaving out keys that have no value
+     * @return whatever the loader returned
+     */
+    public <K, V> Map<K, V> loadAll(Collection<K> keys, Function<Collection<K>, Map<K, V>> loader) {
+        Map<K, InFlight> claimed = new LinkedHashMap<>();
+        for (K key : keys) {
+            InFlight mine = new InFlight();
+            if (inFlight.putIfAbsent(key, mine) == null) {
+                claimed.put(key, mine);
+            }
+        }
+        loads.increment();
+        Map<K, V> values;
+        try {
+            values = loader.apply(keys);
+        } catch (RuntimeException | Error ex) {
+            claimed.forEach((key, load) -> {
+                load.result.completeExceptionally(ex);
+                inFlight.remove(key, load);
+            });
+            throw ex;
+        }
+        claimed.forEach((key, load) -> {
+            V value = values.get(key);
+            if (value != null) {
+                publish(key, load, value);
+            }
+            load.result.complete(value != null ? value : ABSENT);
+            inFlight.remove(key, load);
+        });
+        return values;
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        delegate.put(key, value);
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        return delegate.putIfAbsent(key, value);
+    }
+
+    /**
+     * Evicts the entry and detaches any load in flight for it, so later callers start a fresh load
+     * instead of joining one that may have read the pre-eviction state.
+     */
+    @Override
+    public void evict(Object key) {
+        inFlight.remove(key);
+        delegate.evict(key);
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        inFlight.remove(key);
+        return delegate.evictIfPresent(key);
+    }
+
+    @Override
+    public void clear() {
+        inFlight.clear();
+        delegate.clear();
+    }
+
+    @Override
+    public boolean invalidate() {
+        inFlight.clear();
+        return delegate.invalidate();
+    }
+
+    /**
+     * @return number of keys with a load currently in flight
+     */
+    public int inFlightCount() {
+        return inFlight.size();
+    }
+
+    /**
+     * @return total loads run on a miss since startup
+     */
+    public long loadCount() {
+        return loads.sum();
+    }
+
+    /**
+     * @return total misses that waited on another caller's load instead of loading themselves
+     */
+    public long coalescedCount() {
+        return coalesced.sum();
+    }
+
+    /**
+     * Snapshot of the keys being loaded right now with the number of callers waiting on each, busiest
+     * first.
+     *
+     * @param limit maximum number of keys to return
+     * @return key to waiter count
+     */
+    public Map<String, Integer> inFlightWaiters(int limit) {
+        Map<String, Integer> result = new LinkedHashMap<>();
+        inFlight.entrySet().stream()
+            .sorted(Comparator.comparingInt((Map.Entry<Object, InFlight> e) -> e.getValue().waiters.get()).reversed())
+            .limit(limit)
+            .forEach(e -> result.put(String.valueOf(e.getKey()), e.getValue().waiters.get()));
+        return result;
+    }
+
+    /**
+     * Stores a loaded value unless its load was detached by an eviction, and keeps a value someone
+     * else stored meanwhile. Ends the load's in-flight entry either way.
+     */
+    private void publish(Object key, InFlight load, Object value) {
+        inFlight.computeIfPresent(key, (ignored, running) -> {
+            if (running != load) {
+                return running;
+            }
+            delegate.putIfAbsent(key, value);
+            return null;
+        });
+    }
+
+    private static Object await(CompletableFuture<Object> result) {
+        try {
+            return result.join();
+        } catch (CompletionException ex) {
+            Throwable cause = ex.getCause();
+            if (cause instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw ex;
+        }
+    }
+
+    private static final class InFlight {
+        private final CompletableFuture<Object> result = new CompletableFuture<>();
+        private final AtomicInteger waiters = new AtomicInteger();
+    }
+}
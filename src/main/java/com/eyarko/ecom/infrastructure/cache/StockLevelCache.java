@@ -0,0 +1,388 @@
+package com.eyarko.ecom.infrastructure.cache;
+
+import com.eyarko.ecom.entity.Inventory;
+import com.eyarko.ecom.repository.InventoryQuantityView;
+import com.eyarko.ecom.repository.InventoryRepository;
+import com.eyarko.ecom.util.TransactionUtil;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.StampedLock;
+import org.springframework.stereotype.Component;
+
+/**
+ * Current stock quantity per product, held apart from the cached product bodies.
+ *
+ * <p>Stock changes on almost every order while the rest of a product rarely does, so product detail
+ * and listing caches store bodies without stock and the product service composes the quantity from
+ * here at response time. Entries are a primitive {@code long -> int} open-addressing table (no boxing
+ * on the read path) guarded by a {@link StampedLock}; reads are optimistic and lock-free unless they
+ * race a writer.
+ *
+ * <p>Every entry carries the inventory row version it was read at. Writers publish after their
+ * transaction commits and a write never replaces a newer version, so a slow miss-load cannot
+ * overwrite a quantity that an order has already committed.
+ */
+@Component
+public class StockLevelCache {
+    /** Returned by {@link #quantity(long)} when the product is not cached. */
+    public static final int UNKNOWN = -1;
+
+    private static final long EMPTY = 0L;
+    private static final long NO_ROW_VERSION = -1L;
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final InventoryRepository inventoryRepository;
+    private final StampedLock lock = new StampedLock();
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+    private Table table = new Table(INITIAL_CAPACITY);
+
+    public StockLevelCache(InventoryRepository inventoryRepository) {
+        this.inventoryRepository = inventoryRepository;
+    }
+
+    /**
+     * Registers a callback that receives the cached quantity after every store, outside the lock.
+     *
+     * @param listener callback
+     */
+    public void addListener(Listener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Returns the cached quantity for a product without touching the database.
+     *
+     * @param productId product id
+     * @return quantity, or {@link #UNKNOWN} when not cached
+     */
+    public int quantity(long productId) {
+        long stamp = lock.tryOptimisticRead();
+        int result = table.get(productId);
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                result = table.get(productId);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns quantities for the given products, loading misses from the inventory table in one query.
+     * Products without an inventory row report zero.
+     *
+     * @param productIds product ids
+     * @return quantity per product id
+     */
+    public Map<Long, Integer> quantities(Collection<Long> productIds) {
+        Map<Long, Integer> result = new HashMap<>();
+        List<Long> misses = new ArrayList<>();
+        for (Long productId : productIds) {
+            if (productId == null) {
+                continue;
+            }
+            int qty = quantity(productId);
+            if (qty == UNKNOWN) {
+                misses.add(productId);
+            } else {
+                result.put(productId, qty);
+            }
+        }
+        if (!misses.isEmpty()) {
+            result.putAll(load(misses));
+        }
+        return result;
+    }
+
+    public int quantityOrLoad(long productId) {
+        int qty = quantity(productId);
+        return qty != UNKNOWN ? qty : quantities(List.of(productId)).getOrDefault(productId, 0);
+    }
+
+    /**
+     * Publishes the inventory row's quantity once the current transaction commits. The entity is read
+     * at commit time, so the version reflects the flushed update.
+     *
+     * @param inventory inventory row written in the current transaction
+     */
+    public void updateAfterCommit(Inventory inventory) {
+        if (inventory == null || inventory.getProduct() == null) {
+            return;
+        }
+        Long productId = inventory.getProduct().getId();
+        TransactionUtil.afterCommit(() -> put(
+            productId,
+            inventory.getQuantity() == null ? 0 : inventory.getQuantity(),
+            inventory.getVersion() == null ? 0L : inventory.getVersion()
+        ));
+    }
+
+    /**
+     * Publishes a quantity written outside the persistence context once the current transaction commits.
+     *
+     * @param productId product id
+     * @param quantity quantity after the write
+     * @param version inventory row version after the write
+     */
+    public void updateAfterCommit(long productId, int quantity, long version) {
+        TransactionUtil.afterCommit(() -> put(productId, quantity, version));
+    }
+
+    /**
+     * Applies a known change to a cached quantity once the current transaction commits, for writes
+     * whose resulting total is not known inside the transaction, such as a single stock shard while
+     * other shards change concurrently. Uncached products are left to load on their next read.
+     *
+     * <p>{@code version} is the product's stock version as read inside the writing transaction after
+     * the write: it counts this write and every write committed before that read. The delta applies
+     * only to an entry at exactly {@code version - 1}, which is the committed state without this
+     * write; any other entry may already include it, or be missing writes it cannot account for, so
+     * the product is re-read instead.
+     *
+     * @param productId product id
+     * @param delta change in quantity
+     * @param version product stock version including this write
+     */
+    public void adjustAfterCommit(long productId, int delta, long version) {
+        TransactionUtil.afterCommit(() -> adjust(productId, delta, version));
+    }
+
+    /**
+     * Re-reads a product's committed stock once the current transaction commits.
+     *
+     * @param productId product id
+     */
+    public void reloadAfterCommit(long productId) {
+        TransactionUtil.afterCommit(() -> load(List.of(productId)));
+    }
+
+    /**
+     * Drops a product's entry and re-reads it once the current transaction commits. For when the cached
+     * version may now be ahead of the row's, e.g. after shards were removed or a write that had already
+     * been offered to the cache was rolled back to a savepoint; a plain reload would be ignored.
+     *
+     * @param productId product id
+     */
+    public void replaceAfterCommit(long productId) {
+        TransactionUtil.afterCommit(() -> {
+            remove(productId);
+            load(List.of(productId));
+        });
+    }
+
+    /**
+     * Stores a quantity unless a newer inventory version is already cached.
+     *
+     * @param productId product id
+     * @param quantity quantity
+     * @param version inventory row version the quantity was read at
+     */
+    public void put(long productId, int quantity, long version) {
+        if (productId == EMPTY) {
+            return;
+        }
+        int stored;
+        long stamp = lock.writeLock();
+        try {
+            if (table.needsResize()) {
+                table = table.resized();
+            }
+            table.put(productId, Math.max(quantity, 0), version);
+            stored = table.get(productId);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+        for (Listener listener : listeners) {
+            listener.stockChanged(productId, stored);
+        }
+    }
+
+    private void adjust(long productId, int delta, long version) {
+        Adjusted outcome;
+        int stored = UNKNOWN;
+        long stamp = lock.writeLock();
+        try {
+            outcome = table.adjust(productId, delta, version);
+            if (outcome == Adjusted.APPLIED) {
+                stored = table.get(productId);
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+        if (outcome == Adjusted.STALE) {
+            load(List.of(productId));
+        } else if (outcome == Adjusted.APPLIED) {
+            for (Listener listener : listeners) {
+                listener.stockChanged(productId, stored);
+            }
+        }
+    }
+
+    private Map<Long, Integer> load(List<Long> productIds) {
+        Map<Long, Integer> loaded = new HashMap<>();
+        for (InventoryQuantityView view : inventoryRepository.findQuantitiesByProductIds(productIds)) {
+            int qty = view.getQuantity() == null ? 0 : view.getQuantity();
+            long version = view.getVersion() == null ? 0L : view.getVersion();
+            put(view.getProductId(), qty, version);
+            loaded.put(view.getProductId(), qty);
+        }
+        for (Long productId : productIds) {
+            if (!loaded.containsKey(productId)) {
+                put(productId, 0, NO_ROW_VERSION);
+                loaded.put(productId, 0);
+            }
+        }
+        return loaded;
+    }
+
+    public void remove(long productId) {
+        long stamp = lock.writeLock();
+        try {
+            table.remove(productId);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public int size() {
+        long stamp = lock.readLock();
+        try {
+            return table.size;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Receives stock levels as they are stored.
+     */
+    @FunctionalInterface
+    public interface Listener {
+        void stockChanged(long productId, int quantity);
+    }
+
+    private enum Adjusted {
+        APPLIED,
+        ABSENT,
+        STALE
+    }
+
+    /**
+     * Linear-probing table kept at most half full. Arrays are replaced as a unit on resize so an
+     * optimistic reader always sees arrays of one generation.
+     */
+    private static final class Table {
+        private final long[] keys;
+        private final int[] quantities;
+        private final long[] versions;
+        private final int mask;
+        private int size;
+
+        private Table(int capacity) {
+            keys = new long[capacity];
+            quantities = new int[capacity];
+            versions = new long[capacity];
+            mask = capacity - 1;
+        }
+
+        private int get(long key) {
+            int slot = slot(key);
+            for (int probes = 0; probes <= mask; probes++) {
+                long current = keys[slot];
+                if (current == key) {
+                    return quantities[slot];
+                }
+                if (current == EMPTY) {
+                    return UNKNOWN;
+                }
+                slot = (slot + 1) & mask;
+            }
+            return UNKNOWN;
+        }
+
+        private void put(long key, int quantity, long version) {
+            int slot = slot(key);
+            while (keys[slot] != EMPTY && keys[slot] != key) {
+                slot = (slot + 1) & mask;
+            }
+            if (keys[slot] == key) {
+                if (versions[slot] > version) {
+                    return;
+                }
+            } else {
+                keys[slot] = key;
+                size++;
+            }
+            quantities[slot] = quantity;
+            versions[slot] = version;
+        }
+
+        private Adjusted adjust(long key, int delta, long version) {
+            int slot = slot(key);
+            while (keys[slot] != key) {
+                if (keys[slot] == EMPTY) {
+                    return Adjusted.ABSENT;
+                }
+                slot = (slot + 1) & mask;
+            }
+            if (versions[slot] != version - 1) {
+                return Adjusted.STALE;
+            }
+            quantities[slot] = Math.max(quantities[slot] + delta, 0);
+            versions[slot] = version;
+            return Adjusted.APPLIED;
+        }
+
+        private void remove(long key) {
+            int slot = slot(key);
+            while (keys[slot] != key) {
+                if (keys[slot] == EMPTY) {
+                    return;
+                }
+                slot = (slot + 1) & mask;
+            }
+            // Backward-shift deletion keeps probe chains intact without tombstones.
+            int hole = slot;
+            int next = (hole + 1) & mask;
+            while (keys[next] != EMPTY) {
+                int home = slot(keys[next]);
+                if (((next - home) & mask) >= ((next - hole) & mask)) {
+                    keys[hole] = keys[next];
+                    quantities[hole] = quantities[next];
+                    versions[hole] = versions[next];
+                    hole = next;
+                }
+                next = (next + 1) & mask;
+            }
+            keys[hole] = EMPTY;
+            quantities[hole] = 0;
+            versions[hole] = 0L;
+            size--;
+        }
+
+        private boolean needsResize() {
+            return (size + 1) * 2 > keys.length;
+        }
+
+        private Table resized() {
+            Table bigger = new Table(keys.length * 2);
+            for (int i = 0; i < keys.length; i++) {
+                if (keys[i] != EMPTY) {
+                    bigger.put(keys[i], quantities[i], versions[i]);
+                }
+            }
+            return bigger;
+        }
+
+        private int slot(long key) {
+            long hash = key * 0x9E3779B97F4A7C15L;
+            return (int) (hash ^ (hash >>> 32)) & mask;
+        }
+    }
+}
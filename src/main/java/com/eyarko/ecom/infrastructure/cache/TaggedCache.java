@@ -0,0 +1,240 @@
+package com.eyarko.ecom.infrastructure.cache;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import org.springframework.cache.Cache;
+
+/**
+ * Cache decorator that records a set of tags for every stored value and can evict all entries
+ * carrying a tag.
+ *
+ * <p>Tags are derived from the value itself when it is stored (for example, the product IDs on a
+ * cached listing page), so callers keep using {@code @Cacheable} unchanged. The tag index is a
+ * secondary structure: entries that the underlying cache drops on its own are pruned lazily.
+ *
+ * <p>Stores hold a shared lock from indexing a value until it lands in the underlying cache, and tag
+ * eviction an exclusive one, so an eviction never runs in between and leaves the value untracked. A
+ * read-through load runs without the lock, so a slow listing query never holds up evictions or hits,
+ * and the lock is never taken inside the underlying cache's own load, where it would wait on an
+ * eviction that in turn waits for that load. Instead every tag eviction and clear is numbered, and
+ * once the load has stored its value, the value is indexed under the shared lock, or dropped if its
+ * load started before an eviction of one of its tags (or a clear): it may predate the change.
+ */
+public class TaggedCache implements Cache {
+    private static final int PRUNE_SLACK = 1024;
+
+    private final Cache delegate;
+    private final Function<Object, Collection<String>> tagger;
+    private final Map<String, Set<Object>> keysByTag = new ConcurrentHashMap<>();
+    private final Map<Object, Collection<String>> tagsByKey = new ConcurrentHashMap<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final AtomicLong generation = new AtomicLong();
+    private final Map<String, Long> evictedAt = new ConcurrentHashMap<>();
+    private volatile long clearedAt;
+
+    public TaggedCache(Cache delegate, Function<Object, Collection<String>> tagger) {
+        this.delegate = delegate;
+        this.tagger = tagger;
+    }
+
+    /**
+     * Evicts every entry whose value was stored with the given tag.
+     *
+     * @param tag tag such as {@code product:42}
+     */
+    public void evictTag(String tag) {
+        lock.writeLock().lock();
+        try {
+            evictedAt.put(tag, generation.incrementAndGet());
+            pruneIfNeeded();
+            Set<Object> keys = keysByTag.remove(tag);
+            if (keys == null) {
+                return;
+            }
+            for (Object key : keys) {
+                delegate.evict(key);
+                untrack(key);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @return the cache this decorator indexes
+     */
+    public Cache getDelegate() {
+        return delegate;
+    }
+
+    @Override
+    public String getName() {
+        return delegate.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return delegate.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        return delegate.get(key);
+    }
+
+    @Override
+    public <T> T get(Object key, Class<T> type) {
+        return delegate.get(key, type);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        ValueWrapper cached = delegate.get(key);
+        if (cached != null) {
+            return (T) cached.get();
+        }
+        long loadStarted = generation.get();
+        T value = delegate.get(key, valueLoader);
+        lock.readLock().lock();
+        try {
+            if (changedSince(value, loadStarted)) {
+                evict(key);
+            } else {
+                track(key, value);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return value;
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        lock.readLock().lock();
+        try {
+            track(key, value);
+            delegate.put(key, value);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        lock.readLock().lock();
+        try {
+            ValueWrapper existing = delegate.putIfAbsent(key, value);
+            if (existing == null) {
+                track(key, value);
+            }
+            return existing;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void evict(Object key) {
+        delegate.evict(key);
+        untrack(key);
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        boolean evicted = delegate.evictIfPresent(key);
+        untrack(key);
+        return evicted;
+    }
+
+    @Override
+    public void clear() {
+        markCleared();
+        delegate.clear();
+        keysByTag.clear();
+        tagsByKey.clear();
+    }
+
+    @Override
+    public boolean invalidate() {
+        markCleared();
+        boolean invalidated = delegate.invalidate();
+        keysByTag.clear();
+        tagsByKey.clear();
+        return invalidated;
+    }
+
+    int trackedKeyCount() {
+        return tagsByKey.size();
+    }
+
+    /**
+     * Whether a tag of {@code value} was evicted, or the cache cleared, after generation {@code since}.
+     */
+    private boolean changedSince(Object value, long since) {
+        if (clearedAt > since) {
+            return true;
+        }
+        Collection<String> tags = tagger.apply(value);
+        return tags != null && tags.stream().anyMatch(tag -> evictedAt.getOrDefault(tag, 0L) > since);
+    }
+
+    /**
+     * Numbers a clear. Every load that started before it is now caught by {@link #changedSince}
+     * through {@code clearedAt}, so older per-tag numbers can be forgotten.
+     */
+    private void markCleared() {
+        clearedAt = generation.incrementAndGet();
+        evictedAt.values().removeIf(evicted -> evicted < clearedAt);
+    }
+
+    private void track(Object key, Object value) {
+        untrack(key);
+        Collection<String> tags = tagger.apply(value);
+        if (tags == null || tags.isEmpty()) {
+            return;
+        }
+        tagsByKey.put(key, tags);
+        for (String tag : tags) {
+            keysByTag.computeIfAbsent(tag, ignored -> ConcurrentHashMap.newKeySet()).add(key);
+        }
+    }
+
+    private void untrack(Object key) {
+        Collection<String> tags = tagsByKey.remove(key);
+        if (tags == null) {
+            return;
+        }
+        for (String tag : tags) {
+            keysByTag.computeIfPresent(tag, (ignored, keys) -> {
+                keys.remove(key);
+                return keys.isEmpty() ? null : keys;
+            });
+        }
+    }
+
+    /**
+     * Drops index entries for keys the underlying Caffeine cache has already expired or evicted, once
+     * the index has grown noticeably past the cache itself. Runs under the exclusive lock so no store
+     * is in flight between being indexed and reaching the cache.
+     */
+    private void pruneIfNeeded() {
+        if (!(delegate.getNativeCache() instanceof com.github.benmanes.caffeine.cache.Cache<?, ?> nativeCache)) {
+            return;
+        }
+        if (tagsByKey.size() <= nativeCache.estimatedSize() + PRUNE_SLACK) {
+            return;
+        }
+        Map<?, ?> live = nativeCache.asMap();
+        tagsByKey.keySet().stream()
+            .filter(key -> !live.containsKey(key))
+            .toList()
+            .forEach(this::untrack);
+    }
+}
@@ -0,0 +1,70 @@
+package com.eyarko.ecom.infrastructure.datasource;
+
+import com.eyarko.ecom.security.UserPrincipal;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.time.Duration;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+/**
+ * Remembers which users committed a write recently, so their reads can skip the replica until it has
+ * had time to replay that write.
+ *
+ * <p>Entries expire after the configured window, which should cover the replica's usual lag.
+ * Unauthenticated callers are never tracked: they have no writes of their own to read back.
+ */
+public class ReadYourWritesTracker {
+    private final Cache<String, Boolean> recentWriters;
+
+    public ReadYourWritesTracker(Duration window, long maxTrackedUsers) {
+        this.recentWriters = Caffeine.newBuilder()
+            .expireAfterWrite(window)
+            .maximumSize(maxTrackedUsers)
+            .build();
+    }
+
+    /**
+     * Records that the current user just committed a write.
+     */
+    public void recordWrite() {
+        String user = currentUser();
+        if (user != null) {
+            recentWriters.put(user, Boolean.TRUE);
+        }
+    }
+
+    /**
+     * Records a write committed on a user's behalf by a thread that has no security context, such as a
+     * background worker.
+     *
+     * @param userId id of the user the write belongs to
+     */
+    public void recordWriteFor(Long userId) {
+        if (userId != null) {
+            recentWriters.put("id:" + userId, Boolean.TRUE);
+        }
+    }
+
+    /**
+     * @return true when the current user wrote within the window and must read from the primary
+     */
+    public boolean requiresPrimary() {
+        String user = currentUser();
+        return user != null && recentWriters.getIfPresent(user) != null;
+    }
+
+    private static String currentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null
+            || !authentication.isAuthenticated()
+            || authentication instanceof AnonymousAuthenticationToken) {
+            return null;
+        }
+        if (authentication.getPrincipal() instanceof UserPrincipal principal && principal.getId() != null) {
+            return "id:" + principal.getId();
+        }
+        return "name:" + authentication.getName();
+    }
+}
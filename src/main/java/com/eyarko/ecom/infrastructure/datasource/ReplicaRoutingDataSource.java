@@ -0,0 +1,91 @@
+package com.eyarko.ecom.infrastructure.datasource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.Map;
+import javax.sql.DataSource;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Sends read-only transactions to the replica pool and everything else to the primary.
+ *
+ * <p>The route is chosen when a connection is first requested, from the transaction's read-only flag.
+ * Spring sets that flag only after the transaction manager has begun, so this data source must sit
+ * behind a {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}, which defers
+ * fetching the physical connection to the first statement.
+ *
+ * <p>Work outside a transaction goes to the primary. A committed read-write transaction marks its user
+ * in the {@link ReadYourWritesTracker}, and that user's read-only transactions stay on the primary
+ * until the window passes, so a user never reads a replica that has not yet seen their own change.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+    public static final String PRIMARY = "primary";
+    public static final String REPLICA = "replica";
+
+    private final ReadYourWritesTracker tracker;
+    private final Counter outsideTransaction;
+    private final Counter replicaReads;
+    private final Counter pinnedReads;
+    private final Counter writes;
+
+    public ReplicaRoutingDataSource(
+        DataSource primary,
+        DataSource replica,
+        ReadYourWritesTracker tracker,
+        MeterRegistry meterRegistry
+    ) {
+        this.tracker = tracker;
+        setTargetDataSources(Map.of(PRIMARY, primary, REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        setLenientFallback(false);
+        this.outsideTransaction = routeCounter(meterRegistry, PRIMARY, "no_transaction");
+        this.replicaReads = routeCounter(meterRegistry, REPLICA, "read_only");
+        this.pinnedReads = routeCounter(meterRegistry, PRIMARY, "read_your_writes");
+        this.writes = routeCounter(meterRegistry, PRIMARY, "read_write");
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            increment(outsideTransaction);
+            return PRIMARY;
+        }
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            increment(writes);
+            if (TransactionSynchronizationManager.isSynchronizationActive()) {
+                // Asked once per transaction, when it first touches the database.
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        tracker.recordWrite();
+                    }
+                });
+            }
+            return PRIMARY;
+        }
+        if (tracker.requiresPrimary()) {
+            increment(pinnedReads);
+            return PRIMARY;
+        }
+        increment(replicaReads);
+        return REPLICA;
+    }
+
+    private static Counter routeCounter(MeterRegistry registry, String target, String reason) {
+        if (registry == null) {
+            return null;
+        }
+        return Counter.builder("app.datasource.routes")
+            .description("Connections handed out by the routing data source")
+            .tags("target", target, "reason", reason)
+            .register(registry);
+    }
+
+    private static void increment(Counter counter) {
+        if (counter != null) {
+            counter.increment();
+        }
+    }
+}
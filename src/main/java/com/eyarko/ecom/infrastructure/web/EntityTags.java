@@ -0,0 +1,141 @@
+package com.eyarko.ecom.infrastructure.web;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.servlet.http.HttpServletRequest;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.HexFormat;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+/**
+ * Strong ETags and conditional-GET headers for read endpoints.
+ *
+ * <p>Tags are content hashes, so every instance computes the same tag for the same data. Values
+ * served from the Spring caches are immutable and shared, so their hash is computed once per cached
+ * instance (keys are weak and compared by identity) and later requests only mix in the live parts,
+ * such as stock levels. Returning the tag on a {@link ResponseEntity} lets Spring MVC answer a
+ * matching {@code If-None-Match} with 304 before the body is serialized.
+ *
+ * <p>{@code Last-Modified} is the first time this instance served the current tag for a URL. It is
+ * advisory; clients should prefer the ETag, which takes precedence when both are sent.
+ */
+@Component
+public class EntityTags {
+    private static final int TAG_BYTES = 16;
+
+    private final ObjectMapper objectMapper;
+    private final CacheControl cacheControl;
+    private final Cache<Object, byte[]> contentHashes;
+    private final Cache<String, Served> served;
+
+    public EntityTags(
+        ObjectMapper objectMapper,
+        @Value("${app.http.etag.max-age:0s}") Duration maxAge,
+        @Value("${app.http.etag.tracked-resources:50000}") long trackedResources
+    ) {
+        this.objectMapper = objectMapper;
+        this.cacheControl = CacheControl.maxAge(maxAge).mustRevalidate();
+        this.contentHashes = Caffeine.newBuilder().weakKeys().maximumSize(trackedResources).build();
+        this.served = Caffeine.newBuilder().maximumSize(trackedResources).build();
+    }
+
+    /**
+     * Tag for a response built from a cached value plus live data.
+     *
+     * @param cachedValue value returned by a cache; its content hash is memoized per instance
+     * @param liveParts values added at request time, in a stable order
+     * @return quoted strong ETag
+     */
+    public String of(Object cachedValue, Object... liveParts) {
+        MessageDigest digest = newDigest();
+        if (cachedValue != null) {
+            digest.update(contentHashes.get(cachedValue, this::contentHash));
+        }
+        return finish(digest, liveParts);
+    }
+
+    /**
+     * Tag computed from identifying parts only, for data that never changes in place.
+     *
+     * @param parts values that together identify the representation
+     * @return quoted strong ETag
+     */
+    public String ofParts(Object... parts) {
+        return finish(newDigest(), parts);
+    }
+
+    /**
+     * Builds a 200 response carrying the tag, {@code Last-Modified} and {@code Cache-Control}.
+     *
+     * @param etag quoted tag from {@link #of} or {@link #ofParts}
+     * @param body response body
+     * @return response entity; Spring turns it into 304 when the request's validators match
+     */
+    public <T> ResponseEntity<T> ok(String etag, T body) {
+        String resource = currentResource(etag);
+        Served current = served.asMap().compute(resource, (key, previous) ->
+            previous != null && previous.etag().equals(etag)
+                ? previous
+                : new Served(etag, Instant.now().truncatedTo(ChronoUnit.SECONDS))
+        );
+        return ResponseEntity.ok()
+            .eTag(etag)
+            .lastModified(current.since())
+            .cacheControl(cacheControl)
+            .body(body);
+    }
+
+    private byte[] contentHash(Object value) {
+        MessageDigest digest = newDigest();
+        try (OutputStream out = new DigestOutputStream(OutputStream.nullOutputStream(), digest)) {
+            objectMapper.writeValue(out, value);
+        } catch (IOException ex) {
+            throw new IllegalStateException("Could not hash response body", ex);
+        }
+        return digest.digest();
+    }
+
+    private static String finish(MessageDigest digest, Object[] parts) {
+        for (Object part : parts) {
+            digest.update(String.valueOf(part).getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+        }
+        return "\"" + HexFormat.of().formatHex(digest.digest(), 0, TAG_BYTES) + "\"";
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 not available", ex);
+        }
+    }
+
+    private static String currentResource(String fallback) {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (!(attributes instanceof ServletRequestAttributes servlet)) {
+            return fallback;
+        }
+        HttpServletRequest request = servlet.getRequest();
+        String query = request.getQueryString();
+        return query == null ? request.getRequestURI() : request.getRequestURI() + "?" + query;
+    }
+
+    private record Served(String etag, Instant since) {
+    }
+}
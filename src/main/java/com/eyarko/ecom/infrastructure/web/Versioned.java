@@ -0,0 +1,11 @@
+package com.eyarko.ecom.infrastructure.web;
+
+/**
+ * A response body together with the strong ETag that identifies its content.
+ *
+ * @param body response body
+ * @param etag quoted entity tag
+ * @param <T> body type
+ */
+public record Versioned<T>(T body, String etag) {
+}
@@ -3,6 +3,8 @@ package com.eyarko.ecom.mapper;
 import com.eyarko.ecom.dto.InventoryResponse;
 import com.eyarko.ecom.entity.Inventory;
 import com.eyarko.ecom.entity.Product;
+import com.eyarko.ecom.repository.InventoryStockRepository.StockLevel;
+import com.eyarko.ecom.util.InventoryStatusDisplay;
 
 public final class InventoryMapper {
     private InventoryMapper() {
@@ -20,6 +22,16 @@ public final class InventoryMapper {
             .lastUpdated(inventory.getLastUpdated())
             .build();
     }
-}
-
 
+    public static InventoryResponse toResponse(StockLevel level) {
+        if (level == null) {
+            return null;
+        }
+        return InventoryResponse.builder()
+            .productId(level.productId())
+            .quantity(level.quantity())
+            .stockStatus(InventoryStatusDisplay.fromQuantity(level.quantity()))
+            .lastUpdated(level.lastUpdated())
+            .build();
+    }
+}
@@ -2,10 +2,14 @@ package com.eyarko.ecom.mapper;
 
 import com.eyarko.ecom.dto.OrderItemResponse;
 import com.eyarko.ecom.dto.OrderResponse;
+import com.eyarko.ecom.dto.OrderTicketResponse;
 import com.eyarko.ecom.entity.Order;
 import com.eyarko.ecom.entity.OrderItem;
+import com.eyarko.ecom.entity.OrderTicket;
 import com.eyarko.ecom.entity.Product;
 import com.eyarko.ecom.entity.User;
+import com.eyarko.ecom.repository.OrderItemRow;
+import com.eyarko.ecom.repository.OrderSummaryRow;
 import java.util.Collections;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -34,6 +38,55 @@ public final class OrderMapper {
             .build();
     }
 
+    /**
+     * Builds an order response from projected listing rows.
+     *
+     * @param order order header
+     * @param items the order's lines, in display order
+     */
+    public static OrderResponse toResponse(OrderSummaryRow order, List<OrderItemRow> items) {
+        if (order == null) {
+            return null;
+        }
+        return OrderResponse.builder()
+            .id(order.id())
+            .userId(order.userId())
+            .status(order.status())
+            .totalAmount(order.totalAmount())
+            .orderDate(order.orderDate())
+            .items((items == null ? Collections.<OrderItemRow>emptyList() : items).stream()
+                .map(OrderMapper::toItemResponse)
+                .collect(Collectors.toList()))
+            .build();
+    }
+
+    /**
+     * Header columns of a loaded order; the items collection is not touched.
+     */
+    public static OrderSummaryRow toSummaryRow(Order order) {
+        return new OrderSummaryRow(
+            order.getId(),
+            safeUserId(order),
+            order.getStatus(),
+            order.getTotalAmount(),
+            order.getOrderDate()
+        );
+    }
+
+    public static OrderTicketResponse toTicketResponse(OrderTicket ticket) {
+        if (ticket == null) {
+            return null;
+        }
+        return OrderTicketResponse.builder()
+            .ticketId(ticket.getId())
+            .status(ticket.getStatus())
+            .orderId(ticket.getOrderId())
+            .failureReason(ticket.getFailureReason())
+            .createdAt(ticket.getCreatedAt())
+            .processedAt(ticket.getProcessedAt())
+            .build();
+    }
+
     private static Long safeUserId(Order order) {
         try {
             User user = order.getUser();
@@ -57,6 +110,13 @@ public final class OrderMapper {
             .priceAtTime(item.getPriceAtTime())
             .build();
     }
-}
-
 
+    private static OrderItemResponse toItemResponse(OrderItemRow item) {
+        return OrderItemResponse.builder()
+            .productId(item.productId())
+            .productName(item.productName())
+            .quantity(item.quantity())
+            .priceAtTime(item.priceAtTime())
+            .build();
+    }
+}
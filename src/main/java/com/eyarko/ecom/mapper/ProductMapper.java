@@ -3,6 +3,7 @@ package com.eyarko.ecom.mapper;
 import com.eyarko.ecom.dto.ProductResponse;
 import com.eyarko.ecom.entity.Category;
 import com.eyarko.ecom.entity.Product;
+import com.eyarko.ecom.repository.ProductBodyRow;
 import com.eyarko.ecom.util.InventoryStatusDisplay;
 
 public final class ProductMapper {
@@ -36,6 +37,73 @@ public final class ProductMapper {
             .stockStatus(InventoryStatusDisplay.fromQuantity(qty))
             .build();
     }
+
+    /**
+     * Maps the cacheable part of a product; stock fields are left null.
+     */
+    public static ProductResponse toBody(Product product) {
+        if (product == null) {
+            return null;
+        }
+        Category category = product.getCategory();
+        return ProductResponse.builder()
+            .id(product.getId())
+            .categoryId(category != null ? category.getId() : null)
+            .categoryName(category != null ? category.getName() : null)
+            .name(product.getName())
+            .description(product.getDescription())
+            .price(product.getPrice())
+            .imageUrl(product.getImageUrl())
+            .avgRating(product.getAvgRating())
+            .reviewCount(product.getReviewCount())
+            .createdAt(product.getCreatedAt())
+            .build();
+    }
+
+    /**
+     * Maps a projected listing row to a product body; stock fields are left null.
+     */
+    public static ProductResponse toBody(ProductBodyRow row) {
+        if (row == null) {
+            return null;
+        }
+        return ProductResponse.builder()
+            .id(row.id())
+            .categoryId(row.categoryId())
+            .categoryName(row.categoryName())
+            .name(row.name())
+            .description(row.description())
+            .price(row.price())
+            .imageUrl(row.imageUrl())
+            .avgRating(row.avgRating())
+            .reviewCount(row.reviewCount())
+            .createdAt(row.createdAt())
+            .build();
+    }
+
+    /**
+     * Returns a copy of a cached product body with the given stock level; the body is not modified.
+     */
+    public static ProductResponse withStock(ProductResponse body, int stockQuantity) {
+        if (body == null) {
+            return null;
+        }
+        return ProductResponse.builder()
+            .id(body.getId())
+            .categoryId(body.getCategoryId())
+            .categoryName(body.getCategoryName())
+            .name(body.getName())
+            .description(body.getDescription())
+            .price(body.getPrice())
+            .imageUrl(body.getImageUrl())
+            .avgRating(body.getAvgRating())
+            .reviewCount(body.getReviewCount())
+            .createdAt(body.getCreatedAt())
+            .stockQuantity(stockQuantity)
+            .inStock(stockQuantity > 0)
+            .stockStatus(InventoryStatusDisplay.fromQuantity(stockQuantity))
+            .build();
+    }
 }
 
 
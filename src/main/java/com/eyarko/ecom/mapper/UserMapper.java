@@ -2,6 +2,7 @@ package com.eyarko.ecom.mapper;
 
 import com.eyarko.ecom.dto.UserResponse;
 import com.eyarko.ecom.entity.User;
+import com.eyarko.ecom.repository.UserSummaryRow;
 
 public final class UserMapper {
     private UserMapper() {
@@ -20,6 +21,18 @@ public final class UserMapper {
             .lastLogin(user.getLastLogin())
             .build();
     }
-}
-
 
+    public static UserResponse toResponse(UserSummaryRow row) {
+        if (row == null) {
+            return null;
+        }
+        return UserResponse.builder()
+            .id(row.id())
+            .fullName(row.fullName())
+            .email(row.email())
+            .role(row.role())
+            .createdAt(row.createdAt())
+            .lastLogin(row.lastLogin())
+            .build();
+    }
+}
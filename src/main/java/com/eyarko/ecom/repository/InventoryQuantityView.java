@@ -4,5 +4,7 @@ public interface InventoryQuantityView {
     Long getProductId();
 
     Integer getQuantity();
+
+    Long getVersion();
 }
 
@@ -21,8 +21,19 @@ public interface InventoryRepository extends JpaRepository<Inventory, Long> {
     @Query("select i from Inventory i where i.product.id = :productId")
     Optional<Inventory> findByProductIdForUpdate(@Param("productId") Long productId);
 
+    /**
+     * Stock per product, including units held in {@code inventory_shards} for sharded products. The
+     * version is the inventory row's plus its shards', which only grows as either is written.
+     */
     @Query(
-        value = "SELECT product_id AS productId, quantity AS quantity FROM inventory WHERE product_id IN (:productIds)",
+        value = "SELECT i.product_id AS productId, "
+            + "CAST(i.quantity + COALESCE(s.quantity, 0) AS INT) AS quantity, "
+            + "CAST(i.version + COALESCE(s.version, 0) AS BIGINT) AS version "
+            + "FROM inventory i LEFT JOIN ("
+            + "SELECT product_id, SUM(quantity) AS quantity, SUM(version) AS version FROM inventory_shards "
+            + "WHERE product_id IN (:productIds) GROUP BY product_id"
+            + ") s ON s.product_id = i.product_id "
+            + "WHERE i.product_id IN (:productIds)",
         nativeQuery = true
     )
     List<InventoryQuantityView> findQuantitiesByProductIds(@Param("productIds") List<Long> productIds);
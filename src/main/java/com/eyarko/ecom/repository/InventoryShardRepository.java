@@ -0,0 +1,155 @@
+package com.eyarko.ecom.repository;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Stock sub-counters for products in sharded stock mode. A sharded product's units live in
+ * {@code inventory_shards} rows numbered {@code 0..K-1}; its inventory row keeps whatever has not been
+ * moved into shards yet, normally 0. The product's stock is the sum of both.
+ *
+ * <p>Every write bumps the shard's {@code version}, so the sum of the inventory row's version and its
+ * shards' versions only grows and can version the aggregated quantity in the stock cache. Callers
+ * supply the transaction.
+ */
+@Repository
+public class InventoryShardRepository {
+    private static final String DECREMENT_IF_AVAILABLE =
+        "UPDATE inventory_shards SET quantity = quantity - ?, version = version + 1 "
+            + "WHERE product_id = ? AND shard_no = ? AND quantity >= ?";
+    private static final String INCREMENT =
+        "UPDATE inventory_shards SET quantity = quantity + ?, version = version + 1 "
+            + "WHERE product_id = ? AND shard_no = ?";
+    private static final String SELECT_SHARDS =
+        "SELECT shard_no, quantity, version FROM inventory_shards WHERE product_id = ? ORDER BY shard_no";
+    private static final String SET_SHARD =
+        "UPDATE inventory_shards SET quantity = ?, version = version + 1 WHERE product_id = ? AND shard_no = ?";
+    private static final String INSERT_SHARD =
+        "INSERT INTO inventory_shards (product_id, shard_no, quantity) VALUES (?, ?, ?)";
+    private static final String DELETE_SHARDS = "DELETE FROM inventory_shards WHERE product_id = ?";
+    private static final String DELETE_SHARDS_FROM =
+        "DELETE FROM inventory_shards WHERE product_id = ? AND shard_no >= ?";
+    private static final String STOCK_VERSION =
+        "SELECT CAST(i.version + COALESCE((SELECT SUM(s.version) FROM inventory_shards s WHERE s.product_id = ?), 0) "
+            + "AS BIGINT) FROM inventory i WHERE i.product_id = ?";
+    private static final String SHARDED_PRODUCTS = "SELECT DISTINCT product_id FROM inventory_shards";
+    private static final String TOTAL =
+        "SELECT CAST(SUM(quantity) AS INT) FROM inventory_shards WHERE product_id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public InventoryShardRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Takes {@code quantity} units from one shard, only if that shard holds that many.
+     *
+     * @return true when the shard was updated
+     */
+    public boolean decrementIfAvailable(long productId, int shardNo, int quantity) {
+        return jdbcTemplate.update(DECREMENT_IF_AVAILABLE, quantity, productId, shardNo, quantity) == 1;
+    }
+
+    /**
+     * @return true when the shard exists and was updated
+     */
+    public boolean increment(long productId, int shardNo, int quantity) {
+        return jdbcTemplate.update(INCREMENT, quantity, productId, shardNo) == 1;
+    }
+
+    /**
+     * Locks all shards of a product in shard order.
+     *
+     * @return the shards, empty when the product is not sharded
+     */
+    public List<Shard> lockShards(long productId) {
+        return selectShards(SELECT_SHARDS + " FOR UPDATE", productId);
+    }
+
+    /**
+     * Reads the shards of a product without locking them.
+     */
+    public List<Shard> findShards(long productId) {
+        return selectShards(SELECT_SHARDS, productId);
+    }
+
+    private List<Shard> selectShards(String sql, long productId) {
+        return jdbcTemplate.query(
+            sql,
+            (rs, rowNum) -> new Shard(rs.getInt("shard_no"), rs.getInt("quantity"), rs.getLong("version")),
+            productId
+        );
+    }
+
+    /**
+     * Writes new shard quantities as one JDBC batch. Shards listed in {@code existing} are updated, the
+     * rest inserted, and existing shards beyond {@code quantities} dropped; call with the result of
+     * {@link #lockShards} from the same transaction.
+     *
+     * @param quantities new quantity per shard number
+     */
+    public void writeShards(long productId, List<Shard> existing, int[] quantities) {
+        List<Object[]> updates = new ArrayList<>();
+        List<Object[]> inserts = new ArrayList<>();
+        for (int shardNo = 0; shardNo < quantities.length; shardNo++) {
+            if (shardNo < existing.size()) {
+                updates.add(new Object[] {quantities[shardNo], productId, shardNo});
+            } else {
+                inserts.add(new Object[] {productId, shardNo, quantities[shardNo]});
+            }
+        }
+        if (!updates.isEmpty()) {
+            jdbcTemplate.batchUpdate(SET_SHARD, updates);
+        }
+        if (!inserts.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_SHARD, inserts);
+        }
+        if (existing.size() > quantities.length) {
+            jdbcTemplate.update(DELETE_SHARDS_FROM, productId, quantities.length);
+        }
+    }
+
+    public void deleteShards(long productId) {
+        jdbcTemplate.update(DELETE_SHARDS, productId);
+    }
+
+    /**
+     * @return total units held in the product's shards, or null when it has none
+     */
+    public Integer totalQuantity(long productId) {
+        return jdbcTemplate.queryForObject(TOTAL, Integer.class, productId);
+    }
+
+    /**
+     * The product's stock version as this transaction sees it: its inventory row's version plus its
+     * shards', the same sum the stock cache versions entries by. Includes this transaction's own writes.
+     *
+     * @return the version, or -1 when the product has no inventory row
+     */
+    public long stockVersion(long productId) {
+        List<Long> version = jdbcTemplate.queryForList(STOCK_VERSION, Long.class, productId, productId);
+        return version.isEmpty() || version.get(0) == null ? -1L : version.get(0);
+    }
+
+    public List<Long> shardedProductIds() {
+        return jdbcTemplate.queryForList(SHARDED_PRODUCTS, Long.class);
+    }
+
+    /**
+     * Spreads {@code total} units as evenly as possible over {@code shards} counters, the remainder
+     * going to the lowest-numbered shards.
+     */
+    public static int[] spread(int total, int shards) {
+        int[] quantities = new int[shards];
+        for (int i = 0; i < shards; i++) {
+            quantities[i] = total / shards + (i < total % shards ? 1 : 0);
+        }
+        return quantities;
+    }
+
+    public record Shard(int shardNo, int quantity, long version) {
+    }
+}
@@ -0,0 +1,164 @@
+package com.eyarko.ecom.repository;
+
+import com.eyarko.ecom.util.InventoryStatusDisplay;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.SortedMap;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Single-statement stock updates on the inventory table, bypassing the persistence context.
+ *
+ * <p>Every write bumps {@code version}, the column the entity uses for optimistic locking, so entity
+ * and JDBC writers detect each other, and keeps {@code inventory_status} in step with the quantity.
+ * Callers supply the transaction.
+ */
+@Repository
+public class InventoryStockRepository {
+    private static final String SELECT_LEVEL =
+        "SELECT quantity, version, last_updated FROM inventory WHERE product_id = ?";
+    private static final String DECREMENT_IF_AVAILABLE =
+        "UPDATE inventory SET quantity = quantity - :quantity, version = version + 1, inventory_status = "
+            + InventoryStatusDisplay.sqlCase("(quantity - :quantity)")
+            + " WHERE product_id = :productId AND quantity >= :quantity";
+    private static final String INCREMENT =
+        "UPDATE inventory SET quantity = quantity + :quantity, version = version + 1, inventory_status = "
+            + InventoryStatusDisplay.sqlCase("(quantity + :quantity)")
+            + " WHERE product_id = :productId";
+    private static final String COMPARE_AND_SET =
+        "UPDATE inventory SET quantity = ?, version = version + 1, inventory_status = ? "
+            + "WHERE product_id = ? AND version = ?";
+    private static final String SET =
+        "UPDATE inventory SET quantity = ?, version = version + 1, inventory_status = ? WHERE product_id = ?";
+    private static final String SELECT_ALL =
+        "SELECT product_id, quantity, version, last_updated FROM inventory WHERE product_id IN (:productIds) "
+            + "ORDER BY product_id";
+    private static final String INSERT =
+        "INSERT INTO inventory (product_id, quantity, inventory_status) VALUES (?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+
+    public InventoryStockRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+    }
+
+    /**
+     * Reads the current stock row. Inside a transaction that has already updated the row, this sees
+     * that update.
+     */
+    public Optional<StockLevel> find(long productId) {
+        List<StockLevel> rows = jdbcTemplate.query(SELECT_LEVEL, (rs, rowNum) -> stockLevel(productId, rs), productId);
+        return rows.stream().findFirst();
+    }
+
+    /**
+     * Locks the stock rows of several products with one {@code SELECT ... FOR UPDATE}, taking the row
+     * locks in product id order. Products without a row are absent from the result.
+     */
+    public List<StockLevel> lockAll(Collection<Long> productIds) {
+        return selectAll(SELECT_ALL + " FOR UPDATE", productIds);
+    }
+
+    /**
+     * Reads the stock rows of several products, ordered by product id. Products without a row are
+     * absent from the result.
+     */
+    public List<StockLevel> findAll(Collection<Long> productIds) {
+        return selectAll(SELECT_ALL, productIds);
+    }
+
+    private List<StockLevel> selectAll(String sql, Collection<Long> productIds) {
+        return namedJdbcTemplate.query(
+            sql,
+            new MapSqlParameterSource("productIds", productIds),
+            (rs, rowNum) -> stockLevel(rs.getLong("product_id"), rs)
+        );
+    }
+
+    /**
+     * Takes {@code quantity} units in one statement, only if that many are available.
+     *
+     * @return true when the row was updated; false when stock was short or there is no row
+     */
+    public boolean decrementIfAvailable(long productId, int quantity) {
+        return namedJdbcTemplate.update(DECREMENT_IF_AVAILABLE, params(productId, quantity)) == 1;
+    }
+
+    /**
+     * Runs {@link #decrementIfAvailable} for several products as one JDBC batch, in key order.
+     *
+     * @return update count per product, in the map's order; 0 where stock was short or there is no row
+     */
+    public int[] decrementAllIfAvailable(SortedMap<Long, Integer> quantities) {
+        return namedJdbcTemplate.batchUpdate(DECREMENT_IF_AVAILABLE, quantities.entrySet().stream()
+            .map(entry -> params(entry.getKey(), entry.getValue()))
+            .toArray(SqlParameterSource[]::new));
+    }
+
+    /**
+     * @return true when the row exists and was updated
+     */
+    public boolean increment(long productId, int quantity) {
+        return namedJdbcTemplate.update(INCREMENT, params(productId, quantity)) == 1;
+    }
+
+    /**
+     * Writes a new quantity only if the row is still at {@code expectedVersion}.
+     *
+     * @return true when the row was updated; false when another writer got there first
+     */
+    public boolean compareAndSet(long productId, long expectedVersion, int quantity) {
+        return jdbcTemplate.update(
+            COMPARE_AND_SET, quantity, InventoryStatusDisplay.fromQuantity(quantity), productId, expectedVersion
+        ) == 1;
+    }
+
+    /**
+     * Overwrites the quantity, creating the row when the product has none.
+     */
+    public void set(long productId, int quantity) {
+        String status = InventoryStatusDisplay.fromQuantity(quantity);
+        if (jdbcTemplate.update(SET, quantity, status, productId) == 0) {
+            jdbcTemplate.update(INSERT, productId, quantity, status);
+        }
+    }
+
+    /**
+     * Overwrites the quantities of existing rows as one JDBC batch, in key order.
+     */
+    public void setAll(SortedMap<Long, Integer> quantities) {
+        jdbcTemplate.batchUpdate(SET, quantities.entrySet().stream()
+            .map(entry -> new Object[] {
+                entry.getValue(), InventoryStatusDisplay.fromQuantity(entry.getValue()), entry.getKey()
+            })
+            .toList());
+    }
+
+    private static StockLevel stockLevel(long productId, ResultSet rs) throws SQLException {
+        Timestamp lastUpdated = rs.getTimestamp("last_updated");
+        return new StockLevel(
+            productId,
+            rs.getInt("quantity"),
+            rs.getLong("version"),
+            lastUpdated == null ? null : lastUpdated.toInstant()
+        );
+    }
+
+    private static MapSqlParameterSource params(long productId, int quantity) {
+        return new MapSqlParameterSource("productId", productId).addValue("quantity", quantity);
+    }
+
+    public record StockLevel(long productId, int quantity, long version, Instant lastUpdated) {
+    }
+}
@@ -0,0 +1,15 @@
+package com.eyarko.ecom.repository;
+
+import java.math.BigDecimal;
+
+/**
+ * One order line with its product name, for read-only order listings.
+ */
+public record OrderItemRow(
+    Long orderId,
+    Long productId,
+    String productName,
+    Integer quantity,
+    BigDecimal priceAtTime
+) {
+}
@@ -1,11 +1,18 @@
 package com.eyarko.ecom.repository;
 
 import com.eyarko.ecom.entity.Order;
+import java.util.Collection;
+import java.util.List;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -16,11 +23,36 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
     @EntityGraph(attributePaths = {"items", "items.product", "user"})
     java.util.Optional<Order> findById(Long id);
 
-    @EntityGraph(attributePaths = {"items", "items.product", "user"})
-    @Query("select o from Order o")
-    Page<Order> findAllOrders(Pageable pageable);
+    /*
+     * Read-only listings select order headers into records, paged in SQL, then fetch the lines of the
+     * page with findItemRowsByOrderIdIn. Fetching the items collection in the page query would make
+     * Hibernate page the joined rows in memory.
+     */
+    String SUMMARY_ROW = "select new com.eyarko.ecom.repository.OrderSummaryRow(o.id, o.user.id, o.status, "
+        + "o.totalAmount, o.orderDate) from Order o";
 
-    @EntityGraph(attributePaths = {"items", "items.product", "user"})
-    Page<Order> findByUser_Id(Long userId, Pageable pageable);
+    @Query(value = SUMMARY_ROW, countQuery = "select count(o) from Order o")
+    Page<OrderSummaryRow> findSummaryRows(Pageable pageable);
+
+    @Query(
+        value = SUMMARY_ROW + " where o.user.id = :userId",
+        countQuery = "select count(o) from Order o where o.user.id = :userId"
+    )
+    Page<OrderSummaryRow> findSummaryRowsByUserId(@Param("userId") Long userId, Pageable pageable);
+
+    @Query(
+        "select new com.eyarko.ecom.repository.OrderItemRow(i.order.id, p.id, p.name, i.quantity, i.priceAtTime) "
+            + "from OrderItem i left join i.product p where i.order.id in :orderIds order by i.id"
+    )
+    List<OrderItemRow> findItemRowsByOrderIdIn(@Param("orderIds") Collection<Long> orderIds);
+
+    /*
+     * Keyset windows select order rows only; fetching the items collection here would make the row
+     * limit apply to the joined rows. Items for a window are loaded afterwards with
+     * findItemRowsByOrderIdIn.
+     */
+    Window<Order> findAllBy(ScrollPosition position, Sort sort, Limit limit);
+
+    Window<Order> findByUser_Id(Long userId, ScrollPosition position, Sort sort, Limit limit);
 }
 
@@ -0,0 +1,17 @@
+package com.eyarko.ecom.repository;
+
+import com.eyarko.ecom.entity.OrderStatus;
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * Order header columns for read-only listings; items are loaded separately as {@link OrderItemRow}s.
+ */
+public record OrderSummaryRow(
+    Long id,
+    Long userId,
+    OrderStatus status,
+    BigDecimal totalAmount,
+    Instant orderDate
+) {
+}
@@ -0,0 +1,42 @@
+package com.eyarko.ecom.repository;
+
+import com.eyarko.ecom.entity.OrderTicket;
+import com.eyarko.ecom.entity.OrderTicketStatus;
+import jakarta.persistence.LockModeType;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * JPA repository for the async checkout queue.
+ */
+@Repository
+public interface OrderTicketRepository extends JpaRepository<OrderTicket, Long> {
+    long countByStatus(OrderTicketStatus status);
+
+    /**
+     * Oldest tickets in a status that are not waiting out a retry delay, ids only.
+     */
+    @Query(
+        "select t.id from OrderTicket t where t.status = :status "
+            + "and (t.nextAttemptAt is null or t.nextAttemptAt <= :now) order by t.id"
+    )
+    List<Long> findDueIdsByStatus(
+        @Param("status") OrderTicketStatus status,
+        @Param("now") Instant now,
+        Pageable pageable
+    );
+
+    /**
+     * Locks a ticket if it is still in the given status. A second worker reaching the same ticket
+     * waits for the first to commit and then finds nothing.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<OrderTicket> findByIdAndStatus(Long id, OrderTicketStatus status);
+}
@@ -0,0 +1,171 @@
+package com.eyarko.ecom.repository;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * The {@code outbox_events} table. Writers append events on the connection of their own transaction,
+ * so an event exists exactly when the change it describes was committed. The relay claims due events
+ * with {@code FOR UPDATE SKIP LOCKED}, so several instances can drain the table without waiting on
+ * each other, and leases them by moving {@code next_attempt_at} ahead, so the rows stay its own after
+ * the claiming transaction commits. The lease time doubles as a fencing token: deleting or
+ * rescheduling an event only applies while the row still carries the lease it was claimed with.
+ * Callers supply the transaction.
+ */
+@Repository
+public class OutboxRepository {
+    private static final String INSERT =
+        "INSERT INTO outbox_events (event_type, aggregate_id, payload, created_at, next_attempt_at) VALUES (?, ?, ?, ?, ?)";
+    private static final String CLAIM_DUE =
+        "SELECT event_id, event_type, aggregate_id, payload, created_at, attempts, delivered_to FROM outbox_events "
+            + "WHERE next_attempt_at <= ? AND attempts < ? ORDER BY event_id LIMIT ? FOR UPDATE SKIP LOCKED";
+    private static final String LEASE = "UPDATE outbox_events SET next_attempt_at = ? WHERE event_id = ?";
+    private static final String DELETE = "DELETE FROM outbox_events WHERE event_id = ? AND next_attempt_at = ?";
+    private static final String RESCHEDULE =
+        "UPDATE outbox_events SET attempts = attempts + 1, next_attempt_at = ?, last_error = ?, delivered_to = ? "
+            + "WHERE event_id = ? AND next_attempt_at = ?";
+    private static final String BACKLOG =
+        "SELECT COUNT(CASE WHEN attempts < ? THEN 1 END) AS pending, "
+            + "MIN(CASE WHEN attempts < ? THEN created_at END) AS oldest, "
+            + "COUNT(CASE WHEN attempts >= ? THEN 1 END) AS abandoned FROM outbox_events";
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public OutboxRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Appends events in one batched insert, due immediately.
+     */
+    public void appendAll(List<NewEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        Timestamp now = Timestamp.from(Instant.now());
+        jdbcTemplate.batchUpdate(INSERT, events, events.size(), (ps, event) -> {
+            ps.setString(1, event.type());
+            ps.setLong(2, event.aggregateId());
+            ps.setString(3, event.payload());
+            ps.setTimestamp(4, now);
+            ps.setTimestamp(5, now);
+        });
+    }
+
+    /**
+     * Locks up to {@code limit} due events, oldest first, skipping rows another relay holds.
+     *
+     * @param maxAttempts events that failed this many times are no longer claimed
+     */
+    public List<OutboxEvent> claimDue(Instant now, int maxAttempts, int limit) {
+        return jdbcTemplate.query(
+            CLAIM_DUE,
+            (rs, rowNum) -> new OutboxEvent(
+                rs.getLong("event_id"),
+                rs.getString("event_type"),
+                rs.getLong("aggregate_id"),
+                rs.getString("payload"),
+                rs.getTimestamp("created_at").toInstant(),
+                rs.getInt("attempts"),
+                parseDeliveredTo(rs.getString("delivered_to"))
+            ),
+            Timestamp.from(now), maxAttempts, limit
+        );
+    }
+
+    /**
+     * Keeps claimed events from being claimed again until {@code leasedUntil}. Call in the transaction
+     * that claimed them.
+     *
+     * @param leasedUntil lease end; pass the same instant to {@link #deleteAll} and {@link #reschedule}
+     */
+    public void lease(List<Long> eventIds, Instant leasedUntil) {
+        if (eventIds.isEmpty()) {
+            return;
+        }
+        Timestamp until = Timestamp.from(leasedUntil);
+        jdbcTemplate.batchUpdate(LEASE, eventIds, eventIds.size(), (ps, eventId) -> {
+            ps.setTimestamp(1, until);
+            ps.setLong(2, eventId);
+        });
+    }
+
+    /**
+     * Deletes delivered events that still carry the given lease.
+     */
+    public void deleteAll(List<Long> eventIds, Instant leasedUntil) {
+        if (eventIds.isEmpty()) {
+            return;
+        }
+        Timestamp until = Timestamp.from(leasedUntil);
+        jdbcTemplate.batchUpdate(DELETE, eventIds, eventIds.size(), (ps, eventId) -> {
+            ps.setLong(1, eventId);
+            ps.setTimestamp(2, until);
+        });
+    }
+
+    /**
+     * Records a failed delivery and makes the event due again at {@code nextAttemptAt}, unless the
+     * lease expired and another relay claimed the event meanwhile.
+     *
+     * @param deliveredTo listeners that have handled the event so far; they are skipped on retry
+     */
+    public void reschedule(
+        long eventId,
+        Instant leasedUntil,
+        Instant nextAttemptAt,
+        String error,
+        Collection<String> deliveredTo
+    ) {
+        String trimmed = error != null && error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error;
+        String delivered = deliveredTo.isEmpty() ? null : String.join(",", deliveredTo);
+        jdbcTemplate.update(
+            RESCHEDULE, Timestamp.from(nextAttemptAt), trimmed, delivered, eventId, Timestamp.from(leasedUntil)
+        );
+    }
+
+    private static Set<String> parseDeliveredTo(String value) {
+        if (value == null || value.isEmpty()) {
+            return Set.of();
+        }
+        return Arrays.stream(value.split(",")).collect(Collectors.toUnmodifiableSet());
+    }
+
+    /**
+     * Events still to be delivered, the creation time of the oldest one, and events that used up their
+     * attempts and are kept for inspection.
+     */
+    public Backlog backlog(int maxAttempts) {
+        return jdbcTemplate.queryForObject(BACKLOG, (rs, rowNum) -> {
+            Timestamp oldest = rs.getTimestamp("oldest");
+            return new Backlog(
+                rs.getLong("pending"), oldest == null ? null : oldest.toInstant(), rs.getLong("abandoned")
+            );
+        }, maxAttempts, maxAttempts, maxAttempts);
+    }
+
+    public record NewEvent(String type, long aggregateId, String payload) {
+    }
+
+    public record OutboxEvent(
+        long id,
+        String type,
+        long aggregateId,
+        String payload,
+        Instant createdAt,
+        int attempts,
+        Set<String> deliveredTo
+    ) {
+    }
+
+    public record Backlog(long pending, Instant oldest, long abandoned) {
+    }
+}
@@ -0,0 +1,22 @@
+package com.eyarko.ecom.repository;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * Columns of a cached product body, selected straight from the product and category rows. Used by
+ * read-only listings so no managed entities, proxies or dirty-checking snapshots are created.
+ */
+public record ProductBodyRow(
+    Long id,
+    Long categoryId,
+    String categoryName,
+    String name,
+    String description,
+    BigDecimal price,
+    String imageUrl,
+    BigDecimal avgRating,
+    Integer reviewCount,
+    Instant createdAt
+) {
+}
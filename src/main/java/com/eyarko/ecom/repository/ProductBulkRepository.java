@@ -0,0 +1,179 @@
+package com.eyarko.ecom.repository;
+
+import com.eyarko.ecom.dto.ProductExportRow;
+import com.eyarko.ecom.util.InventoryStatusDisplay;
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import org.springframework.dao.DataRetrievalFailureException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Plain JDBC access for bulk catalog loads and exports, bypassing the persistence context.
+ *
+ * <p>Product ids are database identities, which keeps Hibernate from batching inserts, so imports are
+ * written here as two JDBC batches: the products, then one inventory row per product using the
+ * generated ids. Exports read through a forward-only cursor. Callers supply the transaction; the
+ * PostgreSQL driver only honours the fetch size inside one.
+ */
+@Repository
+public class ProductBulkRepository {
+    private static final String INSERT_PRODUCT =
+        "INSERT INTO products (category_id, name, description, price, image_url) VALUES (?, ?, ?, ?, ?)";
+    private static final String INSERT_INVENTORY =
+        "INSERT INTO inventory (product_id, quantity, inventory_status) VALUES (?, ?, ?)";
+
+    private static final String SELECT_CATALOG = """
+        SELECT p.product_id, p.category_id, c.category_name, p.name, p.description, p.price, p.image_url,
+               p.avg_rating, p.review_count, p.created_at,
+               COALESCE(i.quantity, 0) + COALESCE(s.quantity, 0) AS quantity
+        FROM products p
+        JOIN categories c ON c.category_id = p.category_id
+        LEFT JOIN inventory i ON i.product_id = p.product_id
+        LEFT JOIN (
+            SELECT product_id, SUM(quantity) AS quantity FROM inventory_shards GROUP BY product_id
+        ) s ON s.product_id = p.product_id
+        ORDER BY p.product_id
+        """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ProductBulkRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Inserts the products and their inventory rows.
+     *
+     * @param rows products to insert
+     * @return generated product ids, in the order of {@code rows}
+     */
+    public List<Long> insertWithInventory(List<Row> rows) {
+        if (rows.isEmpty()) {
+            return List.of();
+        }
+        KeyHolder keys = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(
+            connection -> connection.prepareStatement(INSERT_PRODUCT, new String[] {"product_id"}),
+            new BatchPreparedStatementSetter() {
+                @Override
+                public void setValues(PreparedStatement ps, int i) throws SQLException {
+                    Row row = rows.get(i);
+                    ps.setLong(1, row.categoryId());
+                    ps.setString(2, row.name());
+                    setNullableString(ps, 3, row.description());
+                    ps.setBigDecimal(4, row.price());
+                    setNullableString(ps, 5, row.imageUrl());
+                }
+
+                @Override
+                public int getBatchSize() {
+                    return rows.size();
+                }
+            },
+            keys
+        );
+        List<Long> ids = generatedIds(keys, rows.size());
+
+        jdbcTemplate.batchUpdate(INSERT_INVENTORY, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                int quantity = rows.get(i).quantity();
+                ps.setLong(1, ids.get(i));
+                ps.setInt(2, quantity);
+                ps.setString(3, InventoryStatusDisplay.fromQuantity(quantity));
+            }
+
+            @Override
+            public int getBatchSize() {
+                return rows.size();
+            }
+        });
+        return ids;
+    }
+
+    /**
+     * Streams every product with its stock, in id order, holding at most {@code fetchSize} rows in
+     * memory at a time.
+     *
+     * @param fetchSize rows fetched per round trip
+     * @param consumer receives each row; it must not keep references if memory is to stay flat
+     */
+    public void forEachCatalogRow(int fetchSize, Consumer<ProductExportRow> consumer) {
+        jdbcTemplate.query(
+            connection -> {
+                PreparedStatement ps = connection.prepareStatement(
+                    SELECT_CATALOG,
+                    ResultSet.TYPE_FORWARD_ONLY,
+                    ResultSet.CONCUR_READ_ONLY
+                );
+                ps.setFetchSize(fetchSize);
+                return ps;
+            },
+            (RowCallbackHandler) rs -> {
+                Timestamp createdAt = rs.getTimestamp("created_at");
+                consumer.accept(ProductExportRow.builder()
+                    .id(rs.getLong("product_id"))
+                    .categoryId(rs.getLong("category_id"))
+                    .categoryName(rs.getString("category_name"))
+                    .name(rs.getString("name"))
+                    .description(rs.getString("description"))
+                    .price(rs.getBigDecimal("price"))
+                    .imageUrl(rs.getString("image_url"))
+                    .avgRating(rs.getBigDecimal("avg_rating"))
+                    .reviewCount(rs.getInt("review_count"))
+                    .quantity(rs.getInt("quantity"))
+                    .createdAt(createdAt == null ? null : createdAt.toInstant())
+                    .build());
+            }
+        );
+    }
+
+    private static List<Long> generatedIds(KeyHolder keys, int expected) {
+        List<Map<String, Object>> keyList = keys.getKeyList();
+        if (keyList.size() != expected) {
+            throw new DataRetrievalFailureException(
+                "Expected " + expected + " generated product ids but the driver returned " + keyList.size()
+            );
+        }
+        List<Long> ids = new ArrayList<>(expected);
+        for (Map<String, Object> key : keyList) {
+            // Drivers differ in the case of the returned column label; there is only one column.
+            ids.add(((Number) key.values().iterator().next()).longValue());
+        }
+        return ids;
+    }
+
+    private static void setNullableString(PreparedStatement ps, int index, String value) throws SQLException {
+        if (value == null) {
+            ps.setNull(index, Types.VARCHAR);
+        } else {
+            ps.setString(index, value);
+        }
+    }
+
+    /**
+     * One product to insert, with its category already resolved.
+     */
+    public record Row(
+        long categoryId,
+        String name,
+        String description,
+        BigDecimal price,
+        String imageUrl,
+        int quantity
+    ) {
+    }
+}
@@ -0,0 +1,20 @@
+package com.eyarko.ecom.repository;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+public interface ProductFacetView {
+    Long getProductId();
+
+    String getName();
+
+    Long getCategoryId();
+
+    BigDecimal getPrice();
+
+    BigDecimal getAvgRating();
+
+    Instant getCreatedAt();
+
+    Integer getQuantity();
+}
@@ -1,9 +1,15 @@
 package com.eyarko.ecom.repository;
 
 import com.eyarko.ecom.entity.Product;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
@@ -19,30 +25,115 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
     Optional<Product> findById(Long id);
 
     @EntityGraph(attributePaths = {"category"})
-    @Query("select p from Product p")
-    Page<Product> findAllProducts(Pageable pageable);
+    Page<Product> findByNameContainingIgnoreCase(String name, Pageable pageable);
 
+    /*
+     * Keyset (cursor) variants of the list queries below. They seek past the last row of the previous
+     * window instead of using OFFSET and never issue a count query.
+     */
     @EntityGraph(attributePaths = {"category"})
-    Page<Product> findByCategory_Id(Long categoryId, Pageable pageable);
+    Window<Product> findAllBy(ScrollPosition position, Sort sort, Limit limit);
 
     @EntityGraph(attributePaths = {"category"})
-    Page<Product> findByNameContainingIgnoreCase(String name, Pageable pageable);
-
+    Window<Product> findByCategory_Id(Long categoryId, ScrollPosition position, Sort sort, Limit limit);
 
     @EntityGraph(attributePaths = {"category"})
-    Page<Product> findByCategory_IdAndNameContainingIgnoreCase(
+    Window<Product> findByCategory_IdAndNameContainingIgnoreCase(
         Long categoryId,
         String name,
-        Pageable pageable
+        ScrollPosition position,
+        Sort sort,
+        Limit limit
+    );
+
+    @EntityGraph(attributePaths = {"category"})
+    Window<Product> findByNameContainingIgnoreCaseOrCategory_NameContainingIgnoreCase(
+        String name,
+        String categoryName,
+        ScrollPosition position,
+        Sort sort,
+        Limit limit
     );
 
     @EntityGraph(attributePaths = {"category"})
+    Window<Product> findByIdIn(Collection<Long> ids, ScrollPosition position, Sort sort, Limit limit);
+
+    /*
+     * Projection variants of the offset list queries, for read-only listings. They select only the
+     * body columns into records, so no entities are managed. Category-name search escapes LIKE
+     * wildcards in the term, as the derived queries do.
+     */
+    String BODY_ROW = "select new com.eyarko.ecom.repository.ProductBodyRow(p.id, c.id, c.name, p.name, "
+        + "p.description, p.price, p.imageUrl, p.avgRating, p.reviewCount, p.createdAt) "
+        + "from Product p left join p.category c";
+
+    @Query(value = BODY_ROW, countQuery = "select count(p) from Product p")
+    Page<ProductBodyRow> findAllBodyRows(Pageable pageable);
+
     @Query(
-        "select p from Product p join p.category c "
+        value = BODY_ROW + " where c.id = ?1",
+        countQuery = "select count(p) from Product p where p.category.id = ?1"
+    )
+    Page<ProductBodyRow> findBodyRowsByCategoryId(Long categoryId, Pageable pageable);
+
+    @Query(
+        value = BODY_ROW + " where c.id = ?1 "
+            + "and lower(p.name) like lower(concat('%', ?#{escape([1])}, '%')) escape ?#{escapeCharacter()}",
+        countQuery = "select count(p) from Product p where p.category.id = ?1 "
+            + "and lower(p.name) like lower(concat('%', ?#{escape([1])}, '%')) escape ?#{escapeCharacter()}"
+    )
+    Page<ProductBodyRow> findBodyRowsByCategoryIdAndName(Long categoryId, String name, Pageable pageable);
+
+    @Query(
+        value = BODY_ROW + " where lower(p.name) like lower(concat('%', :term, '%')) "
+            + "or lower(c.name) like lower(concat('%', :term, '%'))",
+        countQuery = "select count(p) from Product p left join p.category c "
             + "where lower(p.name) like lower(concat('%', :term, '%')) "
             + "or lower(c.name) like lower(concat('%', :term, '%'))"
     )
-    Page<Product> searchByNameOrCategory(@Param("term") String term, Pageable pageable);
+    Page<ProductBodyRow> searchBodyRowsByNameOrCategory(@Param("term") String term, Pageable pageable);
+
+    /**
+     * Body rows for a known ID set, without a count query; pass {@link Pageable#unpaged()} for all.
+     */
+    @Query(BODY_ROW + " where p.id in :ids")
+    List<ProductBodyRow> findBodyRowsByIdIn(@Param("ids") Collection<Long> ids, Pageable pageable);
+
+    @Query(
+        "select p.id as productId, p.name as productName, c.id as categoryId, c.name as categoryName "
+            + "from Product p join p.category c"
+    )
+    List<ProductSearchView> findSearchEntries();
+
+    /**
+     * Facet fields of every product. Stock includes the units held in {@code inventory_shards} for
+     * sharded products, whose inventory row alone is normally 0.
+     */
+    @Query(
+        value = "SELECT p.product_id AS productId, p.name AS name, p.category_id AS categoryId, p.price AS price, "
+            + "p.avg_rating AS avgRating, p.created_at AS createdAt, "
+            + "CAST(i.quantity + COALESCE(s.quantity, 0) AS INT) AS quantity "
+            + "FROM products p LEFT JOIN inventory i ON i.product_id = p.product_id LEFT JOIN ("
+            + "SELECT product_id, SUM(quantity) AS quantity FROM inventory_shards GROUP BY product_id"
+            + ") s ON s.product_id = p.product_id",
+        nativeQuery = true
+    )
+    List<ProductFacetView> findFacetEntries();
+
+    @Query(
+        "select p.id as productId, p.name as productName, c.id as categoryId, c.name as categoryName, "
+            + "p.reviewCount as reviewCount, p.avgRating as avgRating from Product p join p.category c"
+    )
+    List<ProductSuggestView> findSuggestEntries();
+
+    /**
+     * Product IDs ranked by how many order lines reference them, most ordered first.
+     */
+    @Query(
+        value = "SELECT oi.product_id FROM order_items oi GROUP BY oi.product_id ORDER BY COUNT(*) DESC",
+        nativeQuery = true
+    )
+    List<Long> findMostOrderedProductIds(Pageable pageable);
 
     boolean existsByCategory_Id(Long categoryId);
 }
@@ -0,0 +1,11 @@
+package com.eyarko.ecom.repository;
+
+public interface ProductSearchView {
+    Long getProductId();
+
+    String getProductName();
+
+    Long getCategoryId();
+
+    String getCategoryName();
+}
@@ -0,0 +1,17 @@
+package com.eyarko.ecom.repository;
+
+import java.math.BigDecimal;
+
+public interface ProductSuggestView {
+    Long getProductId();
+
+    String getProductName();
+
+    Long getCategoryId();
+
+    String getCategoryName();
+
+    Integer getReviewCount();
+
+    BigDecimal getAvgRating();
+}
@@ -3,8 +3,12 @@ package com.eyarko.ecom.repository;
 import com.eyarko.ecom.document.Review;
 import java.util.Optional;
 import java.util.List;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.mongodb.repository.Aggregation;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.data.mongodb.repository.Query;
@@ -13,6 +17,9 @@ public interface ReviewRepository extends MongoRepository<Review, String> {
     List<Review> findByProductId(Long productId);
     Page<Review> findByProductId(Long productId, Pageable pageable);
     Page<Review> findByUserId(Long userId, Pageable pageable);
+    Window<Review> findByProductId(Long productId, ScrollPosition position, Sort sort, Limit limit);
+    Window<Review> findByUserId(Long userId, ScrollPosition position, Sort sort, Limit limit);
+    Window<Review> findAllBy(ScrollPosition position, Sort sort, Limit limit);
 
     @Aggregation(pipeline = {
         "{ '$match': { 'productId': ?0 } }",
@@ -2,8 +2,12 @@ package com.eyarko.ecom.repository;
 
 import com.eyarko.ecom.entity.User;
 import java.util.Optional;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
@@ -15,8 +19,14 @@ import org.springframework.stereotype.Repository;
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByEmailIgnoreCase(String email);
 
-    @Query("select u from User u")
-    Page<User> findAllUsers(Pageable pageable);
+    @Query(
+        value = "select new com.eyarko.ecom.repository.UserSummaryRow(u.id, u.fullName, u.email, u.role, "
+            + "u.createdAt, u.lastLogin) from User u",
+        countQuery = "select count(u) from User u"
+    )
+    Page<UserSummaryRow> findSummaryRows(Pageable pageable);
+
+    Window<User> findAllBy(ScrollPosition position, Sort sort, Limit limit);
 }
 
 
@@ -0,0 +1,17 @@
+package com.eyarko.ecom.repository;
+
+import com.eyarko.ecom.entity.UserRole;
+import java.time.Instant;
+
+/**
+ * Public user columns for read-only listings; the password hash is never selected.
+ */
+public record UserSummaryRow(
+    Long id,
+    String fullName,
+    String email,
+    UserRole role,
+    Instant createdAt,
+    Instant lastLogin
+) {
+}
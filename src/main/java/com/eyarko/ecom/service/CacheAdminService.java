@@ -0,0 +1,102 @@
+package com.eyarko.ecom.service;
+
+import com.eyarko.ecom.config.CacheSpecProperties;
+import com.eyarko.ecom.dto.CacheStatsResponse;
+import com.eyarko.ecom.infrastructure.cache.CoalescingCache;
+import com.eyarko.ecom.infrastructure.cache.TaggedCache;
+import com.eyarko.ecom.util.ObjectSizeEstimator;
+import com.github.benmanes.caffeine.cache.Policy;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Reports size, hit/miss statistics and estimated heap use of the application caches.
+ */
+@Service
+public class CacheAdminService {
+    private static final int MEMORY_SAMPLE_SIZE = 200;
+    private static final int IN_FLIGHT_KEY_LIMIT = 20;
+
+    private final CacheManager cacheManager;
+    private final CacheSpecProperties cacheSpecProperties;
+
+    public CacheAdminService(CacheManager cacheManager, CacheSpecProperties cacheSpecProperties) {
+        this.cacheManager = cacheManager;
+        this.cacheSpecProperties = cacheSpecProperties;
+    }
+
+    public List<CacheStatsResponse> listCaches() {
+        return cacheNames().stream().map(this::getCache).toList();
+    }
+
+    /**
+     * Builds statistics for one cache. Memory is estimated from a sample of entries and scaled to the
+     * cache size, so it is approximate for caches whose entries vary widely in size.
+     *
+     * @param name cache name
+     * @return cache statistics
+     */
+    public CacheStatsResponse getCache(String name) {
+        // The cache manager creates caches on first lookup, so never look up a name nobody configured.
+        Cache cache = cacheNames().contains(name) ? cacheManager.getCache(name) : null;
+        if (cache == null
+            || !(cache.getNativeCache() instanceof com.github.benmanes.caffeine.cache.Cache<?, ?> nativeCache)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Cache not found");
+        }
+        CacheStats stats = nativeCache.stats();
+        long estimatedSize = nativeCache.estimatedSize();
+        Policy.Eviction<?, ?> eviction = nativeCache.policy().eviction().orElse(null);
+        boolean weighted = eviction != null && eviction.isWeighted();
+
+        long sampledBytes = 0;
+        int sampled = 0;
+        for (Map.Entry<?, ?> entry : nativeCache.asMap().entrySet()) {
+            if (sampled == MEMORY_SAMPLE_SIZE) {
+                break;
+            }
+            sampledBytes += ObjectSizeEstimator.estimate(entry.getKey()) + ObjectSizeEstimator.estimate(entry.getValue());
+            sampled++;
+        }
+        CoalescingCache coalescing = coalescingLayer(cache);
+        long estimatedMemory = sampled == 0 ? 0 : Math.round((double) sampledBytes / sampled * estimatedSize);
+
+        return CacheStatsResponse.builder()
+            .name(name)
+            .estimatedSize(estimatedSize)
+            .maximum(eviction == null ? null : eviction.getMaximum())
+            .weighted(weighted)
+            .weightedSize(weighted ? eviction.weightedSize().orElse(0L) : null)
+            .hitCount(stats.hitCount())
+            .missCount(stats.missCount())
+            .hitRate(stats.hitRate())
+            .evictionCount(stats.evictionCount())
+            .loadSuccessCount(stats.loadSuccessCount())
+            .loadFailureCount(stats.loadFailureCount())
+            .averageLoadPenaltyMillis(stats.averageLoadPenalty() / 1_000_000d)
+            .estimatedMemoryBytes(weighted ? Math.max(estimatedMemory, eviction.weightedSize().orElse(0L)) : estimatedMemory)
+            .sampledEntries(sampled)
+            .inFlightLoads(coalescing == null ? 0 : coalescing.inFlightCount())
+            .coalescedLoads(coalescing == null ? 0 : coalescing.coalescedCount())
+            .inFlightKeys(coalescing == null ? Map.of() : coalescing.inFlightWaiters(IN_FLIGHT_KEY_LIMIT))
+            .build();
+    }
+
+    private static CoalescingCache coalescingLayer(Cache cache) {
+        Cache current = cache instanceof TaggedCache tagged ? tagged.getDelegate() : cache;
+        return current instanceof CoalescingCache coalescing ? coalescing : null;
+    }
+
+    private Set<String> cacheNames() {
+        Set<String> names = new TreeSet<>(cacheSpecProperties.getSpecs().keySet());
+        names.addAll(cacheManager.getCacheNames());
+        return names;
+    }
+}
@@ -0,0 +1,55 @@
+package com.eyarko.ecom.service;
+
+import java.util.Locale;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Line-oriented formats for bulk catalog import and export.
+ */
+public enum CatalogFormat {
+    NDJSON("application/x-ndjson", "ndjson"),
+    CSV("text/csv", "csv");
+
+    private final String mediaType;
+    private final String extension;
+
+    CatalogFormat(String mediaType, String extension) {
+        this.mediaType = mediaType;
+        this.extension = extension;
+    }
+
+    public MediaType getMediaType() {
+        return MediaType.parseMediaType(mediaType);
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    /**
+     * Resolves a {@code format} request parameter such as {@code csv}.
+     *
+     * @param value parameter value
+     * @return matching format
+     */
+    public static CatalogFormat fromParameter(String value) {
+        for (CatalogFormat format : values()) {
+            if (format.extension.equals(value == null ? "" : value.trim().toLowerCase(Locale.ROOT))) {
+                return format;
+            }
+        }
+        throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "format must be ndjson or csv");
+    }
+
+    /**
+     * Resolves a request Content-Type; anything that is not CSV is read as NDJSON.
+     *
+     * @param contentType Content-Type header
+     * @return matching format
+     */
+    public static CatalogFormat fromContentType(String contentType) {
+        return CSV.getMediaType().isCompatibleWith(MediaType.parseMediaType(contentType)) ? CSV : NDJSON;
+    }
+}
@@ -6,6 +6,7 @@ import com.eyarko.ecom.entity.Category;
 import com.eyarko.ecom.mapper.CategoryMapper;
 import com.eyarko.ecom.repository.CategoryRepository;
 import com.eyarko.ecom.repository.ProductRepository;
+import com.eyarko.ecom.util.TransactionUtil;
 import java.util.List;
 import java.util.stream.Collectors;
 import org.springframework.cache.annotation.CacheEvict;
@@ -24,12 +25,21 @@ import org.springframework.web.server.ResponseStatusException;
 public class CategoryService {
     private final CategoryRepository categoryRepository;
     private final ProductRepository productRepository;
+    private final ProductSearchIndex productSearchIndex;
+    private final ProductSuggestIndex productSuggestIndex;
+    private final ProductCacheEvictor productCacheEvictor;
 
     public CategoryService(
             CategoryRepository categoryRepository,
-            ProductRepository productRepository) {
+            ProductRepository productRepository,
+            ProductSearchIndex productSearchIndex,
+            ProductSuggestIndex productSuggestIndex,
+            ProductCacheEvictor productCacheEvictor) {
         this.categoryRepository = categoryRepository;
         this.productRepository = productRepository;
+        this.productSearchIndex = productSearchIndex;
+        this.productSuggestIndex = productSuggestIndex;
+        this.productCacheEvictor = productCacheEvictor;
     }
 
     /**
@@ -44,7 +54,9 @@ public class CategoryService {
         Category category = Category.builder()
             .name(request.getName())
             .build();
-        return CategoryMapper.toResponse(categoryRepository.save(category));
+        Category saved = categoryRepository.save(category);
+        TransactionUtil.afterCommit(() -> productSearchIndex.upsertCategory(saved.getId(), saved.getName()));
+        return CategoryMapper.toResponse(saved);
     }
 
     /**
@@ -63,7 +75,14 @@ public class CategoryService {
         Category category = categoryRepository.findById(id)
             .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Category not found"));
         category.setName(request.getName());
-        return CategoryMapper.toResponse(categoryRepository.save(category));
+        Category saved = categoryRepository.save(category);
+        TransactionUtil.afterCommit(() -> {
+            productSearchIndex.upsertCategory(saved.getId(), saved.getName());
+            productSuggestIndex.markStale();
+        });
+        // Listing pages carry the category name and searches match on it.
+        productCacheEvictor.evictAllLists();
+        return CategoryMapper.toResponse(saved);
     }
 
     /**
@@ -72,7 +91,7 @@ public class CategoryService {
      * @param id category id
      * @return category details
      */
-    @Cacheable(value = "categoryById", key = "#id")
+    @Cacheable(value = "categoryById", key = "#id", sync = true)
     @Transactional(readOnly = true)
     public CategoryResponse getCategory(Long id) {
         Category category = categoryRepository.findById(id)
@@ -85,7 +104,7 @@ public class CategoryService {
      *
      * @return list of categories
      */
-    @Cacheable(value = "categoryLists", key = "'all'")
+    @Cacheable(value = "categoryLists", key = "'all'", sync = true)
     @Transactional(readOnly = true)
     public List<CategoryResponse> listCategories() {
         return categoryRepository.findAllCategories(Sort.by("name")).stream()
@@ -114,6 +133,10 @@ public class CategoryService {
             );
         }
         categoryRepository.deleteById(id);
+        TransactionUtil.afterCommit(() -> {
+            productSearchIndex.removeCategory(id);
+            productSuggestIndex.markStale();
+        });
     }
 }
 
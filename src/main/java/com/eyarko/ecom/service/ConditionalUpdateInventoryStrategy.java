@@ -0,0 +1,107 @@
+package com.eyarko.ecom.service;
+
+import com.eyarko.ecom.dto.InventoryResponse;
+import com.eyarko.ecom.entity.Product;
+import com.eyarko.ecom.infrastructure.cache.StockLevelCache;
+import com.eyarko.ecom.mapper.InventoryMapper;
+import com.eyarko.ecom.repository.InventoryStockRepository;
+import com.eyarko.ecom.repository.InventoryStockRepository.StockLevel;
+import java.util.Collection;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.function.Supplier;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Takes stock with one {@code UPDATE ... SET quantity = quantity - ? WHERE quantity >= ?}. The database
+ * checks and applies the change atomically, so there is no read beforehand and no in-process lock;
+ * writers on a hot row queue only for the row lock, from the update until their commit.
+ *
+ * <p>{@link #reserveAll} sends one such update per product as a single JDBC batch in product id order.
+ */
+public class ConditionalUpdateInventoryStrategy implements InventoryReservationStrategy {
+    private final InventoryStockRepository stockRepository;
+    private final StockLevelCache stockLevelCache;
+
+    public ConditionalUpdateInventoryStrategy(InventoryStockRepository stockRepository, StockLevelCache stockLevelCache) {
+        this.stockRepository = stockRepository;
+        this.stockLevelCache = stockLevelCache;
+    }
+
+    @Override
+    public String name() {
+        return CONDITIONAL;
+    }
+
+    @Override
+    public void reserve(Long productId, int quantity) {
+        if (!stockRepository.decrementIfAvailable(productId, quantity)) {
+            // Only the failure path reads, to tell a missing row from short stock.
+            if (stockRepository.find(productId).isEmpty()) {
+                throw inventoryNotFound();
+            }
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Insufficient stock");
+        }
+        publish(productId);
+    }
+
+    @Override
+    public void reserveAll(Map<Long, Integer> quantities) {
+        SortedMap<Long, Integer> sorted = new TreeMap<>(quantities);
+        if (sorted.isEmpty()) {
+            return;
+        }
+        int[] counts = stockRepository.decrementAllIfAvailable(sorted);
+        int i = 0;
+        for (Long productId : sorted.keySet()) {
+            // A short line throws, rolling back the lines before it.
+            if (counts[i++] == 0) {
+                if (stockRepository.find(productId).isEmpty()) {
+                    throw inventoryNotFound();
+                }
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Insufficient stock");
+            }
+        }
+        for (StockLevel level : stockRepository.findAll(sorted.keySet())) {
+            stockLevelCache.updateAfterCommit(level.productId(), level.quantity(), level.version());
+        }
+    }
+
+    @Override
+    public <T> T withStockLocked(Collection<Long> productIds, Supplier<T> action) {
+        if (!productIds.isEmpty()) {
+            stockRepository.lockAll(productIds);
+        }
+        return action.get();
+    }
+
+    @Override
+    public void restore(Long productId, int quantity) {
+        if (!stockRepository.increment(productId, quantity)) {
+            throw inventoryNotFound();
+        }
+        publish(productId);
+    }
+
+    @Override
+    public InventoryResponse setQuantity(Product product, int quantity) {
+        stockRepository.set(product.getId(), quantity);
+        return InventoryMapper.toResponse(publish(product.getId()));
+    }
+
+    /**
+     * Reads back the row this transaction just wrote (it holds the row lock, so the read is exact) and
+     * publishes it after commit.
+     */
+    private StockLevel publish(long productId) {
+        StockLevel level = stockRepository.find(productId).orElseThrow(ConditionalUpdateInventoryStrategy::inventoryNotFound);
+        stockLevelCache.updateAfterCommit(productId, level.quantity(), level.version());
+        return level;
+    }
+
+    private static ResponseStatusException inventoryNotFound() {
+        return new ResponseStatusException(HttpStatus.BAD_REQUEST, "Inventory not found");
+    }
+}
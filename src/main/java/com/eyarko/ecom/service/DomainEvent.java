@@ -0,0 +1,16 @@
+package com.eyarko.ecom.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import java.time.Instant;
+
+/**
+ * An outbox event as handed to {@link DomainEventListener}s.
+ *
+ * @param id outbox id; the same event keeps it across redeliveries
+ * @param type event kind
+ * @param aggregateId order id or product id, depending on the type
+ * @param payload event body, as written by {@link DomainEventPublisher}
+ * @param occurredAt when the change was written
+ */
+public record DomainEvent(long id, DomainEventType type, long aggregateId, JsonNode payload, Instant occurredAt) {
+}
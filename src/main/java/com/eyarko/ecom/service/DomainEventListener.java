@@ -0,0 +1,27 @@
+package com.eyarko.ecom.service;
+
+import org.springframework.util.ClassUtils;
+
+/**
+ * Receives outbox events from {@link OutboxRelay}. Delivery is at least once and tracked per
+ * listener: when a listener throws, the event is retried later for that listener only, but a
+ * listener can still see an event again (for example after a crash mid-batch), so handlers must
+ * tolerate repeats. Listeners run outside any transaction.
+ */
+public interface DomainEventListener {
+    /**
+     * Identifies this listener in the {@code delivered_to} column of an event. Keep it stable across
+     * releases, or events waiting for a retry are delivered to the renamed listener again.
+     */
+    default String name() {
+        Class<?> type = ClassUtils.getUserClass(getClass());
+        return type.getSimpleName().isEmpty() ? type.getName() : type.getSimpleName();
+    }
+
+    /**
+     * @return true when this listener wants events of the given type
+     */
+    boolean supports(DomainEventType type);
+
+    void onEvent(DomainEvent event);
+}
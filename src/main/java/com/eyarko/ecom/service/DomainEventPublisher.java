@@ -0,0 +1,90 @@
+package com.eyarko.ecom.service;
+
+import com.eyarko.ecom.entity.Order;
+import com.eyarko.ecom.entity.OrderItem;
+import com.eyarko.ecom.entity.OrderStatus;
+import com.eyarko.ecom.repository.OutboxRepository;
+import com.eyarko.ecom.repository.OutboxRepository.NewEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Writes domain events to the outbox in the caller's transaction, so an event is recorded exactly when
+ * the change it describes commits. Everything that reacts to the change (metrics, notifications) is a
+ * {@link DomainEventListener} run later by {@link OutboxRelay}, outside the request.
+ */
+@Service
+public class DomainEventPublisher {
+    private final OutboxRepository outboxRepository;
+    private final ObjectMapper objectMapper;
+
+    public DomainEventPublisher(OutboxRepository outboxRepository, ObjectMapper objectMapper) {
+        this.outboxRepository = outboxRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Records newly created orders, with one batched insert for all of them.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void orderPlaced(Collection<Order> orders) {
+        outboxRepository.appendAll(orders.stream()
+            .map(order -> event(DomainEventType.ORDER_PLACED, order.getId(), new OrderPlaced(
+                order.getId(),
+                order.getUser() != null ? order.getUser().getId() : null,
+                order.getTotalAmount(),
+                order.getItems() == null ? List.of() : order.getItems().stream().map(OrderLine::of).toList()
+            )))
+            .toList());
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void orderStatusChanged(Order order, OrderStatus previous) {
+        outboxRepository.appendAll(List.of(event(DomainEventType.ORDER_STATUS_CHANGED, order.getId(), new OrderStatusChanged(
+            order.getId(),
+            order.getUser() != null ? order.getUser().getId() : null,
+            previous,
+            order.getStatus()
+        ))));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void inventoryAdjusted(Long productId, int quantity) {
+        outboxRepository.appendAll(List.of(
+            event(DomainEventType.INVENTORY_ADJUSTED, productId, new InventoryAdjusted(productId, quantity))
+        ));
+    }
+
+    private NewEvent event(DomainEventType type, Long aggregateId, Object payload) {
+        try {
+            return new NewEvent(type.name(), aggregateId, objectMapper.writeValueAsString(payload));
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Could not serialize " + type + " event", ex);
+        }
+    }
+
+    public record OrderPlaced(Long orderId, Long userId, BigDecimal totalAmount, List<OrderLine> items) {
+    }
+
+    public record OrderLine(Long productId, Integer quantity, BigDecimal unitPrice) {
+        static OrderLine of(OrderItem item) {
+            return new OrderLine(
+                item.getProduct() != null ? item.getProduct().getId() : null,
+                item.getQuantity(),
+                item.getPriceAtTime()
+            );
+        }
+    }
+
+    public record OrderStatusChanged(Long orderId, Long userId, OrderStatus from, OrderStatus to) {
+    }
+
+    public record InventoryAdjusted(Long productId, int quantity) {
+    }
+}
@@ -0,0 +1,10 @@
+package com.eyarko.ecom.service;
+
+/**
+ * Kinds of events written to the outbox. Stored by name in {@code outbox_events.event_type}.
+ */
+public enum DomainEventType {
+    ORDER_PLACED,
+    ORDER_STATUS_CHANGED,
+    INVENTORY_ADJUSTED
+}
@@ -1,26 +1,93 @@
 package com.eyarko.ecom.service;
 
-import java.util.concurrent.ConcurrentHashMap;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.Supplier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
 
 /**
  * In-process lock manager for product-scoped inventory mutations.
  *
- * <p>Locks are keyed by product ID so unrelated products can still be processed concurrently.
+ * <p>Product IDs are hashed onto a fixed table of {@code app.inventory.lock.stripes} locks, so memory
+ * stays constant however many products are touched. Unrelated products can still be processed
+ * concurrently unless they share a stripe; more stripes make that rarer. Locks are reentrant, so a
+ * thread holding one product's stripe can lock another product on the same stripe.
+ *
+ * <p>Acquisition waits at most {@code app.inventory.lock.timeout}; when that passes the request fails
+ * with {@code 503 Service Unavailable} instead of holding its thread. Wait and hold times are published
+ * as {@code app.inventory.lock.wait} and {@code app.inventory.lock.hold}, and acquisitions that found
+ * the stripe taken are counted per stripe in {@code app.inventory.lock.contended}.
+ *
+ * <p>{@link #withProductLocks} takes the stripes for several products in ascending stripe order, so two
+ * multi-product callers can never wait on each other in a cycle.
  */
 @Component
 public class InventoryLockManager {
-    private final ConcurrentHashMap<Long, ReentrantLock> productLocks = new ConcurrentHashMap<>();
+    private final ReentrantLock[] stripes;
+    private final int mask;
+    private final long timeoutNanos;
+    private final MeterRegistry meterRegistry;
+    private final Counter[] contended;
+    private final Timer waitTimer;
+    private final Timer holdTimer;
+    private final Counter timeouts;
+
+    public InventoryLockManager(
+        @Value("${app.inventory.lock.stripes:256}") int stripeCount,
+        @Value("${app.inventory.lock.timeout:2s}") Duration timeout,
+        MeterRegistry meterRegistry
+    ) {
+        if (stripeCount < 1) {
+            throw new IllegalArgumentException("app.inventory.lock.stripes must be positive");
+        }
+        int size = Integer.highestOneBit(stripeCount);
+        if (size < stripeCount) {
+            size <<= 1;
+        }
+        this.stripes = new ReentrantLock[size];
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+        this.mask = size - 1;
+        this.timeoutNanos = timeout.toNanos();
+        this.meterRegistry = meterRegistry;
+        this.contended = new Counter[size];
+        this.waitTimer = Timer.builder("app.inventory.lock.wait")
+            .description("Time spent waiting for a product inventory lock")
+            .publishPercentileHistogram()
+            .register(meterRegistry);
+        this.holdTimer = Timer.builder("app.inventory.lock.hold")
+            .description("Time a product inventory lock was held")
+            .publishPercentileHistogram()
+            .register(meterRegistry);
+        this.timeouts = Counter.builder("app.inventory.lock.timeouts")
+            .description("Inventory lock acquisitions that gave up after the timeout")
+            .register(meterRegistry);
+    }
 
     public <T> T withProductLock(Long productId, Supplier<T> action) {
-        ReentrantLock lock = productLocks.computeIfAbsent(productId, ignored -> new ReentrantLock());
-        lock.lock();
+        int stripe = stripeFor(productId);
+        ReentrantLock lock = stripes[stripe];
+        long start = System.nanoTime();
+        if (!lock.tryLock()) {
+            contendedCounter(stripe).increment();
+            acquire(lock, start);
+        }
+        long acquired = System.nanoTime();
+        waitTimer.record(acquired - start, TimeUnit.NANOSECONDS);
         try {
             return action.get();
         } finally {
             lock.unlock();
+            holdTimer.record(System.nanoTime() - acquired, TimeUnit.NANOSECONDS);
         }
     }
 
@@ -30,4 +97,90 @@ public class InventoryLockManager {
             return null;
         });
     }
+
+    /**
+     * Runs {@code action} holding the stripes of every given product. Stripes are acquired in ascending
+     * order and the timeout covers acquiring all of them.
+     */
+    public <T> T withProductLocks(Collection<Long> productIds, Supplier<T> action) {
+        int[] order = productIds.stream().mapToInt(this::stripeFor).distinct().sorted().toArray();
+        long start = System.nanoTime();
+        int held = 0;
+        try {
+            for (int stripe : order) {
+                ReentrantLock lock = stripes[stripe];
+                if (!lock.tryLock()) {
+                    contendedCounter(stripe).increment();
+                    acquire(lock, start);
+                }
+                held++;
+            }
+        } finally {
+            if (held < order.length) {
+                unlock(order, held);
+            }
+        }
+        long acquired = System.nanoTime();
+        waitTimer.record(acquired - start, TimeUnit.NANOSECONDS);
+        try {
+            return action.get();
+        } finally {
+            unlock(order, held);
+            holdTimer.record(System.nanoTime() - acquired, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * @return number of lock stripes (a power of two)
+     */
+    public int stripeCount() {
+        return stripes.length;
+    }
+
+    int stripeFor(Long productId) {
+        long id = productId == null ? 0L : productId;
+        // Spread sequential IDs across the table; the low bits alone would map runs to neighbours.
+        long h = id * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+
+    private void acquire(ReentrantLock lock, long start) {
+        boolean locked;
+        try {
+            locked = lock.tryLock(timeoutNanos - (System.nanoTime() - start), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw busy();
+        }
+        if (!locked) {
+            timeouts.increment();
+            waitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            throw busy();
+        }
+    }
+
+    private void unlock(int[] order, int held) {
+        for (int i = held - 1; i >= 0; i--) {
+            stripes[order[i]].unlock();
+        }
+    }
+
+    private Counter contendedCounter(int stripe) {
+        Counter counter = contended[stripe];
+        if (counter == null) {
+            // Registered on first contention so idle stripes publish nothing; registration is idempotent.
+            counter = Counter.builder("app.inventory.lock.contended")
+                .description("Lock acquisitions that found the stripe already held")
+                .tag("stripe", Integer.toString(stripe))
+                .register(meterRegistry);
+            contended[stripe] = counter;
+        }
+        return counter;
+    }
+
+    private static ResponseStatusException busy() {
+        return new ResponseStatusException(
+            HttpStatus.SERVICE_UNAVAILABLE, "Inventory is busy for this product, please retry"
+        );
+    }
 }
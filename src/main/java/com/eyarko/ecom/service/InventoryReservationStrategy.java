@@ -0,0 +1,99 @@
+package com.eyarko.ecom.service;
+
+import com.eyarko.ecom.dto.InventoryResponse;
+import com.eyarko.ecom.entity.OrderItem;
+import com.eyarko.ecom.entity.Product;
+import java.util.Collection;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.function.Supplier;
+
+/**
+ * How stock is taken, returned and overwritten under concurrency. One implementation is active per
+ * deployment, chosen by {@code app.inventory.strategy}:
+ * <ul>
+ *   <li>{@value #PESSIMISTIC}: in-process product lock plus a {@code SELECT ... FOR UPDATE}
+ *       read-modify-write;</li>
+ *   <li>{@value #CONDITIONAL}: one conditional {@code UPDATE ... WHERE quantity >= ?}, no read first;</li>
+ *   <li>{@value #OPTIMISTIC}: read, then write only if {@code version} is unchanged, retrying with
+ *       backoff a bounded number of times.</li>
+ * </ul>
+ *
+ * <p>All methods join the caller's transaction and publish the new quantity to the stock cache once
+ * it commits. The multi-product methods touch rows in ascending product id order, so two orders
+ * sharing products cannot deadlock on each other's row locks.
+ */
+public interface InventoryReservationStrategy {
+    String PESSIMISTIC = "pessimistic";
+    String CONDITIONAL = "conditional";
+    String OPTIMISTIC = "optimistic";
+
+    String name();
+
+    /**
+     * Takes stock for an order line.
+     *
+     * @throws org.springframework.web.server.ResponseStatusException 400 when the product has no
+     *     inventory row or too little stock
+     */
+    void reserve(Long productId, int quantity);
+
+    /**
+     * Returns stock, e.g. for a cancelled order line.
+     *
+     * @throws org.springframework.web.server.ResponseStatusException 400 when the product has no
+     *     inventory row
+     */
+    void restore(Long productId, int quantity);
+
+    /**
+     * Takes stock for a whole order atomically: either every line is reserved or the call throws.
+     *
+     * @param quantities units to take, keyed by product id
+     * @throws org.springframework.web.server.ResponseStatusException 400 when any product has no
+     *     inventory row or too little stock
+     */
+    default void reserveAll(Map<Long, Integer> quantities) {
+        new TreeMap<>(quantities).forEach(this::reserve);
+    }
+
+    /**
+     * Returns stock for a whole order.
+     *
+     * @param quantities units to return, keyed by product id
+     */
+    default void restoreAll(Map<Long, Integer> quantities) {
+        new TreeMap<>(quantities).forEach(this::restore);
+    }
+
+    /**
+     * Runs {@code action} with the stock of all given products locked for the rest of the current
+     * transaction, taken in ascending product id order. Lets one transaction reserve for several
+     * orders in turn without ever waiting for a row while holding a higher one.
+     */
+    default <T> T withStockLocked(Collection<Long> productIds, Supplier<T> action) {
+        return action.get();
+    }
+
+    /**
+     * Overwrites the stock level, creating the inventory row if the product has none.
+     *
+     * @return the inventory after the write
+     */
+    InventoryResponse setQuantity(Product product, int quantity);
+
+    /**
+     * Merges order lines into units per product, sorted by product id. Lines without a product are
+     * skipped.
+     */
+    static SortedMap<Long, Integer> quantitiesByProduct(Collection<OrderItem> items) {
+        SortedMap<Long, Integer> quantities = new TreeMap<>();
+        for (OrderItem item : items) {
+            if (item != null && item.getProduct() != null) {
+                quantities.merge(item.getProduct().getId(), item.getQuantity(), Integer::sum);
+            }
+        }
+        return quantities;
+    }
+}
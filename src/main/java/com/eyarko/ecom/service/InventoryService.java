@@ -2,14 +2,12 @@ package com.eyarko.ecom.service;
 
 import com.eyarko.ecom.dto.InventoryAdjustRequest;
 import com.eyarko.ecom.dto.InventoryResponse;
-import com.eyarko.ecom.entity.Inventory;
 import com.eyarko.ecom.entity.Product;
-import com.eyarko.ecom.util.InventoryStatusDisplay;
 import com.eyarko.ecom.mapper.InventoryMapper;
+import com.eyarko.ecom.util.InventoryStatusDisplay;
 import com.eyarko.ecom.repository.InventoryRepository;
+import com.eyarko.ecom.repository.InventoryShardRepository;
 import com.eyarko.ecom.repository.ProductRepository;
-import org.springframework.cache.Cache;
-import org.springframework.cache.CacheManager;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Isolation;
@@ -24,19 +22,22 @@ import org.springframework.web.server.ResponseStatusException;
 public class InventoryService {
     private final InventoryRepository inventoryRepository;
     private final ProductRepository productRepository;
-    private final CacheManager cacheManager;
-    private final InventoryLockManager inventoryLockManager;
+    private final InventoryReservationStrategy inventoryStrategy;
+    private final InventoryShardRepository inventoryShardRepository;
+    private final DomainEventPublisher domainEventPublisher;
 
     public InventoryService(
         InventoryRepository inventoryRepository,
         ProductRepository productRepository,
-        CacheManager cacheManager,
-        InventoryLockManager inventoryLockManager
+        InventoryReservationStrategy inventoryStrategy,
+        InventoryShardRepository inventoryShardRepository,
+        DomainEventPublisher domainEventPublisher
     ) {
         this.inventoryRepository = inventoryRepository;
         this.productRepository = productRepository;
-        this.cacheManager = cacheManager;
-        this.inventoryLockManager = inventoryLockManager;
+        this.inventoryStrategy = inventoryStrategy;
+        this.inventoryShardRepository = inventoryShardRepository;
+        this.domainEventPublisher = domainEventPublisher;
     }
 
     /**
@@ -50,15 +51,9 @@ public class InventoryService {
         Product product = productRepository.findById(request.getProductId())
             .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Product not found"));
 
-        Inventory saved = inventoryLockManager.withProductLock(product.getId(), () -> {
-            Inventory inventory = inventoryRepository.findByProductIdForUpdate(product.getId())
-                .orElseGet(() -> Inventory.builder().product(product).quantity(0).statusDisplay("Out of stock").build());
-            inventory.setQuantity(request.getQuantity());
-            inventory.setStatusDisplay(InventoryStatusDisplay.fromQuantity(inventory.getQuantity()));
-            return inventoryRepository.save(inventory);
-        });
-        evictProductCaches(product.getId());
-        return InventoryMapper.toResponse(saved);
+        InventoryResponse response = inventoryStrategy.setQuantity(product, request.getQuantity());
+        domainEventPublisher.inventoryAdjusted(product.getId(), request.getQuantity());
+        return response;
     }
 
     /**
@@ -72,8 +67,10 @@ public class InventoryService {
         if (!productRepository.existsById(productId)) {
             throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Product not found");
         }
+        Integer sharded = inventoryShardRepository.totalQuantity(productId);
         return inventoryRepository.findByProduct_Id(productId)
             .map(InventoryMapper::toResponse)
+            .map(response -> sharded == null ? response : withShardedStock(response, sharded))
             .orElseGet(() -> InventoryResponse.builder()
                 .productId(productId)
                 .quantity(0)
@@ -82,16 +79,11 @@ public class InventoryService {
                 .build());
     }
 
-    private void evictProductCaches(Long productId) {
-        Cache byId = cacheManager.getCache("productById");
-        if (byId != null && productId != null) {
-            byId.evict(productId);
-        }
-        Cache lists = cacheManager.getCache("productLists");
-        if (lists != null) {
-            lists.clear();
-        }
+    /** Sharded products keep most of their stock in shard rows; report the total. */
+    private static InventoryResponse withShardedStock(InventoryResponse response, int shardQuantity) {
+        int quantity = response.getQuantity() + shardQuantity;
+        response.setQuantity(quantity);
+        response.setStockStatus(InventoryStatusDisplay.fromQuantity(quantity));
+        return response;
     }
 }
-
-
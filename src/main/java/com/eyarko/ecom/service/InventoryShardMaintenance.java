@@ -0,0 +1,132 @@
+package com.eyarko.ecom.service;
+
+import com.eyarko.ecom.config.InventoryShardingProperties;
+import com.eyarko.ecom.infrastructure.cache.StockLevelCache;
+import com.eyarko.ecom.repository.InventoryShardRepository;
+import com.eyarko.ecom.repository.InventoryShardRepository.Shard;
+import com.eyarko.ecom.repository.InventoryStockRepository;
+import com.eyarko.ecom.repository.InventoryStockRepository.StockLevel;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Keeps {@code inventory_shards} in line with {@code app.inventory.sharding.product-ids}.
+ *
+ * <p>On startup, listed products have their stock moved into shards and unlisted products that still
+ * have shards are folded back into their inventory row. Afterwards, every
+ * {@code app.inventory.sharding.rebalance-delay-ms}, a listed product whose shards have drifted apart
+ * (one is empty while others hold stock) is spread evenly again, together with any units that landed on
+ * its inventory row. Each product is handled in its own short transaction, locking its inventory row
+ * before its shards, the same order reservations use.
+ */
+@Component
+public class InventoryShardMaintenance {
+    private static final Logger log = LoggerFactory.getLogger(InventoryShardMaintenance.class);
+
+    private final InventoryShardRepository shardRepository;
+    private final InventoryStockRepository stockRepository;
+    private final StockLevelCache stockLevelCache;
+    private final InventoryShardingProperties properties;
+    private final TransactionTemplate transactionTemplate;
+
+    public InventoryShardMaintenance(
+        InventoryShardRepository shardRepository,
+        InventoryStockRepository stockRepository,
+        StockLevelCache stockLevelCache,
+        InventoryShardingProperties properties,
+        PlatformTransactionManager transactionManager
+    ) {
+        this.shardRepository = shardRepository;
+        this.stockRepository = stockRepository;
+        this.stockLevelCache = stockLevelCache;
+        this.properties = properties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void syncOnStartup() {
+        for (Long productId : shardRepository.shardedProductIds()) {
+            if (!properties.getProductIds().contains(productId)) {
+                transactionTemplate.executeWithoutResult(status -> unshard(productId));
+            }
+        }
+        for (Long productId : properties.getProductIds()) {
+            transactionTemplate.executeWithoutResult(status -> rebalance(productId, true));
+        }
+    }
+
+    @Scheduled(
+        fixedDelayString = "${app.inventory.sharding.rebalance-delay-ms:5000}",
+        initialDelayString = "${app.inventory.sharding.rebalance-delay-ms:5000}"
+    )
+    public void rebalanceSkewed() {
+        for (Long productId : properties.getProductIds()) {
+            try {
+                if (isSkewed(shardRepository.findShards(productId))) {
+                    transactionTemplate.executeWithoutResult(status -> rebalance(productId, false));
+                }
+            } catch (Exception ex) {
+                log.warn("Could not rebalance stock shards for product {}", productId, ex);
+            }
+        }
+    }
+
+    /**
+     * Spreads the product's whole stock, its inventory row plus its shards, evenly over the configured
+     * number of shards and leaves the row at 0.
+     *
+     * @param force rewrite even if the shards are still balanced
+     */
+    void rebalance(long productId, boolean force) {
+        List<StockLevel> row = stockRepository.lockAll(List.of(productId));
+        if (row.isEmpty()) {
+            return;
+        }
+        List<Shard> existing = shardRepository.lockShards(productId);
+        int onRow = row.get(0).quantity();
+        if (!force && onRow == 0 && existing.size() == properties.getShards() && !isSkewed(existing)) {
+            return;
+        }
+        int total = onRow + existing.stream().mapToInt(Shard::quantity).sum();
+        shardRepository.writeShards(productId, existing, InventoryShardRepository.spread(total, properties.getShards()));
+        if (onRow != 0) {
+            stockRepository.set(productId, 0);
+        }
+        if (existing.size() > properties.getShards()) {
+            // Dropping shards lowers the version sum below what may be cached.
+            stockLevelCache.replaceAfterCommit(productId);
+        } else {
+            stockLevelCache.reloadAfterCommit(productId);
+        }
+    }
+
+    /**
+     * Moves all of a product's shard stock back onto its inventory row and drops the shards.
+     */
+    void unshard(long productId) {
+        List<StockLevel> row = stockRepository.lockAll(List.of(productId));
+        List<Shard> existing = shardRepository.lockShards(productId);
+        int total = existing.stream().mapToInt(Shard::quantity).sum();
+        stockRepository.set(productId, (row.isEmpty() ? 0 : row.get(0).quantity()) + total);
+        shardRepository.deleteShards(productId);
+        stockLevelCache.replaceAfterCommit(productId);
+        log.info("Folded {} units from stock shards back into inventory for product {}", total, productId);
+    }
+
+    private static boolean isSkewed(List<Shard> shards) {
+        boolean anyEmpty = false;
+        boolean anyStocked = false;
+        for (Shard shard : shards) {
+            anyEmpty |= shard.quantity() == 0;
+            anyStocked |= shard.quantity() > 1;
+        }
+        return anyEmpty && anyStocked;
+    }
+}
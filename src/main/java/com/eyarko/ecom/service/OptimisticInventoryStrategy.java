@@ -0,0 +1,114 @@
+package com.eyarko.ecom.service;
+
+import com.eyarko.ecom.dto.InventoryResponse;
+import com.eyarko.ecom.entity.Product;
+import com.eyarko.ecom.infrastructure.cache.StockLevelCache;
+import com.eyarko.ecom.mapper.InventoryMapper;
+import com.eyarko.ecom.repository.InventoryStockRepository;
+import com.eyarko.ecom.repository.InventoryStockRepository.StockLevel;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.IntUnaryOperator;
+import java.util.function.Supplier;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Reads the stock row without locking and writes it back only if {@code version} has not moved. On a
+ * lost race it re-reads and tries again, sleeping a jittered, doubling backoff between attempts; after
+ * {@code max-attempts} the request fails with {@code 409 Conflict}.
+ *
+ * <p>The compare-and-set is a plain JDBC update that reports zero rows on conflict, rather than an
+ * entity save that throws: a JPA optimistic-lock failure marks the whole transaction rollback-only, so
+ * it could not be retried inside the order's transaction.
+ */
+public class OptimisticInventoryStrategy implements InventoryReservationStrategy {
+    private final InventoryStockRepository stockRepository;
+    private final StockLevelCache stockLevelCache;
+    private final int maxAttempts;
+    private final long backoffNanos;
+
+    public OptimisticInventoryStrategy(
+        InventoryStockRepository stockRepository,
+        StockLevelCache stockLevelCache,
+        int maxAttempts,
+        Duration backoff
+    ) {
+        this.stockRepository = stockRepository;
+        this.stockLevelCache = stockLevelCache;
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.backoffNanos = backoff.toNanos();
+    }
+
+    @Override
+    public String name() {
+        return OPTIMISTIC;
+    }
+
+    @Override
+    public void reserve(Long productId, int quantity) {
+        update(productId, current -> {
+            int remaining = current - quantity;
+            if (remaining < 0) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Insufficient stock");
+            }
+            return remaining;
+        });
+    }
+
+    @Override
+    public <T> T withStockLocked(Collection<Long> productIds, Supplier<T> action) {
+        if (!productIds.isEmpty()) {
+            stockRepository.lockAll(productIds);
+        }
+        return action.get();
+    }
+
+    @Override
+    public void restore(Long productId, int quantity) {
+        update(productId, current -> current + quantity);
+    }
+
+    @Override
+    public InventoryResponse setQuantity(Product product, int quantity) {
+        if (stockRepository.find(product.getId()).isEmpty()) {
+            stockRepository.set(product.getId(), quantity);
+            StockLevel created = stockRepository.find(product.getId()).orElseThrow();
+            stockLevelCache.updateAfterCommit(created.productId(), created.quantity(), created.version());
+            return InventoryMapper.toResponse(created);
+        }
+        return InventoryMapper.toResponse(update(product.getId(), ignored -> quantity));
+    }
+
+    private StockLevel update(long productId, IntUnaryOperator change) {
+        for (int attempt = 1; ; attempt++) {
+            StockLevel current = stockRepository.find(productId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.BAD_REQUEST, "Inventory not found"));
+            int quantity = change.applyAsInt(current.quantity());
+            if (stockRepository.compareAndSet(productId, current.version(), quantity)) {
+                long version = current.version() + 1;
+                stockLevelCache.updateAfterCommit(productId, quantity, version);
+                return new StockLevel(productId, quantity, version, Instant.now());
+            }
+            if (attempt >= maxAttempts) {
+                throw new ResponseStatusException(
+                    HttpStatus.CONFLICT, "Stock for this product is changing quickly, please retry"
+                );
+            }
+            backOff(attempt);
+        }
+    }
+
+    private void backOff(int attempt) {
+        long ceiling = backoffNanos << Math.min(attempt - 1, 10);
+        long sleepNanos = ceiling / 2 + ThreadLocalRandom.current().nextLong(ceiling / 2 + 1);
+        try {
+            Thread.sleep(sleepNanos / 1_000_000, (int) (sleepNanos % 1_000_000));
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Interrupted while updating stock");
+        }
+    }
+}
@@ -0,0 +1,363 @@
+package com.eyarko.ecom.service;
+
+import com.eyarko.ecom.dto.OrderCreateRequest;
+import com.eyarko.ecom.dto.OrderResponse;
+import com.eyarko.ecom.entity.Order;
+import com.eyarko.ecom.entity.Product;
+import com.eyarko.ecom.entity.User;
+import com.eyarko.ecom.infrastructure.cache.StockLevelCache;
+import com.eyarko.ecom.infrastructure.datasource.ReadYourWritesTracker;
+import com.eyarko.ecom.mapper.OrderMapper;
+import com.eyarko.ecom.repository.OrderRepository;
+import com.eyarko.ecom.repository.UserRepository;
+import com.eyarko.ecom.security.UserPrincipal;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.sql.Connection;
+import java.sql.Savepoint;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Group commit for order placement. Orders arriving within {@code app.orders.group-commit.window} of
+ * each other (at most {@code max-batch}) are created by one flusher thread in a single transaction, so
+ * they share one commit instead of paying one each.
+ *
+ * <p>Each caller still gets its own outcome. Orders that fail validation are left out before any stock
+ * is touched. The stock of every product in the batch is then locked once, in product id order, and
+ * each order is reserved under its own savepoint: an order that is short on stock is rolled back to its
+ * savepoint and fails alone while the rest of the batch goes ahead. All accepted orders and their lines
+ * are inserted with one flush, and callers are answered after the commit.
+ *
+ * <p>A caller that stops waiting withdraws its order if no batch has taken it yet, so a retry cannot
+ * place it twice; once a batch has taken it, the caller waits for that batch's outcome instead. The
+ * flusher thread has no security context, so the caller records its own write for read-your-writes
+ * routing once the order is committed.
+ */
+@Service
+public class OrderGroupCommitter {
+    private static final Logger log = LoggerFactory.getLogger(OrderGroupCommitter.class);
+
+    private final OrderService orderService;
+    private final UserRepository userRepository;
+    private final OrderRepository orderRepository;
+    private final InventoryReservationStrategy inventoryStrategy;
+    private final StockLevelCache stockLevelCache;
+    private final DomainEventPublisher domainEventPublisher;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ReadYourWritesTracker readYourWritesTracker;
+    private final boolean enabled;
+    private final long windowNanos;
+    private final int maxBatch;
+    private final Duration timeout;
+    // Unbounded, but every entry has a request thread blocked on it, so the servlet pool bounds it.
+    private final BlockingQueue<PendingOrder> queue = new LinkedBlockingQueue<>();
+    private volatile Thread flusher;
+
+    public OrderGroupCommitter(
+        OrderService orderService,
+        UserRepository userRepository,
+        OrderRepository orderRepository,
+        InventoryReservationStrategy inventoryStrategy,
+        StockLevelCache stockLevelCache,
+        DomainEventPublisher domainEventPublisher,
+        JdbcTemplate jdbcTemplate,
+        PlatformTransactionManager transactionManager,
+        ObjectProvider<ReadYourWritesTracker> readYourWritesTracker,
+        @Value("${app.orders.group-commit.enabled:false}") boolean enabled,
+        @Value("${app.orders.group-commit.window:5ms}") Duration window,
+        @Value("${app.orders.group-commit.max-batch:32}") int maxBatch,
+        @Value("${app.orders.group-commit.timeout:10s}") Duration timeout
+    ) {
+        this.orderService = orderService;
+        this.userRepository = userRepository;
+        this.orderRepository = orderRepository;
+        this.inventoryStrategy = inventoryStrategy;
+        this.stockLevelCache = stockLevelCache;
+        this.domainEventPublisher = domainEventPublisher;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.readYourWritesTracker = readYourWritesTracker.getIfAvailable();
+        this.enabled = enabled;
+        this.windowNanos = window.toNanos();
+        this.maxBatch = Math.max(1, maxBatch);
+        this.timeout = timeout;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled || flusher != null) {
+            return;
+        }
+        flusher = new Thread(this::run, "order-group-commit");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        Thread thread = flusher;
+        flusher = null;
+        if (thread != null) {
+            thread.interrupt();
+        }
+        List<PendingOrder> abandoned = new ArrayList<>();
+        queue.drainTo(abandoned);
+        abandoned.forEach(pending -> pending.future.completeExceptionally(
+            new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Order service is shutting down")
+        ));
+    }
+
+    /**
+     * Places an order for the authenticated user in the next batch and waits for its outcome.
+     *
+     * @param request order payload
+     * @return created order
+     * @throws ResponseStatusException the order's own failure, as {@link OrderService#createOrder} would
+     *     throw it; 503 when no batch took the order within {@code app.orders.group-commit.timeout}, in
+     *     which case it was withdrawn and is safe to retry
+     */
+    public OrderResponse place(OrderCreateRequest request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()
+            || !(authentication.getPrincipal() instanceof UserPrincipal principal)) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Authentication required");
+        }
+        OrderResponse order = await(enqueue(principal.getId(), request));
+        if (readYourWritesTracker != null) {
+            readYourWritesTracker.recordWrite();
+        }
+        return order;
+    }
+
+    /**
+     * Queues an order for the next batch.
+     *
+     * @return completes with the created order after its batch commits, or with the order's failure
+     */
+    public CompletableFuture<OrderResponse> submit(Long userId, OrderCreateRequest request) {
+        return enqueue(userId, request).future;
+    }
+
+    private PendingOrder enqueue(Long userId, OrderCreateRequest request) {
+        if (flusher == null) {
+            throw new IllegalStateException("Group commit is not running");
+        }
+        PendingOrder pending = new PendingOrder(userId, request);
+        queue.add(pending);
+        return pending;
+    }
+
+    private OrderResponse await(PendingOrder pending) {
+        try {
+            try {
+                return pending.future.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+            } catch (TimeoutException ex) {
+                if (pending.withdraw()) {
+                    throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Order was not placed, please retry");
+                }
+                // Its batch is already running; answering now would invite a retry that places it twice.
+                return pending.future.get();
+            }
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(ex.getCause());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            String reason = pending.withdraw()
+                ? "Interrupted while placing order"
+                : "Interrupted while placing order, check your orders";
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, reason);
+        }
+    }
+
+    private void run() {
+        while (flusher == Thread.currentThread()) {
+            try {
+                List<PendingOrder> batch = nextBatch();
+                commit(batch);
+            } catch (InterruptedException ex) {
+                return;
+            }
+        }
+    }
+
+    private List<PendingOrder> nextBatch() throws InterruptedException {
+        List<PendingOrder> batch = new ArrayList<>(maxBatch);
+        batch.add(queue.take());
+        long deadline = System.nanoTime() + windowNanos;
+        while (batch.size() < maxBatch) {
+            long left = deadline - System.nanoTime();
+            PendingOrder next = left > 0 ? queue.poll(left, TimeUnit.NANOSECONDS) : queue.poll();
+            if (next == null) {
+                break;
+            }
+            batch.add(next);
+        }
+        return batch;
+    }
+
+    /**
+     * Creates a batch of orders in one transaction and then completes every caller's future. Orders
+     * whose callers already gave up are dropped; the rest can no longer be withdrawn.
+     */
+    void commit(List<PendingOrder> queued) {
+        List<PendingOrder> batch = queued.stream().filter(PendingOrder::take).toList();
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> placeAll(batch));
+        } catch (RuntimeException ex) {
+            log.error("Order batch of {} failed", batch.size(), ex);
+            batch.forEach(pending -> pending.future.completeExceptionally(ex));
+            return;
+        }
+        for (PendingOrder pending : batch) {
+            if (pending.failure != null) {
+                pending.future.completeExceptionally(pending.failure);
+            } else {
+                pending.future.complete(OrderMapper.toResponse(pending.order));
+            }
+        }
+    }
+
+    private void placeAll(List<PendingOrder> batch) {
+        Map<Long, User> users = userRepository.findAllById(
+            batch.stream().map(pending -> pending.userId).collect(Collectors.toSet())
+        ).stream().collect(Collectors.toMap(User::getId, Function.identity()));
+        Map<Long, Product> products = orderService.findProducts(
+            OrderService.productIds(batch.stream().map(pending -> pending.request).toList())
+        );
+
+        Set<Long> stocked = new TreeSet<>();
+        for (PendingOrder pending : batch) {
+            try {
+                User user = users.get(pending.userId);
+                if (user == null) {
+                    throw new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found");
+                }
+                pending.order = orderService.newOrder(user, pending.request, products);
+                pending.quantities = InventoryReservationStrategy.quantitiesByProduct(pending.order.getItems());
+                stocked.addAll(pending.quantities.keySet());
+            } catch (ResponseStatusException ex) {
+                pending.fail(ex);
+            }
+        }
+
+        inventoryStrategy.withStockLocked(stocked, () -> {
+            for (PendingOrder pending : batch) {
+                if (pending.order != null) {
+                    reserve(pending);
+                }
+            }
+            return null;
+        });
+
+        List<Order> accepted = batch.stream()
+            .filter(pending -> pending.order != null)
+            .map(pending -> pending.order)
+            .toList();
+        orderRepository.saveAll(accepted);
+        orderRepository.flush();
+        domainEventPublisher.orderPlaced(accepted);
+    }
+
+    /**
+     * Reserves one order's stock under a JDBC savepoint on the transaction's connection. The JPA
+     * transaction manager cannot create savepoints, and rolling back to a JDBC one only undoes
+     * statements already sent, not changes still pending in the persistence context. That holds here
+     * because every strategy's {@code reserveAll}, including the sharded fallback to a single-row
+     * reserve, writes stock through {@code InventoryStockRepository} on that same connection rather
+     * than through managed {@code Inventory} entities, and the order itself is not persisted yet.
+     */
+    private void reserve(PendingOrder pending) {
+        Savepoint savepoint = jdbcTemplate.execute((ConnectionCallback<Savepoint>) Connection::setSavepoint);
+        try {
+            inventoryStrategy.reserveAll(pending.quantities);
+            jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+                connection.releaseSavepoint(savepoint);
+                return null;
+            });
+        } catch (ResponseStatusException ex) {
+            jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+                connection.rollback(savepoint);
+                return null;
+            });
+            // The strategy may already have offered part of this order to the stock cache.
+            pending.quantities.keySet().forEach(stockLevelCache::replaceAfterCommit);
+            pending.fail(ex);
+        }
+    }
+
+    static final class PendingOrder {
+        private final Long userId;
+        private final OrderCreateRequest request;
+        private final CompletableFuture<OrderResponse> future = new CompletableFuture<>();
+        private final AtomicBoolean decided = new AtomicBoolean();
+        private Order order;
+        private Map<Long, Integer> quantities;
+        private ResponseStatusException failure;
+
+        private PendingOrder(Long userId, OrderCreateRequest request) {
+            this.userId = userId;
+            this.request = request;
+        }
+
+        /**
+         * Called by the flusher before the batch starts.
+         *
+         * @return false when the caller already withdrew the order
+         */
+        private boolean take() {
+            return decided.compareAndSet(false, true);
+        }
+
+        /**
+         * Called by a caller that stops waiting.
+         *
+         * @return false when a batch already took the order
+         */
+        private boolean withdraw() {
+            return decided.compareAndSet(false, true);
+        }
+
+        private void fail(ResponseStatusException ex) {
+            order = null;
+            failure = ex;
+        }
+    }
+}
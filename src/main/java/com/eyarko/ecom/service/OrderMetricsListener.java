@@ -0,0 +1,26 @@
+package com.eyarko.ecom.service;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * Counts placed orders in {@code app.orders.processed.total}. Driven by the outbox, so only committed
+ * orders are counted, whichever path created them.
+ */
+@Component
+public class OrderMetricsListener implements DomainEventListener {
+    private final ApplicationMetricsService applicationMetricsService;
+
+    public OrderMetricsListener(ApplicationMetricsService applicationMetricsService) {
+        this.applicationMetricsService = applicationMetricsService;
+    }
+
+    @Override
+    public boolean supports(DomainEventType type) {
+        return type == DomainEventType.ORDER_PLACED;
+    }
+
+    @Override
+    public void onEvent(DomainEvent event) {
+        applicationMetricsService.incrementProcessedOrders();
+    }
+}
@@ -5,28 +5,37 @@ import com.eyarko.ecom.dto.OrderItemRequest;
 import com.eyarko.ecom.dto.OrderResponse;
 import com.eyarko.ecom.dto.OrderStatusUpdateRequest;
 import com.eyarko.ecom.dto.PagedResponse;
-import com.eyarko.ecom.entity.Inventory;
 import com.eyarko.ecom.entity.Order;
 import com.eyarko.ecom.entity.OrderItem;
 import com.eyarko.ecom.entity.Product;
 import com.eyarko.ecom.entity.OrderStatus;
 import com.eyarko.ecom.entity.User;
 import com.eyarko.ecom.mapper.OrderMapper;
-import com.eyarko.ecom.repository.InventoryRepository;
+import com.eyarko.ecom.repository.OrderItemRow;
 import com.eyarko.ecom.security.UserPrincipal;
+import com.eyarko.ecom.util.CursorUtil;
 import io.micrometer.core.annotation.Timed;
 import io.micrometer.core.instrument.Timer;
-import org.springframework.cache.Cache;
-import org.springframework.cache.CacheManager;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import com.eyarko.ecom.repository.OrderRepository;
+import com.eyarko.ecom.repository.OrderSummaryRow;
 import com.eyarko.ecom.repository.ProductRepository;
 import com.eyarko.ecom.repository.UserRepository;
 import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Isolation;
@@ -42,31 +51,28 @@ public class OrderService {
     private final OrderRepository orderRepository;
     private final UserRepository userRepository;
     private final ProductRepository productRepository;
-    private final InventoryRepository inventoryRepository;
-    private final CacheManager cacheManager;
-    private final InventoryLockManager inventoryLockManager;
+    private final InventoryReservationStrategy inventoryStrategy;
     private final ApplicationMetricsService applicationMetricsService;
+    private final DomainEventPublisher domainEventPublisher;
 
     public OrderService(
         OrderRepository orderRepository,
         UserRepository userRepository,
         ProductRepository productRepository,
-        InventoryRepository inventoryRepository,
-        CacheManager cacheManager,
-        InventoryLockManager inventoryLockManager,
-        ApplicationMetricsService applicationMetricsService
+        InventoryReservationStrategy inventoryStrategy,
+        ApplicationMetricsService applicationMetricsService,
+        DomainEventPublisher domainEventPublisher
     ) {
         this.orderRepository = orderRepository;
         this.userRepository = userRepository;
         this.productRepository = productRepository;
-        this.inventoryRepository = inventoryRepository;
-        this.cacheManager = cacheManager;
-        this.inventoryLockManager = inventoryLockManager;
+        this.inventoryStrategy = inventoryStrategy;
         this.applicationMetricsService = applicationMetricsService;
+        this.domainEventPublisher = domainEventPublisher;
     }
 
     /**
-     * Creates an order and reserves inventory.
+     * Creates an order for the authenticated user and reserves inventory.
      *
      * @param request order payload
      * @return created order
@@ -78,43 +84,47 @@ public class OrderService {
     )
     @Timed(value = "app.orders.create.timed", description = "Time spent creating orders")
     public OrderResponse createOrder(OrderCreateRequest request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()
+            || !(authentication.getPrincipal() instanceof UserPrincipal principal)) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Authentication required");
+        }
+        return createOrderFor(principal.getId(), request);
+    }
+
+    /**
+     * Creates an order for a given user and reserves inventory. Used by the async checkout workers,
+     * which run outside the request that identified the user.
+     *
+     * @param userId ordering user
+     * @param request order payload
+     * @return created order
+     */
+    @Transactional(
+        propagation = Propagation.REQUIRED,
+        isolation = Isolation.READ_COMMITTED,
+        rollbackFor = Exception.class
+    )
+    @Timed(value = "app.orders.create.timed", description = "Time spent creating orders")
+    public OrderResponse createOrderFor(Long userId, OrderCreateRequest request) {
         Timer.Sample sample = applicationMetricsService.startTimer();
         try {
             if (request.getItems() == null || request.getItems().isEmpty()) {
                 throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Order items are required");
             }
-            
-            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-            if (authentication == null || !authentication.isAuthenticated()
-                || !(authentication.getPrincipal() instanceof UserPrincipal principal)) {
-                throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Authentication required");
-            }
-            Long userId = principal.getId();
-            
+
             User user = userRepository.findById(userId)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found"));
 
-            Order order = Order.builder()
-                .user(user)
-                .status(OrderStatus.PENDING)
-                .build();
-
-            List<OrderItem> items = request.getItems().stream()
-                .map(item -> toOrderItem(order, item))
-                .collect(Collectors.toList());
+            Order order = newOrder(user, request, findProducts(productIds(List.of(request))));
+            inventoryStrategy.reserveAll(InventoryReservationStrategy.quantitiesByProduct(order.getItems()));
 
-            order.setItems(items);
-            order.setTotalAmount(calculateTotal(items));
-
-            items.forEach(this::reserveInventory);
-            evictProductCaches(items);
-
-            Order savedOrder = orderRepository.save(order);
+            // Ids come from pooled sequences, so the flush sends the order and its lines as batched
+            // inserts; the response is built from the aggregate in memory instead of re-reading it.
+            orderRepository.save(order);
             orderRepository.flush();
-            savedOrder = orderRepository.findById(savedOrder.getId())
-                .orElse(savedOrder);
-            applicationMetricsService.incrementProcessedOrders();
-            return OrderMapper.toResponse(savedOrder);
+            domainEventPublisher.orderPlaced(List.of(order));
+            return OrderMapper.toResponse(order);
         } finally {
             applicationMetricsService.stopTimer(sample, "app.orders.create.duration");
         }
@@ -147,29 +157,12 @@ public class OrderService {
     @Transactional(readOnly = true)
     @Timed(value = "app.orders.list.timed", description = "Time spent listing orders")
     public PagedResponse<OrderResponse> listOrders(Pageable pageable) {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        if (authentication == null || !authentication.isAuthenticated()
-            || !(authentication.getPrincipal() instanceof UserPrincipal principal)) {
-            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Authentication required");
-        }
-        
-        boolean isAdmin = authentication.getAuthorities().stream()
-            .anyMatch(a -> "ROLE_ADMIN".equals(a.getAuthority()));
-        
-        var page = isAdmin
-            ? orderRepository.findAllOrders(pageable)
-            : orderRepository.findByUser_Id(principal.getId(), pageable);
-            
-        page.getContent().forEach(order -> {
-            if (order.getItems() != null) {
-                order.getItems().size();
-            }
-        });
-        List<OrderResponse> items = page.getContent().stream()
-            .map(OrderMapper::toResponse)
-            .collect(Collectors.toList());
+        Long userFilter = resolveListUserFilter();
+        Page<OrderSummaryRow> page = userFilter == null
+            ? orderRepository.findSummaryRows(pageable)
+            : orderRepository.findSummaryRowsByUserId(userFilter, pageable);
         return PagedResponse.<OrderResponse>builder()
-            .items(items)
+            .items(withItems(page.getContent()))
             .page(page.getNumber())
             .size(page.getSize())
             .totalElements(page.getTotalElements())
@@ -179,6 +172,61 @@ public class OrderService {
             .build();
     }
 
+    /**
+     * Lists orders in cursor mode. The window query selects order rows only, so the limit applies to
+     * orders rather than joined item rows; items for the window are then fetched in one query.
+     *
+     * @param after cursor from the previous window, or blank for the first window
+     * @param size window size
+     * @param sort requested sort; id is appended as a tie-breaker
+     * @return window of orders with the cursor for the next one
+     */
+    @Transactional(readOnly = true)
+    @Timed(value = "app.orders.list.timed", description = "Time spent listing orders")
+    public PagedResponse<OrderResponse> scrollOrders(String after, int size, Sort sort) {
+        Long userFilter = resolveListUserFilter();
+        Sort keysetSort = CursorUtil.withIdTieBreaker(sort);
+        ScrollPosition position = CursorUtil.decode(after, keysetSort, Order.class);
+        Limit limit = CursorUtil.limit(size);
+        Window<Order> window = userFilter == null
+            ? orderRepository.findAllBy(position, keysetSort, limit)
+            : orderRepository.findByUser_Id(userFilter, position, keysetSort, limit);
+        List<OrderResponse> items = withItems(
+            window.getContent().stream().map(OrderMapper::toSummaryRow).collect(Collectors.toList())
+        );
+        return CursorUtil.toPagedResponse(window, items, size, keysetSort, after);
+    }
+
+    /**
+     * Attaches the lines of a page of orders, read as projected rows in one query.
+     */
+    private List<OrderResponse> withItems(List<OrderSummaryRow> orders) {
+        if (orders.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, List<OrderItemRow>> itemsByOrder = orderRepository.findItemRowsByOrderIdIn(
+            orders.stream().map(OrderSummaryRow::id).collect(Collectors.toList())
+        ).stream().collect(Collectors.groupingBy(OrderItemRow::orderId));
+        return orders.stream()
+            .map(order -> OrderMapper.toResponse(order, itemsByOrder.get(order.id())))
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * Resolves which orders the caller may list: null for admins (all orders), otherwise the
+     * caller's own user id.
+     */
+    private Long resolveListUserFilter() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()
+            || !(authentication.getPrincipal() instanceof UserPrincipal principal)) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Authentication required");
+        }
+        boolean isAdmin = authentication.getAuthorities().stream()
+            .anyMatch(a -> "ROLE_ADMIN".equals(a.getAuthority()));
+        return isAdmin ? null : principal.getId();
+    }
+
     /**
      * Updates the status of an order. Resolves the current user from JWT/session.
      * Admin: allowed to set any status. Customer: only allowed to set RECEIVED when
@@ -232,12 +280,12 @@ public class OrderService {
         if (newStatus == OrderStatus.CANCELLED) {
             // Return quantities to inventory before marking cancelled.
             if (order.getItems() != null) {
-                order.getItems().forEach(this::restoreInventory);
+                inventoryStrategy.restoreAll(InventoryReservationStrategy.quantitiesByProduct(order.getItems()));
             }
         }
         order.setStatus(newStatus);
-        evictProductCaches(order.getItems());
         Order savedOrder = orderRepository.save(order);
+        domainEventPublisher.orderStatusChanged(savedOrder, currentStatus);
         // Ensure items are loaded by accessing them (triggers eager fetch)
         if (savedOrder.getItems() != null) {
             savedOrder.getItems().size(); // Force initialization
@@ -245,9 +293,51 @@ public class OrderService {
         return OrderMapper.toResponse(savedOrder);
     }
 
-    private OrderItem toOrderItem(Order order, OrderItemRequest request) {
-        Product product = productRepository.findById(request.getProductId())
-            .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Product not found"));
+    /**
+     * Product ids referenced by the lines of the given requests.
+     */
+    static Set<Long> productIds(Collection<OrderCreateRequest> requests) {
+        return requests.stream()
+            .flatMap(request -> request.getItems() == null ? Stream.empty() : request.getItems().stream())
+            .map(OrderItemRequest::getProductId)
+            .collect(Collectors.toSet());
+    }
+
+    /**
+     * Loads products by id in one query. Unknown ids are absent from the result.
+     */
+    Map<Long, Product> findProducts(Set<Long> productIds) {
+        return productRepository.findAllById(productIds).stream()
+            .collect(Collectors.toMap(Product::getId, Function.identity()));
+    }
+
+    /**
+     * Builds a pending order with its lines priced from {@code products}; nothing is persisted.
+     *
+     * @throws ResponseStatusException 400 without lines, 404 when a product is missing from
+     *     {@code products}
+     */
+    Order newOrder(User user, OrderCreateRequest request, Map<Long, Product> products) {
+        if (request.getItems() == null || request.getItems().isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Order items are required");
+        }
+        Order order = Order.builder()
+            .user(user)
+            .status(OrderStatus.PENDING)
+            .build();
+        List<OrderItem> items = request.getItems().stream()
+            .map(item -> toOrderItem(order, item, products))
+            .collect(Collectors.toList());
+        order.setItems(items);
+        order.setTotalAmount(calculateTotal(items));
+        return order;
+    }
+
+    private OrderItem toOrderItem(Order order, OrderItemRequest request, Map<Long, Product> products) {
+        Product product = products.get(request.getProductId());
+        if (product == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Product not found");
+        }
         return OrderItem.builder()
             .order(order)
             .product(product)
@@ -257,51 +347,11 @@ public class OrderService {
             .build();
     }
 
-    private void reserveInventory(OrderItem item) {
-        inventoryLockManager.withProductLock(item.getProduct().getId(), () -> {
-            Inventory inventory = inventoryRepository.findByProductIdForUpdate(item.getProduct().getId())
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.BAD_REQUEST, "Inventory not found"));
-            int remaining = inventory.getQuantity() - item.getQuantity();
-            if (remaining < 0) {
-                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Insufficient stock");
-            }
-            inventory.setQuantity(remaining);
-            inventoryRepository.save(inventory);
-        });
-    }
-
-    /** Returns item quantity to inventory (e.g. when order is cancelled). */
-    private void restoreInventory(OrderItem item) {
-        if (item == null || item.getProduct() == null) {
-            return;
-        }
-        inventoryLockManager.withProductLock(item.getProduct().getId(), () -> {
-            Inventory inventory = inventoryRepository.findByProductIdForUpdate(item.getProduct().getId())
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.BAD_REQUEST, "Inventory not found"));
-            inventory.setQuantity(inventory.getQuantity() + item.getQuantity());
-            inventoryRepository.save(inventory);
-        });
-    }
-
     private BigDecimal calculateTotal(List<OrderItem> items) {
         return items.stream()
             .map(item -> item.getPriceAtTime().multiply(BigDecimal.valueOf(item.getQuantity())))
             .reduce(BigDecimal.ZERO, BigDecimal::add);
     }
-
-    private void evictProductCaches(List<OrderItem> items) {
-        Cache byId = cacheManager.getCache("productById");
-        Cache lists = cacheManager.getCache("productLists");
-        if (items != null && byId != null) {
-            items.stream()
-                .map(item -> item.getProduct() != null ? item.getProduct().getId() : null)
-                .filter(id -> id != null)
-                .forEach(byId::evict);
-        }
-        if (lists != null) {
-            lists.clear();
-        }
-    }
 }
 
 
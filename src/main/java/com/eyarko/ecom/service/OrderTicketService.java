@@ -0,0 +1,222 @@
+package com.eyarko.ecom.service;
+
+import com.eyarko.ecom.config.OrderTicketProperties;
+import com.eyarko.ecom.dto.OrderCreateRequest;
+import com.eyarko.ecom.dto.OrderResponse;
+import com.eyarko.ecom.dto.OrderTicketResponse;
+import com.eyarko.ecom.entity.OrderTicket;
+import com.eyarko.ecom.entity.OrderTicketStatus;
+import com.eyarko.ecom.infrastructure.datasource.ReadYourWritesTracker;
+import com.eyarko.ecom.mapper.OrderMapper;
+import com.eyarko.ecom.repository.OrderTicketRepository;
+import com.eyarko.ecom.repository.UserRepository;
+import com.eyarko.ecom.security.UserPrincipal;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Optional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Async checkout: order requests are queued as tickets and turned into orders by
+ * {@link OrderTicketWorker}, so request threads return as soon as the request is stored.
+ * <p>
+ * The queue is the {@code order_tickets} table, so accepted requests survive a restart. A ticket is
+ * processed in one transaction that locks it, creates the order through {@link OrderService} and
+ * marks it completed; if the order is rejected that transaction rolls back and the rejection is
+ * recorded in a second one.
+ * <p>
+ * Only rejections that would recur are final: a 4xx other than 409 and 429 marks the ticket FAILED.
+ * Conflicts, busy stock and other server-side errors leave it QUEUED for a later pass, until
+ * {@code app.orders.async.max-attempts} is used up. With a read replica, the ticket owner is pinned to the
+ * primary after each outcome, as the synchronous endpoint does for its caller.
+ */
+@Service
+public class OrderTicketService {
+    private static final Logger log = LoggerFactory.getLogger(OrderTicketService.class);
+
+    private final OrderTicketRepository ticketRepository;
+    private final UserRepository userRepository;
+    private final OrderService orderService;
+    private final OrderTicketProperties properties;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final ReadYourWritesTracker readYourWritesTracker;
+
+    public OrderTicketService(
+        OrderTicketRepository ticketRepository,
+        UserRepository userRepository,
+        OrderService orderService,
+        OrderTicketProperties properties,
+        ObjectMapper objectMapper,
+        PlatformTransactionManager transactionManager,
+        ObjectProvider<ReadYourWritesTracker> readYourWritesTracker
+    ) {
+        this.ticketRepository = ticketRepository;
+        this.userRepository = userRepository;
+        this.orderService = orderService;
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.readYourWritesTracker = readYourWritesTracker.getIfAvailable();
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    /**
+     * Queues an order request for the authenticated user.
+     *
+     * @param request order payload, already validated
+     * @return the queued ticket
+     */
+    @Transactional
+    public OrderTicketResponse enqueue(OrderCreateRequest request) {
+        UserPrincipal principal = currentPrincipal();
+        if (ticketRepository.countByStatus(OrderTicketStatus.QUEUED) >= properties.getQueueCapacity()) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Order queue is full, retry later");
+        }
+        OrderTicket ticket = ticketRepository.save(OrderTicket.builder()
+            .user(userRepository.getReferenceById(principal.getId()))
+            .status(OrderTicketStatus.QUEUED)
+            .payload(write(request))
+            .createdAt(Instant.now().truncatedTo(ChronoUnit.MICROS))
+            .build());
+        return OrderMapper.toTicketResponse(ticket);
+    }
+
+    /**
+     * Returns a ticket of the current user; admins may read any ticket.
+     *
+     * @param id ticket id
+     * @return ticket state, with the order id once completed
+     */
+    @Transactional(readOnly = true)
+    public OrderTicketResponse getTicket(Long id) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        UserPrincipal principal = currentPrincipal();
+        OrderTicket ticket = ticketRepository.findById(id)
+            .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Order ticket not found"));
+        boolean isAdmin = authentication.getAuthorities().stream()
+            .anyMatch(a -> "ROLE_ADMIN".equals(a.getAuthority()));
+        if (!isAdmin && !ticket.getUser().getId().equals(principal.getId())) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Not the ticket owner");
+        }
+        return OrderMapper.toTicketResponse(ticket);
+    }
+
+    /**
+     * Ids of the oldest queued tickets that are due.
+     */
+    public List<Long> nextQueued(int limit) {
+        return ticketRepository.findDueIdsByStatus(OrderTicketStatus.QUEUED, Instant.now(), PageRequest.of(0, limit));
+    }
+
+    /**
+     * Turns one queued ticket into an order. Does nothing if another worker already took it.
+     */
+    public void process(Long ticketId) {
+        try {
+            Long userId = transactionTemplate.execute(status -> {
+                Optional<OrderTicket> queued = ticketRepository.findByIdAndStatus(ticketId, OrderTicketStatus.QUEUED);
+                if (queued.isEmpty()) {
+                    return null;
+                }
+                OrderTicket ticket = queued.get();
+                OrderResponse order = orderService.createOrderFor(ticket.getUser().getId(), read(ticket.getPayload()));
+                ticket.setStatus(OrderTicketStatus.COMPLETED);
+                ticket.setOrderId(order.getId());
+                ticket.setProcessedAt(Instant.now());
+                return ticket.getUser().getId();
+            });
+            recordWrite(userId);
+        } catch (ResponseStatusException ex) {
+            reject(ticketId, ex.getReason(), isTransient(ex.getStatusCode()));
+        } catch (RuntimeException ex) {
+            log.error("Could not process order ticket {}", ticketId, ex);
+            reject(ticketId, "Order could not be processed", true);
+        }
+    }
+
+    /**
+     * Records a failed attempt: the ticket is queued again after a delay when the error is transient and
+     * attempts remain, otherwise it fails with {@code reason}.
+     */
+    private void reject(Long ticketId, String reason, boolean retryable) {
+        Long userId = transactionTemplate.execute(status ->
+            ticketRepository.findByIdAndStatus(ticketId, OrderTicketStatus.QUEUED).map(ticket -> {
+                int attempts = ticket.getAttempts() + 1;
+                ticket.setAttempts(attempts);
+                if (retryable && attempts < properties.getMaxAttempts()) {
+                    ticket.setNextAttemptAt(Instant.now().plus(retryDelay(attempts)));
+                } else {
+                    ticket.setStatus(OrderTicketStatus.FAILED);
+                    ticket.setFailureReason(reason);
+                    ticket.setProcessedAt(Instant.now());
+                }
+                return ticket.getUser().getId();
+            }).orElse(null)
+        );
+        recordWrite(userId);
+    }
+
+    private static boolean isTransient(HttpStatusCode status) {
+        return status.is5xxServerError()
+            || status.value() == HttpStatus.CONFLICT.value()
+            || status.value() == HttpStatus.TOO_MANY_REQUESTS.value();
+    }
+
+    private Duration retryDelay(int attempts) {
+        return Duration.ofMillis(properties.getRetryDelayMs()).multipliedBy(1L << Math.min(attempts - 1, 10));
+    }
+
+    /**
+     * The worker thread has no security context, so the owner is named explicitly.
+     */
+    private void recordWrite(Long userId) {
+        if (readYourWritesTracker != null) {
+            readYourWritesTracker.recordWriteFor(userId);
+        }
+    }
+
+    private UserPrincipal currentPrincipal() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()
+            || !(authentication.getPrincipal() instanceof UserPrincipal principal)) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Authentication required");
+        }
+        return principal;
+    }
+
+    private String write(OrderCreateRequest request) {
+        try {
+            return objectMapper.writeValueAsString(request);
+        } catch (JsonProcessingException ex) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid order request");
+        }
+    }
+
+    private OrderCreateRequest read(String payload) {
+        try {
+            return objectMapper.readValue(payload, OrderCreateRequest.class);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Unreadable order ticket payload", ex);
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.eyarko.ecom.service;
+
+import com.eyarko.ecom.config.OrderTicketProperties;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Drains the async checkout queue. Every {@code app.orders.async.poll-delay-ms} it takes the oldest
+ * queued tickets in batches of {@code app.orders.async.batch-size} and processes each batch on the
+ * {@code orderTicketExecutor} workers, until the queue is empty. Order throughput is therefore set by
+ * the worker count, not by how many request threads are waiting.
+ */
+@Component
+@ConditionalOnProperty(name = "app.orders.async.enabled", havingValue = "true")
+public class OrderTicketWorker {
+    private static final Logger log = LoggerFactory.getLogger(OrderTicketWorker.class);
+
+    private final OrderTicketService ticketService;
+    private final ThreadPoolTaskExecutor executor;
+    private final OrderTicketProperties properties;
+
+    public OrderTicketWorker(
+        OrderTicketService ticketService,
+        @Qualifier("orderTicketExecutor") ThreadPoolTaskExecutor executor,
+        OrderTicketProperties properties
+    ) {
+        this.ticketService = ticketService;
+        this.executor = executor;
+        this.properties = properties;
+    }
+
+    @Scheduled(fixedDelayString = "${app.orders.async.poll-delay-ms:200}")
+    public void drain() {
+        try {
+            List<Long> batch = ticketService.nextQueued(properties.getBatchSize());
+            while (!batch.isEmpty()) {
+                CompletableFuture.allOf(batch.stream()
+                    .map(ticketId -> CompletableFuture.runAsync(() -> ticketService.process(ticketId), executor))
+                    .toArray(CompletableFuture[]::new)
+                ).join();
+                batch = ticketService.nextQueued(properties.getBatchSize());
+            }
+        } catch (Exception ex) {
+            log.warn("Order ticket pass stopped early", ex);
+        }
+    }
+}
@@ -0,0 +1,211 @@
+package com.eyarko.ecom.service;
+
+import com.eyarko.ecom.config.OutboxProperties;
+import com.eyarko.ecom.repository.OutboxRepository;
+import com.eyarko.ecom.repository.OutboxRepository.Backlog;
+import com.eyarko.ecom.repository.OutboxRepository.OutboxEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Delivers outbox events to the {@link DomainEventListener}s. Every {@code app.outbox.poll-delay-ms}
+ * it claims the oldest due events in batches of {@code app.outbox.batch-size}, until none are left.
+ *
+ * <p>No transaction is open while listeners run, so a slow webhook holds neither row locks nor a
+ * connection. A short transaction claims a batch and leases it for {@code app.outbox.lease-ms}; other
+ * instances skip the locked rows while it runs and the leased ones after it commits. The listeners then
+ * run, and a second short transaction deletes the delivered events and pushes failed ones back with a
+ * growing delay. Delivery is tracked per listener: a retry skips the listeners that already succeeded.
+ *
+ * <p>Meters: {@code app.outbox.events.delivered} and {@code app.outbox.events.failed} per event type
+ * and listener (throughput), {@code app.outbox.delivery.lag} from write to complete delivery, and the gauges
+ * {@code app.outbox.pending}, {@code app.outbox.oldest.age} (seconds) and {@code app.outbox.abandoned},
+ * refreshed after each pass.
+ */
+@Component
+@ConditionalOnProperty(name = "app.outbox.relay-enabled", havingValue = "true", matchIfMissing = true)
+public class OutboxRelay {
+    private static final Logger log = LoggerFactory.getLogger(OutboxRelay.class);
+    private static final Duration MAX_RETRY_DELAY = Duration.ofMinutes(10);
+
+    private final OutboxRepository outboxRepository;
+    private final List<DomainEventListener> listeners;
+    private final OutboxProperties properties;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final AtomicLong pending = new AtomicLong();
+    private final AtomicLong oldestAgeSeconds = new AtomicLong();
+    private final AtomicLong abandoned = new AtomicLong();
+
+    public OutboxRelay(
+        OutboxRepository outboxRepository,
+        List<DomainEventListener> listeners,
+        OutboxProperties properties,
+        ObjectMapper objectMapper,
+        PlatformTransactionManager transactionManager,
+        MeterRegistry meterRegistry
+    ) {
+        this.outboxRepository = outboxRepository;
+        this.listeners = List.copyOf(listeners);
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.meterRegistry = meterRegistry;
+        Gauge.builder("app.outbox.pending", pending, AtomicLong::get)
+            .description("Outbox events waiting for delivery")
+            .register(meterRegistry);
+        Gauge.builder("app.outbox.oldest.age", oldestAgeSeconds, AtomicLong::get)
+            .description("Age in seconds of the oldest outbox event waiting for delivery")
+            .baseUnit("seconds")
+            .register(meterRegistry);
+        Gauge.builder("app.outbox.abandoned", abandoned, AtomicLong::get)
+            .description("Outbox events that used up their delivery attempts")
+            .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${app.outbox.poll-delay-ms:200}")
+    public void drain() {
+        try {
+            int batchSize = Math.max(1, properties.getBatchSize());
+            Integer claimed;
+            do {
+                claimed = relayBatch(batchSize);
+            } while (claimed != null && claimed == batchSize);
+            refreshBacklog();
+        } catch (Exception ex) {
+            log.warn("Outbox relay pass stopped early", ex);
+        }
+    }
+
+    /**
+     * Claims and leases one batch, hands each event to the listeners that still need it and records the
+     * outcome.
+     *
+     * @return number of events claimed
+     */
+    int relayBatch(int batchSize) {
+        Instant now = Instant.now();
+        // Millisecond precision so the lease compares equal after a round trip through the column.
+        Instant leasedUntil = now.plusMillis(properties.getLeaseMs()).truncatedTo(ChronoUnit.MILLIS);
+        List<OutboxEvent> batch = transactionTemplate.execute(status -> {
+            List<OutboxEvent> claimed = outboxRepository.claimDue(now, properties.getMaxAttempts(), batchSize);
+            outboxRepository.lease(claimed.stream().map(OutboxEvent::id).toList(), leasedUntil);
+            return claimed;
+        });
+        if (batch == null || batch.isEmpty()) {
+            return 0;
+        }
+        List<Long> delivered = new ArrayList<>(batch.size());
+        List<Retry> retries = new ArrayList<>();
+        for (OutboxEvent row : batch) {
+            Set<String> deliveredTo = new LinkedHashSet<>(row.deliveredTo());
+            RuntimeException failure = dispatch(row, deliveredTo);
+            if (failure == null) {
+                delivered.add(row.id());
+                Timer.builder("app.outbox.delivery.lag")
+                    .description("Time from writing an outbox event to delivering it")
+                    .tag("type", row.type())
+                    .register(meterRegistry)
+                    .record(Duration.between(row.createdAt(), Instant.now()));
+                continue;
+            }
+            int attempt = row.attempts() + 1;
+            if (attempt >= properties.getMaxAttempts()) {
+                log.error("Giving up on outbox event {} ({}) after {} attempts", row.id(), row.type(), attempt, failure);
+            } else {
+                log.warn("Outbox event {} ({}) failed, attempt {}", row.id(), row.type(), attempt, failure);
+            }
+            retries.add(new Retry(row, deliveredTo, failure));
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            outboxRepository.deleteAll(delivered, leasedUntil);
+            Instant failedAt = Instant.now();
+            for (Retry retry : retries) {
+                outboxRepository.reschedule(
+                    retry.row().id(), leasedUntil, failedAt.plus(retryDelay(retry.row().attempts())),
+                    retry.failure().toString(), retry.deliveredTo()
+                );
+            }
+        });
+        return batch.size();
+    }
+
+    /**
+     * Runs every listener that wants the event and has not handled it yet, adding each one that succeeds
+     * to {@code deliveredTo}. A failing listener does not stop the others.
+     *
+     * @return the first failure, or null when every listener has now handled the event
+     */
+    private RuntimeException dispatch(OutboxEvent row, Set<String> deliveredTo) {
+        DomainEvent event;
+        try {
+            event = new DomainEvent(
+                row.id(), DomainEventType.valueOf(row.type()), row.aggregateId(), objectMapper.readTree(row.payload()),
+                row.createdAt()
+            );
+        } catch (JsonProcessingException | IllegalArgumentException ex) {
+            Counter.builder("app.outbox.events.failed").tag("type", row.type()).tag("listener", "none")
+                .register(meterRegistry).increment();
+            return new IllegalStateException("Unreadable event", ex);
+        }
+        RuntimeException failure = null;
+        for (DomainEventListener listener : listeners) {
+            String name = listener.name();
+            if (!listener.supports(event.type()) || deliveredTo.contains(name)) {
+                continue;
+            }
+            try {
+                listener.onEvent(event);
+                deliveredTo.add(name);
+                Counter.builder("app.outbox.events.delivered").tag("type", row.type()).tag("listener", name)
+                    .register(meterRegistry).increment();
+            } catch (RuntimeException ex) {
+                Counter.builder("app.outbox.events.failed").tag("type", row.type()).tag("listener", name)
+                    .register(meterRegistry).increment();
+                if (failure == null) {
+                    failure = ex;
+                } else {
+                    failure.addSuppressed(ex);
+                }
+            }
+        }
+        return failure;
+    }
+
+    private Duration retryDelay(int previousAttempts) {
+        Duration delay = Duration.ofMillis(properties.getRetryDelayMs()).multipliedBy(1L << Math.min(previousAttempts, 20));
+        return delay.compareTo(MAX_RETRY_DELAY) > 0 ? MAX_RETRY_DELAY : delay;
+    }
+
+    private record Retry(OutboxEvent row, Set<String> deliveredTo, RuntimeException failure) {
+    }
+
+    private void refreshBacklog() {
+        Backlog backlog = outboxRepository.backlog(properties.getMaxAttempts());
+        pending.set(backlog.pending());
+        oldestAgeSeconds.set(backlog.oldest() == null
+            ? 0
+            : Math.max(0, Duration.between(backlog.oldest(), Instant.now()).toSeconds()));
+        abandoned.set(backlog.abandoned());
+    }
+}
@@ -0,0 +1,107 @@
+package com.eyarko.ecom.service;
+
+import com.eyarko.ecom.dto.PagedResponse;
+import com.eyarko.ecom.dto.ProductResponse;
+import com.eyarko.ecom.infrastructure.cache.TaggedCache;
+import com.eyarko.ecom.util.TransactionUtil;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+/**
+ * Invalidates cached product detail and listing entries.
+ *
+ * <p>Listing pages in {@code productLists} are tagged with the IDs of the products they contain, so a
+ * change to a product's own fields (description, rating) evicts only the pages showing it. Changes
+ * that can move a product into or out of a listing, or shift offset pages, clear all listings
+ * instead. Stock is not part of cached bodies and never evicts anything here. Evictions run after
+ * the surrounding transaction commits so a concurrent read cannot re-cache the pre-commit state.
+ */
+@Component
+public class ProductCacheEvictor {
+    public static final String PRODUCT_BY_ID = "productById";
+    public static final String PRODUCT_LISTS = "productLists";
+
+    private static final String PRODUCT_TAG_PREFIX = "product:";
+
+    private final CacheManager cacheManager;
+
+    public ProductCacheEvictor(CacheManager cacheManager) {
+        this.cacheManager = cacheManager;
+    }
+
+    /**
+     * Evicts detail entries and the listing pages that contain any of the given products.
+     *
+     * @param productIds IDs of products whose own fields changed
+     */
+    public void evictProducts(Collection<Long> productIds) {
+        Set<Long> ids = productIds == null
+            ? Set.of()
+            : productIds.stream().filter(Objects::nonNull).collect(Collectors.toCollection(LinkedHashSet::new));
+        if (ids.isEmpty()) {
+            return;
+        }
+        TransactionUtil.afterCommit(() -> {
+            Cache byId = cacheManager.getCache(PRODUCT_BY_ID);
+            Cache lists = cacheManager.getCache(PRODUCT_LISTS);
+            for (Long id : ids) {
+                if (byId != null) {
+                    byId.evict(id);
+                }
+                if (lists instanceof TaggedCache tagged) {
+                    tagged.evictTag(productTag(id));
+                }
+            }
+            if (lists != null && !(lists instanceof TaggedCache)) {
+                lists.clear();
+            }
+        });
+    }
+
+    public void evictProduct(Long productId) {
+        evictProducts(productId == null ? List.of() : List.of(productId));
+    }
+
+    /**
+     * Clears every cached listing page. Used when a change can alter which products a listing selects
+     * or where they fall, such as creating, deleting or re-sorting a product.
+     */
+    public void evictAllLists() {
+        TransactionUtil.afterCommit(() -> {
+            Cache lists = cacheManager.getCache(PRODUCT_LISTS);
+            if (lists != null) {
+                lists.clear();
+            }
+        });
+    }
+
+    /**
+     * Derives the tags of a cached {@code productLists} value.
+     *
+     * @param value cached value
+     * @return one tag per product on the page
+     */
+    public static Collection<String> tagsOf(Object value) {
+        if (!(value instanceof PagedResponse<?> page) || page.getItems() == null) {
+            return List.of();
+        }
+        return page.getItems().stream()
+            .filter(ProductResponse.class::isInstance)
+            .map(ProductResponse.class::cast)
+            .map(ProductResponse::getId)
+            .filter(Objects::nonNull)
+            .map(ProductCacheEvictor::productTag)
+            .collect(Collectors.toCollection(LinkedHashSet::new));
+    }
+
+    private static String productTag(Long productId) {
+        return PRODUCT_TAG_PREFIX + productId;
+    }
+}
@@ -0,0 +1,277 @@
+package com.eyarko.ecom.service;
+
+import com.eyarko.ecom.dto.PagedResponse;
+import com.eyarko.ecom.dto.ProductResponse;
+import com.eyarko.ecom.entity.Product;
+import com.eyarko.ecom.infrastructure.cache.CacheValueLoader;
+import com.eyarko.ecom.infrastructure.cache.CoalescingCache;
+import com.eyarko.ecom.mapper.ProductMapper;
+import com.eyarko.ecom.repository.ProductBodyRow;
+import com.eyarko.ecom.repository.ProductRepository;
+import com.eyarko.ecom.util.CursorUtil;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Loads and caches product bodies: everything in a {@link ProductResponse} except stock.
+ *
+ * <p>Bodies change only on catalog edits, so they can stay cached while stock moves on every order.
+ * {@link ProductService} adds the current stock level at response time. Cached values are shared
+ * between requests and must not be mutated by callers.
+ *
+ * <p>It is also the loader for {@code productById}: hot entries are reloaded in the background once
+ * they pass the cache's {@code refresh-after-write}, while readers keep getting the cached body.
+ */
+@Service
+public class ProductCatalogService implements CacheValueLoader {
+    private final ProductRepository productRepository;
+    private final ProductSearchIndex productSearchIndex;
+    private final CacheManager cacheManager;
+    private final int maxSearchCandidates;
+
+    public ProductCatalogService(
+        ProductRepository productRepository,
+        ProductSearchIndex productSearchIndex,
+        CacheManager cacheManager,
+        @Value("${app.search.index.max-candidates:5000}") int maxSearchCandidates
+    ) {
+        this.productRepository = productRepository;
+        this.productSearchIndex = productSearchIndex;
+        this.cacheManager = cacheManager;
+        this.maxSearchCandidates = maxSearchCandidates;
+    }
+
+    @Cacheable(value = "productById", key = "#id", sync = true)
+    @Transactional(readOnly = true)
+    public ProductResponse getProductBody(Long id) {
+        Product product = productRepository.findById(id)
+            .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Product not found"));
+        return ProductMapper.toBody(product);
+    }
+
+    @Override
+    public String cacheName() {
+        return ProductCacheEvictor.PRODUCT_BY_ID;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ProductResponse load(Object key) {
+        return productRepository.findById((Long) key).map(ProductMapper::toBody).orElse(null);
+    }
+
+    @Cacheable(
+        value = "productLists",
+        key = "'list:' + #categoryId + ':' + #search + ':' + #pageable.pageNumber + ':' + #pageable.pageSize "
+            + "+ ':' + #pageable.sort.toString()",
+        sync = true
+    )
+    @Transactional(readOnly = true)
+    public PagedResponse<ProductResponse> listProductBodies(Long categoryId, String search, Pageable pageable) {
+        Page<ProductBodyRow> page;
+        if (search != null && !search.isBlank()) {
+            page = searchProducts(categoryId, search, pageable);
+        } else if (categoryId != null) {
+            page = productRepository.findBodyRowsByCategoryId(categoryId, pageable);
+        } else {
+            page = productRepository.findAllBodyRows(pageable);
+        }
+        return PagedResponse.<ProductResponse>builder()
+            .items(page.getContent().stream().map(ProductMapper::toBody).collect(Collectors.toList()))
+            .page(page.getNumber())
+            .size(page.getSize())
+            .totalElements(page.getTotalElements())
+            .totalPages(page.getTotalPages())
+            .hasNext(page.hasNext())
+            .hasPrevious(page.hasPrevious())
+            .build();
+    }
+
+    @Cacheable(
+        value = "productLists",
+        key = "'scroll:' + #categoryId + ':' + #search + ':' + #after + ':' + #size + ':' + #sort.toString()",
+        sync = true
+    )
+    @Transactional(readOnly = true)
+    public PagedResponse<ProductResponse> scrollProductBodies(
+        Long categoryId,
+        String search,
+        String after,
+        int size,
+        Sort sort
+    ) {
+        Sort keysetSort = CursorUtil.withIdTieBreaker(sort);
+        ScrollPosition position = CursorUtil.decode(after, keysetSort, Product.class);
+        Limit limit = CursorUtil.limit(size);
+        Window<Product> window;
+        if (search != null && !search.isBlank()) {
+            window = scrollSearch(categoryId, search, position, keysetSort, limit);
+        } else if (categoryId != null) {
+            window = productRepository.findByCategory_Id(categoryId, position, keysetSort, limit);
+        } else {
+            window = productRepository.findAllBy(position, keysetSort, limit);
+        }
+        return CursorUtil.toPagedResponse(window, toBodies(window.getContent()), size, keysetSort, after);
+    }
+
+    /**
+     * Loads the bodies of the given products in one query, in the order given. IDs that no longer exist
+     * are skipped.
+     *
+     * @param ids product IDs
+     * @return bodies in ID order
+     */
+    @Transactional(readOnly = true)
+    public List<ProductResponse> getProductBodies(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, ProductBodyRow> byId = productRepository.findBodyRowsByIdIn(ids, Pageable.unpaged()).stream()
+            .collect(Collectors.toMap(ProductBodyRow::id, Function.identity()));
+        return ids.stream()
+            .map(byId::get)
+            .filter(Objects::nonNull)
+            .map(ProductMapper::toBody)
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * Returns the bodies of the given products, taking whatever {@code productById} already holds and
+     * loading all misses with one query, which are then written back to the cache. IDs that do not
+     * exist are skipped; the result follows the order of {@code ids} with duplicates removed.
+     *
+     * <p>The misses are claimed as loads in flight before the query, so a body whose product is edited
+     * and evicted while the query runs is returned but not written back; see
+     * {@link CoalescingCache#loadAll}. Without that bookkeeping nothing is written back.
+     *
+     * <p>Not transactional on purpose: a batch served entirely from the cache never borrows a
+     * connection. Misses are read as projected rows, so mapping needs no session.
+     *
+     * @param ids product IDs
+     * @return bodies in ID order
+     */
+    public List<ProductResponse> getCachedProductBodies(Collection<Long> ids) {
+        Set<Long> wanted = ids.stream().filter(Objects::nonNull).collect(Collectors.toCollection(LinkedHashSet::new));
+        if (wanted.isEmpty()) {
+            return List.of();
+        }
+        Cache cache = cacheManager.getCache(ProductCacheEvictor.PRODUCT_BY_ID);
+        Map<Long, ProductResponse> found = new HashMap<>(cachedBodies(cache, wanted));
+        List<Long> misses = wanted.stream().filter(id -> !found.containsKey(id)).collect(Collectors.toList());
+        if (!misses.isEmpty()) {
+            found.putAll(cache instanceof CoalescingCache coalescing
+                ? coalescing.loadAll(misses, this::loadBodies)
+                : loadBodies(misses));
+        }
+        List<ProductResponse> result = new ArrayList<>(wanted.size());
+        for (Long id : wanted) {
+            ProductResponse body = found.get(id);
+            if (body != null) {
+                result.add(body);
+            }
+        }
+        return result;
+    }
+
+    private Map<Long, ProductResponse> loadBodies(Collection<Long> ids) {
+        return productRepository.findBodyRowsByIdIn(ids, Pageable.unpaged()).stream()
+            .collect(Collectors.toMap(ProductBodyRow::id, ProductMapper::toBody));
+    }
+
+    /**
+     * Reads present entries only. Going through Spring's {@link Cache#get(Object)} would make the
+     * loading cache fetch each miss on its own, which is exactly what a batch read avoids.
+     */
+    @SuppressWarnings("unchecked")
+    private static Map<Long, ProductResponse> cachedBodies(Cache cache, Set<Long> ids) {
+        if (cache == null) {
+            return Map.of();
+        }
+        Map<Long, ProductResponse> hits = new HashMap<>();
+        if (cache.getNativeCache() instanceof com.github.benmanes.caffeine.cache.Cache<?, ?> caffeine) {
+            ((com.github.benmanes.caffeine.cache.Cache<Object, Object>) caffeine).getAllPresent(ids)
+                .forEach((key, value) -> hits.put((Long) key, (ProductResponse) value));
+            return hits;
+        }
+        for (Long id : ids) {
+            Cache.ValueWrapper cached = cache.get(id);
+            if (cached != null && cached.get() instanceof ProductResponse body) {
+                hits.put(id, body);
+            }
+        }
+        return hits;
+    }
+
+    /**
+     * Resolves search candidates from the in-memory trigram index and fetches only that page by ID.
+     * Falls back to the SQL LIKE queries when the index is not ready or the term is too broad to be
+     * worth an IN-list.
+     */
+    private Page<ProductBodyRow> searchProducts(Long categoryId, String search, Pageable pageable) {
+        Optional<Set<Long>> candidates = productSearchIndex.search(search, categoryId);
+        if (candidates.isPresent() && candidates.get().size() <= maxSearchCandidates) {
+            Set<Long> ids = candidates.get();
+            if (ids.isEmpty()) {
+                return Page.empty(pageable);
+            }
+            return new PageImpl<>(productRepository.findBodyRowsByIdIn(ids, pageable), pageable, ids.size());
+        }
+        if (categoryId != null) {
+            return productRepository.findBodyRowsByCategoryIdAndName(categoryId, search, pageable);
+        }
+        return productRepository.searchBodyRowsByNameOrCategory(search, pageable);
+    }
+
+    private Window<Product> scrollSearch(
+        Long categoryId,
+        String search,
+        ScrollPosition position,
+        Sort sort,
+        Limit limit
+    ) {
+        Optional<Set<Long>> candidates = productSearchIndex.search(search, categoryId);
+        if (candidates.isPresent() && candidates.get().size() <= maxSearchCandidates) {
+            Set<Long> ids = candidates.get();
+            if (ids.isEmpty()) {
+                return Window.from(List.of(), ignored -> position);
+            }
+            return productRepository.findByIdIn(ids, position, sort, limit);
+        }
+        if (categoryId != null) {
+            return productRepository.findByCategory_IdAndNameContainingIgnoreCase(
+                categoryId, search, position, sort, limit
+            );
+        }
+        return productRepository.findByNameContainingIgnoreCaseOrCategory_NameContainingIgnoreCase(
+            search, search, position, sort, limit
+        );
+    }
+
+    private static List<ProductResponse> toBodies(List<Product> products) {
+        return products.stream().map(ProductMapper::toBody).collect(Collectors.toList());
+    }
+}
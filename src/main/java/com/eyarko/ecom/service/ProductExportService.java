@@ -0,0 +1,143 @@
+package com.eyarko.ecom.service;
+
+import com.eyarko.ecom.dto.ProductExportRow;
+import com.eyarko.ecom.repository.ProductBulkRepository;
+import com.eyarko.ecom.util.CsvUtil;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import io.micrometer.core.annotation.Timed;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Full catalog export as NDJSON or CSV.
+ *
+ * <p>Rows come from a forward-only JDBC cursor read {@code app.products.export.fetch-size} rows at a
+ * time and are written out as they arrive, so memory stays flat regardless of catalog size and no
+ * entities enter a persistence context. The read runs in one read-only transaction, which gives a
+ * consistent snapshot of the catalog and its stock.
+ *
+ * <p>Each export holds a connection for its whole run, so at most {@code app.products.export.max-concurrent}
+ * run at once; callers take a slot with {@link #acquireSlot()} and further requests get 503.
+ */
+@Service
+public class ProductExportService {
+    static final String[] CSV_COLUMNS = {
+        "id", "categoryId", "categoryName", "name", "description", "price", "imageUrl",
+        "avgRating", "reviewCount", "quantity", "createdAt"
+    };
+
+    private final ProductBulkRepository productBulkRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectWriter rowWriter;
+    private final int fetchSize;
+    private final Semaphore slots;
+    private final Duration timeout;
+
+    public ProductExportService(
+        ProductBulkRepository productBulkRepository,
+        PlatformTransactionManager transactionManager,
+        ObjectMapper objectMapper,
+        @Value("${app.products.export.fetch-size:1000}") int fetchSize,
+        @Value("${app.products.export.max-concurrent:2}") int maxConcurrent,
+        @Value("${app.products.export.timeout:30m}") Duration timeout
+    ) {
+        this.productBulkRepository = productBulkRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.rowWriter = objectMapper.writerFor(ProductExportRow.class);
+        this.fetchSize = Math.max(1, fetchSize);
+        this.slots = new Semaphore(Math.max(1, maxConcurrent));
+        this.timeout = timeout;
+    }
+
+    /**
+     * Takes one export slot without waiting.
+     *
+     * @return releases the slot; later calls do nothing
+     * @throws ResponseStatusException 503 when every slot is in use
+     */
+    public Runnable acquireSlot() {
+        if (!slots.tryAcquire()) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Too many catalog exports running, retry later");
+        }
+        AtomicBoolean released = new AtomicBoolean();
+        return () -> {
+            if (released.compareAndSet(false, true)) {
+                slots.release();
+            }
+        };
+    }
+
+    /**
+     * How long one export response may stream before the request times out.
+     */
+    public Duration getTimeout() {
+        return timeout;
+    }
+
+    /**
+     * Writes every product with its current stock, in id order.
+     *
+     * @param out destination; flushed but not closed
+     * @param format output format
+     * @throws IOException if writing fails, typically because the client went away
+     */
+    @Timed(value = "app.products.export.timed", description = "Time spent streaming the catalog export")
+    public void exportProducts(OutputStream out, CatalogFormat format) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        StringBuilder line = new StringBuilder(256);
+        if (format == CatalogFormat.CSV) {
+            writer.append(CsvUtil.appendLine(line, (Object[]) CSV_COLUMNS));
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> productBulkRepository.forEachCatalogRow(fetchSize, row -> {
+                line.setLength(0);
+                try {
+                    writer.append(format == CatalogFormat.CSV ? csvLine(line, row) : jsonLine(line, row));
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+            }));
+        } catch (UncheckedIOException ex) {
+            throw ex.getCause();
+        }
+        writer.flush();
+    }
+
+    private StringBuilder jsonLine(StringBuilder line, ProductExportRow row) throws JsonProcessingException {
+        return line.append(rowWriter.writeValueAsString(row)).append('\n');
+    }
+
+    private static StringBuilder csvLine(StringBuilder line, ProductExportRow row) {
+        return CsvUtil.appendLine(
+            line,
+            row.getId(),
+            row.getCategoryId(),
+            row.getCategoryName(),
+            row.getName(),
+            row.getDescription(),
+            row.getPrice() == null ? null : row.getPrice().toPlainString(),
+            row.getImageUrl(),
+            row.getAvgRating() == null ? null : row.getAvgRating().toPlainString(),
+            row.getReviewCount(),
+            row.getQuantity(),
+            row.getCreatedAt()
+        );
+    }
+}
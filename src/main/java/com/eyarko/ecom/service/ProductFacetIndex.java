@@ -0,0 +1,471 @@
+package com.eyarko.ecom.service;
+
+import com.eyarko.ecom.infrastructure.cache.StockLevelCache;
+import com.eyarko.ecom.repository.ProductFacetView;
+import com.eyarko.ecom.repository.ProductRepository;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import org.roaringbitmap.IntIterator;
+import org.roaringbitmap.RoaringBitmap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+/**
+ * In-memory facet index over the catalog: one compressed bitmap of product IDs per category, price
+ * bucket, minimum star rating and in-stock state.
+ *
+ * <p>A faceted query ANDs the bitmaps of the selected facets (ORing values within one facet), so
+ * filtering never builds a dynamic SQL query. Facet counts are disjunctive: each value's count applies
+ * every other selected facet but not its own, which is what a filter sidebar shows. Each count is a
+ * single {@code andCardinality} call. The index also keeps each product's sort keys, so a page can be
+ * chosen in memory and only its rows are loaded.
+ *
+ * <p>Built once the application context has started and kept current by product, review-rating and
+ * inventory changes. Until it is ready, {@link #query} returns empty.
+ */
+@Component
+public class ProductFacetIndex {
+    /** Highest star threshold; {@code ratingAtLeast[k - 1]} holds products rated {@code >= k}. */
+    public static final int MAX_RATING = 5;
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductFacetIndex.class);
+
+    private final ProductRepository productRepository;
+    private final boolean enabled;
+    private final List<BigDecimal> priceBounds;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<Integer, Entry> entries = new HashMap<>();
+    private final RoaringBitmap all = new RoaringBitmap();
+    private final Map<Long, RoaringBitmap> byCategory = new HashMap<>();
+    private final RoaringBitmap[] byPriceBucket;
+    private final RoaringBitmap[] ratingAtLeast = new RoaringBitmap[MAX_RATING];
+    private final RoaringBitmap inStock = new RoaringBitmap();
+
+    private volatile boolean ready;
+
+    public ProductFacetIndex(
+        ProductRepository productRepository,
+        StockLevelCache stockLevelCache,
+        @Value("${app.facets.enabled:true}") boolean enabled,
+        @Value("${app.facets.price-buckets:25,50,100,250,500}") BigDecimal[] priceBounds
+    ) {
+        this.productRepository = productRepository;
+        this.enabled = enabled;
+        this.priceBounds = Arrays.stream(priceBounds).sorted().toList();
+        this.byPriceBucket = new RoaringBitmap[this.priceBounds.size() + 1];
+        Arrays.setAll(byPriceBucket, ignored -> new RoaringBitmap());
+        Arrays.setAll(ratingAtLeast, ignored -> new RoaringBitmap());
+        stockLevelCache.addListener(this::updateStock);
+    }
+
+    @EventListener(ApplicationStartedEvent.class)
+    public void buildOnStartup() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            rebuild();
+        } catch (Exception ex) {
+            logger.warn("Failed to build product facet index: {}", ex.getMessage());
+        }
+    }
+
+    /**
+     * Reloads the whole index from the database, blocking incremental updates until it is swapped in.
+     */
+    public void rebuild() {
+        long start = System.nanoTime();
+        lock.writeLock().lock();
+        try {
+            ready = false;
+            entries.clear();
+            all.clear();
+            byCategory.clear();
+            Arrays.stream(byPriceBucket).forEach(RoaringBitmap::clear);
+            Arrays.stream(ratingAtLeast).forEach(RoaringBitmap::clear);
+            inStock.clear();
+            for (ProductFacetView view : productRepository.findFacetEntries()) {
+                putInternal(
+                    toIndex(view.getProductId()),
+                    new Entry(view.getName(), view.getCategoryId(), view.getPrice(), view.getAvgRating(),
+                        view.getCreatedAt()),
+                    view.getQuantity() != null && view.getQuantity() > 0
+                );
+            }
+            all.runOptimize();
+            ready = true;
+            logger.info("Product facet index built: {} products in {} ms",
+                entries.size(), (System.nanoTime() - start) / 1_000_000);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Filters the catalog by the given facets, counts every facet value under the other selections and
+     * picks one page of product IDs in the requested order.
+     *
+     * @param filter facet selections
+     * @param sort sort order; the first order is used, with product ID as tie-breaker
+     * @param offset index of the first product on the page
+     * @param limit page size
+     * @return matches and counts, or empty when the index is not available
+     */
+    public Optional<FacetResult> query(FacetFilter filter, Sort sort, long offset, int limit) {
+        if (!ready) {
+            return Optional.empty();
+        }
+        lock.readLock().lock();
+        try {
+            RoaringBitmap categories = union(filter.categoryIds(), byCategory::get);
+            RoaringBitmap prices = union(filter.priceBuckets(), bucket -> byPriceBucket[bucket]);
+            RoaringBitmap rating = filter.minRating() == null ? null : ratingAtLeast[filter.minRating() - 1];
+            RoaringBitmap stock = filter.inStockOnly() ? inStock : null;
+            RoaringBitmap restrict = filter.restrictTo() == null ? null : toBitmap(filter.restrictTo());
+
+            RoaringBitmap matches = and(all, categories, prices, rating, stock, restrict);
+
+            Map<Long, Long> categoryCounts = new LinkedHashMap<>();
+            RoaringBitmap exceptCategory = and(all, prices, rating, stock, restrict);
+            byCategory.forEach((categoryId, members) -> {
+                long count = RoaringBitmap.andCardinality(members, exceptCategory);
+                if (count > 0) {
+                    categoryCounts.put(categoryId, count);
+                }
+            });
+            RoaringBitmap exceptPrice = and(all, categories, rating, stock, restrict);
+            long[] priceCounts = Arrays.stream(byPriceBucket)
+                .mapToLong(members -> RoaringBitmap.andCardinality(members, exceptPrice))
+                .toArray();
+            RoaringBitmap exceptRating = and(all, categories, prices, stock, restrict);
+            long[] ratingCounts = Arrays.stream(ratingAtLeast)
+                .mapToLong(members -> RoaringBitmap.andCardinality(members, exceptRating))
+                .toArray();
+            long inStockCount = RoaringBitmap.andCardinality(inStock, and(all, categories, prices, rating, restrict));
+
+            return Optional.of(new FacetResult(
+                matches.getLongCardinality(),
+                page(matches, sort, offset, limit),
+                categoryCounts,
+                priceCounts,
+                ratingCounts,
+                inStockCount
+            ));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void upsertProduct(
+        Long productId,
+        String name,
+        Long categoryId,
+        BigDecimal price,
+        BigDecimal avgRating,
+        Instant createdAt
+    ) {
+        if (!indexable(productId)) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            int id = productId.intValue();
+            boolean stocked = inStock.contains(id);
+            removeInternal(id);
+            putInternal(id, new Entry(name, categoryId, price, avgRating, createdAt), stocked);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void updateRating(Long productId, BigDecimal avgRating) {
+        if (!indexable(productId)) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            int id = productId.intValue();
+            Entry existing = entries.get(id);
+            if (existing == null) {
+                return;
+            }
+            Entry updated = new Entry(existing.name(), existing.categoryId(), existing.price(), avgRating,
+                existing.createdAt());
+            entries.put(id, updated);
+            indexRating(id, avgRating);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void removeProduct(Long productId) {
+        if (!indexable(productId)) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            removeInternal(productId.intValue());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Lower bounds of the price buckets after the first; bucket {@code i} covers
+     * {@code [bounds[i - 1], bounds[i])}, the first starts at zero and the last is open-ended.
+     */
+    public List<BigDecimal> getPriceBounds() {
+        return priceBounds;
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Keeps the in-stock bitmap in line with stock levels published after inventory commits.
+     */
+    void updateStock(long productId, int quantity) {
+        if (productId < 0 || productId > Integer.MAX_VALUE) {
+            return;
+        }
+        int id = (int) productId;
+        boolean stocked = quantity > 0;
+        lock.readLock().lock();
+        try {
+            if (!entries.containsKey(id) || inStock.contains(id) == stocked) {
+                return;
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        lock.writeLock().lock();
+        try {
+            if (!entries.containsKey(id)) {
+                return;
+            }
+            if (stocked) {
+                inStock.add(id);
+            } else {
+                inStock.remove(id);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void putInternal(int id, Entry entry, boolean stocked) {
+        entries.put(id, entry);
+        all.add(id);
+        if (entry.categoryId() != null) {
+            byCategory.computeIfAbsent(entry.categoryId(), ignored -> new RoaringBitmap()).add(id);
+        }
+        if (entry.price() != null) {
+            byPriceBucket[bucketOf(entry.price())].add(id);
+        }
+        indexRating(id, entry.avgRating());
+        if (stocked) {
+            inStock.add(id);
+        }
+    }
+
+    private void removeInternal(int id) {
+        Entry existing = entries.remove(id);
+        if (existing == null) {
+            return;
+        }
+        all.remove(id);
+        RoaringBitmap category = byCategory.get(existing.categoryId());
+        if (category != null) {
+            category.remove(id);
+            if (category.isEmpty()) {
+                byCategory.remove(existing.categoryId());
+            }
+        }
+        for (RoaringBitmap bucket : byPriceBucket) {
+            bucket.remove(id);
+        }
+        for (RoaringBitmap threshold : ratingAtLeast) {
+            threshold.remove(id);
+        }
+        inStock.remove(id);
+    }
+
+    private void indexRating(int id, BigDecimal avgRating) {
+        double rating = avgRating == null ? 0 : avgRating.doubleValue();
+        for (int k = 1; k <= MAX_RATING; k++) {
+            if (rating >= k) {
+                ratingAtLeast[k - 1].add(id);
+            } else {
+                ratingAtLeast[k - 1].remove(id);
+            }
+        }
+    }
+
+    private int bucketOf(BigDecimal price) {
+        int bucket = 0;
+        while (bucket < priceBounds.size() && price.compareTo(priceBounds.get(bucket)) >= 0) {
+            bucket++;
+        }
+        return bucket;
+    }
+
+    /**
+     * Selects one page from the matches with a bounded heap of {@code offset + limit} entries, so large
+     * match sets are never fully sorted.
+     */
+    private List<Long> page(RoaringBitmap matches, Sort sort, long offset, int limit) {
+        long cardinality = matches.getLongCardinality();
+        if (offset >= cardinality || limit <= 0) {
+            return List.of();
+        }
+        int keep = (int) Math.min(cardinality, offset + limit);
+        Comparator<Integer> order = comparator(sort);
+        PriorityQueue<Integer> best = new PriorityQueue<>(keep, order.reversed());
+        IntIterator ids = matches.getIntIterator();
+        while (ids.hasNext()) {
+            int id = ids.next();
+            if (best.size() < keep) {
+                best.add(id);
+            } else if (order.compare(id, best.peek()) < 0) {
+                best.poll();
+                best.add(id);
+            }
+        }
+        List<Integer> sorted = new ArrayList<>(best);
+        sorted.sort(order);
+        return sorted.subList((int) offset, sorted.size()).stream().map(Integer::longValue).toList();
+    }
+
+    private Comparator<Integer> comparator(Sort sort) {
+        Sort.Order first = sort == null ? null : sort.stream().findFirst().orElse(null);
+        Comparator<Entry> byField = first == null ? null : switch (first.getProperty()) {
+            case "price" -> Comparator.comparing(Entry::price, Comparator.nullsFirst(Comparator.naturalOrder()));
+            case "avgRating" -> Comparator.comparing(Entry::avgRating, Comparator.nullsFirst(Comparator.naturalOrder()));
+            case "createdAt" -> Comparator.comparing(Entry::createdAt, Comparator.nullsFirst(Comparator.naturalOrder()));
+            case "name" -> Comparator.comparing(Entry::name, Comparator.nullsFirst(String.CASE_INSENSITIVE_ORDER));
+            default -> null;
+        };
+        Comparator<Integer> byId = Comparator.naturalOrder();
+        if (byField == null) {
+            return byId;
+        }
+        Comparator<Entry> directed = first.isDescending() ? byField.reversed() : byField;
+        Comparator<Integer> result = (left, right) -> directed.compare(entries.get(left), entries.get(right));
+        return result.thenComparing(byId);
+    }
+
+    private static <T> RoaringBitmap union(Collection<T> values, Function<T, RoaringBitmap> lookup) {
+        if (values == null || values.isEmpty()) {
+            return null;
+        }
+        RoaringBitmap result = new RoaringBitmap();
+        for (T value : values) {
+            RoaringBitmap members = lookup.apply(value);
+            if (members != null) {
+                result.or(members);
+            }
+        }
+        return result;
+    }
+
+    private static RoaringBitmap and(RoaringBitmap base, RoaringBitmap... filters) {
+        RoaringBitmap result = null;
+        for (RoaringBitmap filter : filters) {
+            if (filter != null) {
+                result = result == null ? RoaringBitmap.and(base, filter) : RoaringBitmap.and(result, filter);
+            }
+        }
+        return result == null ? base : result;
+    }
+
+    private static RoaringBitmap toBitmap(Collection<Long> ids) {
+        RoaringBitmap result = new RoaringBitmap();
+        for (Long id : ids) {
+            if (id != null && id >= 0 && id <= Integer.MAX_VALUE) {
+                result.add(id.intValue());
+            }
+        }
+        return result;
+    }
+
+    private static int toIndex(Long productId) {
+        if (productId < 0 || productId > Integer.MAX_VALUE) {
+            throw new IllegalStateException("Product id " + productId + " is out of range for the facet index");
+        }
+        return productId.intValue();
+    }
+
+    /**
+     * Bitmaps are keyed by int. An ID beyond that range would alias another product, so the index stops
+     * serving facets instead of returning wrong counts.
+     */
+    private boolean indexable(Long productId) {
+        if (productId == null) {
+            return false;
+        }
+        if (productId < 0 || productId > Integer.MAX_VALUE) {
+            ready = false;
+            logger.warn("Product id {} is out of range for the facet index; facets disabled", productId);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Facet selections. Empty or null collections and a null rating mean "no constraint".
+     *
+     * @param categoryIds categories to include (OR)
+     * @param priceBuckets price bucket indexes to include (OR)
+     * @param minRating minimum star rating, 1 to {@link #MAX_RATING}
+     * @param inStockOnly only products with stock
+     * @param restrictTo optional candidate IDs from another filter, such as text search
+     */
+    public record FacetFilter(
+        Collection<Long> categoryIds,
+        Collection<Integer> priceBuckets,
+        Integer minRating,
+        boolean inStockOnly,
+        Collection<Long> restrictTo
+    ) {
+    }
+
+    /**
+     * @param total number of matching products
+     * @param pageIds IDs on the requested page, in order
+     * @param categoryCounts matches per category under the other selections
+     * @param priceBucketCounts matches per price bucket under the other selections
+     * @param ratingCounts matches rated at least {@code index + 1} stars under the other selections
+     * @param inStockCount matches in stock under the other selections
+     */
+    public record FacetResult(
+        long total,
+        List<Long> pageIds,
+        Map<Long, Long> categoryCounts,
+        long[] priceBucketCounts,
+        long[] ratingCounts,
+        long inStockCount
+    ) {
+    }
+
+    private record Entry(String name, Long categoryId, BigDecimal price, BigDecimal avgRating, Instant createdAt) {
+    }
+}
@@ -0,0 +1,375 @@
+package com.eyarko.ecom.service;
+
+import com.eyarko.ecom.dto.ProductImportErrorResponse;
+import com.eyarko.ecom.dto.ProductImportResponse;
+import com.eyarko.ecom.dto.ProductImportRow;
+import com.eyarko.ecom.entity.Category;
+import com.eyarko.ecom.infrastructure.cache.StockLevelCache;
+import com.eyarko.ecom.repository.CategoryRepository;
+import com.eyarko.ecom.repository.ProductBulkRepository;
+import com.eyarko.ecom.util.CsvUtil;
+import com.eyarko.ecom.util.TransactionUtil;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import io.micrometer.core.annotation.Timed;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Bulk product import from NDJSON or CSV.
+ *
+ * <p>The body is read line by line and never held in memory as a whole. Categories are resolved from
+ * a name/id map loaded once per import, and accepted rows are written through
+ * {@link ProductBulkRepository} in batches of {@code app.products.import.batch-size}, each batch
+ * (products plus their inventory rows) in its own transaction. Invalid rows are rejected and
+ * reported without stopping the import; a database error rolls back the current batch and stops,
+ * keeping the batches already committed.
+ */
+@Service
+public class ProductImportService {
+    private static final Logger logger = LoggerFactory.getLogger(ProductImportService.class);
+    private static final int MAX_NAME_LENGTH = 100;
+    /** Upper bound of the {@code DECIMAL(10, 2)} price column. */
+    private static final BigDecimal MAX_PRICE = new BigDecimal("100000000");
+
+    private final CategoryRepository categoryRepository;
+    private final ProductBulkRepository productBulkRepository;
+    private final ProductSearchIndex productSearchIndex;
+    private final ProductFacetIndex productFacetIndex;
+    private final ProductSuggestIndex productSuggestIndex;
+    private final StockLevelCache stockLevelCache;
+    private final ProductCacheEvictor productCacheEvictor;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectReader rowReader;
+    private final int batchSize;
+    private final int maxReportedErrors;
+
+    public ProductImportService(
+        CategoryRepository categoryRepository,
+        ProductBulkRepository productBulkRepository,
+        ProductSearchIndex productSearchIndex,
+        ProductFacetIndex productFacetIndex,
+        ProductSuggestIndex productSuggestIndex,
+        StockLevelCache stockLevelCache,
+        ProductCacheEvictor productCacheEvictor,
+        PlatformTransactionManager transactionManager,
+        ObjectMapper objectMapper,
+        @Value("${app.products.import.batch-size:500}") int batchSize,
+        @Value("${app.products.import.max-reported-errors:100}") int maxReportedErrors
+    ) {
+        this.categoryRepository = categoryRepository;
+        this.productBulkRepository = productBulkRepository;
+        this.productSearchIndex = productSearchIndex;
+        this.productFacetIndex = productFacetIndex;
+        this.productSuggestIndex = productSuggestIndex;
+        this.stockLevelCache = stockLevelCache;
+        this.productCacheEvictor = productCacheEvictor;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.rowReader = objectMapper.readerFor(ProductImportRow.class);
+        this.batchSize = Math.max(1, batchSize);
+        this.maxReportedErrors = Math.max(0, maxReportedErrors);
+    }
+
+    /**
+     * Imports products from a stream of rows.
+     *
+     * @param body NDJSON (one object per line) or CSV (header line first), UTF-8
+     * @param format body format
+     * @return counts of imported and rejected rows with the first errors
+     */
+    @Timed(value = "app.products.import.timed", description = "Time spent on bulk product imports")
+    public ProductImportResponse importProducts(InputStream body, CatalogFormat format) {
+        ImportRun run = new ImportRun(CategoryLookup.load(categoryRepository));
+        long lineNumber = 0;
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8))) {
+            CsvHeader header = null;
+            String line;
+            while (!run.stopped && (line = reader.readLine()) != null) {
+                lineNumber++;
+                if (lineNumber == 1 && line.startsWith("\uFEFF")) {
+                    line = line.substring(1);
+                }
+                if (line.isBlank()) {
+                    continue;
+                }
+                if (format == CatalogFormat.CSV && header == null) {
+                    header = CsvHeader.parse(line);
+                    continue;
+                }
+                ProductImportRow row;
+                try {
+                    row = format == CatalogFormat.CSV ? header.toRow(CsvUtil.parseLine(line)) : rowReader.readValue(line);
+                } catch (JsonProcessingException ex) {
+                    run.reject(lineNumber, "Invalid JSON: " + ex.getOriginalMessage());
+                    continue;
+                } catch (IllegalArgumentException ex) {
+                    run.reject(lineNumber, ex.getMessage());
+                    continue;
+                }
+                run.accept(lineNumber, row);
+            }
+            run.flush();
+        } catch (IOException ex) {
+            run.stop(lineNumber + 1, "Could not read the request body: " + ex.getMessage());
+        } finally {
+            if (run.imported > 0) {
+                productSuggestIndex.markStale();
+                productCacheEvictor.evictAllLists();
+            }
+        }
+        return ProductImportResponse.builder()
+            .imported(run.imported)
+            .rejected(run.rejected)
+            .batches(run.batches)
+            .completed(!run.stopped)
+            .errors(run.errors)
+            .build();
+    }
+
+    private static String trimToNull(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        return value.trim();
+    }
+
+    /**
+     * State of one import: the batch being filled and the running counts.
+     */
+    private final class ImportRun {
+        private final CategoryLookup categories;
+        private final List<Pending> pending = new ArrayList<>();
+        private final List<ProductImportErrorResponse> errors = new ArrayList<>();
+        private long imported;
+        private long rejected;
+        private int batches;
+        private boolean stopped;
+
+        private ImportRun(CategoryLookup categories) {
+            this.categories = categories;
+        }
+
+        void accept(long line, ProductImportRow row) {
+            String name = trimToNull(row.getName());
+            if (name == null) {
+                reject(line, "name is required");
+                return;
+            }
+            if (name.length() > MAX_NAME_LENGTH) {
+                reject(line, "name must be at most " + MAX_NAME_LENGTH + " characters");
+                return;
+            }
+            BigDecimal price = row.getPrice();
+            if (price == null || price.signum() <= 0) {
+                reject(line, "price must be positive");
+                return;
+            }
+            if (price.compareTo(MAX_PRICE) >= 0 || price.stripTrailingZeros().scale() > 2) {
+                reject(line, "price must have at most 8 digits and 2 decimal places");
+                return;
+            }
+            int quantity = row.getQuantity() == null ? 0 : row.getQuantity();
+            if (quantity < 0) {
+                reject(line, "quantity must not be negative");
+                return;
+            }
+            Long categoryId = row.getCategoryId();
+            String categoryName = trimToNull(row.getCategory());
+            if (categoryId == null && categoryName == null) {
+                reject(line, "categoryId or category is required");
+                return;
+            }
+            if (categoryId == null) {
+                categoryId = categories.idOf(categoryName);
+                if (categoryId == null) {
+                    reject(line, "Unknown category '" + categoryName + "'");
+                    return;
+                }
+            }
+            categoryName = categories.nameOf(categoryId);
+            if (categoryName == null) {
+                reject(line, "Unknown category id " + categoryId);
+                return;
+            }
+            pending.add(new Pending(line, categoryName, new ProductBulkRepository.Row(
+                categoryId,
+                name,
+                trimToNull(row.getDescription()),
+                price,
+                trimToNull(row.getImageUrl()),
+                quantity
+            )));
+            if (pending.size() >= batchSize) {
+                flush();
+            }
+        }
+
+        void flush() {
+            if (pending.isEmpty() || stopped) {
+                return;
+            }
+            List<Pending> batch = List.copyOf(pending);
+            pending.clear();
+            List<ProductBulkRepository.Row> rows = batch.stream().map(Pending::row).toList();
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    List<Long> ids = productBulkRepository.insertWithInventory(rows);
+                    TransactionUtil.afterCommit(() -> publish(batch, ids));
+                });
+                imported += batch.size();
+                batches++;
+            } catch (DataAccessException ex) {
+                logger.warn("Product import batch starting at line {} failed: {}", batch.get(0).line(), ex.getMessage());
+                rejected += batch.size();
+                stop(batch.get(0).line(), "Batch of " + batch.size() + " rows starting at this line was rolled back: "
+                    + ex.getMostSpecificCause().getMessage());
+            }
+        }
+
+        void reject(long line, String message) {
+            rejected++;
+            report(line, message);
+        }
+
+        void stop(long line, String message) {
+            stopped = true;
+            report(line, message);
+        }
+
+        private void report(long line, String message) {
+            if (errors.size() < maxReportedErrors) {
+                errors.add(new ProductImportErrorResponse(line, message));
+            }
+        }
+
+        /**
+         * Adds a committed batch to the in-memory read models, as single-product writes do.
+         */
+        private void publish(List<Pending> batch, List<Long> ids) {
+            Instant createdAt = Instant.now();
+            for (int i = 0; i < batch.size(); i++) {
+                Pending entry = batch.get(i);
+                ProductBulkRepository.Row row = entry.row();
+                Long productId = ids.get(i);
+                productSearchIndex.upsertProduct(productId, row.name(), row.categoryId(), entry.categoryName());
+                productFacetIndex.upsertProduct(
+                    productId, row.name(), row.categoryId(), row.price(), BigDecimal.ZERO, createdAt
+                );
+                stockLevelCache.put(productId, row.quantity(), 0L);
+            }
+        }
+    }
+
+    private record Pending(long line, String categoryName, ProductBulkRepository.Row row) {
+    }
+
+    /**
+     * Category names and ids loaded once per import. Names match case-insensitively; if two
+     * categories share a name the older one wins.
+     */
+    private static final class CategoryLookup {
+        private final Map<String, Long> idsByName = new HashMap<>();
+        private final Map<Long, String> namesById = new HashMap<>();
+
+        static CategoryLookup load(CategoryRepository categoryRepository) {
+            CategoryLookup lookup = new CategoryLookup();
+            for (Category category : categoryRepository.findAll(Sort.by("id"))) {
+                lookup.namesById.put(category.getId(), category.getName());
+                if (category.getName() != null) {
+                    lookup.idsByName.putIfAbsent(category.getName().trim().toLowerCase(Locale.ROOT), category.getId());
+                }
+            }
+            return lookup;
+        }
+
+        Long idOf(String name) {
+            return idsByName.get(name.trim().toLowerCase(Locale.ROOT));
+        }
+
+        String nameOf(Long id) {
+            return namesById.get(id);
+        }
+    }
+
+    /**
+     * Column positions from the CSV header. Names are matched ignoring case, spaces and underscores;
+     * unknown columns are ignored.
+     */
+    private static final class CsvHeader {
+        private final Map<String, Integer> columns = new HashMap<>();
+
+        static CsvHeader parse(String line) {
+            CsvHeader header = new CsvHeader();
+            List<String> names;
+            try {
+                names = CsvUtil.parseLine(line);
+            } catch (IllegalArgumentException ex) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid CSV header: " + ex.getMessage());
+            }
+            for (int i = 0; i < names.size(); i++) {
+                header.columns.putIfAbsent(names.get(i).toLowerCase(Locale.ROOT).replaceAll("[\\s_]", ""), i);
+            }
+            boolean hasCategory = header.columns.containsKey("categoryid") || header.columns.containsKey("category");
+            if (!hasCategory || !header.columns.containsKey("name") || !header.columns.containsKey("price")) {
+                throw new ResponseStatusException(
+                    HttpStatus.BAD_REQUEST,
+                    "CSV header must include name, price, and categoryId or category"
+                );
+            }
+            return header;
+        }
+
+        ProductImportRow toRow(List<String> fields) {
+            String categoryId = value(fields, "categoryid");
+            String price = value(fields, "price");
+            String quantity = value(fields, "quantity");
+            return ProductImportRow.builder()
+                .categoryId(categoryId == null ? null : parseNumber("categoryId", categoryId, Long::valueOf))
+                .category(value(fields, "category"))
+                .name(value(fields, "name"))
+                .description(value(fields, "description"))
+                .price(price == null ? null : parseNumber("price", price, BigDecimal::new))
+                .imageUrl(value(fields, "imageurl"))
+                .quantity(quantity == null ? null : parseNumber("quantity", quantity, Integer::valueOf))
+                .build();
+        }
+
+        private String value(List<String> fields, String column) {
+            Integer index = columns.get(column);
+            if (index == null || index >= fields.size()) {
+                return null;
+            }
+            return trimToNull(fields.get(index));
+        }
+
+        private static <T> T parseNumber(String column, String value, Function<String, T> parser) {
+            try {
+                return parser.apply(value);
+            } catch (NumberFormatException ex) {
+                throw new IllegalArgumentException(column + " is not a valid number: " + value);
+            }
+        }
+    }
+}
@@ -0,0 +1,286 @@
+package com.eyarko.ecom.service;
+
+import com.eyarko.ecom.repository.ProductRepository;
+import com.eyarko.ecom.repository.ProductSearchView;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * In-memory trigram inverted index over product and category names.
+ *
+ * <p>Substring search resolves candidate product IDs by intersecting trigram posting lists and then
+ * verifying each candidate against its stored lower-case name, so results match the
+ * {@code lower(name) like '%term%'} semantics of {@code ProductRepository.searchBodyRowsByNameOrCategory}
+ * without scanning the products table. Terms shorter than a trigram fall back to an in-memory scan.
+ *
+ * <p>The index is built once the application context has started and is kept current by product and
+ * category mutations. Until it is ready, {@link #search} returns empty and callers use SQL instead.
+ */
+@Component
+public class ProductSearchIndex {
+    private static final Logger logger = LoggerFactory.getLogger(ProductSearchIndex.class);
+    private static final int GRAM_LENGTH = 3;
+
+    private final ProductRepository productRepository;
+    private final boolean enabled;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<Long, ProductEntry> products = new HashMap<>();
+    private final Map<Long, String> categoryNames = new HashMap<>();
+    private final Map<Long, Set<Long>> productsByCategory = new HashMap<>();
+    private final Map<String, Set<Long>> productGrams = new HashMap<>();
+    private final Map<String, Set<Long>> categoryGrams = new HashMap<>();
+
+    private volatile boolean ready;
+
+    public ProductSearchIndex(
+        ProductRepository productRepository,
+        @Value("${app.search.index.enabled:true}") boolean enabled
+    ) {
+        this.productRepository = productRepository;
+        this.enabled = enabled;
+    }
+
+    @EventListener(ApplicationStartedEvent.class)
+    public void buildOnStartup() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            rebuild();
+        } catch (Exception ex) {
+            // Search keeps working through SQL; the index is an optimization only.
+            logger.warn("Failed to build product search index: {}", ex.getMessage());
+        }
+    }
+
+    /**
+     * Reloads the whole index from the database. Writers block until the swap completes so no
+     * incremental update is lost; readers fall back to SQL while the first build is running.
+     */
+    public void rebuild() {
+        long start = System.nanoTime();
+        lock.writeLock().lock();
+        try {
+            List<ProductSearchView> entries = productRepository.findSearchEntries();
+            products.clear();
+            categoryNames.clear();
+            productsByCategory.clear();
+            productGrams.clear();
+            categoryGrams.clear();
+            for (ProductSearchView entry : entries) {
+                putCategory(entry.getCategoryId(), entry.getCategoryName());
+                putProduct(entry.getProductId(), entry.getProductName(), entry.getCategoryId());
+            }
+            ready = true;
+            logger.info("Product search index built: {} products, {} categories in {} ms",
+                products.size(), categoryNames.size(), (System.nanoTime() - start) / 1_000_000);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Resolves product IDs whose name (or category name, when no category filter is given) contains
+     * the term, case-insensitively.
+     *
+     * @param term search term
+     * @param categoryId optional category filter; when present only product names are matched
+     * @return matching product IDs, or empty when the index is not available
+     */
+    public Optional<Set<Long>> search(String term, Long categoryId) {
+        if (!ready || term == null) {
+            return Optional.empty();
+        }
+        String needle = normalize(term);
+        lock.readLock().lock();
+        try {
+            Set<Long> matches = new HashSet<>();
+            for (Long productId : matchingIds(needle, productGrams, products.keySet())) {
+                ProductEntry entry = products.get(productId);
+                if (entry != null && entry.name().contains(needle)
+                    && (categoryId == null || categoryId.equals(entry.categoryId()))) {
+                    matches.add(productId);
+                }
+            }
+            if (categoryId == null) {
+                for (Long matchedCategory : matchingIds(needle, categoryGrams, categoryNames.keySet())) {
+                    String name = categoryNames.get(matchedCategory);
+                    if (name != null && name.contains(needle)) {
+                        matches.addAll(productsByCategory.getOrDefault(matchedCategory, Set.of()));
+                    }
+                }
+            }
+            return Optional.of(matches);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void upsertProduct(Long productId, String name, Long categoryId, String categoryName) {
+        if (productId == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            removeProductInternal(productId);
+            putCategory(categoryId, categoryName);
+            putProduct(productId, name, categoryId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void removeProduct(Long productId) {
+        if (productId == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            removeProductInternal(productId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void upsertCategory(Long categoryId, String name) {
+        if (categoryId == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            removeCategoryGrams(categoryId);
+            categoryNames.remove(categoryId);
+            putCategory(categoryId, name);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void removeCategory(Long categoryId) {
+        if (categoryId == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            removeCategoryGrams(categoryId);
+            categoryNames.remove(categoryId);
+            productsByCategory.remove(categoryId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    private void putProduct(Long productId, String name, Long categoryId) {
+        String normalized = normalize(name);
+        products.put(productId, new ProductEntry(normalized, categoryId));
+        if (categoryId != null) {
+            productsByCategory.computeIfAbsent(categoryId, ignored -> new HashSet<>()).add(productId);
+        }
+        for (String gram : grams(normalized)) {
+            productGrams.computeIfAbsent(gram, ignored -> new HashSet<>()).add(productId);
+        }
+    }
+
+    private void putCategory(Long categoryId, String name) {
+        if (categoryId == null || categoryNames.containsKey(categoryId)) {
+            return;
+        }
+        String normalized = normalize(name);
+        categoryNames.put(categoryId, normalized);
+        for (String gram : grams(normalized)) {
+            categoryGrams.computeIfAbsent(gram, ignored -> new HashSet<>()).add(categoryId);
+        }
+    }
+
+    private void removeProductInternal(Long productId) {
+        ProductEntry existing = products.remove(productId);
+        if (existing == null) {
+            return;
+        }
+        removeFromPostings(productGrams, grams(existing.name()), productId);
+        Set<Long> members = productsByCategory.get(existing.categoryId());
+        if (members != null) {
+            members.remove(productId);
+        }
+    }
+
+    private void removeCategoryGrams(Long categoryId) {
+        String existing = categoryNames.get(categoryId);
+        if (existing != null) {
+            removeFromPostings(categoryGrams, grams(existing), categoryId);
+        }
+    }
+
+    private static void removeFromPostings(Map<String, Set<Long>> postings, Set<String> grams, Long id) {
+        for (String gram : grams) {
+            Set<Long> ids = postings.get(gram);
+            if (ids != null) {
+                ids.remove(id);
+                if (ids.isEmpty()) {
+                    postings.remove(gram);
+                }
+            }
+        }
+    }
+
+    /**
+     * Intersects the posting lists of every trigram in the needle, starting from the smallest list.
+     * Needles shorter than a trigram cannot use the postings, so every known ID is a candidate.
+     */
+    private static Set<Long> matchingIds(String needle, Map<String, Set<Long>> postings, Set<Long> all) {
+        if (needle.length() < GRAM_LENGTH) {
+            return all;
+        }
+        List<Set<Long>> lists = new ArrayList<>();
+        for (String gram : grams(needle)) {
+            Set<Long> ids = postings.get(gram);
+            if (ids == null) {
+                return Collections.emptySet();
+            }
+            lists.add(ids);
+        }
+        lists.sort((a, b) -> Integer.compare(a.size(), b.size()));
+        Set<Long> result = new HashSet<>(lists.get(0));
+        for (int i = 1; i < lists.size() && !result.isEmpty(); i++) {
+            result.retainAll(lists.get(i));
+        }
+        return result;
+    }
+
+    static Set<String> grams(String normalized) {
+        if (normalized.length() < GRAM_LENGTH) {
+            return Set.of();
+        }
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM_LENGTH <= normalized.length(); i++) {
+            grams.add(normalized.substring(i, i + GRAM_LENGTH));
+        }
+        return grams;
+    }
+
+    private static String normalize(String value) {
+        return value == null ? "" : value.toLowerCase(Locale.ROOT);
+    }
+
+    private record ProductEntry(String name, Long categoryId) {
+    }
+}
@@ -1,23 +1,33 @@
 package com.eyarko.ecom.service;
 
+import com.eyarko.ecom.dto.FacetCountResponse;
 import com.eyarko.ecom.dto.PagedResponse;
+import com.eyarko.ecom.dto.PriceBucketFacetResponse;
+import com.eyarko.ecom.dto.ProductFacetsResponse;
 import com.eyarko.ecom.dto.ProductRequest;
 import com.eyarko.ecom.dto.ProductResponse;
+import com.eyarko.ecom.dto.SuggestionResponse;
 import com.eyarko.ecom.entity.Category;
 import com.eyarko.ecom.entity.Product;
+import com.eyarko.ecom.infrastructure.cache.StockLevelCache;
+import com.eyarko.ecom.infrastructure.web.EntityTags;
+import com.eyarko.ecom.infrastructure.web.Versioned;
 import com.eyarko.ecom.mapper.ProductMapper;
 import com.eyarko.ecom.repository.CategoryRepository;
-import com.eyarko.ecom.repository.InventoryRepository;
 import com.eyarko.ecom.repository.ProductRepository;
+import com.eyarko.ecom.util.TransactionUtil;
 import io.micrometer.core.annotation.Timed;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.stream.Collectors;
-import org.springframework.cache.annotation.CacheEvict;
-import org.springframework.cache.annotation.Cacheable;
-import org.springframework.cache.annotation.Caching;
-import org.springframework.data.domain.Page;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -27,19 +37,39 @@ import org.springframework.web.server.ResponseStatusException;
 public class ProductService {
     private final ProductRepository productRepository;
     private final CategoryRepository categoryRepository;
-    private final InventoryRepository inventoryRepository;
+    private final ProductCatalogService productCatalogService;
+    private final StockLevelCache stockLevelCache;
+    private final ProductSearchIndex productSearchIndex;
+    private final ProductFacetIndex productFacetIndex;
+    private final ProductSuggestIndex productSuggestIndex;
+    private final ProductCacheEvictor productCacheEvictor;
+    private final EntityTags entityTags;
+    private final int maxBatchIds;
 
     public ProductService(
         ProductRepository productRepository,
         CategoryRepository categoryRepository,
-        InventoryRepository inventoryRepository
+        ProductCatalogService productCatalogService,
+        StockLevelCache stockLevelCache,
+        ProductSearchIndex productSearchIndex,
+        ProductFacetIndex productFacetIndex,
+        ProductSuggestIndex productSuggestIndex,
+        ProductCacheEvictor productCacheEvictor,
+        EntityTags entityTags,
+        @Value("${app.products.batch.max-ids:100}") int maxBatchIds
     ) {
         this.productRepository = productRepository;
         this.categoryRepository = categoryRepository;
-        this.inventoryRepository = inventoryRepository;
+        this.productCatalogService = productCatalogService;
+        this.stockLevelCache = stockLevelCache;
+        this.productSearchIndex = productSearchIndex;
+        this.productFacetIndex = productFacetIndex;
+        this.productSuggestIndex = productSuggestIndex;
+        this.productCacheEvictor = productCacheEvictor;
+        this.entityTags = entityTags;
+        this.maxBatchIds = maxBatchIds;
     }
 
-    @CacheEvict(value = "productLists", allEntries = true)
     @Transactional
     public ProductResponse createProduct(ProductRequest request) {
         Category category = categoryRepository.findById(request.getCategoryId())
@@ -51,17 +81,19 @@ public class ProductService {
             .price(request.getPrice())
             .imageUrl(request.getImageUrl())
             .build();
-        return ProductMapper.toResponse(productRepository.save(product));
+        Product saved = productRepository.save(product);
+        indexAfterCommit(saved);
+        productCacheEvictor.evictAllLists();
+        return ProductMapper.toResponse(saved);
     }
 
-    @Caching(evict = {
-        @CacheEvict(value = "productById", key = "#id"),
-        @CacheEvict(value = "productLists", allEntries = true)
-    })
     @Transactional
     public ProductResponse updateProduct(Long id, ProductRequest request) {
         Product product = productRepository.findById(id)
             .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Product not found"));
+        String previousName = product.getName();
+        BigDecimal previousPrice = product.getPrice();
+        Long previousCategoryId = product.getCategory() != null ? product.getCategory().getId() : null;
         if (request.getCategoryId() != null) {
             Category category = categoryRepository.findById(request.getCategoryId())
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Category not found"));
@@ -71,78 +103,294 @@ public class ProductService {
         product.setDescription(request.getDescription());
         product.setPrice(request.getPrice());
         product.setImageUrl(request.getImageUrl());
-        return ProductMapper.toResponse(productRepository.save(product));
+        Product saved = productRepository.save(product);
+        indexAfterCommit(saved);
+        boolean listingChanged = !Objects.equals(previousName, saved.getName())
+            || !sameAmount(previousPrice, saved.getPrice())
+            || !Objects.equals(previousCategoryId, saved.getCategory().getId());
+        if (listingChanged) {
+            // Name, price and category decide which listings include the product and where it sorts.
+            productCacheEvictor.evictAllLists();
+        }
+        productCacheEvictor.evictProduct(id);
+        return ProductMapper.toResponse(saved);
     }
 
-    @Cacheable(value = "productById", key = "#id")
-    @Transactional(readOnly = true)
     @Timed(value = "app.products.get.timed", description = "Time spent fetching product detail")
     public ProductResponse getProduct(Long id) {
-        Product product = productRepository.findById(id)
-            .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Product not found"));
-        int qty = inventoryRepository.findByProduct_Id(id)
-            .map(inv -> inv.getQuantity() != null ? inv.getQuantity() : 0)
-            .orElse(0);
-        return ProductMapper.toResponse(product, qty);
-    }
-
-    @Cacheable(
-        value = "productLists",
-        key = "'list:' + #categoryId + ':' + #search + ':' + #pageable.pageNumber + ':' + #pageable.pageSize "
-            + "+ ':' + #pageable.sort.toString()"
-    )
-    @Transactional(readOnly = true)
+        return getProductVersioned(id).body();
+    }
+
+    /**
+     * Product detail with a strong ETag derived from the cached body and the current stock level.
+     *
+     * @param id product id
+     * @return product with its ETag
+     */
+    @Timed(value = "app.products.get.timed", description = "Time spent fetching product detail")
+    public Versioned<ProductResponse> getProductVersioned(Long id) {
+        ProductResponse body = productCatalogService.getProductBody(id);
+        int quantity = stockLevelCache.quantityOrLoad(id);
+        return new Versioned<>(ProductMapper.withStock(body, quantity), entityTags.of(body, quantity));
+    }
+
+    /**
+     * Fetches many products in one call. Bodies come from {@code productById} where cached, the rest
+     * from one query; stock for all of them is read in one batch.
+     *
+     * @param ids product IDs; duplicates are ignored
+     * @return products in the order requested, without IDs that do not exist
+     */
+    @Timed(value = "app.products.batch.timed", description = "Time spent fetching products by ID")
+    public List<ProductResponse> getProductsByIds(List<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return List.of();
+        }
+        if (ids.stream().distinct().count() > maxBatchIds) {
+            throw new ResponseStatusException(
+                HttpStatus.BAD_REQUEST, "At most " + maxBatchIds + " product IDs per request"
+            );
+        }
+        List<ProductResponse> bodies = productCatalogService.getCachedProductBodies(ids);
+        Map<Long, Integer> quantities = stockLevelCache.quantities(
+            bodies.stream().map(ProductResponse::getId).collect(Collectors.toList())
+        );
+        return bodies.stream()
+            .map(body -> ProductMapper.withStock(body, quantities.getOrDefault(body.getId(), 0)))
+            .collect(Collectors.toList());
+    }
+
     @Timed(value = "app.products.list.timed", description = "Time spent listing products")
     public PagedResponse<ProductResponse> listProducts(Long categoryId, String search, Pageable pageable) {
-        Page<Product> page;
-        if (categoryId != null && search != null && !search.isBlank()) {
-            page = productRepository.findByCategory_IdAndNameContainingIgnoreCase(categoryId, search, pageable);
-        } else if (categoryId != null) {
-            page = productRepository.findByCategory_Id(categoryId, pageable);
-        } else if (search != null && !search.isBlank()) {
-            page = productRepository.searchByNameOrCategory(search, pageable);
-        } else {
-            page = productRepository.findAllProducts(pageable);
+        return listProductsVersioned(categoryId, search, pageable).body();
+    }
+
+    /**
+     * Offset listing with a strong ETag derived from the cached page and the stock of its products.
+     */
+    @Timed(value = "app.products.list.timed", description = "Time spent listing products")
+    public Versioned<PagedResponse<ProductResponse>> listProductsVersioned(
+        Long categoryId,
+        String search,
+        Pageable pageable
+    ) {
+        return withStockVersioned(productCatalogService.listProductBodies(categoryId, search, pageable));
+    }
+
+    /**
+     * Cursor-mode listing: seeks on the sort key plus id from the position encoded in {@code after}
+     * and skips the count query, so every window costs the same regardless of depth.
+     *
+     * @param categoryId optional category filter
+     * @param search optional search term
+     * @param after cursor from the previous window, or blank for the first window
+     * @param size window size
+     * @param sort requested sort; id is appended as a tie-breaker
+     * @return window of products with the cursor for the next one
+     */
+    @Timed(value = "app.products.list.timed", description = "Time spent listing products")
+    public PagedResponse<ProductResponse> scrollProducts(
+        Long categoryId,
+        String search,
+        String after,
+        int size,
+        Sort sort
+    ) {
+        return scrollProductsVersioned(categoryId, search, after, size, sort).body();
+    }
+
+    /**
+     * Cursor-mode listing with a strong ETag derived from the cached window and the stock of its
+     * products.
+     */
+    @Timed(value = "app.products.list.timed", description = "Time spent listing products")
+    public Versioned<PagedResponse<ProductResponse>> scrollProductsVersioned(
+        Long categoryId,
+        String search,
+        String after,
+        int size,
+        Sort sort
+    ) {
+        return withStockVersioned(productCatalogService.scrollProductBodies(categoryId, search, after, size, sort));
+    }
+
+    /**
+     * Faceted listing served from the in-memory facet bitmaps: filters are combined with bitmap ANDs,
+     * the page is chosen in memory and only its rows are loaded.
+     *
+     * @param categoryIds categories to include; any of them matches
+     * @param priceBuckets price bucket indexes to include; any of them matches
+     * @param minRating minimum star rating, 1 to 5
+     * @param inStockOnly only products with stock
+     * @param search optional name search term
+     * @param page page index
+     * @param size page size
+     * @param sort requested sort
+     * @return page of products with facet counts
+     */
+    @Timed(value = "app.products.facets.timed", description = "Time spent on faceted product listing")
+    public ProductFacetsResponse facetProducts(
+        Collection<Long> categoryIds,
+        Collection<Integer> priceBuckets,
+        Integer minRating,
+        boolean inStockOnly,
+        String search,
+        int page,
+        int size,
+        Sort sort
+    ) {
+        if (page < 0 || size < 1) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid page or size");
         }
-        List<Product> products = page.getContent();
-        List<Long> ids = products.parallelStream().map(Product::getId).collect(Collectors.toList());
-        Map<Long, Integer> quantities = loadQuantities(ids);
-        List<ProductResponse> items = products.parallelStream()
-            .map(p -> ProductMapper.toResponse(p, quantities.getOrDefault(p.getId(), 0)))
-            .collect(Collectors.toList());
-        return PagedResponse.<ProductResponse>builder()
-            .items(items)
-            .page(page.getNumber())
-            .size(page.getSize())
-            .totalElements(page.getTotalElements())
-            .totalPages(page.getTotalPages())
-            .hasNext(page.hasNext())
-            .hasPrevious(page.hasPrevious())
+        if (minRating != null && (minRating < 1 || minRating > ProductFacetIndex.MAX_RATING)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "minRating must be between 1 and 5");
+        }
+        List<BigDecimal> bounds = productFacetIndex.getPriceBounds();
+        if (priceBuckets != null && priceBuckets.stream().anyMatch(b -> b == null || b < 0 || b > bounds.size())) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unknown price bucket");
+        }
+        Collection<Long> searchIds = null;
+        if (search != null && !search.isBlank()) {
+            searchIds = productSearchIndex.search(search, null).orElseThrow(this::facetsUnavailable);
+        }
+        ProductFacetIndex.FacetResult result = productFacetIndex.query(
+            new ProductFacetIndex.FacetFilter(categoryIds, priceBuckets, minRating, inStockOnly, searchIds),
+            sort,
+            (long) page * size,
+            size
+        ).orElseThrow(this::facetsUnavailable);
+
+        int totalPages = (int) ((result.total() + size - 1) / size);
+        PagedResponse<ProductResponse> bodies = PagedResponse.<ProductResponse>builder()
+            .items(productCatalogService.getProductBodies(result.pageIds()))
+            .page(page)
+            .size(size)
+            .totalElements(result.total())
+            .totalPages(totalPages)
+            .hasNext(page + 1 < totalPages)
+            .hasPrevious(page > 0)
+            .build();
+
+        List<PriceBucketFacetResponse> priceFacets = new ArrayList<>();
+        for (int bucket = 0; bucket <= bounds.size(); bucket++) {
+            priceFacets.add(PriceBucketFacetResponse.builder()
+                .bucket(bucket)
+                .min(bucket == 0 ? BigDecimal.ZERO : bounds.get(bucket - 1))
+                .max(bucket < bounds.size() ? bounds.get(bucket) : null)
+                .count(result.priceBucketCounts()[bucket])
+                .build());
+        }
+        List<FacetCountResponse> ratingFacets = new ArrayList<>();
+        for (int stars = 1; stars <= ProductFacetIndex.MAX_RATING; stars++) {
+            ratingFacets.add(new FacetCountResponse((long) stars, result.ratingCounts()[stars - 1]));
+        }
+        return ProductFacetsResponse.builder()
+            .products(withStock(bodies))
+            .categories(result.categoryCounts().entrySet().stream()
+                .map(entry -> new FacetCountResponse(entry.getKey(), entry.getValue()))
+                .collect(Collectors.toList()))
+            .priceBuckets(priceFacets)
+            .ratings(ratingFacets)
+            .inStockCount(result.inStockCount())
             .build();
     }
 
-    @Caching(evict = {
-        @CacheEvict(value = "productById", key = "#id"),
-        @CacheEvict(value = "productLists", allEntries = true)
-    })
+    /**
+     * Autocomplete for product and category names, served from the in-memory suggest index.
+     *
+     * @param prefix typed prefix
+     * @param limit maximum number of suggestions
+     * @return suggestions, best ranked first
+     */
+    public List<SuggestionResponse> suggest(String prefix, int limit) {
+        return productSuggestIndex.suggest(prefix, limit);
+    }
+
     @Transactional
     public void deleteProduct(Long id) {
         if (!productRepository.existsById(id)) {
             throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Product not found");
         }
         productRepository.deleteById(id);
+        TransactionUtil.afterCommit(() -> {
+            productSearchIndex.removeProduct(id);
+            productFacetIndex.removeProduct(id);
+            productSuggestIndex.markStale();
+            stockLevelCache.remove(id);
+        });
+        productCacheEvictor.evictProduct(id);
+        productCacheEvictor.evictAllLists();
+    }
+
+    /**
+     * Copies a cached page and adds the current stock of each product; the cached page is shared and
+     * is never modified.
+     */
+    private PagedResponse<ProductResponse> withStock(PagedResponse<ProductResponse> bodies) {
+        return withStock(bodies, itemQuantities(bodies));
     }
 
-    private Map<Long, Integer> loadQuantities(List<Long> productIds) {
-        if (productIds == null || productIds.isEmpty()) {
-            return Map.of();
+    /**
+     * Like {@link #withStock(PagedResponse)}, tagged with the cached page's content hash plus the
+     * quantities that were added to it.
+     */
+    private Versioned<PagedResponse<ProductResponse>> withStockVersioned(PagedResponse<ProductResponse> bodies) {
+        List<Integer> quantities = itemQuantities(bodies);
+        return new Versioned<>(withStock(bodies, quantities), entityTags.of(bodies, quantities));
+    }
+
+    private List<Integer> itemQuantities(PagedResponse<ProductResponse> bodies) {
+        List<ProductResponse> items = bodies.getItems() == null ? List.of() : bodies.getItems();
+        Map<Long, Integer> quantities = stockLevelCache.quantities(
+            items.stream().map(ProductResponse::getId).collect(Collectors.toList())
+        );
+        return items.stream()
+            .map(body -> quantities.getOrDefault(body.getId(), 0))
+            .collect(Collectors.toList());
+    }
+
+    private PagedResponse<ProductResponse> withStock(PagedResponse<ProductResponse> bodies, List<Integer> quantities) {
+        List<ProductResponse> items = bodies.getItems() == null ? List.of() : bodies.getItems();
+        List<ProductResponse> stocked = new ArrayList<>(items.size());
+        for (int i = 0; i < items.size(); i++) {
+            stocked.add(ProductMapper.withStock(items.get(i), quantities.get(i)));
         }
-        return inventoryRepository.findQuantitiesByProductIds(productIds).parallelStream()
-            .collect(Collectors.toMap(
-                view -> view.getProductId(),
-                view -> view.getQuantity() == null ? 0 : view.getQuantity()
-            ));
+        return PagedResponse.<ProductResponse>builder()
+            .items(stocked)
+            .page(bodies.getPage())
+            .size(bodies.getSize())
+            .totalElements(bodies.getTotalElements())
+            .totalPages(bodies.getTotalPages())
+            .hasNext(bodies.isHasNext())
+            .hasPrevious(bodies.isHasPrevious())
+            .nextCursor(bodies.getNextCursor())
+            .build();
+    }
+
+    private void indexAfterCommit(Product product) {
+        Long productId = product.getId();
+        String name = product.getName();
+        Category category = product.getCategory();
+        Long categoryId = category != null ? category.getId() : null;
+        String categoryName = category != null ? category.getName() : null;
+        BigDecimal price = product.getPrice();
+        BigDecimal avgRating = product.getAvgRating();
+        Instant createdAt = product.getCreatedAt() != null ? product.getCreatedAt() : Instant.now();
+        TransactionUtil.afterCommit(() -> {
+            productSearchIndex.upsertProduct(productId, name, categoryId, categoryName);
+            productFacetIndex.upsertProduct(productId, name, categoryId, price, avgRating, createdAt);
+            productSuggestIndex.markStale();
+        });
     }
-}
 
+    private ResponseStatusException facetsUnavailable() {
+        return new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Product facets are not available yet");
+    }
 
+    private static boolean sameAmount(BigDecimal left, BigDecimal right) {
+        if (left == null || right == null) {
+            return left == right;
+        }
+        return left.compareTo(right) == 0;
+    }
+}
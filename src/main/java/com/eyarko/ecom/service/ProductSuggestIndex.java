@@ -0,0 +1,285 @@
+package com.eyarko.ecom.service;
+
+import com.eyarko.ecom.dto.SuggestionResponse;
+import com.eyarko.ecom.repository.ProductRepository;
+import com.eyarko.ecom.repository.ProductSuggestView;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Prefix autocomplete over product and category names, answered entirely from memory.
+ *
+ * <p>Each name is indexed under every word start ("gaming laptop" under {@code gaming laptop} and
+ * {@code laptop}). The keys are kept in one sorted array, which is the leaf order of a trie: all keys
+ * under a prefix form one contiguous range found by two binary searches. Ranges for prefixes of up to
+ * {@value #HOT_PREFIX_LENGTH} characters, which are the widest, have their top suggestions
+ * precomputed; longer prefixes scan their (short) range with a bounded heap. Suggestions are ranked by
+ * review count, then average rating.
+ *
+ * <p>The index is an immutable snapshot rebuilt in the background and swapped in with a single
+ * volatile write, so lookups never lock and never touch the database. Catalog changes mark it stale;
+ * it is rebuilt on the next scheduled check, and at least every {@code app.suggest.max-age}.
+ */
+@Component
+public class ProductSuggestIndex {
+    public static final int MAX_LIMIT = 20;
+    public static final String TYPE_PRODUCT = "product";
+    public static final String TYPE_CATEGORY = "category";
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductSuggestIndex.class);
+    private static final int HOT_PREFIX_LENGTH = 3;
+
+    private final ProductRepository productRepository;
+    private final boolean enabled;
+    private final long maxAgeMillis;
+
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+    private volatile boolean stale = true;
+    private volatile long builtAt;
+
+    public ProductSuggestIndex(
+        ProductRepository productRepository,
+        @Value("${app.suggest.enabled:true}") boolean enabled,
+        @Value("${app.suggest.max-age-ms:600000}") long maxAgeMillis
+    ) {
+        this.productRepository = productRepository;
+        this.enabled = enabled;
+        this.maxAgeMillis = maxAgeMillis;
+    }
+
+    @EventListener(ApplicationStartedEvent.class)
+    public void buildOnStartup() {
+        rebuildIfStale();
+    }
+
+    @Scheduled(
+        fixedDelayString = "${app.suggest.rebuild-delay-ms:10000}",
+        initialDelayString = "${app.suggest.rebuild-delay-ms:10000}"
+    )
+    public void rebuildIfStale() {
+        if (!enabled || (!stale && System.currentTimeMillis() - builtAt < maxAgeMillis)) {
+            return;
+        }
+        try {
+            rebuild();
+        } catch (Exception ex) {
+            // Keep serving the previous snapshot; the next check retries.
+            logger.warn("Failed to rebuild product suggest index: {}", ex.getMessage());
+        }
+    }
+
+    /**
+     * Builds a new snapshot from the database and swaps it in.
+     */
+    public synchronized void rebuild() {
+        long start = System.nanoTime();
+        stale = false;
+        List<ProductSuggestView> rows = productRepository.findSuggestEntries();
+        snapshot = Snapshot.build(rows);
+        builtAt = System.currentTimeMillis();
+        logger.info("Product suggest index built: {} keys in {} ms",
+            snapshot.keys.length, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Marks the index as out of date; it is rebuilt on the next scheduled check.
+     */
+    public void markStale() {
+        stale = true;
+    }
+
+    /**
+     * Returns the best-ranked names that have a word starting with the prefix.
+     *
+     * @param prefix typed prefix
+     * @param limit maximum suggestions, capped at {@link #MAX_LIMIT}
+     * @return suggestions, best first; empty before the first build
+     */
+    public List<SuggestionResponse> suggest(String prefix, int limit) {
+        String needle = normalize(prefix);
+        int k = Math.min(Math.max(limit, 0), MAX_LIMIT);
+        if (needle.isEmpty() || k == 0) {
+            return List.of();
+        }
+        Snapshot current = snapshot;
+        int[] top = current.top(needle);
+        List<SuggestionResponse> result = new ArrayList<>(Math.min(k, top.length));
+        for (int i = 0; i < top.length && i < k; i++) {
+            result.add(current.suggestions[top[i]]);
+        }
+        return result;
+    }
+
+    static String normalize(String value) {
+        if (value == null) {
+            return "";
+        }
+        return value.trim().toLowerCase(Locale.ROOT).replaceAll("\\s+", " ");
+    }
+
+    /**
+     * Immutable lookup structure. {@code keys} is sorted and {@code keyTargets[i]} is the suggestion
+     * that {@code keys[i]} belongs to; suggestions are numbered best-first, so a lower index always
+     * ranks higher.
+     */
+    private static final class Snapshot {
+        private static final Snapshot EMPTY = new Snapshot(new String[0], new int[0], new SuggestionResponse[0]);
+
+        private final String[] keys;
+        private final int[] keyTargets;
+        private final SuggestionResponse[] suggestions;
+        private final Map<String, int[]> hotPrefixes = new HashMap<>();
+
+        private Snapshot(String[] keys, int[] keyTargets, SuggestionResponse[] suggestions) {
+            this.keys = keys;
+            this.keyTargets = keyTargets;
+            this.suggestions = suggestions;
+        }
+
+        static Snapshot build(List<ProductSuggestView> rows) {
+            List<Ranked> ranked = new ArrayList<>();
+            Map<Long, Ranked> categories = new LinkedHashMap<>();
+            for (ProductSuggestView row : rows) {
+                int reviews = row.getReviewCount() == null ? 0 : row.getReviewCount();
+                BigDecimal rating = row.getAvgRating() == null ? BigDecimal.ZERO : row.getAvgRating();
+                ranked.add(new Ranked(TYPE_PRODUCT, row.getProductId(), row.getProductName(), reviews, rating));
+                if (row.getCategoryId() != null) {
+                    Ranked category = categories.computeIfAbsent(row.getCategoryId(),
+                        id -> new Ranked(TYPE_CATEGORY, id, row.getCategoryName(), 0, BigDecimal.ZERO));
+                    category.reviews += reviews;
+                }
+            }
+            ranked.addAll(categories.values());
+            ranked.removeIf(entry -> entry.name == null || entry.name.isBlank());
+            ranked.sort(Comparator.comparingLong((Ranked entry) -> entry.reviews).reversed()
+                .thenComparing(entry -> entry.rating, Comparator.reverseOrder())
+                .thenComparing(entry -> entry.name));
+
+            SuggestionResponse[] suggestions = new SuggestionResponse[ranked.size()];
+            List<KeyEntry> keyEntries = new ArrayList<>();
+            for (int i = 0; i < ranked.size(); i++) {
+                Ranked entry = ranked.get(i);
+                suggestions[i] = new SuggestionResponse(entry.type, entry.id, entry.name);
+                String normalized = normalize(entry.name);
+                for (int pos = 0; pos < normalized.length(); pos++) {
+                    if (pos == 0 || !Character.isLetterOrDigit(normalized.charAt(pos - 1))) {
+                        if (Character.isLetterOrDigit(normalized.charAt(pos))) {
+                            keyEntries.add(new KeyEntry(normalized.substring(pos), i));
+                        }
+                    }
+                }
+            }
+            keyEntries.sort(Comparator.comparing(KeyEntry::key).thenComparingInt(KeyEntry::target));
+
+            String[] keys = new String[keyEntries.size()];
+            int[] targets = new int[keyEntries.size()];
+            for (int i = 0; i < keys.length; i++) {
+                keys[i] = keyEntries.get(i).key();
+                targets[i] = keyEntries.get(i).target();
+            }
+            Snapshot snapshot = new Snapshot(keys, targets, suggestions);
+            snapshot.precomputeHotPrefixes();
+            return snapshot;
+        }
+
+        int[] top(String prefix) {
+            if (prefix.length() <= HOT_PREFIX_LENGTH) {
+                return hotPrefixes.getOrDefault(prefix, new int[0]);
+            }
+            int from = lowerBound(prefix);
+            int to = lowerBound(prefix + Character.MAX_VALUE);
+            return topInRange(from, to);
+        }
+
+        private void precomputeHotPrefixes() {
+            for (int length = 1; length <= HOT_PREFIX_LENGTH; length++) {
+                int start = 0;
+                while (start < keys.length) {
+                    if (keys[start].length() < length) {
+                        start++;
+                        continue;
+                    }
+                    String prefix = keys[start].substring(0, length);
+                    int end = start + 1;
+                    while (end < keys.length && keys[end].startsWith(prefix)) {
+                        end++;
+                    }
+                    hotPrefixes.put(prefix, topInRange(start, end));
+                    start = end;
+                }
+            }
+        }
+
+        /**
+         * Best {@link #MAX_LIMIT} distinct suggestions among keys {@code [from, to)}. Suggestion indexes
+         * are ranks, so the best are the smallest indexes; a max-heap keeps the current cut-off on top.
+         */
+        private int[] topInRange(int from, int to) {
+            PriorityQueue<Integer> best = new PriorityQueue<>(MAX_LIMIT, Comparator.reverseOrder());
+            for (int i = from; i < to; i++) {
+                int target = keyTargets[i];
+                if (best.size() == MAX_LIMIT && target >= best.peek()) {
+                    continue;
+                }
+                if (best.contains(target)) {
+                    continue;
+                }
+                best.add(target);
+                if (best.size() > MAX_LIMIT) {
+                    best.poll();
+                }
+            }
+            int[] result = best.stream().mapToInt(Integer::intValue).toArray();
+            Arrays.sort(result);
+            return result;
+        }
+
+        private int lowerBound(String value) {
+            int low = 0;
+            int high = keys.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (keys[mid].compareTo(value) < 0) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+
+    private static final class Ranked {
+        private final String type;
+        private final Long id;
+        private final String name;
+        private long reviews;
+        private final BigDecimal rating;
+
+        private Ranked(String type, Long id, String name, long reviews, BigDecimal rating) {
+            this.type = type;
+            this.id = id;
+            this.name = name;
+            this.reviews = reviews;
+            this.rating = rating;
+        }
+    }
+
+    private record KeyEntry(String key, int target) {
+    }
+}
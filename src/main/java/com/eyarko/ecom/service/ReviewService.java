@@ -9,14 +9,20 @@ import com.eyarko.ecom.mapper.ReviewMapper;
 import com.eyarko.ecom.repository.ProductRepository;
 import com.eyarko.ecom.repository.ReviewRepository;
 import com.eyarko.ecom.repository.UserRepository;
+import com.eyarko.ecom.util.CursorUtil;
+import com.eyarko.ecom.util.TransactionUtil;
 import io.micrometer.core.annotation.Timed;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.Instant;
 import java.util.List;
 import java.util.stream.Collectors;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.web.server.ResponseStatusException;
@@ -29,15 +35,24 @@ public class ReviewService {
     private final ReviewRepository reviewRepository;
     private final UserRepository userRepository;
     private final ProductRepository productRepository;
+    private final ProductCacheEvictor productCacheEvictor;
+    private final ProductFacetIndex productFacetIndex;
+    private final ProductSuggestIndex productSuggestIndex;
 
     public ReviewService(
         ReviewRepository reviewRepository,
         UserRepository userRepository,
-        ProductRepository productRepository
+        ProductRepository productRepository,
+        ProductCacheEvictor productCacheEvictor,
+        ProductFacetIndex productFacetIndex,
+        ProductSuggestIndex productSuggestIndex
     ) {
         this.reviewRepository = reviewRepository;
         this.userRepository = userRepository;
         this.productRepository = productRepository;
+        this.productCacheEvictor = productCacheEvictor;
+        this.productFacetIndex = productFacetIndex;
+        this.productSuggestIndex = productSuggestIndex;
     }
 
     /**
@@ -105,6 +120,41 @@ public class ReviewService {
             .build();
     }
 
+    /**
+     * Lists reviews by product or user in cursor mode, without a count query.
+     *
+     * @param productId optional product id
+     * @param userId optional user id
+     * @param after cursor from the previous window, or blank for the first window
+     * @param size window size
+     * @param sort requested sort; id is appended as a tie-breaker
+     * @return window of reviews with the cursor for the next one
+     */
+    @Timed(value = "app.reviews.list.timed", description = "Time spent listing reviews")
+    public PagedResponse<ReviewResponse> scrollReviews(
+        Long productId,
+        Long userId,
+        String after,
+        int size,
+        Sort sort
+    ) {
+        Sort keysetSort = CursorUtil.withIdTieBreaker(sort);
+        ScrollPosition position = CursorUtil.decode(after, keysetSort, Review.class);
+        Limit limit = CursorUtil.limit(size);
+        Window<Review> window;
+        if (productId != null) {
+            window = reviewRepository.findByProductId(productId, position, keysetSort, limit);
+        } else if (userId != null) {
+            window = reviewRepository.findByUserId(userId, position, keysetSort, limit);
+        } else {
+            window = reviewRepository.findAllBy(position, keysetSort, limit);
+        }
+        List<ReviewResponse> items = window.getContent().stream()
+            .map(ReviewMapper::toResponse)
+            .collect(Collectors.toList());
+        return CursorUtil.toPagedResponse(window, items, size, keysetSort, after);
+    }
+
     private void updateProductRating(Product product) {
         ReviewRepository.ReviewStatsProjection stats = reviewRepository
             .getReviewStatsByProductId(product.getId())
@@ -117,6 +167,13 @@ public class ReviewService {
         product.setAvgRating(avg);
         product.setReviewCount(count);
         productRepository.save(product);
+        productCacheEvictor.evictProduct(product.getId());
+        Long productId = product.getId();
+        BigDecimal rating = avg;
+        TransactionUtil.afterCommit(() -> {
+            productFacetIndex.updateRating(productId, rating);
+            productSuggestIndex.markStale();
+        });
     }
 }
 
@@ -0,0 +1,176 @@
+package com.eyarko.ecom.service;
+
+import com.eyarko.ecom.dto.InventoryResponse;
+import com.eyarko.ecom.entity.Product;
+import com.eyarko.ecom.infrastructure.cache.StockLevelCache;
+import com.eyarko.ecom.repository.InventoryShardRepository;
+import com.eyarko.ecom.repository.InventoryShardRepository.Shard;
+import com.eyarko.ecom.repository.InventoryStockRepository;
+import com.eyarko.ecom.util.InventoryStatusDisplay;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Sharded stock mode for flagged hot products, layered over the deployment's strategy for everything
+ * else.
+ *
+ * <p>A flagged product's units are spread over {@code K} rows in {@code inventory_shards}. A
+ * reservation starts at a random shard and takes the units from the first one that has them with a
+ * guarded {@code UPDATE}, so concurrent orders for the product mostly lock different rows and
+ * throughput grows with the shard count instead of stopping at one row lock. When no single shard can
+ * cover a line, it locks all shards in order and takes from several. {@link InventoryShardMaintenance}
+ * evens the shards out in the background.
+ *
+ * <p>The total is not known inside the transaction, since other shards move concurrently. A
+ * single-shard write changes it by a known amount and the product's version by one, so the stock cache
+ * applies the change after commit when its entry is the version just before this write, and re-reads
+ * otherwise; writes spanning shards always make it re-read the total.
+ *
+ * <p>Lock order: unsharded inventory rows (ascending product id), then shards of sharded products
+ * (ascending product id, then shard number); a product's inventory row before its own shards.
+ */
+public class ShardedInventoryStrategy implements InventoryReservationStrategy {
+    private final InventoryReservationStrategy delegate;
+    private final InventoryShardRepository shardRepository;
+    private final InventoryStockRepository stockRepository;
+    private final StockLevelCache stockLevelCache;
+    private final Set<Long> shardedProductIds;
+    private final int shards;
+
+    public ShardedInventoryStrategy(
+        InventoryReservationStrategy delegate,
+        InventoryShardRepository shardRepository,
+        InventoryStockRepository stockRepository,
+        StockLevelCache stockLevelCache,
+        Set<Long> shardedProductIds,
+        int shards
+    ) {
+        this.delegate = delegate;
+        this.shardRepository = shardRepository;
+        this.stockRepository = stockRepository;
+        this.stockLevelCache = stockLevelCache;
+        this.shardedProductIds = Set.copyOf(shardedProductIds);
+        this.shards = shards;
+    }
+
+    @Override
+    public String name() {
+        return delegate.name() + "+sharded";
+    }
+
+    public boolean isSharded(Long productId) {
+        return shardedProductIds.contains(productId);
+    }
+
+    @Override
+    public void reserve(Long productId, int quantity) {
+        if (!isSharded(productId)) {
+            delegate.reserve(productId, quantity);
+            return;
+        }
+        int start = ThreadLocalRandom.current().nextInt(shards);
+        for (int i = 0; i < shards; i++) {
+            if (shardRepository.decrementIfAvailable(productId, (start + i) % shards, quantity)) {
+                stockLevelCache.adjustAfterCommit(productId, -quantity, shardRepository.stockVersion(productId));
+                return;
+            }
+        }
+        takeAcrossShards(productId, quantity);
+    }
+
+    @Override
+    public void restore(Long productId, int quantity) {
+        if (!isSharded(productId)) {
+            delegate.restore(productId, quantity);
+            return;
+        }
+        if (!shardRepository.increment(productId, ThreadLocalRandom.current().nextInt(shards), quantity)) {
+            // Not split into shards yet (or not at this shard count): the units go back to the row. The
+            // delegate publishes the row's own version, which the cache ignores while it holds the
+            // higher row-plus-shards version, so re-read the sum.
+            delegate.restore(productId, quantity);
+            stockLevelCache.replaceAfterCommit(productId);
+            return;
+        }
+        stockLevelCache.adjustAfterCommit(productId, quantity, shardRepository.stockVersion(productId));
+    }
+
+    @Override
+    public void reserveAll(Map<Long, Integer> quantities) {
+        SortedMap<Long, Integer> sharded = new TreeMap<>();
+        SortedMap<Long, Integer> plain = new TreeMap<>();
+        quantities.forEach((productId, quantity) -> (isSharded(productId) ? sharded : plain).put(productId, quantity));
+        delegate.reserveAll(plain);
+        sharded.forEach(this::reserve);
+    }
+
+    @Override
+    public void restoreAll(Map<Long, Integer> quantities) {
+        SortedMap<Long, Integer> sharded = new TreeMap<>();
+        SortedMap<Long, Integer> plain = new TreeMap<>();
+        quantities.forEach((productId, quantity) -> (isSharded(productId) ? sharded : plain).put(productId, quantity));
+        delegate.restoreAll(plain);
+        sharded.forEach(this::restore);
+    }
+
+    /**
+     * Pre-locks the unsharded products only; shards are taken one at a time as reservations find them.
+     */
+    @Override
+    public <T> T withStockLocked(Collection<Long> productIds, Supplier<T> action) {
+        return delegate.withStockLocked(
+            productIds.stream().filter(productId -> !isSharded(productId)).collect(Collectors.toCollection(TreeSet::new)),
+            action
+        );
+    }
+
+    @Override
+    public InventoryResponse setQuantity(Product product, int quantity) {
+        if (!isSharded(product.getId())) {
+            return delegate.setQuantity(product, quantity);
+        }
+        // Creates the inventory row if missing and takes its lock before the shards'.
+        stockRepository.set(product.getId(), 0);
+        List<Shard> existing = shardRepository.lockShards(product.getId());
+        shardRepository.writeShards(product.getId(), existing, InventoryShardRepository.spread(quantity, shards));
+        stockLevelCache.reloadAfterCommit(product.getId());
+        return InventoryResponse.builder()
+            .productId(product.getId())
+            .quantity(quantity)
+            .stockStatus(InventoryStatusDisplay.fromQuantity(quantity))
+            .lastUpdated(Instant.now())
+            .build();
+    }
+
+    private void takeAcrossShards(Long productId, int quantity) {
+        List<Shard> locked = shardRepository.lockShards(productId);
+        if (locked.isEmpty()) {
+            delegate.reserve(productId, quantity);
+            return;
+        }
+        int total = locked.stream().mapToInt(Shard::quantity).sum();
+        if (total < quantity) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Insufficient stock");
+        }
+        int[] remaining = new int[locked.size()];
+        int needed = quantity;
+        for (int i = 0; i < remaining.length; i++) {
+            int taken = Math.min(needed, locked.get(i).quantity());
+            remaining[i] = locked.get(i).quantity() - taken;
+            needed -= taken;
+        }
+        shardRepository.writeShards(productId, locked, remaining);
+        stockLevelCache.reloadAfterCommit(productId);
+    }
+}
@@ -8,12 +8,16 @@ import com.eyarko.ecom.entity.User;
 import com.eyarko.ecom.entity.UserRole;
 import com.eyarko.ecom.mapper.UserMapper;
 import com.eyarko.ecom.repository.UserRepository;
+import com.eyarko.ecom.repository.UserSummaryRow;
+import com.eyarko.ecom.util.CursorUtil;
 import java.util.List;
 import java.util.stream.Collectors;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -78,7 +82,7 @@ public class UserService {
      */
     @Transactional(readOnly = true)
     public PagedResponse<UserResponse> listUsers(Pageable pageable) {
-        Page<User> page = userRepository.findAllUsers(pageable);
+        Page<UserSummaryRow> page = userRepository.findSummaryRows(pageable);
         List<UserResponse> items = page.getContent().stream()
             .map(UserMapper::toResponse)
             .collect(Collectors.toList());
@@ -93,6 +97,26 @@ public class UserService {
             .build();
     }
 
+    /**
+     * Lists users in cursor mode, without a count query.
+     *
+     * @param after cursor from the previous window, or blank for the first window
+     * @param size window size
+     * @param sort requested sort; id is appended as a tie-breaker
+     * @return window of users with the cursor for the next one
+     */
+    @Transactional(readOnly = true)
+    public PagedResponse<UserResponse> scrollUsers(String after, int size, Sort sort) {
+        Sort keysetSort = CursorUtil.withIdTieBreaker(sort);
+        Window<User> window = userRepository.findAllBy(
+            CursorUtil.decode(after, keysetSort, User.class), keysetSort, CursorUtil.limit(size)
+        );
+        List<UserResponse> items = window.getContent().stream()
+            .map(UserMapper::toResponse)
+            .collect(Collectors.toList());
+        return CursorUtil.toPagedResponse(window, items, size, keysetSort, after);
+    }
+
     /**
      * Updates a user.
      *
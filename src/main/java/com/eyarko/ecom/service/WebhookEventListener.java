@@ -0,0 +1,53 @@
+package com.eyarko.ecom.service;
+
+import com.eyarko.ecom.config.OutboxProperties;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.web.client.RestClient;
+
+/**
+ * Posts every outbox event as JSON to {@code app.outbox.webhook-url}; inactive while that is blank. A non-2xx answer or a timeout
+ * fails the delivery and the relay retries it later. The same event can arrive more than once; the
+ * receiver can use the {@code X-Event-Id} header to drop repeats.
+ */
+@Component
+public class WebhookEventListener implements DomainEventListener {
+    private final RestClient restClient;
+    private final String url;
+
+    public WebhookEventListener(RestClient.Builder restClientBuilder, OutboxProperties properties) {
+        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        Duration timeout = Duration.ofMillis(properties.getWebhookTimeoutMs());
+        requestFactory.setConnectTimeout(timeout);
+        requestFactory.setReadTimeout(timeout);
+        this.restClient = restClientBuilder.requestFactory(requestFactory).build();
+        this.url = StringUtils.hasText(properties.getWebhookUrl()) ? properties.getWebhookUrl() : null;
+    }
+
+    @Override
+    public boolean supports(DomainEventType type) {
+        return url != null;
+    }
+
+    @Override
+    public void onEvent(DomainEvent event) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("id", event.id());
+        body.put("type", event.type());
+        body.put("aggregateId", event.aggregateId());
+        body.put("occurredAt", event.occurredAt());
+        body.put("payload", event.payload());
+        restClient.post()
+            .uri(url)
+            .header("X-Event-Id", String.valueOf(event.id()))
+            .contentType(MediaType.APPLICATION_JSON)
+            .body(body)
+            .retrieve()
+            .toBodilessEntity();
+    }
+}
@@ -0,0 +1,77 @@
+package com.eyarko.ecom.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Minimal RFC 4180 helpers for one-record-per-line CSV: fields are separated by commas and may be
+ * quoted, with quotes doubled inside quoted fields. Quoted fields may not contain line breaks.
+ */
+public final class CsvUtil {
+    private CsvUtil() {
+    }
+
+    /**
+     * Splits one CSV record.
+     *
+     * @param line record without its line terminator
+     * @return field values, unquoted
+     * @throws IllegalArgumentException if a quoted field is not closed
+     */
+    public static List<String> parseLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c != '"') {
+                    field.append(c);
+                } else if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else {
+                    quoted = false;
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quoted field");
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    /**
+     * Appends one CSV record, quoting fields that need it. Line breaks inside values are replaced by
+     * spaces so every record stays on one line. Null values are written as empty fields.
+     *
+     * @param out destination
+     * @param values field values
+     * @return {@code out}
+     */
+    public static StringBuilder appendLine(StringBuilder out, Object... values) {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                out.append(',');
+            }
+            if (values[i] == null) {
+                continue;
+            }
+            String value = values[i].toString().replace("\r\n", " ").replace('\n', ' ').replace('\r', ' ');
+            if (value.indexOf(',') >= 0 || value.indexOf('"') >= 0) {
+                out.append('"').append(value.replace("\"", "\"\"")).append('"');
+            } else {
+                out.append(value);
+            }
+        }
+        return out.append('\n');
+    }
+}
@@ -0,0 +1,276 @@
+package com.eyarko.ecom.util;
+
+import com.eyarko.ecom.dto.PagedResponse;
+import com.eyarko.ecom.entity.OrderStatus;
+import com.eyarko.ecom.entity.OrderTicketStatus;
+import com.eyarko.ecom.entity.UserRole;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.bson.types.ObjectId;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.mapping.PropertyPath;
+import org.springframework.data.mapping.PropertyReferenceException;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.http.HttpStatus;
+import org.springframework.util.ClassUtils;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Opaque cursor encoding for keyset (seek) pagination.
+ *
+ * <p>A cursor carries the sort-key values of the last row of a page plus a fingerprint of the sort it
+ * was produced with, so the next page can seek past it without OFFSET or a count query.
+ */
+public final class CursorUtil {
+    private static final String VERSION = "v1";
+    private static final String ID_PROPERTY = "id";
+    private static final String DOCUMENT_ID_FIELD = "_id";
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+    // Enum sort keys a cursor may carry, looked up by name so a cursor never makes us load a class.
+    private static final Map<String, Class<? extends Enum<?>>> CURSOR_ENUMS =
+        Stream.<Class<? extends Enum<?>>>of(OrderStatus.class, OrderTicketStatus.class, UserRole.class)
+            .collect(Collectors.toUnmodifiableMap(Class::getName, Function.identity()));
+
+    private CursorUtil() {
+    }
+
+    /**
+     * Appends the id as a final tie-breaker so every row has a unique position in the sort.
+     *
+     * @param sort requested sort
+     * @return sort that is total over rows
+     */
+    public static Sort withIdTieBreaker(Sort sort) {
+        if (sort.getOrderFor(ID_PROPERTY) != null) {
+            return sort;
+        }
+        Sort.Direction direction = sort.stream().findFirst().map(Sort.Order::getDirection).orElse(Sort.Direction.ASC);
+        return sort.and(Sort.by(direction, ID_PROPERTY));
+    }
+
+    public static Limit limit(int size) {
+        if (size < 1) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "size must be greater than 0");
+        }
+        return Limit.of(size);
+    }
+
+    /**
+     * Decodes a cursor produced by {@link #encode}. A blank cursor starts from the first row.
+     *
+     * <p>The cursor must carry exactly one value per sort property, each of a type the property can
+     * hold, so a tampered cursor is rejected here instead of failing inside the query.
+     *
+     * @param cursor opaque cursor from a previous page, or blank for the first page
+     * @param sort sort the cursor must have been produced with
+     * @param domainType entity or document the sort properties belong to
+     * @return scroll position to seek from
+     */
+    public static ScrollPosition decode(String cursor, Sort sort, Class<?> domainType) {
+        if (cursor == null || cursor.isBlank()) {
+            return ScrollPosition.keyset();
+        }
+        String[] parts;
+        try {
+            parts = new String(DECODER.decode(cursor), StandardCharsets.UTF_8).split("\n", -1);
+        } catch (IllegalArgumentException ex) {
+            throw invalidCursor();
+        }
+        if (parts.length < 2 || !VERSION.equals(parts[0])) {
+            throw invalidCursor();
+        }
+        if (!fingerprint(sort).equals(parts[1])) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Cursor does not match the requested sort");
+        }
+        Map<String, Object> keys = new LinkedHashMap<>();
+        for (int i = 2; i < parts.length; i++) {
+            String[] field = parts[i].split(":", 3);
+            if (field.length != 3) {
+                throw invalidCursor();
+            }
+            String text;
+            try {
+                text = new String(DECODER.decode(field[2]), StandardCharsets.UTF_8);
+            } catch (IllegalArgumentException ex) {
+                throw invalidCursor();
+            }
+            keys.put(field[0], decodeValue(field[1], text));
+        }
+        checkKeys(keys, sort, domainType);
+        return ScrollPosition.forward(keys);
+    }
+
+    /**
+     * Encodes a keyset position into an opaque, URL-safe cursor.
+     *
+     * @param position position of the last row of a page
+     * @param sort sort the page was produced with
+     * @return opaque cursor
+     */
+    public static String encode(ScrollPosition position, Sort sort) {
+        if (!(position instanceof KeysetScrollPosition keyset)) {
+            throw new IllegalArgumentException("Only keyset positions can be encoded");
+        }
+        List<String> parts = new ArrayList<>();
+        parts.add(VERSION);
+        parts.add(fingerprint(sort));
+        keyset.getKeys().forEach((key, value) -> parts.add(key + ":" + encodeValue(value)));
+        return ENCODER.encodeToString(String.join("\n", parts).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Builds a cursor-mode page. Totals are left null because cursor mode never issues a count query.
+     *
+     * @param window window returned by the repository
+     * @param items mapped items of the window
+     * @param size requested page size
+     * @param sort sort the window was produced with
+     * @param after cursor the window was requested with
+     * @return paged response carrying the next cursor
+     */
+    public static <T> PagedResponse<T> toPagedResponse(
+        Window<?> window,
+        List<T> items,
+        int size,
+        Sort sort,
+        String after
+    ) {
+        String nextCursor = window.hasNext() && !window.isEmpty()
+            ? encode(window.positionAt(window.size() - 1), sort)
+            : null;
+        return PagedResponse.<T>builder()
+            .items(items)
+            .size(size)
+            .hasNext(nextCursor != null)
+            .hasPrevious(after != null && !after.isBlank())
+            .nextCursor(nextCursor)
+            .build();
+    }
+
+    /**
+     * Checks that the keys are exactly the sort properties and that each value fits its property.
+     * Documents are keyed by their stored field names and BSON types, so there the identifier is
+     * {@code _id} and may hold an {@link ObjectId}, and instants come back as {@link Date}.
+     */
+    private static void checkKeys(Map<String, Object> keys, Sort sort, Class<?> domainType) {
+        boolean document = domainType.isAnnotationPresent(Document.class);
+        if (keys.size() != sort.stream().count()) {
+            throw invalidCursor();
+        }
+        for (Sort.Order order : sort) {
+            String property = order.getProperty();
+            String key = document && ID_PROPERTY.equals(property) ? DOCUMENT_ID_FIELD : property;
+            if (!keys.containsKey(key)) {
+                throw invalidCursor();
+            }
+            Class<?> type;
+            try {
+                type = PropertyPath.from(property, domainType).getLeafType();
+            } catch (PropertyReferenceException ex) {
+                throw invalidCursor();
+            }
+            Object value = keys.get(key);
+            boolean fits = value == null
+                || ClassUtils.isAssignableValue(type, value)
+                || document && value instanceof ObjectId && type == String.class
+                || document && value instanceof Date && type == Instant.class;
+            if (!fits) {
+                throw invalidCursor();
+            }
+        }
+    }
+
+    private static String fingerprint(Sort sort) {
+        return ENCODER.encodeToString(sort.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String encodeValue(Object value) {
+        String tag;
+        String text;
+        if (value == null) {
+            tag = "N";
+            text = "";
+        } else if (value instanceof String string) {
+            tag = "S";
+            text = string;
+        } else if (value instanceof Long number) {
+            tag = "L";
+            text = number.toString();
+        } else if (value instanceof Integer number) {
+            tag = "I";
+            text = number.toString();
+        } else if (value instanceof BigDecimal number) {
+            tag = "D";
+            text = number.toPlainString();
+        } else if (value instanceof Instant instant) {
+            tag = "T";
+            text = instant.toString();
+        } else if (value instanceof Date date) {
+            tag = "U";
+            text = Long.toString(date.getTime());
+        } else if (value instanceof ObjectId objectId) {
+            tag = "O";
+            text = objectId.toHexString();
+        } else if (value instanceof Boolean bool) {
+            tag = "B";
+            text = bool.toString();
+        } else if (value instanceof Enum<?> constant) {
+            tag = "E";
+            text = constant.getDeclaringClass().getName() + "#" + constant.name();
+        } else {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Sort field is not supported in cursor mode");
+        }
+        return tag + ":" + ENCODER.encodeToString(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Object decodeValue(String tag, String text) {
+        try {
+            return switch (tag) {
+                case "N" -> null;
+                case "S" -> text;
+                case "L" -> Long.valueOf(text);
+                case "I" -> Integer.valueOf(text);
+                case "D" -> new BigDecimal(text);
+                case "T" -> Instant.parse(text);
+                case "U" -> new Date(Long.parseLong(text));
+                case "O" -> new ObjectId(text);
+                case "B" -> Boolean.valueOf(text);
+                case "E" -> {
+                    int separator = text.indexOf('#');
+                    Class<? extends Enum<?>> type = separator < 0
+                        ? null
+                        : CURSOR_ENUMS.get(text.substring(0, separator));
+                    if (type == null) {
+                        throw invalidCursor();
+                    }
+                    yield Enum.valueOf((Class<? extends Enum>) type, text.substring(separator + 1));
+                }
+                default -> throw invalidCursor();
+            };
+        } catch (ResponseStatusException ex) {
+            throw ex;
+        } catch (Exception ex) {
+            throw invalidCursor();
+        }
+    }
+
+    private static ResponseStatusException invalidCursor() {
+        return new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor");
+    }
+}
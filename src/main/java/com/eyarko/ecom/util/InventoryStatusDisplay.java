@@ -33,4 +33,19 @@ public final class InventoryStatusDisplay {
         }
         return "In stock";
     }
+
+    /**
+     * SQL equivalent of {@link #fromQuantity(int)}, for statements that change the quantity in place.
+     *
+     * @param quantity SQL expression for the new quantity; must be trusted code, never user input
+     * @return CASE expression yielding the display string
+     */
+    public static String sqlCase(String quantity) {
+        return "CASE WHEN " + quantity + " <= 0 THEN 'Out of stock'"
+            + " WHEN " + quantity + " = 1 THEN '1 unit in stock'"
+            + " WHEN " + quantity + " <= " + UNITS_IN_STOCK_MAX
+            + " THEN CONCAT(CAST(" + quantity + " AS VARCHAR(11)), ' units in stock')"
+            + " WHEN " + quantity + " <= " + FEW_UNITS_MAX + " THEN 'Few units in stock'"
+            + " ELSE 'In stock' END";
+    }
 }
@@ -0,0 +1,170 @@
+package com.eyarko.ecom.util;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.temporal.Temporal;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Rough retained-size estimate for cached values, in bytes.
+ *
+ * <p>Walks the object graph of application types (DTOs, responses) by reflection and uses fixed
+ * costs for common JDK value types and containers. It assumes a 64-bit JVM with compressed oops and
+ * is meant for cache weighing and memory reporting, not exact accounting.
+ */
+public final class ObjectSizeEstimator {
+    private static final String APP_PACKAGE = "com.eyarko.ecom.";
+    private static final long OBJECT_HEADER = 16;
+    private static final long REFERENCE = 4;
+    private static final long BOXED = 16;
+    private static final int MAX_OBJECTS = 100_000;
+
+    private static final ClassValue<List<Field>> REFERENCE_FIELDS = new ClassValue<>() {
+        @Override
+        protected List<Field> computeValue(Class<?> type) {
+            List<Field> fields = new ArrayList<>();
+            for (Class<?> c = type; c != null && c != Object.class; c = c.getSuperclass()) {
+                for (Field field : c.getDeclaredFields()) {
+                    if (!Modifier.isStatic(field.getModifiers()) && !field.getType().isPrimitive()) {
+                        field.setAccessible(true);
+                        fields.add(field);
+                    }
+                }
+            }
+            return Collections.unmodifiableList(fields);
+        }
+    };
+
+    private static final ClassValue<Long> SHALLOW_SIZE = new ClassValue<>() {
+        @Override
+        protected Long computeValue(Class<?> type) {
+            long size = OBJECT_HEADER;
+            for (Class<?> c = type; c != null && c != Object.class; c = c.getSuperclass()) {
+                for (Field field : c.getDeclaredFields()) {
+                    if (!Modifier.isStatic(field.getModifiers())) {
+                        size += primitiveSize(field.getType());
+                    }
+                }
+            }
+            return align(size);
+        }
+    };
+
+    private ObjectSizeEstimator() {
+    }
+
+    /**
+     * Estimates the bytes retained by an object graph. Shared objects are counted once.
+     *
+     * @param root object to measure
+     * @return estimated size in bytes
+     */
+    public static long estimate(Object root) {
+        if (root == null) {
+            return 0;
+        }
+        Set<Object> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+        Deque<Object> pending = new ArrayDeque<>();
+        pending.push(root);
+        long total = 0;
+        while (!pending.isEmpty() && seen.size() < MAX_OBJECTS) {
+            Object current = pending.pop();
+            if (!seen.add(current)) {
+                continue;
+            }
+            total += sizeOf(current, pending);
+        }
+        return total;
+    }
+
+    private static long sizeOf(Object value, Deque<Object> pending) {
+        if (value instanceof String string) {
+            return align(OBJECT_HEADER + 8) + align(OBJECT_HEADER + string.length());
+        }
+        if (value instanceof Enum<?> || value instanceof Class<?>) {
+            return 0;
+        }
+        if (value instanceof BigDecimal || value instanceof BigInteger) {
+            return 64;
+        }
+        if (value instanceof Number || value instanceof Boolean || value instanceof Character) {
+            return BOXED;
+        }
+        if (value instanceof Temporal || value instanceof Date || value instanceof UUID) {
+            return 24;
+        }
+        Class<?> type = value.getClass();
+        if (type.isArray()) {
+            int length = Array.getLength(value);
+            Class<?> component = type.getComponentType();
+            if (component.isPrimitive()) {
+                return align(OBJECT_HEADER + (long) length * primitiveSize(component));
+            }
+            for (int i = 0; i < length; i++) {
+                push(pending, Array.get(value, i));
+            }
+            return align(OBJECT_HEADER + (long) length * REFERENCE);
+        }
+        if (value instanceof Collection<?> collection) {
+            collection.forEach(element -> push(pending, element));
+            return 40 + (long) collection.size() * (REFERENCE + 16);
+        }
+        if (value instanceof Map<?, ?> map) {
+            map.forEach((k, v) -> {
+                push(pending, k);
+                push(pending, v);
+            });
+            return 48 + (long) map.size() * 32;
+        }
+        if (!type.getName().startsWith(APP_PACKAGE)) {
+            return OBJECT_HEADER;
+        }
+        for (Field field : REFERENCE_FIELDS.get(type)) {
+            try {
+                push(pending, field.get(value));
+            } catch (IllegalAccessException ex) {
+                // Field became inaccessible; skip it rather than fail the estimate.
+            }
+        }
+        return SHALLOW_SIZE.get(type) + REFERENCE_FIELDS.get(type).size() * REFERENCE;
+    }
+
+    private static void push(Deque<Object> pending, Object value) {
+        if (value != null) {
+            pending.push(value);
+        }
+    }
+
+    private static long primitiveSize(Class<?> type) {
+        if (type == long.class || type == double.class) {
+            return 8;
+        }
+        if (type == int.class || type == float.class) {
+            return 4;
+        }
+        if (type == short.class || type == char.class) {
+            return 2;
+        }
+        if (type == byte.class || type == boolean.class) {
+            return 1;
+        }
+        return 0;
+    }
+
+    private static long align(long size) {
+        return (size + 7) & ~7L;
+    }
+}
@@ -0,0 +1,137 @@
+package com.eyarko.ecom.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.eyarko.ecom.infrastructure.cache.CacheValueLoader;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+
+class CacheConfigTest {
+    @Test
+    void builderFor_weightBoundTakesPrecedenceOverSize() {
+        CacheSpecProperties.Spec spec = new CacheSpecProperties.Spec();
+        spec.setMaximumSize(5L);
+        spec.setMaximumWeight(4_096L);
+
+        Cache<Object, Object> cache = CacheConfig.builderFor("productLists", spec, null).executor(Runnable::run).build();
+        for (int i = 0; i < 100; i++) {
+            cache.put("key-" + i, "x".repeat(200));
+        }
+        cache.cleanUp();
+
+        var eviction = cache.policy().eviction().orElseThrow();
+        assertThat(eviction.isWeighted()).isTrue();
+        assertThat(eviction.weightedSize().orElseThrow()).isLessThanOrEqualTo(4_096L);
+        assertThat(cache.estimatedSize()).isGreaterThan(5L).isLessThan(100L);
+        assertThat(cache.stats().evictionCount()).isPositive();
+    }
+
+    @Test
+    void builderFor_rejectsRefreshWithoutLoader() {
+        CacheSpecProperties.Spec spec = new CacheSpecProperties.Spec();
+        spec.setRefreshAfterWrite(Duration.ofMinutes(5));
+
+        assertThatThrownBy(() -> CacheConfig.builderFor("categoryLists", spec, null))
+            .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void specFor_layersCacheSpecOverDefaultSpec() {
+        CacheSpecProperties properties = new CacheSpecProperties();
+        properties.getDefaultSpec().setMaximumSize(2_000L);
+        properties.getDefaultSpec().setExpireAfterWrite(Duration.ofHours(1));
+        CacheSpecProperties.Spec own = new CacheSpecProperties.Spec();
+        own.setExpireAfterAccess(Duration.ofMinutes(30));
+        own.setExpireAfterWrite(Duration.ofHours(2));
+        properties.getSpecs().put("productLists", own);
+
+        CacheSpecProperties.Spec spec = properties.specFor("productLists");
+
+        assertThat(spec.getMaximumSize()).isEqualTo(2_000L);
+        assertThat(spec.getExpireAfterWrite()).isEqualTo(Duration.ofHours(2));
+        assertThat(spec.getExpireAfterAccess()).isEqualTo(Duration.ofMinutes(30));
+        assertThat(spec.getRecordStats()).isTrue();
+        assertThat(properties.specFor("categoryLists").getExpireAfterWrite()).isEqualTo(Duration.ofHours(1));
+        Cache<Object, Object> cache = CacheConfig.builderFor("productLists", spec, null).build();
+        assertThat(cache.policy().eviction().orElseThrow().getMaximum()).isEqualTo(2_000L);
+    }
+
+    @Test
+    void checkBounded_rejectsDefaultSpecWithoutBound() {
+        CacheSpecProperties properties = new CacheSpecProperties();
+        properties.getDefaultSpec().setMaximumSize(null);
+
+        assertThatThrownBy(() -> CacheConfig.checkBounded(properties))
+            .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void refreshingLoader_servesStaleValueWhileOneReloadRuns() {
+        AtomicLong nanos = new AtomicLong();
+        AtomicInteger loads = new AtomicInteger();
+        List<Runnable> refreshTasks = new ArrayList<>();
+        LoadingCache<Object, Object> cache = CacheConfig.builderFor("productById", refreshSpec(), loader(loads))
+            .ticker(nanos::get)
+            .executor(refreshTasks::add)
+            .build(CacheConfig.refreshingLoader(loader(loads)));
+
+        assertThat(cache.get(1L)).isEqualTo("v1");
+        nanos.addAndGet(TimeUnit.MINUTES.toNanos(6));
+
+        assertThat(cache.get(1L)).isEqualTo("v1");
+        assertThat(cache.get(1L)).isEqualTo("v1");
+        assertThat(loads).hasValue(1);
+
+        List.copyOf(refreshTasks).forEach(Runnable::run);
+        assertThat(loads).hasValue(2);
+        assertThat(cache.get(1L)).isEqualTo("v2");
+    }
+
+    @Test
+    void refreshingLoader_keepsValueWhenExecutorRejectsReload() {
+        AtomicLong nanos = new AtomicLong();
+        AtomicInteger loads = new AtomicInteger();
+        LoadingCache<Object, Object> cache = CacheConfig.builderFor("productById", refreshSpec(), loader(loads))
+            .ticker(nanos::get)
+            .executor(task -> {
+                throw new RejectedExecutionException("saturated");
+            })
+            .build(CacheConfig.refreshingLoader(loader(loads)));
+
+        assertThat(cache.get(1L)).isEqualTo("v1");
+        nanos.addAndGet(TimeUnit.MINUTES.toNanos(6));
+
+        assertThat(cache.get(1L)).isEqualTo("v1");
+        assertThat(loads).hasValue(1);
+    }
+
+    private static CacheSpecProperties.Spec refreshSpec() {
+        CacheSpecProperties.Spec spec = new CacheSpecProperties.Spec();
+        spec.setRefreshAfterWrite(Duration.ofMinutes(5));
+        spec.setExpireAfterWrite(Duration.ofHours(1));
+        return spec;
+    }
+
+    private static CacheValueLoader loader(AtomicInteger loads) {
+        return new CacheValueLoader() {
+            @Override
+            public String cacheName() {
+                return "productById";
+            }
+
+            @Override
+            public Object load(Object key) {
+                return "v" + loads.incrementAndGet();
+            }
+        };
+    }
+}
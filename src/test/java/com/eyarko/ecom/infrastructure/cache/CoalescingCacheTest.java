@@ -0,0 +1,134 @@
+package com.eyarko.ecom.infrastructure.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+
+class CoalescingCacheTest {
+    private final ExecutorService executor = Executors.newFixedThreadPool(8);
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void concurrentMissesShareOneLoad() throws Exception {
+        CoalescingCache cache = new CoalescingCache(new ConcurrentMapCache("productLists"));
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+
+        List<Future<String>> results = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            results.add(executor.submit(() -> cache.get("page:0", () -> {
+                loads.incrementAndGet();
+                release.await();
+                return "page";
+            })));
+        }
+        waitUntil(() -> cache.coalescedCount() == 7);
+        assertThat(cache.inFlightCount()).isEqualTo(1);
+        assertThat(cache.inFlightWaiters(5)).containsEntry("page:0", 7);
+
+        release.countDown();
+        for (Future<String> result : results) {
+            assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo("page");
+        }
+        assertThat(loads).hasValue(1);
+        assertThat(cache.inFlightCount()).isZero();
+        assertThat(cache.get("page:0", () -> "reloaded")).isEqualTo("page");
+    }
+
+    @Test
+    void waitersSeeTheLoadersFailureAndTheNextMissRetries() throws Exception {
+        CoalescingCache cache = new CoalescingCache(new ConcurrentMapCache("categoryById"));
+        CountDownLatch release = new CountDownLatch(1);
+
+        Future<Object> leader = executor.submit(() -> cache.get(1L, () -> {
+            release.await();
+            throw new IllegalStateException("db down");
+        }));
+        waitUntil(() -> cache.inFlightCount() == 1);
+        Future<Object> waiter = executor.submit(() -> cache.get(1L, () -> "unused"));
+        waitUntil(() -> cache.coalescedCount() == 1);
+        release.countDown();
+
+        for (Future<Object> result : List.of(leader, waiter)) {
+            assertThatThrownBy(() -> result.get(5, TimeUnit.SECONDS)).hasRootCauseMessage("db down");
+        }
+        assertThat(cache.get(1L, () -> "loaded")).isEqualTo("loaded");
+    }
+
+    @Test
+    void anEvictionDuringTheLoadKeepsItsResultOutOfTheCache() throws Exception {
+        CoalescingCache cache = new CoalescingCache(new ConcurrentMapCache("productById"));
+        CountDownLatch release = new CountDownLatch(1);
+
+        Future<String> stale = executor.submit(() -> cache.get(1L, () -> {
+            release.await();
+            return "before edit";
+        }));
+        waitUntil(() -> cache.inFlightCount() == 1);
+        cache.evict(1L);
+        release.countDown();
+
+        assertThat(stale.get(5, TimeUnit.SECONDS)).isEqualTo("before edit");
+        assertThat(cache.get(1L)).isNull();
+        assertThat(cache.get(1L, () -> "after edit")).isEqualTo("after edit");
+        assertThat(cache.get(1L).get()).isEqualTo("after edit");
+    }
+
+    @Test
+    void missesWaitForABatchLoadAndLoadThemselvesWhenItFindsNothing() throws Exception {
+        CoalescingCache cache = new CoalescingCache(new ConcurrentMapCache("productById"));
+        CountDownLatch release = new CountDownLatch(1);
+
+        Future<Map<Long, String>> batch = executor.submit(() -> cache.loadAll(List.of(1L, 2L), keys -> {
+            await(release);
+            return Map.of(1L, "one");
+        }));
+        waitUntil(() -> cache.inFlightCount() == 2);
+        Future<Object> found = executor.submit(() -> cache.get(1L, () -> "own one"));
+        Future<Object> missing = executor.submit(() -> cache.get(2L, () -> "own two"));
+        waitUntil(() -> cache.coalescedCount() == 2);
+        release.countDown();
+
+        assertThat(batch.get(5, TimeUnit.SECONDS)).containsExactly(Map.entry(1L, "one"));
+        assertThat(found.get(5, TimeUnit.SECONDS)).isEqualTo("one");
+        assertThat(missing.get(5, TimeUnit.SECONDS)).isEqualTo("own two");
+        assertThat(cache.get(1L).get()).isEqualTo("one");
+        assertThat(cache.get(2L).get()).isEqualTo("own two");
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private static void waitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) {
+                throw new AssertionError("condition not reached");
+            }
+            Thread.sleep(5);
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.eyarko.ecom.infrastructure.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.eyarko.ecom.repository.InventoryQuantityView;
+import com.eyarko.ecom.repository.InventoryRepository;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class StockLevelCacheTest {
+    @Mock
+    private InventoryRepository inventoryRepository;
+
+    private StockLevelCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new StockLevelCache(inventoryRepository);
+    }
+
+    @Test
+    void put_ignoresOlderInventoryVersions() {
+        cache.put(1L, 10, 5L);
+        cache.put(1L, 99, 4L);
+        assertThat(cache.quantity(1L)).isEqualTo(10);
+
+        cache.put(1L, 7, 6L);
+        assertThat(cache.quantity(1L)).isEqualTo(7);
+        assertThat(cache.quantity(2L)).isEqualTo(StockLevelCache.UNKNOWN);
+    }
+
+    @Test
+    void adjustAfterCommit_appliesDeltaOnTheVersionJustBeforeTheWriteSoAnOlderReloadIsIgnored() {
+        cache.put(1L, 10, 5L);
+
+        cache.adjustAfterCommit(1L, -3, 6L);
+        cache.adjustAfterCommit(2L, -3, 6L);
+        cache.put(1L, 10, 5L);
+
+        assertThat(cache.quantity(1L)).isEqualTo(7);
+        assertThat(cache.quantity(2L)).isEqualTo(StockLevelCache.UNKNOWN);
+        cache.put(1L, 6, 7L);
+        assertThat(cache.quantity(1L)).isEqualTo(6);
+        verify(inventoryRepository, never()).findQuantitiesByProductIds(anyList());
+    }
+
+    @Test
+    void adjustAfterCommit_reloadsWhenTheEntryMayAlreadyIncludeTheWrite() {
+        // A reload after commit already saw the write (version 6); applying the delta again would double it.
+        cache.put(1L, 7, 6L);
+        when(inventoryRepository.findQuantitiesByProductIds(List.of(1L))).thenReturn(List.of(view(1L, 7, 6L)));
+
+        cache.adjustAfterCommit(1L, -3, 6L);
+
+        assertThat(cache.quantity(1L)).isEqualTo(7);
+        verify(inventoryRepository).findQuantitiesByProductIds(List.of(1L));
+    }
+
+    @Test
+    void growsAndRemovesWithoutLosingOtherEntries() {
+        for (long id = 1; id <= 5_000; id++) {
+            cache.put(id, (int) id, 0L);
+        }
+        for (long id = 1; id <= 5_000; id += 2) {
+            cache.remove(id);
+        }
+
+        assertThat(cache.size()).isEqualTo(2_500);
+        for (long id = 1; id <= 5_000; id++) {
+            int expected = id % 2 == 0 ? (int) id : StockLevelCache.UNKNOWN;
+            assertThat(cache.quantity(id)).isEqualTo(expected);
+        }
+    }
+
+    @Test
+    void quantities_loadsOnlyMissesAndCachesMissingRowsAsZero() {
+        cache.put(1L, 3, 0L);
+        when(inventoryRepository.findQuantitiesByProductIds(List.of(2L, 3L))).thenReturn(List.of(view(2L, 8, 1L)));
+
+        Map<Long, Integer> result = cache.quantities(List.of(1L, 2L, 3L));
+
+        assertThat(result).containsEntry(1L, 3).containsEntry(2L, 8).containsEntry(3L, 0);
+        assertThat(cache.quantity(3L)).isZero();
+
+        cache.quantities(List.of(1L, 2L, 3L));
+        verify(inventoryRepository).findQuantitiesByProductIds(anyList());
+    }
+
+    @Test
+    void quantityOrLoad_doesNotQueryWhenCached() {
+        cache.put(4L, 2, 0L);
+
+        assertThat(cache.quantityOrLoad(4L)).isEqualTo(2);
+        verify(inventoryRepository, never()).findQuantitiesByProductIds(anyList());
+    }
+
+    private static InventoryQuantityView view(Long productId, Integer quantity, Long version) {
+        return new InventoryQuantityView() {
+            @Override
+            public Long getProductId() {
+                return productId;
+            }
+
+            @Override
+            public Integer getQuantity() {
+                return quantity;
+            }
+
+            @Override
+            public Long getVersion() {
+                return version;
+            }
+        };
+    }
+}
@@ -0,0 +1,128 @@
+package com.eyarko.ecom.infrastructure.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.eyarko.ecom.dto.PagedResponse;
+import com.eyarko.ecom.dto.ProductResponse;
+import com.eyarko.ecom.service.ProductCacheEvictor;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.caffeine.CaffeineCache;
+
+class TaggedCacheTest {
+    private TaggedCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new TaggedCache(
+            new CaffeineCache("productLists", Caffeine.newBuilder().build()),
+            ProductCacheEvictor::tagsOf
+        );
+    }
+
+    @Test
+    void evictTag_removesOnlyPagesContainingTheProduct() {
+        cache.put("list:1", page(1L, 2L));
+        cache.put("list:2", page(3L, 4L));
+        cache.put("list:3", page(2L, 5L));
+
+        cache.evictTag("product:2");
+
+        assertThat(cache.get("list:1")).isNull();
+        assertThat(cache.get("list:3")).isNull();
+        assertThat(cache.get("list:2")).isNotNull();
+        assertThat(cache.trackedKeyCount()).isEqualTo(1);
+    }
+
+    @Test
+    void put_replacesTagsOfAnOverwrittenKey() {
+        cache.put("list:1", page(1L));
+        cache.put("list:1", page(2L));
+
+        cache.evictTag("product:1");
+        assertThat(cache.get("list:1")).isNotNull();
+
+        cache.evictTag("product:2");
+        assertThat(cache.get("list:1")).isNull();
+    }
+
+    @Test
+    void get_withLoader_tagsTheLoadedValue() {
+        cache.get("list:1", () -> page(7L));
+
+        cache.evictTag("product:7");
+
+        assertThat(cache.get("list:1")).isNull();
+    }
+
+    @Test
+    void get_withSlowLoader_doesNotBlockTagEvictionAndDropsTheStaleResult() throws Exception {
+        cache.put("list:2", page(8L));
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Object> load = CompletableFuture.supplyAsync(() -> cache.get("list:1", () -> {
+            loading.countDown();
+            release.await();
+            return page(7L);
+        }));
+        assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // Neither a hit nor an eviction waits for the load in flight.
+        CompletableFuture.runAsync(() -> {
+            assertThat(cache.get("list:2")).isNotNull();
+            cache.evictTag("product:7");
+        }).get(5, TimeUnit.SECONDS);
+        release.countDown();
+
+        assertThat(load.get(5, TimeUnit.SECONDS)).isNotNull();
+        assertThat(cache.get("list:1")).isNull();
+        assertThat(cache.get("list:1", () -> page(7L))).isNotNull();
+        assertThat(cache.get("list:1")).isNotNull();
+    }
+
+    @Test
+    void get_withLoader_andEvictTagOfTheLoadingKey_doNotDeadlock() throws Exception {
+        for (TaggedCache tagged : List.of(cache, coalescingCache())) {
+            // Indexed under product:7 while its entry is gone, as after the cache expires it on its own.
+            tagged.put("list:1", page(7L));
+            ((com.github.benmanes.caffeine.cache.Cache<?, ?>) tagged.getNativeCache()).asMap().remove("list:1");
+            CountDownLatch loading = new CountDownLatch(1);
+            CountDownLatch release = new CountDownLatch(1);
+            CompletableFuture<Object> load = CompletableFuture.supplyAsync(() -> tagged.get("list:1", () -> {
+                loading.countDown();
+                release.await();
+                return page(7L);
+            }));
+            assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+
+            Thread evicting = new Thread(() -> tagged.evictTag("product:7"));
+            evicting.start();
+            // Let the eviction reach the loading key before the load finishes.
+            evicting.join(200);
+            release.countDown();
+
+            evicting.join(5_000);
+            assertThat(evicting.isAlive()).isFalse();
+            assertThat(load.get(5, TimeUnit.SECONDS)).isNotNull();
+            assertThat(tagged.get("list:1")).isNull();
+        }
+    }
+
+    private static TaggedCache coalescingCache() {
+        CaffeineCache caffeine = new CaffeineCache("productLists", Caffeine.newBuilder().build());
+        return new TaggedCache(new CoalescingCache(caffeine), ProductCacheEvictor::tagsOf);
+    }
+
+    private static PagedResponse<ProductResponse> page(Long... productIds) {
+        List<ProductResponse> items = Arrays.stream(productIds)
+            .map(id -> ProductResponse.builder().id(id).build())
+            .toList();
+        return PagedResponse.<ProductResponse>builder().items(items).size(items.size()).build();
+    }
+}
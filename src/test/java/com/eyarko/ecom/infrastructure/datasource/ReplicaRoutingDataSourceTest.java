@@ -0,0 +1,106 @@
+package com.eyarko.ecom.infrastructure.datasource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+class ReplicaRoutingDataSourceTest {
+    private SimpleMeterRegistry meterRegistry;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate readWrite;
+    private TransactionTemplate readOnly;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource primary = database("routing_primary");
+        DriverManagerDataSource replica = database("routing_replica");
+        meterRegistry = new SimpleMeterRegistry();
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(
+            primary, replica, new ReadYourWritesTracker(Duration.ofMinutes(1), 100), meterRegistry
+        );
+        routing.afterPropertiesSet();
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(routing);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        readWrite = new TransactionTemplate(transactionManager);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void readOnlyTransactionsUseTheReplicaAndEverythingElseThePrimary() {
+        assertThat(readOnlyTarget()).isEqualTo("replica");
+        assertThat(readWriteTarget()).isEqualTo("primary");
+        assertThat(whoAmI()).isEqualTo("primary");
+        assertThat(meterRegistry.get("app.datasource.routes").tag("reason", "read_only").counter().count())
+            .isEqualTo(1.0);
+    }
+
+    @Test
+    void userReadsTheirOwnWriteFromThePrimary() {
+        SecurityContextHolder.getContext().setAuthentication(
+            new UsernamePasswordAuthenticationToken("alice", null, List.of())
+        );
+        readWrite.executeWithoutResult(status -> jdbcTemplate.update("update marker set name = name"));
+
+        assertThat(readOnlyTarget()).isEqualTo("primary");
+
+        SecurityContextHolder.getContext().setAuthentication(
+            new UsernamePasswordAuthenticationToken("bob", null, List.of())
+        );
+        assertThat(readOnlyTarget()).isEqualTo("replica");
+    }
+
+    @Test
+    void rolledBackWriteDoesNotPinTheUser() {
+        SecurityContextHolder.getContext().setAuthentication(
+            new UsernamePasswordAuthenticationToken("carol", null, List.of())
+        );
+        readWrite.executeWithoutResult(status -> {
+            jdbcTemplate.update("update marker set name = name");
+            status.setRollbackOnly();
+        });
+
+        assertThat(readOnlyTarget()).isEqualTo("replica");
+    }
+
+    private String readOnlyTarget() {
+        return readOnly.execute(status -> whoAmI());
+    }
+
+    private String readWriteTarget() {
+        return readWrite.execute(status -> whoAmI());
+    }
+
+    private String whoAmI() {
+        return jdbcTemplate.queryForObject("select name from marker", String.class);
+    }
+
+    private static DriverManagerDataSource database(String name) {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+            "jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1", "sa", ""
+        );
+        JdbcTemplate setup = new JdbcTemplate(dataSource);
+        setup.execute("create table if not exists marker (name varchar(20))");
+        setup.update("delete from marker");
+        setup.update("insert into marker (name) values (?)", name.substring("routing_".length()));
+        return dataSource;
+    }
+}
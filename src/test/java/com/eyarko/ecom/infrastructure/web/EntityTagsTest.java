@@ -0,0 +1,77 @@
+package com.eyarko.ecom.infrastructure.web;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.eyarko.ecom.dto.CategoryResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.time.Duration;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+class EntityTagsTest {
+    private final EntityTags entityTags = new EntityTags(new ObjectMapper(), Duration.ZERO, 100);
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void of_dependsOnContentAndLiveParts() {
+        CategoryResponse lamps = category(1L, "Lamps");
+
+        String tag = entityTags.of(lamps, 5);
+
+        assertThat(tag).matches("\"[0-9a-f]{32}\"");
+        assertThat(entityTags.of(lamps, 5)).isEqualTo(tag);
+        assertThat(entityTags.of(category(1L, "Lamps"), 5)).isEqualTo(tag);
+        assertThat(entityTags.of(lamps, 6)).isNotEqualTo(tag);
+        assertThat(entityTags.of(category(1L, "Lighting"), 5)).isNotEqualTo(tag);
+        assertThat(entityTags.of(List.of(lamps))).isNotEqualTo(entityTags.of(lamps));
+    }
+
+    @Test
+    void of_hashesACachedInstanceOnlyOnce() {
+        CategoryResponse lamps = category(1L, "Lamps");
+        String before = entityTags.of(lamps);
+
+        // Cached values are never modified in place; the memoized hash is reused for the same instance.
+        lamps.setName("Changed");
+
+        assertThat(entityTags.of(lamps)).isEqualTo(before);
+    }
+
+    @Test
+    void ofParts_separatesParts() {
+        assertThat(entityTags.ofParts("ab", "c")).isNotEqualTo(entityTags.ofParts("a", "bc"));
+        assertThat(entityTags.ofParts("a", null)).isEqualTo(entityTags.ofParts("a", null));
+    }
+
+    @Test
+    void ok_setsValidatorsAndKeepsLastModifiedWhileTheTagIsUnchanged() throws InterruptedException {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(
+            new MockHttpServletRequest("GET", "/api/v1/categories")
+        ));
+
+        ResponseEntity<String> first = entityTags.ok("\"a\"", "body");
+        Thread.sleep(1100);
+        ResponseEntity<String> same = entityTags.ok("\"a\"", "body");
+        ResponseEntity<String> changed = entityTags.ok("\"b\"", "body");
+
+        assertThat(first.getHeaders().getETag()).isEqualTo("\"a\"");
+        assertThat(first.getHeaders().getCacheControl()).isEqualTo("max-age=0, must-revalidate");
+        assertThat(first.getHeaders().getFirst(HttpHeaders.LAST_MODIFIED)).isNotNull();
+        assertThat(same.getHeaders().getLastModified()).isEqualTo(first.getHeaders().getLastModified());
+        assertThat(changed.getHeaders().getLastModified()).isGreaterThan(first.getHeaders().getLastModified());
+    }
+
+    private static CategoryResponse category(Long id, String name) {
+        return CategoryResponse.builder().id(id).name(name).build();
+    }
+}
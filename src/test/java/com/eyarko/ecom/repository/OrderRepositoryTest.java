@@ -0,0 +1,179 @@
+package com.eyarko.ecom.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.eyarko.ecom.entity.Category;
+import com.eyarko.ecom.entity.Order;
+import com.eyarko.ecom.entity.OrderItem;
+import com.eyarko.ecom.entity.OrderStatus;
+import com.eyarko.ecom.entity.Product;
+import com.eyarko.ecom.entity.User;
+import com.eyarko.ecom.entity.UserRole;
+import jakarta.persistence.EntityManagerFactory;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import org.hibernate.SessionFactory;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+    + "com.eyarko.ecom.repository.OrderRepositoryTest$SqlRecorder")
+@ActiveProfiles("test")
+class OrderRepositoryTest {
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void summaryRowsPageInSqlAndItemRowsCarryProductNames() {
+        User alice = user("alice@example.com");
+        User bob = user("bob@example.com");
+        Category category = categoryRepository.save(Category.builder().name("Games").build());
+        Product chess = productRepository.save(
+            Product.builder().category(category).name("Chess").price(new BigDecimal("20.00")).build()
+        );
+        Order first = order(alice, chess, 1);
+        order(alice, chess, 2);
+        order(bob, chess, 3);
+
+        Page<OrderSummaryRow> page = orderRepository.findSummaryRowsByUserId(
+            alice.getId(), PageRequest.of(0, 1, Sort.by("id"))
+        );
+        assertThat(page.getTotalElements()).isEqualTo(2);
+        assertThat(page.getContent()).extracting(OrderSummaryRow::id).containsExactly(first.getId());
+        assertThat(page.getContent().get(0).userId()).isEqualTo(alice.getId());
+        assertThat(orderRepository.findSummaryRows(PageRequest.of(0, 10)).getTotalElements()).isEqualTo(3);
+
+        List<OrderItemRow> items = orderRepository.findItemRowsByOrderIdIn(List.of(first.getId()));
+        assertThat(items).hasSize(1);
+        assertThat(items.get(0).productName()).isEqualTo("Chess");
+        assertThat(items.get(0).quantity()).isEqualTo(1);
+        assertThat(items.get(0).orderId()).isEqualTo(first.getId());
+    }
+
+    @Test
+    void orderListingsLimitTheOrderQueryInSql() {
+        User dave = user("dave@example.com");
+        Category category = categoryRepository.save(Category.builder().name("Cards").build());
+        Product deck = productRepository.save(
+            Product.builder().category(category).name("Deck").price(new BigDecimal("4.00")).build()
+        );
+        for (int i = 0; i < 3; i++) {
+            orderRepository.save(order(dave, deck, 2, 1));
+        }
+        orderRepository.flush();
+
+        SqlRecorder.STATEMENTS.clear();
+        Page<OrderSummaryRow> page = orderRepository.findSummaryRowsByUserId(
+            dave.getId(), PageRequest.of(1, 2, Sort.by("id"))
+        );
+        assertThat(page.getContent()).hasSize(1);
+        assertPagedInSql(orderSelect());
+
+        SqlRecorder.STATEMENTS.clear();
+        assertThat(orderRepository.findByUser_Id(dave.getId(), ScrollPosition.keyset(), Sort.by("id"), Limit.of(2)))
+            .hasSize(2);
+        assertPagedInSql(orderSelect());
+    }
+
+    private static String orderSelect() {
+        return SqlRecorder.STATEMENTS.stream()
+            .filter(sql -> sql.contains("from orders") && !sql.contains("count("))
+            .findFirst()
+            .orElseThrow(() -> new AssertionError("No order query in " + SqlRecorder.STATEMENTS));
+    }
+
+    private static void assertPagedInSql(String sql) {
+        assertThat(sql).containsPattern("(?i)\\b(fetch first|limit)\\b");
+        assertThat(sql).doesNotContain("order_items");
+    }
+
+    @Test
+    void savingAnOrderTakesTheSameStatementsWhateverItsLineCount() {
+        User alice = user("carol@example.com");
+        Category category = categoryRepository.save(Category.builder().name("Puzzles").build());
+        Product cube = productRepository.saveAndFlush(
+            Product.builder().category(category).name("Cube").price(new BigDecimal("8.00")).build()
+        );
+        // The first order also pulls id blocks from the sequences.
+        orderRepository.saveAndFlush(order(alice, cube, 1, 1));
+
+        long oneLine = statementsToSave(order(alice, cube, 1, 1));
+        long fiveLines = statementsToSave(order(alice, cube, 5, 1));
+
+        assertThat(fiveLines).isEqualTo(oneLine);
+    }
+
+    private long statementsToSave(Order order) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        orderRepository.saveAndFlush(order);
+        assertThat(order.getOrderDate()).isNotNull();
+        return statistics.getPrepareStatementCount();
+    }
+
+    private User user(String email) {
+        return userRepository.save(User.builder()
+            .fullName(email)
+            .email(email)
+            .passwordHash("hashed")
+            .role(UserRole.CUSTOMER)
+            .build());
+    }
+
+    private Order order(User user, Product product, int quantity) {
+        return orderRepository.save(order(user, product, 1, quantity));
+    }
+
+    private Order order(User user, Product product, int lines, int quantity) {
+        Order order = Order.builder()
+            .user(user)
+            .status(OrderStatus.PENDING)
+            .totalAmount(product.getPrice().multiply(BigDecimal.valueOf((long) lines * quantity)))
+            .build();
+        for (int i = 0; i < lines; i++) {
+            order.getItems().add(OrderItem.builder()
+                .order(order)
+                .product(product)
+                .quantity(quantity)
+                .unitPrice(product.getPrice())
+                .priceAtTime(product.getPrice())
+                .build());
+        }
+        return order;
+    }
+
+    /**
+     * Records the SQL Hibernate sends, so tests can check what the database is asked to do.
+     */
+    public static class SqlRecorder implements StatementInspector {
+        static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.eyarko.ecom.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.eyarko.ecom.dto.ProductExportRow;
+import com.eyarko.ecom.entity.Category;
+import com.eyarko.ecom.entity.Inventory;
+import com.eyarko.ecom.entity.Product;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Import(ProductBulkRepository.class)
+class ProductBulkRepositoryTest {
+    @Autowired
+    private ProductBulkRepository productBulkRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    @Test
+    void insertWithInventory_insertsProductsAndStockInRowOrder() {
+        Category category = categoryRepository.save(Category.builder().name("Lighting").build());
+
+        List<Long> ids = productBulkRepository.insertWithInventory(List.of(
+            new ProductBulkRepository.Row(category.getId(), "Desk Lamp", "LED", new BigDecimal("24.50"), null, 12),
+            new ProductBulkRepository.Row(category.getId(), "Floor Lamp", null, new BigDecimal("80.00"), "f.png", 0)
+        ));
+
+        assertThat(ids).hasSize(2).doesNotContainNull();
+        Product first = productRepository.findById(ids.get(0)).orElseThrow();
+        Product second = productRepository.findById(ids.get(1)).orElseThrow();
+        assertThat(first.getName()).isEqualTo("Desk Lamp");
+        assertThat(first.getPrice()).isEqualByComparingTo("24.50");
+        assertThat(second.getImageUrl()).isEqualTo("f.png");
+        assertThat(second.getDescription()).isNull();
+
+        Inventory firstStock = inventoryRepository.findByProduct_Id(ids.get(0)).orElseThrow();
+        Inventory secondStock = inventoryRepository.findByProduct_Id(ids.get(1)).orElseThrow();
+        assertThat(firstStock.getQuantity()).isEqualTo(12);
+        assertThat(firstStock.getStatusDisplay()).isEqualTo("Few units in stock");
+        assertThat(secondStock.getQuantity()).isZero();
+        assertThat(secondStock.getStatusDisplay()).isEqualTo("Out of stock");
+    }
+
+    @Test
+    void forEachCatalogRow_streamsProductsWithStockInIdOrder() {
+        Category category = categoryRepository.save(Category.builder().name("Garden").build());
+        Product withoutStock = productRepository.save(
+            Product.builder().category(category).name("Rake").price(new BigDecimal("15.00")).build()
+        );
+        List<Long> ids = productBulkRepository.insertWithInventory(List.of(
+            new ProductBulkRepository.Row(category.getId(), "Hose", null, new BigDecimal("30.00"), null, 7)
+        ));
+        productRepository.flush();
+
+        List<ProductExportRow> rows = new ArrayList<>();
+        productBulkRepository.forEachCatalogRow(1, rows::add);
+
+        assertThat(rows).extracting(ProductExportRow::getId).containsExactly(withoutStock.getId(), ids.get(0));
+        assertThat(rows.get(0).getQuantity()).isZero();
+        assertThat(rows.get(1).getQuantity()).isEqualTo(7);
+        assertThat(rows.get(1).getCategoryName()).isEqualTo("Garden");
+        assertThat(rows.get(1).getPrice()).isEqualByComparingTo("30.00");
+    }
+}
@@ -4,12 +4,23 @@ import static org.assertj.core.api.Assertions.assertThat;
 
 import com.eyarko.ecom.entity.Category;
 import com.eyarko.ecom.entity.Product;
+import com.eyarko.ecom.util.CursorUtil;
 import java.math.BigDecimal;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.context.ActiveProfiles;
 
 @DataJpaTest
@@ -21,6 +32,36 @@ class ProductRepositoryTest {
     @Autowired
     private CategoryRepository categoryRepository;
 
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void findFacetEntries_addsShardedStockToTheInventoryRow() {
+        Category category = categoryRepository.save(Category.builder().name("Garden").build());
+        Product sharded = productRepository.save(
+            Product.builder().category(category).name("Hose").price(new BigDecimal("15.00")).build()
+        );
+        Product plain = productRepository.save(
+            Product.builder().category(category).name("Rake").price(new BigDecimal("9.00")).build()
+        );
+        jdbcTemplate.update(
+            "insert into inventory (product_id, quantity, inventory_status) values (?, 0, 'In stock'), (?, 4, 'In stock')",
+            sharded.getId(), plain.getId()
+        );
+        jdbcTemplate.update(
+            "insert into inventory_shards (product_id, shard_no, quantity) values (?, 0, 3), (?, 1, 5)",
+            sharded.getId(), sharded.getId()
+        );
+
+        Map<Long, ProductFacetView> entries = productRepository.findFacetEntries().stream()
+            .collect(Collectors.toMap(ProductFacetView::getProductId, Function.identity()));
+
+        assertThat(entries.get(sharded.getId()).getQuantity()).isEqualTo(8);
+        assertThat(entries.get(sharded.getId()).getCategoryId()).isEqualTo(category.getId());
+        assertThat(entries.get(sharded.getId()).getCreatedAt()).isNotNull();
+        assertThat(entries.get(plain.getId()).getQuantity()).isEqualTo(4);
+    }
+
     @Test
     void findByNameContainingIgnoreCase_returnsMatchingProducts() {
         Category category = categoryRepository.save(Category.builder().name("Electronics").build());
@@ -40,6 +81,66 @@ class ProductRepositoryTest {
         assertThat(results).hasSize(1);
         assertThat(results.get(0).getName()).isEqualTo("Laptop Pro");
     }
-}
 
+    @Test
+    void findAllBy_keysetWindowsWalkEveryProductOnceWithDuplicateSortKeys() {
+        Category category = categoryRepository.save(Category.builder().name("Books").build());
+        for (String price : List.of("10.00", "10.00", "20.00", "10.00", "5.00")) {
+            productRepository.save(
+                Product.builder()
+                    .category(category)
+                    .name("Book " + price)
+                    .price(new BigDecimal(price))
+                    .build()
+            );
+        }
 
+        Sort sort = CursorUtil.withIdTieBreaker(Sort.by(Sort.Direction.ASC, "price"));
+        List<BigDecimal> prices = new ArrayList<>();
+        List<Long> ids = new ArrayList<>();
+        String cursor = "";
+        do {
+            ScrollPosition position = CursorUtil.decode(cursor, sort, Product.class);
+            Window<Product> window = productRepository.findAllBy(position, sort, Limit.of(2));
+            window.forEach(product -> {
+                prices.add(product.getPrice());
+                ids.add(product.getId());
+            });
+            cursor = CursorUtil.toPagedResponse(window, List.of(), 2, sort, cursor).getNextCursor();
+        } while (cursor != null);
+
+        assertThat(ids).doesNotHaveDuplicates().hasSize(5);
+        assertThat(prices).isSortedAccordingTo(BigDecimal::compareTo);
+    }
+
+    @Test
+    void bodyRowQueries_pageProjectedRowsAndEscapeLikeWildcards() {
+        Category tools = categoryRepository.save(Category.builder().name("Tools").build());
+        Category toys = categoryRepository.save(Category.builder().name("Toys").build());
+        for (String name : List.of("Drill 100%", "Drill 1000", "Saw")) {
+            productRepository.save(
+                Product.builder().category(tools).name(name).description("d").price(BigDecimal.ONE).build()
+            );
+        }
+        productRepository.save(Product.builder().category(toys).name("Drill toy").price(BigDecimal.TEN).build());
+
+        Page<ProductBodyRow> page = productRepository.findBodyRowsByCategoryId(
+            tools.getId(), PageRequest.of(0, 2, Sort.by("name"))
+        );
+        assertThat(page.getTotalElements()).isEqualTo(3);
+        assertThat(page.getContent()).extracting(ProductBodyRow::name).containsExactly("Drill 100%", "Drill 1000");
+        assertThat(page.getContent().get(0).categoryName()).isEqualTo("Tools");
+        assertThat(page.getContent().get(0).description()).isEqualTo("d");
+
+        Page<ProductBodyRow> escaped = productRepository.findBodyRowsByCategoryIdAndName(
+            tools.getId(), "0%", PageRequest.of(0, 10)
+        );
+        assertThat(escaped.getContent()).extracting(ProductBodyRow::name).containsExactly("Drill 100%");
+
+        Page<ProductBodyRow> search = productRepository.searchBodyRowsByNameOrCategory(
+            "toy", PageRequest.of(0, 10, Sort.by("name"))
+        );
+        assertThat(search.getContent()).extracting(ProductBodyRow::name).containsExactly("Drill toy");
+        assertThat(productRepository.findAllBodyRows(PageRequest.of(0, 10)).getTotalElements()).isEqualTo(4);
+    }
+}
@@ -4,10 +4,14 @@ import static org.assertj.core.api.Assertions.assertThat;
 
 import com.eyarko.ecom.entity.User;
 import com.eyarko.ecom.entity.UserRole;
+import java.util.List;
 import java.util.Optional;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.test.context.ActiveProfiles;
 
 @DataJpaTest
@@ -30,5 +34,22 @@ class UserRepositoryTest {
         assertThat(found).isPresent();
         assertThat(found.get().getId()).isEqualTo(saved.getId());
     }
-}
 
+    @Test
+    void findSummaryRows_pagesPublicColumns() {
+        for (String name : List.of("Ann", "Ben", "Cal")) {
+            userRepository.save(User.builder()
+                .fullName(name)
+                .email(name.toLowerCase() + "@example.com")
+                .passwordHash("hashed")
+                .role(UserRole.CUSTOMER)
+                .build());
+        }
+
+        Page<UserSummaryRow> page = userRepository.findSummaryRows(PageRequest.of(1, 2, Sort.by("fullName")));
+
+        assertThat(page.getTotalElements()).isEqualTo(3);
+        assertThat(page.getContent()).extracting(UserSummaryRow::email).containsExactly("cal@example.com");
+        assertThat(page.getContent().get(0).role()).isEqualTo(UserRole.CUSTOMER);
+    }
+}
@@ -0,0 +1,205 @@
+package com.eyarko.ecom.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.eyarko.ecom.config.InventoryShardingProperties;
+import com.eyarko.ecom.infrastructure.cache.StockLevelCache;
+import com.eyarko.ecom.repository.InventoryRepository;
+import com.eyarko.ecom.repository.InventoryShardRepository;
+import com.eyarko.ecom.repository.InventoryStockRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Contention harness for the inventory strategies: several threads reserve one unit at a time, each in
+ * its own committed transaction, against either one hot product or many cold ones. Prints throughput
+ * and abort rate per strategy, including sharded stock (over the conditional strategy) on the hot
+ * product, and checks that no unit was oversold or lost.
+ *
+ * <p>Not part of the regular build (the class name does not match surefire's test patterns). Run with
+ * {@code mvn test -Dtest=InventoryContentionBenchmark}.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class InventoryContentionBenchmark {
+    private static final int THREADS = 8;
+    private static final int OPERATIONS_PER_THREAD = 250;
+    private static final int COLD_PRODUCTS = 64;
+    private static final long FIRST_PRODUCT_ID = 900_000L;
+    private static final int SHARDS = 8;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private long categoryId;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("insert into categories (category_name) values ('Contention benchmark')");
+        categoryId = jdbcTemplate.queryForObject(
+            "select category_id from categories where category_name = 'Contention benchmark'", Long.class
+        );
+        for (int i = 0; i < COLD_PRODUCTS; i++) {
+            long productId = FIRST_PRODUCT_ID + i;
+            jdbcTemplate.update(
+                "insert into products (product_id, category_id, name, price) values (?, ?, ?, 1)",
+                productId, categoryId, "Benchmark " + productId
+            );
+            jdbcTemplate.update(
+                "insert into inventory (product_id, quantity, inventory_status) values (?, 0, 'Out of stock')",
+                productId
+            );
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("delete from inventory_shards where product_id >= ?", FIRST_PRODUCT_ID);
+        jdbcTemplate.update("delete from inventory where product_id >= ?", FIRST_PRODUCT_ID);
+        jdbcTemplate.update("delete from products where category_id = ?", categoryId);
+        jdbcTemplate.update("delete from categories where category_id = ?", categoryId);
+    }
+
+    @ParameterizedTest(name = "{0} on {1} product(s)")
+    @CsvSource({
+        "pessimistic, 1", "conditional, 1", "optimistic, 1", "sharded, 1",
+        "pessimistic, 64", "conditional, 64", "optimistic, 64"
+    })
+    void reserveUnderContention(String name, int products) throws InterruptedException {
+        int totalOperations = THREADS * OPERATIONS_PER_THREAD;
+        // Enough stock that no product sells out, so every failure is a concurrency abort.
+        int stockPerProduct = totalOperations;
+        jdbcTemplate.update(
+            "update inventory set quantity = ?, version = 0 where product_id >= ?", stockPerProduct, FIRST_PRODUCT_ID
+        );
+        InventoryReservationStrategy strategy = strategy(name);
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        if (strategy instanceof ShardedInventoryStrategy) {
+            InventoryShardMaintenance maintenance = shardMaintenance();
+            for (int i = 0; i < products; i++) {
+                long productId = FIRST_PRODUCT_ID + i;
+                transaction.executeWithoutResult(status -> maintenance.rebalance(productId, true));
+            }
+        }
+        AtomicLong successes = new AtomicLong();
+        AtomicLong aborts = new AtomicLong();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        List<Runnable> workers = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            workers.add(() -> {
+                awaitQuietly(start);
+                for (int i = 0; i < OPERATIONS_PER_THREAD; i++) {
+                    long productId = FIRST_PRODUCT_ID + ThreadLocalRandom.current().nextInt(products);
+                    try {
+                        transaction.executeWithoutResult(status -> strategy.reserve(productId, 1));
+                        successes.incrementAndGet();
+                    } catch (RuntimeException ex) {
+                        aborts.incrementAndGet();
+                    }
+                }
+            });
+        }
+        workers.forEach(pool::execute);
+        long began = System.nanoTime();
+        start.countDown();
+        pool.shutdown();
+        assertThat(pool.awaitTermination(5, TimeUnit.MINUTES)).isTrue();
+        double seconds = (System.nanoTime() - began) / 1e9;
+
+        System.out.printf(
+            "inventory-contention strategy=%s products=%d threads=%d ops=%d committed=%d aborted=%d "
+                + "throughput=%.0f/s abort-rate=%.2f%%%n",
+            name, products, THREADS, totalOperations, successes.get(), aborts.get(),
+            successes.get() / seconds, 100.0 * aborts.get() / totalOperations
+        );
+        Long remaining = jdbcTemplate.queryForObject(
+            "select (select coalesce(sum(quantity), 0) from inventory where product_id between ? and ?)"
+                + " + (select coalesce(sum(quantity), 0) from inventory_shards where product_id between ? and ?)",
+            Long.class,
+            FIRST_PRODUCT_ID, FIRST_PRODUCT_ID + products - 1, FIRST_PRODUCT_ID, FIRST_PRODUCT_ID + products - 1
+        );
+        assertThat(remaining).isEqualTo((long) stockPerProduct * products - successes.get());
+        assertThat(successes.get() + aborts.get()).isEqualTo(totalOperations);
+    }
+
+    private InventoryReservationStrategy strategy(String name) {
+        InventoryStockRepository stockRepository = new InventoryStockRepository(jdbcTemplate);
+        StockLevelCache stockLevelCache = new StockLevelCache(inventoryRepository);
+        return switch (name) {
+            case InventoryReservationStrategy.PESSIMISTIC -> new PessimisticInventoryStrategy(
+                inventoryRepository,
+                stockRepository,
+                new InventoryLockManager(256, Duration.ofSeconds(2), new SimpleMeterRegistry()),
+                stockLevelCache
+            );
+            case InventoryReservationStrategy.CONDITIONAL ->
+                new ConditionalUpdateInventoryStrategy(stockRepository, stockLevelCache);
+            case "sharded" -> new ShardedInventoryStrategy(
+                new ConditionalUpdateInventoryStrategy(stockRepository, stockLevelCache),
+                new InventoryShardRepository(jdbcTemplate),
+                stockRepository,
+                stockLevelCache,
+                shardingProperties().getProductIds(),
+                SHARDS
+            );
+            default -> new OptimisticInventoryStrategy(stockRepository, stockLevelCache, 5, Duration.ofMillis(5));
+        };
+    }
+
+    private InventoryShardingProperties shardingProperties() {
+        InventoryShardingProperties properties = new InventoryShardingProperties();
+        properties.setProductIds(LongStream.range(FIRST_PRODUCT_ID, FIRST_PRODUCT_ID + COLD_PRODUCTS)
+            .boxed()
+            .collect(Collectors.toSet()));
+        properties.setShards(SHARDS);
+        return properties;
+    }
+
+    private InventoryShardMaintenance shardMaintenance() {
+        return new InventoryShardMaintenance(
+            new InventoryShardRepository(jdbcTemplate),
+            new InventoryStockRepository(jdbcTemplate),
+            new StockLevelCache(inventoryRepository),
+            shardingProperties(),
+            transactionManager
+        );
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
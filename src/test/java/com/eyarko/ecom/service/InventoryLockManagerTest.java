@@ -0,0 +1,95 @@
+package com.eyarko.ecom.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+class InventoryLockManagerTest {
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void stripeCountRoundsUpAndSequentialIdsSpread() {
+        InventoryLockManager manager = new InventoryLockManager(100, Duration.ofSeconds(1), meterRegistry);
+
+        assertThat(manager.stripeCount()).isEqualTo(128);
+        Set<Integer> used = new HashSet<>();
+        LongStream.rangeClosed(1, 128).forEach(id -> used.add(manager.stripeFor(id)));
+        assertThat(used.size()).isGreaterThan(64);
+    }
+
+    @Test
+    void sameThreadCanLockTwoProductsOnOneStripe() {
+        InventoryLockManager manager = new InventoryLockManager(1, Duration.ofMillis(50), meterRegistry);
+
+        String result = manager.withProductLock(1L, () -> manager.withProductLock(2L, () -> "nested"));
+
+        assertThat(result).isEqualTo("nested");
+        assertThat(meterRegistry.get("app.inventory.lock.hold").timer().count()).isEqualTo(2);
+    }
+
+    @Test
+    void multiProductLockTakesEachStripeOnceAndReleasesAll() throws Exception {
+        InventoryLockManager manager = new InventoryLockManager(4, Duration.ofMillis(50), meterRegistry);
+
+        String result = manager.withProductLocks(List.of(3L, 1L, 2L, 3L, 9L), () -> "locked");
+
+        assertThat(result).isEqualTo("locked");
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            assertThat(executor.submit(() -> manager.withProductLocks(List.of(1L, 2L, 3L, 9L), () -> "again"))
+                .get(5, TimeUnit.SECONDS)).isEqualTo("again");
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void waitingPastTheTimeoutFailsWith503AndCountsContention() throws Exception {
+        InventoryLockManager manager = new InventoryLockManager(1, Duration.ofMillis(50), meterRegistry);
+        CountDownLatch held = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> holder = executor.submit(() -> manager.withProductLock(7L, () -> {
+                held.countDown();
+                await(release);
+            }));
+            assertThat(held.await(5, TimeUnit.SECONDS)).isTrue();
+
+            assertThatThrownBy(() -> manager.withProductLock(7L, () -> "never"))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                    ex -> assertThat(ex.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE));
+
+            release.countDown();
+            holder.get(5, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+        assertThat(meterRegistry.get("app.inventory.lock.timeouts").counter().count()).isEqualTo(1.0);
+        assertThat(meterRegistry.get("app.inventory.lock.contended").tag("stripe", "0").counter().count())
+            .isEqualTo(1.0);
+        assertThat(manager.withProductLock(7L, () -> "free again")).isEqualTo("free again");
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package com.eyarko.ecom.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.eyarko.ecom.dto.InventoryResponse;
+import com.eyarko.ecom.entity.Category;
+import com.eyarko.ecom.entity.Product;
+import com.eyarko.ecom.infrastructure.cache.StockLevelCache;
+import com.eyarko.ecom.repository.CategoryRepository;
+import com.eyarko.ecom.repository.InventoryRepository;
+import com.eyarko.ecom.repository.InventoryStockRepository;
+import com.eyarko.ecom.repository.ProductRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.Map;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.server.ResponseStatusException;
+
+@DataJpaTest
+@ActiveProfiles("test")
+class InventoryReservationStrategiesTest {
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @ParameterizedTest
+    @ValueSource(strings = {"pessimistic", "conditional", "optimistic"})
+    void reserveTakesStockAndRefusesToOversell(String name) {
+        InventoryReservationStrategy strategy = strategy(name);
+        Product product = productWithStock(5);
+
+        strategy.reserve(product.getId(), 3);
+
+        assertThat(row(product)).containsEntry("QUANTITY", 2).containsEntry("INVENTORY_STATUS", "2 units in stock");
+        assertThatThrownBy(() -> strategy.reserve(product.getId(), 3))
+            .isInstanceOf(ResponseStatusException.class)
+            .hasMessageContaining("Insufficient stock")
+            .extracting(ex -> ((ResponseStatusException) ex).getStatusCode())
+            .isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(row(product)).containsEntry("QUANTITY", 2);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"pessimistic", "conditional", "optimistic"})
+    void restoreReturnsStockAndEveryWriteBumpsTheVersion(String name) {
+        InventoryReservationStrategy strategy = strategy(name);
+        Product product = productWithStock(1);
+        long versionBefore = ((Number) row(product).get("VERSION")).longValue();
+
+        strategy.reserve(product.getId(), 1);
+        strategy.restore(product.getId(), 4);
+
+        assertThat(row(product)).containsEntry("QUANTITY", 4);
+        assertThat(((Number) row(product).get("VERSION")).longValue()).isEqualTo(versionBefore + 2);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"pessimistic", "conditional", "optimistic"})
+    void reserveAllTakesEveryLineOrRejectsTheOrder(String name) {
+        InventoryReservationStrategy strategy = strategy(name);
+        Product first = productWithStock(5);
+        Product second = productWithStock(2);
+
+        strategy.reserveAll(Map.of(second.getId(), 2, first.getId(), 4));
+
+        assertThat(row(first)).containsEntry("QUANTITY", 1).containsEntry("INVENTORY_STATUS", "1 unit in stock");
+        assertThat(row(second)).containsEntry("QUANTITY", 0).containsEntry("INVENTORY_STATUS", "Out of stock");
+        assertThatThrownBy(() -> strategy.reserveAll(Map.of(first.getId(), 1, second.getId(), 1)))
+            .isInstanceOf(ResponseStatusException.class)
+            .hasMessageContaining("Insufficient stock");
+        Product unstocked = productWithoutStock();
+        assertThatThrownBy(() -> strategy.reserveAll(Map.of(unstocked.getId(), 1)))
+            .isInstanceOf(ResponseStatusException.class)
+            .hasMessageContaining("Inventory not found");
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"pessimistic", "conditional", "optimistic"})
+    void missingInventoryRowIsRejectedAndSetQuantityCreatesIt(String name) {
+        InventoryReservationStrategy strategy = strategy(name);
+        Product product = productWithoutStock();
+
+        assertThatThrownBy(() -> strategy.reserve(product.getId(), 1))
+            .isInstanceOf(ResponseStatusException.class)
+            .hasMessageContaining("Inventory not found");
+
+        InventoryResponse created = strategy.setQuantity(product, 7);
+        assertThat(created.getQuantity()).isEqualTo(7);
+        assertThat(created.getStockStatus()).isEqualTo("7 units in stock");
+
+        InventoryResponse updated = strategy.setQuantity(product, 0);
+        assertThat(updated.getStockStatus()).isEqualTo("Out of stock");
+        assertThat(row(product)).containsEntry("QUANTITY", 0).containsEntry("INVENTORY_STATUS", "Out of stock");
+    }
+
+    private InventoryReservationStrategy strategy(String name) {
+        InventoryStockRepository stockRepository = new InventoryStockRepository(jdbcTemplate);
+        StockLevelCache stockLevelCache = new StockLevelCache(inventoryRepository);
+        return switch (name) {
+            case InventoryReservationStrategy.PESSIMISTIC -> new PessimisticInventoryStrategy(
+                inventoryRepository,
+                stockRepository,
+                new InventoryLockManager(16, Duration.ofSeconds(1), new SimpleMeterRegistry()),
+                stockLevelCache
+            );
+            case InventoryReservationStrategy.CONDITIONAL ->
+                new ConditionalUpdateInventoryStrategy(stockRepository, stockLevelCache);
+            default -> new OptimisticInventoryStrategy(stockRepository, stockLevelCache, 3, Duration.ofMillis(1));
+        };
+    }
+
+    private Product productWithStock(int quantity) {
+        Product product = productWithoutStock();
+        jdbcTemplate.update(
+            "insert into inventory (product_id, quantity, inventory_status) values (?, ?, 'In stock')",
+            product.getId(), quantity
+        );
+        return product;
+    }
+
+    private Product productWithoutStock() {
+        Category category = categoryRepository.findAll().stream()
+            .filter(existing -> existing.getName().equals("Strategies"))
+            .findFirst()
+            .orElseGet(() -> categoryRepository.save(Category.builder().name("Strategies").build()));
+        return productRepository.saveAndFlush(
+            Product.builder().category(category).name("Widget").price(BigDecimal.ONE).build()
+        );
+    }
+
+    /** Reads the row as committed SQL would see it, after pushing pending entity writes. */
+    private Map<String, Object> row(Product product) {
+        entityManager.flush();
+        entityManager.clear();
+        return jdbcTemplate.queryForMap(
+            "select quantity, inventory_status, version from inventory where product_id = ?", product.getId()
+        );
+    }
+}
@@ -0,0 +1,203 @@
+package com.eyarko.ecom.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import com.eyarko.ecom.dto.OrderCreateRequest;
+import com.eyarko.ecom.dto.OrderItemRequest;
+import com.eyarko.ecom.entity.Category;
+import com.eyarko.ecom.entity.Product;
+import com.eyarko.ecom.entity.User;
+import com.eyarko.ecom.entity.UserRole;
+import com.eyarko.ecom.infrastructure.cache.StockLevelCache;
+import com.eyarko.ecom.repository.CategoryRepository;
+import com.eyarko.ecom.repository.InventoryRepository;
+import com.eyarko.ecom.repository.InventoryStockRepository;
+import com.eyarko.ecom.repository.OrderRepository;
+import com.eyarko.ecom.repository.OutboxRepository;
+import com.eyarko.ecom.repository.ProductRepository;
+import com.eyarko.ecom.repository.UserRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Orders per second against the group-commit window: several threads place two-line orders over a
+ * spread of products, either one transaction per order ({@code -1}) or through
+ * {@link OrderGroupCommitter} with the given window in milliseconds. Checks that every order was
+ * created and every unit accounted for.
+ *
+ * <p>The test profile runs on in-memory H2, where a commit costs no fsync, so the numbers only reflect
+ * fewer transactions and lock hand-offs; run it against Postgres to see the commit savings. Not part of the regular
+ * build (the class name does not match surefire's test patterns). Run with
+ * {@code mvn test -Dtest=OrderGroupCommitBenchmark}.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OrderGroupCommitBenchmark {
+    private static final int THREADS = 16;
+    private static final int ORDERS_PER_THREAD = 100;
+    private static final int PRODUCTS = 64;
+    private static final int MAX_BATCH = 32;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    private User user;
+    private Category category;
+    private final List<Long> productIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        user = userRepository.save(User.builder()
+            .fullName("Benchmark buyer")
+            .email("group-commit-benchmark@example.com")
+            .passwordHash("hashed")
+            .role(UserRole.CUSTOMER)
+            .build());
+        category = categoryRepository.save(Category.builder().name("Group commit benchmark").build());
+        for (int i = 0; i < PRODUCTS; i++) {
+            Product product = productRepository.save(
+                Product.builder().category(category).name("Benchmark " + i).price(BigDecimal.ONE).build()
+            );
+            productIds.add(product.getId());
+            jdbcTemplate.update(
+                "insert into inventory (product_id, quantity, inventory_status) values (?, ?, 'In stock')",
+                product.getId(), THREADS * ORDERS_PER_THREAD * 2
+            );
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("delete from outbox_events");
+        jdbcTemplate.update("delete from orders where user_id = ?", user.getId());
+        jdbcTemplate.update("delete from inventory where product_id in (select product_id from products where category_id = ?)",
+            category.getId());
+        jdbcTemplate.update("delete from products where category_id = ?", category.getId());
+        jdbcTemplate.update("delete from categories where category_id = ?", category.getId());
+        jdbcTemplate.update("delete from users where user_id = ?", user.getId());
+    }
+
+    @ParameterizedTest(name = "window {0} ms")
+    @ValueSource(ints = {-1, 0, 1, 2, 5, 10})
+    void ordersPerSecondByWindow(int windowMs) throws InterruptedException {
+        InventoryStockRepository stockRepository = new InventoryStockRepository(jdbcTemplate);
+        StockLevelCache stockLevelCache = new StockLevelCache(inventoryRepository);
+        InventoryReservationStrategy strategy = new ConditionalUpdateInventoryStrategy(stockRepository, stockLevelCache);
+        DomainEventPublisher events = new DomainEventPublisher(new OutboxRepository(jdbcTemplate), new ObjectMapper());
+        OrderService orderService = new OrderService(
+            orderRepository, userRepository, productRepository, strategy, mock(ApplicationMetricsService.class), events
+        );
+        OrderGroupCommitter committer = new OrderGroupCommitter(
+            orderService, userRepository, orderRepository, strategy, stockLevelCache,
+            events, jdbcTemplate, transactionManager, mock(ObjectProvider.class),
+            windowMs >= 0, Duration.ofMillis(Math.max(0, windowMs)), MAX_BATCH, Duration.ofSeconds(30)
+        );
+        committer.start();
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+
+        AtomicLong placed = new AtomicLong();
+        AtomicLong failed = new AtomicLong();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        for (int t = 0; t < THREADS; t++) {
+            pool.execute(() -> {
+                awaitQuietly(start);
+                for (int i = 0; i < ORDERS_PER_THREAD; i++) {
+                    OrderCreateRequest request = randomOrder();
+                    try {
+                        if (committer.isEnabled()) {
+                            committer.submit(user.getId(), request).join();
+                        } else {
+                            transaction.execute(status -> orderService.createOrderFor(user.getId(), request));
+                        }
+                        placed.incrementAndGet();
+                    } catch (RuntimeException ex) {
+                        failed.incrementAndGet();
+                    }
+                }
+            });
+        }
+        long began = System.nanoTime();
+        start.countDown();
+        pool.shutdown();
+        assertThat(pool.awaitTermination(5, TimeUnit.MINUTES)).isTrue();
+        double seconds = (System.nanoTime() - began) / 1e9;
+        committer.stop();
+
+        int total = THREADS * ORDERS_PER_THREAD;
+        System.out.printf(
+            "order-group-commit window=%s threads=%d orders=%d placed=%d failed=%d throughput=%.0f/s%n",
+            windowMs < 0 ? "off" : windowMs + "ms", THREADS, total, placed.get(), failed.get(), placed.get() / seconds
+        );
+        assertThat(failed.get()).isZero();
+        assertThat(jdbcTemplate.queryForObject(
+            "select count(*) from orders where user_id = ?", Long.class, user.getId()
+        )).isEqualTo((long) total);
+        Long remaining = jdbcTemplate.queryForObject(
+            "select sum(quantity) from inventory where product_id in (select product_id from products where category_id = ?)",
+            Long.class, category.getId()
+        );
+        assertThat(remaining).isEqualTo((long) THREADS * ORDERS_PER_THREAD * 2 * PRODUCTS - total * 2L);
+    }
+
+    private OrderCreateRequest randomOrder() {
+        int first = ThreadLocalRandom.current().nextInt(PRODUCTS);
+        int second = (first + 1 + ThreadLocalRandom.current().nextInt(PRODUCTS - 1)) % PRODUCTS;
+        return OrderCreateRequest.builder()
+            .items(List.of(
+                OrderItemRequest.builder().productId(productIds.get(first)).quantity(1).build(),
+                OrderItemRequest.builder().productId(productIds.get(second)).quantity(1).build()
+            ))
+            .build();
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,280 @@
+package com.eyarko.ecom.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.eyarko.ecom.dto.OrderCreateRequest;
+import com.eyarko.ecom.dto.OrderItemRequest;
+import com.eyarko.ecom.dto.OrderResponse;
+import com.eyarko.ecom.entity.Category;
+import com.eyarko.ecom.entity.Product;
+import com.eyarko.ecom.entity.User;
+import com.eyarko.ecom.entity.UserRole;
+import com.eyarko.ecom.infrastructure.cache.StockLevelCache;
+import com.eyarko.ecom.infrastructure.datasource.ReadYourWritesTracker;
+import com.eyarko.ecom.repository.CategoryRepository;
+import com.eyarko.ecom.repository.InventoryRepository;
+import com.eyarko.ecom.repository.InventoryShardRepository;
+import com.eyarko.ecom.repository.InventoryStockRepository;
+import com.eyarko.ecom.repository.OrderRepository;
+import com.eyarko.ecom.repository.OutboxRepository;
+import com.eyarko.ecom.repository.ProductRepository;
+import com.eyarko.ecom.repository.UserRepository;
+import com.eyarko.ecom.security.UserPrincipal;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OrderGroupCommitterTest {
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    private User user;
+    private Category category;
+    private Product product;
+    private OrderGroupCommitter committer;
+    private final ReadYourWritesTracker tracker = new ReadYourWritesTracker(Duration.ofMinutes(1), 100);
+
+    @BeforeEach
+    void setUp() {
+        user = userRepository.save(User.builder()
+            .fullName("Batch buyer")
+            .email("batch@example.com")
+            .passwordHash("hashed")
+            .role(UserRole.CUSTOMER)
+            .build());
+        category = categoryRepository.save(Category.builder().name("Group commit").build());
+        product = productRepository.save(
+            Product.builder().category(category).name("Lamp").price(new BigDecimal("3.00")).build()
+        );
+        jdbcTemplate.update(
+            "insert into inventory (product_id, quantity, inventory_status) values (?, 3, 'In stock')",
+            product.getId()
+        );
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (committer != null) {
+            committer.stop();
+        }
+        SecurityContextHolder.clearContext();
+        jdbcTemplate.update("delete from outbox_events");
+        jdbcTemplate.update("delete from orders where user_id = ?", user.getId());
+        jdbcTemplate.update(
+            "delete from inventory where product_id in (select product_id from products where category_id = ?)",
+            category.getId()
+        );
+        jdbcTemplate.update("delete from products where category_id = ?", category.getId());
+        jdbcTemplate.update("delete from categories where category_id = ?", category.getId());
+        jdbcTemplate.update("delete from users where user_id = ?", user.getId());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"pessimistic", "conditional"})
+    void ordersInOneBatchCommitTogetherAndFailIndividually(String name) {
+        committer = committer(strategy(name));
+        committer.start();
+
+        CompletableFuture<OrderResponse> first = committer.submit(user.getId(), request(product.getId(), 2));
+        CompletableFuture<OrderResponse> tooMany = committer.submit(user.getId(), request(product.getId(), 2));
+        CompletableFuture<OrderResponse> unknown = committer.submit(user.getId(), request(-1L, 1));
+        CompletableFuture<OrderResponse> last = committer.submit(user.getId(), request(product.getId(), 1));
+
+        assertThat(first.join().getId()).isNotNull();
+        assertThat(last.join().getTotalAmount()).isEqualByComparingTo("3.00");
+        assertThat(failureOf(tooMany)).hasMessageContaining("Insufficient stock");
+        assertThat(failureOf(unknown)).hasMessageContaining("Product not found");
+        assertThat(jdbcTemplate.queryForObject(
+            "select quantity from inventory where product_id = ?", Integer.class, product.getId()
+        )).isZero();
+        assertThat(jdbcTemplate.queryForObject(
+            "select count(*) from orders where user_id = ?", Integer.class, user.getId()
+        )).isEqualTo(2);
+        assertThat(jdbcTemplate.queryForObject(
+            "select count(*) from outbox_events where event_type = 'ORDER_PLACED'", Integer.class
+        )).isEqualTo(2);
+    }
+
+    @Test
+    void aRejectedOrderReleasesStockTakenFromShardedProductsWithoutShards() {
+        Product scarce = productRepository.save(
+            Product.builder().category(category).name("Shade").price(new BigDecimal("1.00")).build()
+        );
+        jdbcTemplate.update(
+            "insert into inventory (product_id, quantity, inventory_status) values (?, 0, 'Out of stock')",
+            scarce.getId()
+        );
+        InventoryStockRepository stockRepository = new InventoryStockRepository(jdbcTemplate);
+        StockLevelCache stockLevelCache = new StockLevelCache(inventoryRepository);
+        // Both products are configured as sharded but not split yet, so each line falls back to the
+        // pessimistic single-row reserve.
+        InventoryReservationStrategy strategy = new ShardedInventoryStrategy(
+            strategy(InventoryReservationStrategy.PESSIMISTIC), new InventoryShardRepository(jdbcTemplate),
+            stockRepository, stockLevelCache, Set.of(product.getId(), scarce.getId()), 4
+        );
+        committer = committer(strategy, Duration.ofSeconds(5), 2, Duration.ofSeconds(10));
+        committer.start();
+
+        CompletableFuture<OrderResponse> rejected = committer.submit(user.getId(), OrderCreateRequest.builder()
+            .items(List.of(
+                OrderItemRequest.builder().productId(product.getId()).quantity(1).build(),
+                OrderItemRequest.builder().productId(scarce.getId()).quantity(1).build()
+            ))
+            .build());
+        CompletableFuture<OrderResponse> accepted = committer.submit(user.getId(), request(product.getId(), 1));
+
+        assertThat(failureOf(rejected)).hasMessageContaining("Insufficient stock");
+        assertThat(accepted.join().getId()).isNotNull();
+        assertThat(jdbcTemplate.queryForObject(
+            "select quantity from inventory where product_id = ?", Integer.class, product.getId()
+        )).isEqualTo(2);
+    }
+
+    @Test
+    void placeWithdrawsAnOrderNoBatchTookInTimeSoARetryCannotDuplicateIt() {
+        // The batch stays open for a second, well past the caller's timeout.
+        committer = committer(strategy("conditional"), Duration.ofSeconds(1), 4, Duration.ofMillis(100));
+        committer.start();
+        authenticate();
+
+        assertThatThrownBy(() -> committer.place(request(product.getId(), 1)))
+            .isInstanceOfSatisfying(ResponseStatusException.class, ex -> {
+                assertThat(ex.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+                assertThat(ex.getReason()).contains("not placed");
+            });
+        // Lands in the same batch as the withdrawn order.
+        committer.submit(user.getId(), request(product.getId(), 1)).join();
+
+        assertThat(jdbcTemplate.queryForObject(
+            "select count(*) from orders where user_id = ?", Integer.class, user.getId()
+        )).isEqualTo(1);
+        assertThat(jdbcTemplate.queryForObject(
+            "select quantity from inventory where product_id = ?", Integer.class, product.getId()
+        )).isEqualTo(2);
+        assertThat(tracker.requiresPrimary()).isFalse();
+    }
+
+    @Test
+    void placeRecordsTheCallersWriteForReadYourWrites() {
+        committer = committer(strategy("conditional"), Duration.ZERO, 1, Duration.ofSeconds(10));
+        committer.start();
+        authenticate();
+
+        assertThat(committer.place(request(product.getId(), 1)).getId()).isNotNull();
+
+        // The batch committed on the flusher thread, which has no security context of its own.
+        assertThat(tracker.requiresPrimary()).isTrue();
+    }
+
+    private void authenticate() {
+        UserPrincipal principal = UserPrincipal.builder()
+            .id(user.getId())
+            .email(user.getEmail())
+            .passwordHash("hashed")
+            .authorities(List.of())
+            .build();
+        SecurityContextHolder.getContext()
+            .setAuthentication(new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+    }
+
+    private OrderGroupCommitter committer(InventoryReservationStrategy strategy) {
+        // A long window with a batch of exactly four keeps all submissions in one transaction.
+        return committer(strategy, Duration.ofSeconds(5), 4, Duration.ofSeconds(10));
+    }
+
+    @SuppressWarnings("unchecked")
+    private OrderGroupCommitter committer(
+        InventoryReservationStrategy strategy,
+        Duration window,
+        int maxBatch,
+        Duration timeout
+    ) {
+        DomainEventPublisher events = new DomainEventPublisher(new OutboxRepository(jdbcTemplate), new ObjectMapper());
+        OrderService orderService = new OrderService(
+            orderRepository, userRepository, productRepository, strategy, mock(ApplicationMetricsService.class), events
+        );
+        ObjectProvider<ReadYourWritesTracker> trackerProvider = mock(ObjectProvider.class);
+        when(trackerProvider.getIfAvailable()).thenReturn(tracker);
+        return new OrderGroupCommitter(
+            orderService, userRepository, orderRepository, strategy, new StockLevelCache(inventoryRepository),
+            events, jdbcTemplate, transactionManager, trackerProvider,
+            true, window, maxBatch, timeout
+        );
+    }
+
+    private InventoryReservationStrategy strategy(String name) {
+        InventoryStockRepository stockRepository = new InventoryStockRepository(jdbcTemplate);
+        StockLevelCache stockLevelCache = new StockLevelCache(inventoryRepository);
+        if (InventoryReservationStrategy.PESSIMISTIC.equals(name)) {
+            return new PessimisticInventoryStrategy(
+                inventoryRepository,
+                stockRepository,
+                new InventoryLockManager(16, Duration.ofSeconds(1), new SimpleMeterRegistry()),
+                stockLevelCache
+            );
+        }
+        return new ConditionalUpdateInventoryStrategy(stockRepository, stockLevelCache);
+    }
+
+    private static OrderCreateRequest request(Long productId, int quantity) {
+        return OrderCreateRequest.builder()
+            .items(List.of(OrderItemRequest.builder().productId(productId).quantity(quantity).build()))
+            .build();
+    }
+
+    private static Throwable failureOf(CompletableFuture<OrderResponse> future) {
+        try {
+            future.join();
+        } catch (CompletionException ex) {
+            assertThat(ex.getCause()).isInstanceOf(ResponseStatusException.class);
+            return ex.getCause();
+        }
+        throw new AssertionError("Expected the order to fail");
+    }
+}
@@ -1,18 +1,14 @@
 package com.eyarko.ecom.service;
 
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
-import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.anyLong;
-import static org.mockito.ArgumentMatchers.eq;
-import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 import com.eyarko.ecom.dto.OrderCreateRequest;
 import com.eyarko.ecom.dto.OrderItemRequest;
-import com.eyarko.ecom.entity.Inventory;
 import com.eyarko.ecom.entity.Product;
 import com.eyarko.ecom.entity.User;
-import com.eyarko.ecom.repository.InventoryRepository;
 import com.eyarko.ecom.repository.OrderRepository;
 import com.eyarko.ecom.repository.ProductRepository;
 import com.eyarko.ecom.repository.UserRepository;
@@ -20,13 +16,15 @@ import com.eyarko.ecom.security.UserPrincipal;
 import io.micrometer.core.instrument.Timer;
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.cache.CacheManager;
+import org.springframework.http.HttpStatus;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.server.ResponseStatusException;
@@ -43,16 +41,13 @@ class OrderServiceTest {
     private ProductRepository productRepository;
 
     @Mock
-    private InventoryRepository inventoryRepository;
+    private InventoryReservationStrategy inventoryStrategy;
 
     @Mock
-    private CacheManager cacheManager;
-
-    @Mock
-    private InventoryLockManager inventoryLockManager;
+    private ApplicationMetricsService applicationMetricsService;
 
     @Mock
-    private ApplicationMetricsService applicationMetricsService;
+    private DomainEventPublisher domainEventPublisher;
 
     @InjectMocks
     private OrderService orderService;
@@ -61,7 +56,6 @@ class OrderServiceTest {
     void createOrder_throwsWhenInsufficientInventory() {
         User user = User.builder().id(1L).email("user@example.com").passwordHash("hash").build();
         Product product = Product.builder().id(10L).price(BigDecimal.TEN).build();
-        Inventory inventory = Inventory.builder().product(product).quantity(1).build();
         Timer.Sample sample = org.mockito.Mockito.mock(Timer.Sample.class);
 
         UserPrincipal principal = UserPrincipal.builder()
@@ -74,17 +68,16 @@ class OrderServiceTest {
             .setAuthentication(new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
 
         when(userRepository.findById(1L)).thenReturn(Optional.of(user));
-        when(productRepository.findById(10L)).thenReturn(Optional.of(product));
-        when(inventoryRepository.findByProductIdForUpdate(10L)).thenReturn(Optional.of(inventory));
+        when(productRepository.findAllById(Set.of(10L))).thenReturn(List.of(product));
         when(applicationMetricsService.startTimer()).thenReturn(sample);
-        doAnswer(invocation -> {
-            Runnable action = invocation.getArgument(1);
-            action.run();
-            return null;
-        }).when(inventoryLockManager).withProductLock(eq(10L), any(Runnable.class));
+        doThrow(new ResponseStatusException(HttpStatus.BAD_REQUEST, "Insufficient stock"))
+            .when(inventoryStrategy).reserveAll(Map.of(10L, 2));
 
         OrderCreateRequest request = OrderCreateRequest.builder()
-            .items(List.of(OrderItemRequest.builder().productId(10L).quantity(2).build()))
+            .items(List.of(
+                OrderItemRequest.builder().productId(10L).quantity(1).build(),
+                OrderItemRequest.builder().productId(10L).quantity(1).build()
+            ))
             .build();
 
         try {
@@ -94,5 +87,40 @@ class OrderServiceTest {
             SecurityContextHolder.clearContext();
         }
     }
-}
 
+    @Test
+    void createOrder_throwsNotFoundWhenAnyProductIsMissing() {
+        User user = User.builder().id(1L).email("user@example.com").passwordHash("hash").build();
+        Product product = Product.builder().id(10L).price(BigDecimal.TEN).build();
+        Timer.Sample sample = org.mockito.Mockito.mock(Timer.Sample.class);
+
+        UserPrincipal principal = UserPrincipal.builder()
+            .id(1L)
+            .email("user@example.com")
+            .passwordHash("hash")
+            .authorities(List.of())
+            .build();
+        SecurityContextHolder.getContext()
+            .setAuthentication(new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        when(productRepository.findAllById(Set.of(10L, 11L))).thenReturn(List.of(product));
+        when(applicationMetricsService.startTimer()).thenReturn(sample);
+
+        OrderCreateRequest request = OrderCreateRequest.builder()
+            .items(List.of(
+                OrderItemRequest.builder().productId(10L).quantity(1).build(),
+                OrderItemRequest.builder().productId(11L).quantity(1).build()
+            ))
+            .build();
+
+        try {
+            assertThatThrownBy(() -> orderService.createOrder(request))
+                .isInstanceOf(ResponseStatusException.class)
+                .hasMessageContaining("Product not found");
+            verifyNoInteractions(inventoryStrategy);
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+}
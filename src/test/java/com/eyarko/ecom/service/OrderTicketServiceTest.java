@@ -0,0 +1,184 @@
+package com.eyarko.ecom.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.eyarko.ecom.config.OrderTicketProperties;
+import com.eyarko.ecom.dto.OrderCreateRequest;
+import com.eyarko.ecom.dto.OrderItemRequest;
+import com.eyarko.ecom.dto.OrderResponse;
+import com.eyarko.ecom.entity.OrderTicket;
+import com.eyarko.ecom.entity.OrderTicketStatus;
+import com.eyarko.ecom.entity.User;
+import com.eyarko.ecom.infrastructure.datasource.ReadYourWritesTracker;
+import com.eyarko.ecom.repository.OrderTicketRepository;
+import com.eyarko.ecom.repository.UserRepository;
+import com.eyarko.ecom.security.UserPrincipal;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.web.server.ResponseStatusException;
+
+@ExtendWith(MockitoExtension.class)
+class OrderTicketServiceTest {
+    private static final String PAYLOAD = "{\"items\":[{\"productId\":10,\"quantity\":2}]}";
+
+    @Mock
+    private OrderTicketRepository ticketRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private OrderService orderService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private ObjectProvider<ReadYourWritesTracker> trackerProvider;
+
+    private OrderTicketProperties properties;
+    private OrderTicketService ticketService;
+    private ReadYourWritesTracker tracker;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        properties = new OrderTicketProperties();
+        properties.setEnabled(true);
+        tracker = new ReadYourWritesTracker(Duration.ofMinutes(1), 100);
+        when(trackerProvider.getIfAvailable()).thenReturn(tracker);
+        ticketService = new OrderTicketService(
+            ticketRepository, userRepository, orderService, properties, new ObjectMapper(), transactionManager,
+            trackerProvider
+        );
+        user = User.builder().id(1L).email("user@example.com").passwordHash("hash").build();
+        UserPrincipal principal = UserPrincipal.builder()
+            .id(1L)
+            .email("user@example.com")
+            .passwordHash("hash")
+            .authorities(List.of())
+            .build();
+        SecurityContextHolder.getContext()
+            .setAuthentication(new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+    }
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void enqueueStoresTheRequestAsAQueuedTicket() {
+        when(ticketRepository.countByStatus(OrderTicketStatus.QUEUED)).thenReturn(0L);
+        when(userRepository.getReferenceById(1L)).thenReturn(user);
+        when(ticketRepository.save(any(OrderTicket.class))).thenAnswer(invocation -> {
+            OrderTicket ticket = invocation.getArgument(0);
+            ticket.setId(7L);
+            return ticket;
+        });
+
+        assertThat(ticketService.enqueue(request()).getTicketId()).isEqualTo(7L);
+
+        ArgumentCaptor<OrderTicket> saved = ArgumentCaptor.forClass(OrderTicket.class);
+        verify(ticketRepository).save(saved.capture());
+        assertThat(saved.getValue().getStatus()).isEqualTo(OrderTicketStatus.QUEUED);
+        assertThat(saved.getValue().getPayload()).isEqualTo(PAYLOAD);
+    }
+
+    @Test
+    void enqueueRejectsWhenTheQueueIsFull() {
+        properties.setQueueCapacity(3);
+        when(ticketRepository.countByStatus(OrderTicketStatus.QUEUED)).thenReturn(3L);
+
+        assertThatThrownBy(() -> ticketService.enqueue(request()))
+            .isInstanceOf(ResponseStatusException.class)
+            .satisfies(ex -> assertThat(((ResponseStatusException) ex).getStatusCode())
+                .isEqualTo(HttpStatus.SERVICE_UNAVAILABLE));
+        verify(ticketRepository, never()).save(any());
+    }
+
+    @Test
+    void processCreatesTheOrderForTheTicketOwner() {
+        OrderTicket ticket = queuedTicket();
+        when(ticketRepository.findByIdAndStatus(7L, OrderTicketStatus.QUEUED)).thenReturn(Optional.of(ticket));
+        when(orderService.createOrderFor(eq(1L), any(OrderCreateRequest.class)))
+            .thenReturn(OrderResponse.builder().id(42L).build());
+
+        ticketService.process(7L);
+
+        assertThat(ticket.getStatus()).isEqualTo(OrderTicketStatus.COMPLETED);
+        assertThat(ticket.getOrderId()).isEqualTo(42L);
+        assertThat(ticket.getProcessedAt()).isNotNull();
+        // The worker has no security context; the owner is pinned to the primary by id.
+        assertThat(tracker.requiresPrimary()).isTrue();
+    }
+
+    @Test
+    void processRecordsWhyAnOrderWasRejected() {
+        OrderTicket ticket = queuedTicket();
+        when(ticketRepository.findByIdAndStatus(7L, OrderTicketStatus.QUEUED)).thenReturn(Optional.of(ticket));
+        when(orderService.createOrderFor(eq(1L), any(OrderCreateRequest.class)))
+            .thenThrow(new ResponseStatusException(HttpStatus.BAD_REQUEST, "Insufficient stock"));
+
+        ticketService.process(7L);
+
+        assertThat(ticket.getStatus()).isEqualTo(OrderTicketStatus.FAILED);
+        assertThat(ticket.getFailureReason()).isEqualTo("Insufficient stock");
+        assertThat(ticket.getOrderId()).isNull();
+        assertThat(ticket.getAttempts()).isEqualTo(1);
+    }
+
+    @Test
+    void processKeepsTheTicketQueuedOnTransientErrorsUntilAttemptsRunOut() {
+        properties.setMaxAttempts(2);
+        OrderTicket ticket = queuedTicket();
+        when(ticketRepository.findByIdAndStatus(7L, OrderTicketStatus.QUEUED)).thenReturn(Optional.of(ticket));
+        when(orderService.createOrderFor(eq(1L), any(OrderCreateRequest.class)))
+            .thenThrow(new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Inventory is busy"))
+            .thenThrow(new ResponseStatusException(HttpStatus.CONFLICT, "Stock changed"));
+
+        ticketService.process(7L);
+
+        assertThat(ticket.getStatus()).isEqualTo(OrderTicketStatus.QUEUED);
+        assertThat(ticket.getAttempts()).isEqualTo(1);
+        assertThat(ticket.getNextAttemptAt()).isAfter(Instant.now());
+        assertThat(ticket.getFailureReason()).isNull();
+
+        ticketService.process(7L);
+
+        assertThat(ticket.getStatus()).isEqualTo(OrderTicketStatus.FAILED);
+        assertThat(ticket.getAttempts()).isEqualTo(2);
+        assertThat(ticket.getFailureReason()).isEqualTo("Stock changed");
+    }
+
+    private OrderTicket queuedTicket() {
+        return OrderTicket.builder().id(7L).user(user).status(OrderTicketStatus.QUEUED).payload(PAYLOAD).build();
+    }
+
+    private static OrderCreateRequest request() {
+        return OrderCreateRequest.builder()
+            .items(List.of(OrderItemRequest.builder().productId(10L).quantity(2).build()))
+            .build();
+    }
+}
@@ -0,0 +1,233 @@
+package com.eyarko.ecom.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.eyarko.ecom.config.OutboxProperties;
+import com.eyarko.ecom.repository.OutboxRepository;
+import com.eyarko.ecom.repository.OutboxRepository.NewEvent;
+import com.eyarko.ecom.repository.OutboxRepository.OutboxEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OutboxRelayTest {
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private OutboxRepository outboxRepository;
+    private TransactionTemplate transactionTemplate;
+    private SimpleMeterRegistry meterRegistry;
+    private final List<DomainEvent> received = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        outboxRepository = new OutboxRepository(jdbcTemplate);
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("delete from outbox_events");
+    }
+
+    @Test
+    void deliversEventsInOrderAndRemovesThem() {
+        append(new NewEvent("ORDER_PLACED", 1, "{\"orderId\":1}"), new NewEvent("INVENTORY_ADJUSTED", 7, "{\"quantity\":3}"));
+
+        relay(recording(null), 1).drain();
+
+        assertThat(received).extracting(DomainEvent::type)
+            .containsExactly(DomainEventType.ORDER_PLACED, DomainEventType.INVENTORY_ADJUSTED);
+        assertThat(received.get(1).payload().path("quantity").asInt()).isEqualTo(3);
+        assertThat(count()).isZero();
+        assertThat(meterRegistry.get("app.outbox.events.delivered").tag("type", "ORDER_PLACED").counter().count())
+            .isEqualTo(1);
+        assertThat(meterRegistry.get("app.outbox.pending").gauge().value()).isZero();
+    }
+
+    @Test
+    void failedEventsAreRetriedLaterWithoutHoldingUpOthers() {
+        append(new NewEvent("ORDER_PLACED", 1, "{}"), new NewEvent("ORDER_STATUS_CHANGED", 1, "{}"));
+
+        relay(recording(DomainEventType.ORDER_PLACED), 10).drain();
+
+        assertThat(received).extracting(DomainEvent::type).containsExactly(DomainEventType.ORDER_STATUS_CHANGED);
+        assertThat(jdbcTemplate.queryForObject(
+            "select attempts from outbox_events where event_type = 'ORDER_PLACED'", Integer.class
+        )).isEqualTo(1);
+        assertThat(jdbcTemplate.queryForObject(
+            "select last_error from outbox_events where event_type = 'ORDER_PLACED'", String.class
+        )).contains("listener down");
+        // Not due again until the retry delay has passed.
+        assertThat(outboxRepository.claimDue(Instant.now(), 10, 10)).isEmpty();
+        assertThat(meterRegistry.get("app.outbox.pending").gauge().value()).isEqualTo(1);
+    }
+
+    @Test
+    void aRetryOnlyGoesToTheListenersThatFailed() {
+        append(new NewEvent("ORDER_PLACED", 1, "{}"));
+        List<DomainEvent> metrics = new ArrayList<>();
+        AtomicBoolean webhookDown = new AtomicBoolean(true);
+        DomainEventListener metricsListener = named("metrics", event -> metrics.add(event));
+        DomainEventListener webhook = named("webhook", event -> {
+            if (webhookDown.get()) {
+                throw new IllegalStateException("webhook down");
+            }
+            received.add(event);
+        });
+        OutboxRelay relay = relay(List.of(metricsListener, webhook), 10, 0);
+
+        relay.drain();
+
+        assertThat(metrics).hasSize(1);
+        assertThat(received).isEmpty();
+        assertThat(jdbcTemplate.queryForObject("select delivered_to from outbox_events", String.class))
+            .isEqualTo("metrics");
+
+        webhookDown.set(false);
+        relay.drain();
+
+        assertThat(metrics).hasSize(1);
+        assertThat(received).hasSize(1);
+        assertThat(count()).isZero();
+        assertThat(meterRegistry.get("app.outbox.events.delivered").tag("listener", "metrics").counter().count())
+            .isEqualTo(1);
+        assertThat(meterRegistry.get("app.outbox.events.failed").tag("listener", "webhook").counter().count())
+            .isEqualTo(1);
+    }
+
+    @Test
+    void listenersRunOutsideATransactionWhileTheBatchStaysLeased() {
+        append(new NewEvent("ORDER_PLACED", 1, "{}"));
+        List<Boolean> inTransaction = new ArrayList<>();
+        List<Integer> claimableMeanwhile = new ArrayList<>();
+        DomainEventListener listener = named("probe", event -> {
+            inTransaction.add(TransactionSynchronizationManager.isActualTransactionActive());
+            claimableMeanwhile.add(transactionTemplate.execute(status ->
+                outboxRepository.claimDue(Instant.now(), 10, 10).size()
+            ));
+        });
+
+        relay(List.of(listener), 10, 60_000).drain();
+
+        assertThat(inTransaction).containsExactly(false);
+        assertThat(claimableMeanwhile).containsExactly(0);
+        assertThat(count()).isZero();
+    }
+
+    @Test
+    void aRelayWhoseLeaseWasTakenOverLeavesTheEventAlone() {
+        append(new NewEvent("ORDER_PLACED", 1, "{}"));
+        // Lease already expired while delivering: another relay re-claims and re-leases the event.
+        DomainEventListener listener = named("slow", event -> jdbcTemplate.update(
+            "update outbox_events set next_attempt_at = ?", Timestamp.from(Instant.now().plusSeconds(60))
+        ));
+
+        relay(List.of(listener), 10, 0).drain();
+
+        assertThat(count()).isEqualTo(1);
+    }
+
+    @Test
+    void concurrentClaimsSkipLockedRows() throws Exception {
+        append(new NewEvent("ORDER_PLACED", 1, "{}"), new NewEvent("ORDER_PLACED", 2, "{}"),
+            new NewEvent("ORDER_PLACED", 3, "{}"));
+
+        List<Long> other = transactionTemplate.execute(status -> {
+            List<OutboxEvent> mine = outboxRepository.claimDue(Instant.now(), 10, 2);
+            assertThat(mine).extracting(OutboxEvent::aggregateId).containsExactly(1L, 2L);
+            try {
+                return CompletableFuture.supplyAsync(() -> transactionTemplate.execute(inner ->
+                    outboxRepository.claimDue(Instant.now(), 10, 10).stream().map(OutboxEvent::aggregateId).toList()
+                )).get(10, TimeUnit.SECONDS);
+            } catch (Exception ex) {
+                throw new IllegalStateException(ex);
+            }
+        });
+
+        assertThat(other).containsExactly(3L);
+    }
+
+    private OutboxRelay relay(DomainEventListener listener, int batchSize) {
+        return relay(List.of(listener), batchSize, 60_000);
+    }
+
+    private OutboxRelay relay(List<DomainEventListener> listeners, int batchSize, long retryDelayMs) {
+        OutboxProperties properties = new OutboxProperties();
+        properties.setBatchSize(batchSize);
+        properties.setRetryDelayMs(retryDelayMs);
+        return new OutboxRelay(
+            outboxRepository, listeners, properties, new ObjectMapper(), transactionManager, meterRegistry
+        );
+    }
+
+    private static DomainEventListener named(String name, Consumer<DomainEvent> handler) {
+        return new DomainEventListener() {
+            @Override
+            public String name() {
+                return name;
+            }
+
+            @Override
+            public boolean supports(DomainEventType type) {
+                return true;
+            }
+
+            @Override
+            public void onEvent(DomainEvent event) {
+                handler.accept(event);
+            }
+        };
+    }
+
+    private DomainEventListener recording(DomainEventType failing) {
+        return new DomainEventListener() {
+            @Override
+            public boolean supports(DomainEventType type) {
+                return true;
+            }
+
+            @Override
+            public void onEvent(DomainEvent event) {
+                if (event.type() == failing) {
+                    throw new IllegalStateException("listener down");
+                }
+                received.add(event);
+            }
+        };
+    }
+
+    private void append(NewEvent... events) {
+        transactionTemplate.executeWithoutResult(status -> outboxRepository.appendAll(List.of(events)));
+    }
+
+    private int count() {
+        return jdbcTemplate.queryForObject("select count(*) from outbox_events", Integer.class);
+    }
+}
@@ -0,0 +1,108 @@
+package com.eyarko.ecom.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.eyarko.ecom.dto.ProductResponse;
+import com.eyarko.ecom.infrastructure.cache.CoalescingCache;
+import com.eyarko.ecom.repository.ProductBodyRow;
+import com.eyarko.ecom.repository.ProductRepository;
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.Cache;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.data.domain.Pageable;
+
+@ExtendWith(MockitoExtension.class)
+class ProductCatalogServiceTest {
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private ProductSearchIndex productSearchIndex;
+
+    private Cache productById;
+    private ProductCatalogService service;
+
+    @BeforeEach
+    void setUp() {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager(ProductCacheEvictor.PRODUCT_BY_ID) {
+            @Override
+            protected Cache adaptCaffeineCache(
+                String name,
+                com.github.benmanes.caffeine.cache.Cache<Object, Object> cache
+            ) {
+                return new CoalescingCache(super.adaptCaffeineCache(name, cache));
+            }
+        };
+        productById = cacheManager.getCache(ProductCacheEvictor.PRODUCT_BY_ID);
+        service = new ProductCatalogService(productRepository, productSearchIndex, cacheManager, 5000);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void getCachedProductBodies_loadsOnlyMissesInOneQueryAndCachesThem() {
+        productById.put(2L, body(2L, "Cached"));
+        when(productRepository.findBodyRowsByIdIn(anyCollection(), any(Pageable.class)))
+            .thenReturn(List.of(row(3L, "Loaded three"), row(1L, "Loaded one")));
+
+        List<ProductResponse> result = service.getCachedProductBodies(List.of(1L, 2L, 3L, 2L, 404L));
+
+        assertThat(result).extracting(ProductResponse::getId).containsExactly(1L, 2L, 3L);
+        assertThat(result.get(1).getName()).isEqualTo("Cached");
+        ArgumentCaptor<Collection<Long>> misses = ArgumentCaptor.forClass(Collection.class);
+        verify(productRepository).findBodyRowsByIdIn(misses.capture(), any(Pageable.class));
+        assertThat(misses.getValue()).containsExactly(1L, 3L, 404L);
+        assertThat(result.get(0).getName()).isEqualTo("Loaded one");
+        assertThat(productById.get(404L)).isNull();
+
+        List<ProductResponse> again = service.getCachedProductBodies(List.of(1L, 2L, 3L));
+
+        assertThat(again).extracting(ProductResponse::getName).containsExactly("Loaded one", "Cached", "Loaded three");
+        verify(productRepository).findBodyRowsByIdIn(anyCollection(), any(Pageable.class));
+    }
+
+    @Test
+    void getCachedProductBodies_doesNotCacheABodyEvictedWhileItWasRead() {
+        when(productRepository.findBodyRowsByIdIn(anyCollection(), any(Pageable.class))).thenAnswer(invocation -> {
+            // The product is edited and evicted after this row was read.
+            productById.evict(1L);
+            return List.of(row(1L, "Before edit"));
+        });
+
+        List<ProductResponse> result = service.getCachedProductBodies(List.of(1L));
+
+        assertThat(result).extracting(ProductResponse::getName).containsExactly("Before edit");
+        assertThat(productById.get(1L)).isNull();
+    }
+
+    @Test
+    void getCachedProductBodies_allCachedSkipsTheDatabase() {
+        productById.put(1L, body(1L, "One"));
+        productById.put(2L, body(2L, "Two"));
+
+        List<ProductResponse> result = service.getCachedProductBodies(List.of(2L, 1L));
+
+        assertThat(result).extracting(ProductResponse::getName).containsExactly("Two", "One");
+        verify(productRepository, never()).findBodyRowsByIdIn(anyCollection(), any(Pageable.class));
+    }
+
+    private static ProductResponse body(Long id, String name) {
+        return ProductResponse.builder().id(id).name(name).build();
+    }
+
+    private static ProductBodyRow row(Long id, String name) {
+        return new ProductBodyRow(id, 10L, "Books", name, null, BigDecimal.TEN, null, null, 0, null);
+    }
+}
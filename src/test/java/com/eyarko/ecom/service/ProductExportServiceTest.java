@@ -0,0 +1,133 @@
+package com.eyarko.ecom.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.lenient;
+
+import com.eyarko.ecom.dto.ProductExportRow;
+import com.eyarko.ecom.repository.ProductBulkRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.function.Consumer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.web.server.ResponseStatusException;
+
+@ExtendWith(MockitoExtension.class)
+class ProductExportServiceTest {
+    @Mock
+    private ProductBulkRepository productBulkRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+        .findAndRegisterModules()
+        .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    private ProductExportService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new ProductExportService(productBulkRepository, transactionManager, objectMapper, 250, 1, Duration.ofMinutes(30));
+        lenient().doAnswer(invocation -> {
+            Consumer<ProductExportRow> consumer = invocation.getArgument(1);
+            consumer.accept(row(1L, "Desk Lamp", "LED, dimmable", 12));
+            consumer.accept(row(2L, "Rake", null, 0));
+            return null;
+        }).when(productBulkRepository).forEachCatalogRow(eq(250), any());
+    }
+
+    @Test
+    void exportProducts_writesOneJsonObjectPerLine() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        service.exportProducts(out, CatalogFormat.NDJSON);
+
+        List<String> lines = out.toString(StandardCharsets.UTF_8).lines().toList();
+        assertThat(lines).hasSize(2);
+        JsonNode first = objectMapper.readTree(lines.get(0));
+        assertThat(first.get("name").asText()).isEqualTo("Desk Lamp");
+        assertThat(first.get("quantity").asInt()).isEqualTo(12);
+        assertThat(first.get("createdAt").asText()).isEqualTo("2024-01-02T03:04:05Z");
+        assertThat(objectMapper.readTree(lines.get(1)).get("id").asLong()).isEqualTo(2L);
+    }
+
+    @Test
+    void exportProducts_writesCsvWithHeader() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        service.exportProducts(out, CatalogFormat.CSV);
+
+        assertThat(out.toString(StandardCharsets.UTF_8).lines().toList()).containsExactly(
+            String.join(",", ProductExportService.CSV_COLUMNS),
+            "1,3,Lighting,Desk Lamp,\"LED, dimmable\",24.50,,4.50,8,12,2024-01-02T03:04:05Z",
+            "2,3,Lighting,Rake,,24.50,,4.50,8,0,2024-01-02T03:04:05Z"
+        );
+    }
+
+    @Test
+    void exportProducts_propagatesClientDisconnects() {
+        OutputStream broken = new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                throw new IOException("Broken pipe");
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                throw new IOException("Broken pipe");
+            }
+        };
+
+        assertThatThrownBy(() -> service.exportProducts(broken, CatalogFormat.NDJSON))
+            .isInstanceOf(IOException.class)
+            .hasMessage("Broken pipe");
+    }
+
+    @Test
+    void acquireSlot_rejectsExportsBeyondTheLimitUntilReleased() {
+        Runnable release = service.acquireSlot();
+
+        assertThatThrownBy(service::acquireSlot)
+            .isInstanceOfSatisfying(ResponseStatusException.class,
+                ex -> assertThat(ex.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE));
+
+        release.run();
+        release.run();
+        service.acquireSlot();
+        assertThatThrownBy(service::acquireSlot).isInstanceOf(ResponseStatusException.class);
+    }
+
+    private static ProductExportRow row(Long id, String name, String description, int quantity) {
+        return ProductExportRow.builder()
+            .id(id)
+            .categoryId(3L)
+            .categoryName("Lighting")
+            .name(name)
+            .description(description)
+            .price(new BigDecimal("24.50"))
+            .avgRating(new BigDecimal("4.50"))
+            .reviewCount(8)
+            .quantity(quantity)
+            .createdAt(Instant.parse("2024-01-02T03:04:05Z"))
+            .build();
+    }
+}
@@ -0,0 +1,153 @@
+package com.eyarko.ecom.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+import com.eyarko.ecom.infrastructure.cache.StockLevelCache;
+import com.eyarko.ecom.repository.InventoryRepository;
+import com.eyarko.ecom.repository.ProductFacetView;
+import com.eyarko.ecom.repository.ProductRepository;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Sort;
+
+@ExtendWith(MockitoExtension.class)
+class ProductFacetIndexTest {
+    private static final BigDecimal[] PRICE_BOUNDS = {new BigDecimal("50"), new BigDecimal("100")};
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private InventoryRepository inventoryRepository;
+
+    private StockLevelCache stockLevelCache;
+    private ProductFacetIndex index;
+
+    @BeforeEach
+    void setUp() {
+        when(productRepository.findFacetEntries()).thenReturn(List.of(
+            view(1L, "Laptop", 10L, "900", "4.5", 3),
+            view(2L, "Mouse", 10L, "25", "3.9", 0),
+            view(3L, "Desk", 20L, "75", "4.0", 7),
+            view(4L, "Lamp", 20L, "30", null, 1)
+        ));
+        stockLevelCache = new StockLevelCache(inventoryRepository);
+        index = new ProductFacetIndex(productRepository, stockLevelCache, true, PRICE_BOUNDS);
+        index.rebuild();
+    }
+
+    @Test
+    void query_andsSelectedFacetsAndCountsEachFacetWithoutItsOwnSelection() {
+        ProductFacetIndex.FacetResult result = index.query(
+            new ProductFacetIndex.FacetFilter(List.of(10L), null, 4, true, null),
+            Sort.by("name"),
+            0,
+            10
+        ).orElseThrow();
+
+        assertThat(result.total()).isEqualTo(1);
+        assertThat(result.pageIds()).containsExactly(1L);
+        // Category counts ignore the category selection: products rated 4+ and in stock.
+        assertThat(result.categoryCounts()).containsEntry(10L, 1L).containsEntry(20L, 1L);
+        // Rating counts ignore the rating selection: category 10 and in stock is only the laptop.
+        assertThat(result.ratingCounts()).containsExactly(1, 1, 1, 1, 0);
+        // In-stock count ignores the stock selection: category 10 rated 4+.
+        assertThat(result.inStockCount()).isEqualTo(1);
+        assertThat(result.priceBucketCounts()).containsExactly(0, 0, 1);
+    }
+
+    @Test
+    void query_ordersPageInMemoryAndRestrictsToCandidates() {
+        ProductFacetIndex.FacetResult byPrice = index.query(
+            new ProductFacetIndex.FacetFilter(null, List.of(0, 1), null, false, null),
+            Sort.by(Sort.Direction.DESC, "price"),
+            1,
+            2
+        ).orElseThrow();
+        assertThat(byPrice.total()).isEqualTo(3);
+        assertThat(byPrice.pageIds()).containsExactly(4L, 2L);
+
+        ProductFacetIndex.FacetResult restricted = index.query(
+            new ProductFacetIndex.FacetFilter(null, null, null, false, Set.of(3L, 4L)),
+            Sort.by("name"),
+            0,
+            10
+        ).orElseThrow();
+        assertThat(restricted.pageIds()).containsExactly(3L, 4L);
+    }
+
+    @Test
+    void updates_areReflectedInFacets() {
+        stockLevelCache.put(2L, 5, 1L);
+        stockLevelCache.put(1L, 0, 1L);
+        index.updateRating(4L, new BigDecimal("5.00"));
+        index.upsertProduct(3L, "Desk", 10L, new BigDecimal("120"), new BigDecimal("4.0"), Instant.now());
+        index.removeProduct(1L);
+
+        ProductFacetIndex.FacetResult result = index.query(
+            new ProductFacetIndex.FacetFilter(List.of(10L), null, null, true, null),
+            Sort.by("name"),
+            0,
+            10
+        ).orElseThrow();
+
+        assertThat(result.pageIds()).containsExactly(3L, 2L);
+        assertThat(result.priceBucketCounts()).containsExactly(1, 0, 1);
+        assertThat(result.categoryCounts()).containsEntry(10L, 2L).containsEntry(20L, 1L);
+        assertThat(result.ratingCounts()[4]).isZero();
+    }
+
+    private static ProductFacetView view(
+        Long id,
+        String name,
+        Long categoryId,
+        String price,
+        String rating,
+        Integer quantity
+    ) {
+        return new ProductFacetView() {
+            @Override
+            public Long getProductId() {
+                return id;
+            }
+
+            @Override
+            public String getName() {
+                return name;
+            }
+
+            @Override
+            public Long getCategoryId() {
+                return categoryId;
+            }
+
+            @Override
+            public BigDecimal getPrice() {
+                return new BigDecimal(price);
+            }
+
+            @Override
+            public BigDecimal getAvgRating() {
+                return rating == null ? null : new BigDecimal(rating);
+            }
+
+            @Override
+            public Instant getCreatedAt() {
+                return Instant.EPOCH.plusSeconds(id);
+            }
+
+            @Override
+            public Integer getQuantity() {
+                return quantity;
+            }
+        };
+    }
+}
@@ -0,0 +1,181 @@
+package com.eyarko.ecom.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.eyarko.ecom.dto.ProductImportErrorResponse;
+import com.eyarko.ecom.dto.ProductImportResponse;
+import com.eyarko.ecom.entity.Category;
+import com.eyarko.ecom.infrastructure.cache.StockLevelCache;
+import com.eyarko.ecom.repository.CategoryRepository;
+import com.eyarko.ecom.repository.ProductBulkRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.LongStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.web.server.ResponseStatusException;
+
+@ExtendWith(MockitoExtension.class)
+class ProductImportServiceTest {
+    @Mock
+    private CategoryRepository categoryRepository;
+
+    @Mock
+    private ProductBulkRepository productBulkRepository;
+
+    @Mock
+    private ProductSearchIndex productSearchIndex;
+
+    @Mock
+    private ProductFacetIndex productFacetIndex;
+
+    @Mock
+    private ProductSuggestIndex productSuggestIndex;
+
+    @Mock
+    private StockLevelCache stockLevelCache;
+
+    @Mock
+    private ProductCacheEvictor productCacheEvictor;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private ProductImportService service;
+    private final List<List<ProductBulkRepository.Row>> batches = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        service = new ProductImportService(
+            categoryRepository,
+            productBulkRepository,
+            productSearchIndex,
+            productFacetIndex,
+            productSuggestIndex,
+            stockLevelCache,
+            productCacheEvictor,
+            transactionManager,
+            new ObjectMapper(),
+            2,
+            10
+        );
+        lenient().when(categoryRepository.findAll(any(Sort.class))).thenReturn(List.of(
+            Category.builder().id(1L).name("Lighting").build(),
+            Category.builder().id(2L).name("Furniture").build()
+        ));
+    }
+
+    @Test
+    void importProducts_csvResolvesCategoriesAndWritesInBatches() {
+        stubInserts();
+        String csv = String.join("\n",
+            "Name,Category,Price,Quantity,Image_URL,Description",
+            "Desk Lamp,lighting,24.50,12,,\"LED, dimmable\"",
+            "\"Chair \"\"Pro\"\"\",FURNITURE,80,,c.png,",
+            "",
+            "Sofa,Furniture,499.99,3,,"
+        );
+
+        ProductImportResponse response = service.importProducts(stream(csv), CatalogFormat.CSV);
+
+        assertThat(response.getImported()).isEqualTo(3);
+        assertThat(response.getRejected()).isZero();
+        assertThat(response.getBatches()).isEqualTo(2);
+        assertThat(response.isCompleted()).isTrue();
+        assertThat(batches).hasSize(2);
+        assertThat(batches.get(0)).containsExactly(
+            new ProductBulkRepository.Row(1L, "Desk Lamp", "LED, dimmable", new BigDecimal("24.50"), null, 12),
+            new ProductBulkRepository.Row(2L, "Chair \"Pro\"", null, new BigDecimal("80"), "c.png", 0)
+        );
+        verify(productSearchIndex).upsertProduct(100L, "Desk Lamp", 1L, "Lighting");
+        verify(stockLevelCache).put(100L, 12, 0L);
+        verify(productSuggestIndex).markStale();
+        verify(productCacheEvictor).evictAllLists();
+    }
+
+    @Test
+    void importProducts_ndjsonRejectsInvalidRowsAndKeepsGoing() {
+        stubInserts();
+        String ndjson = String.join("\n",
+            "{\"categoryId\":1,\"name\":\"Lamp\",\"price\":10}",
+            "{\"categoryId\":1,\"name\":\"Broken\"",
+            "{\"category\":\"Garden\",\"name\":\"Hose\",\"price\":5}",
+            "{\"categoryId\":9,\"name\":\"Ghost\",\"price\":5}",
+            "{\"categoryId\":2,\"name\":\"Free\",\"price\":0}",
+            "{\"categoryId\":2,\"name\":\"Table\",\"price\":120.5,\"quantity\":4}"
+        );
+
+        ProductImportResponse response = service.importProducts(stream(ndjson), CatalogFormat.NDJSON);
+
+        assertThat(response.getImported()).isEqualTo(2);
+        assertThat(response.getRejected()).isEqualTo(4);
+        assertThat(response.getErrors()).extracting(ProductImportErrorResponse::getLine).containsExactly(2L, 3L, 4L, 5L);
+        assertThat(response.getErrors().get(1).getMessage()).isEqualTo("Unknown category 'Garden'");
+        assertThat(response.getErrors().get(2).getMessage()).isEqualTo("Unknown category id 9");
+        assertThat(batches).hasSize(1);
+    }
+
+    @Test
+    void importProducts_stopsOnDatabaseErrorAndKeepsCommittedBatches() {
+        when(productBulkRepository.insertWithInventory(anyList()))
+            .thenReturn(List.of(1L, 2L))
+            .thenThrow(new DataIntegrityViolationException("duplicate"));
+        String ndjson = LongStream.rangeClosed(1, 6)
+            .mapToObj(i -> "{\"categoryId\":1,\"name\":\"P" + i + "\",\"price\":1}")
+            .reduce((a, b) -> a + "\n" + b)
+            .orElseThrow();
+
+        ProductImportResponse response = service.importProducts(stream(ndjson), CatalogFormat.NDJSON);
+
+        assertThat(response.getImported()).isEqualTo(2);
+        assertThat(response.getRejected()).isEqualTo(2);
+        assertThat(response.isCompleted()).isFalse();
+        assertThat(response.getErrors()).singleElement().extracting(ProductImportErrorResponse::getLine).isEqualTo(3L);
+        verify(productBulkRepository, times(2)).insertWithInventory(anyList());
+        verify(productCacheEvictor).evictAllLists();
+    }
+
+    @Test
+    void importProducts_rejectsCsvWithoutRequiredColumns() {
+        assertThatThrownBy(() -> service.importProducts(stream("name,quantity\nLamp,1"), CatalogFormat.CSV))
+            .isInstanceOf(ResponseStatusException.class);
+        verify(productBulkRepository, never()).insertWithInventory(anyList());
+        verify(productCacheEvictor, never()).evictAllLists();
+    }
+
+    private void stubInserts() {
+        long[] nextId = {100L};
+        when(productBulkRepository.insertWithInventory(anyList())).thenAnswer(invocation -> {
+            List<ProductBulkRepository.Row> rows = invocation.getArgument(0);
+            batches.add(rows);
+            List<Long> ids = new ArrayList<>();
+            for (int i = 0; i < rows.size(); i++) {
+                ids.add(nextId[0]++);
+            }
+            return ids;
+        });
+    }
+
+    private static InputStream stream(String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,80 @@
+package com.eyarko.ecom.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+import com.eyarko.ecom.repository.ProductRepository;
+import com.eyarko.ecom.repository.ProductSearchView;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class ProductSearchIndexTest {
+    @Mock
+    private ProductRepository productRepository;
+
+    private ProductSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        when(productRepository.findSearchEntries()).thenReturn(List.of(
+            view(1L, "Laptop Pro", 10L, "Electronics"),
+            view(2L, "Desk Lamp", 20L, "Home"),
+            view(3L, "Gaming Laptop", 20L, "Home")
+        ));
+        index = new ProductSearchIndex(productRepository, true);
+        index.rebuild();
+    }
+
+    @Test
+    void search_matchesProductAndCategoryNamesCaseInsensitively() {
+        assertThat(index.search("LAPTOP", null)).hasValueSatisfying(ids -> assertThat(ids).containsOnly(1L, 3L));
+        assertThat(index.search("tronic", null)).hasValueSatisfying(ids -> assertThat(ids).containsOnly(1L));
+        assertThat(index.search("la", null)).hasValueSatisfying(ids -> assertThat(ids).containsOnly(1L, 2L, 3L));
+    }
+
+    @Test
+    void search_withCategoryFilterOnlyMatchesProductNames() {
+        assertThat(index.search("laptop", 20L)).hasValueSatisfying(ids -> assertThat(ids).containsOnly(3L));
+        assertThat(index.search("home", 20L)).hasValueSatisfying(ids -> assertThat(ids).isEmpty());
+    }
+
+    @Test
+    void incrementalUpdates_areVisibleToSearch() {
+        index.upsertProduct(2L, "Standing Desk", 20L, "Home");
+        index.removeProduct(1L);
+        index.upsertCategory(20L, "Furniture");
+
+        assertThat(index.search("lamp", null)).hasValueSatisfying(ids -> assertThat(ids).isEmpty());
+        assertThat(index.search("laptop", null)).hasValueSatisfying(ids -> assertThat(ids).containsOnly(3L));
+        assertThat(index.search("furni", null)).hasValueSatisfying(ids -> assertThat(ids).containsOnly(2L, 3L));
+    }
+
+    private static ProductSearchView view(Long productId, String name, Long categoryId, String categoryName) {
+        return new ProductSearchView() {
+            @Override
+            public Long getProductId() {
+                return productId;
+            }
+
+            @Override
+            public String getProductName() {
+                return name;
+            }
+
+            @Override
+            public Long getCategoryId() {
+                return categoryId;
+            }
+
+            @Override
+            public String getCategoryName() {
+                return categoryName;
+            }
+        };
+    }
+}
@@ -0,0 +1,124 @@
+package com.eyarko.ecom.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.eyarko.ecom.dto.SuggestionResponse;
+import com.eyarko.ecom.repository.ProductRepository;
+import com.eyarko.ecom.repository.ProductSuggestView;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class ProductSuggestIndexTest {
+    @Mock
+    private ProductRepository productRepository;
+
+    private ProductSuggestIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new ProductSuggestIndex(productRepository, true, 600_000);
+    }
+
+    @Test
+    void suggest_matchesWordPrefixesRankedByReviewsThenRating() {
+        when(productRepository.findSuggestEntries()).thenReturn(List.of(
+            view(1L, "Laptop Pro", 10L, "Computers", 5, "4.0"),
+            view(2L, "Gaming Laptop", 10L, "Computers", 40, "3.0"),
+            view(3L, "Lamp", 20L, "Lighting", 5, "4.8"),
+            view(4L, "Desk", 30L, "Furniture", 1, "5.0")
+        ));
+        index.rebuild();
+
+        assertThat(names(index.suggest("LA", 10))).containsExactly("Gaming Laptop", "Lamp", "Laptop Pro");
+        assertThat(names(index.suggest("lapt", 10))).containsExactly("Gaming Laptop", "Laptop Pro");
+        assertThat(names(index.suggest("gaming  l", 10))).containsExactly("Gaming Laptop");
+        assertThat(names(index.suggest("comp", 10))).containsExactly("Computers");
+        assertThat(index.suggest("comp", 10).get(0).getType()).isEqualTo(ProductSuggestIndex.TYPE_CATEGORY);
+        assertThat(index.suggest("la", 1)).hasSize(1);
+        assertThat(index.suggest("zz", 10)).isEmpty();
+        assertThat(index.suggest(" ", 10)).isEmpty();
+    }
+
+    @Test
+    void suggest_returnsDistinctTopEntriesForWidePrefixes() {
+        List<ProductSuggestView> rows = new ArrayList<>();
+        for (long id = 1; id <= 500; id++) {
+            rows.add(view(id, "Pro Item Pro " + id, 1L, "Misc", (int) id, "1.0"));
+        }
+        when(productRepository.findSuggestEntries()).thenReturn(rows);
+        index.rebuild();
+
+        List<SuggestionResponse> hot = index.suggest("pr", 20);
+        List<SuggestionResponse> scanned = index.suggest("pro item", 20);
+        assertThat(hot).hasSize(20).extracting(SuggestionResponse::getId).doesNotHaveDuplicates();
+        assertThat(hot.get(0).getName()).isEqualTo("Pro Item Pro 500");
+        assertThat(scanned).extracting(SuggestionResponse::getId).startsWith(500L, 499L, 498L);
+    }
+
+    @Test
+    void rebuildIfStale_onlyQueriesWhenMarkedStale() {
+        when(productRepository.findSuggestEntries()).thenReturn(List.of());
+
+        index.rebuildIfStale();
+        index.rebuildIfStale();
+        index.markStale();
+        index.rebuildIfStale();
+
+        verify(productRepository, times(2)).findSuggestEntries();
+    }
+
+    private static List<String> names(List<SuggestionResponse> suggestions) {
+        return suggestions.stream().map(SuggestionResponse::getName).toList();
+    }
+
+    private static ProductSuggestView view(
+        Long id,
+        String name,
+        Long categoryId,
+        String categoryName,
+        int reviews,
+        String rating
+    ) {
+        return new ProductSuggestView() {
+            @Override
+            public Long getProductId() {
+                return id;
+            }
+
+            @Override
+            public String getProductName() {
+                return name;
+            }
+
+            @Override
+            public Long getCategoryId() {
+                return categoryId;
+            }
+
+            @Override
+            public String getCategoryName() {
+                return categoryName;
+            }
+
+            @Override
+            public Integer getReviewCount() {
+                return reviews;
+            }
+
+            @Override
+            public BigDecimal getAvgRating() {
+                return new BigDecimal(rating);
+            }
+        };
+    }
+}
@@ -32,6 +32,15 @@ class ReviewServiceTest {
     @Mock
     private ProductRepository productRepository;
 
+    @Mock
+    private ProductCacheEvictor productCacheEvictor;
+
+    @Mock
+    private ProductFacetIndex productFacetIndex;
+
+    @Mock
+    private ProductSuggestIndex productSuggestIndex;
+
     @InjectMocks
     private ReviewService reviewService;
 
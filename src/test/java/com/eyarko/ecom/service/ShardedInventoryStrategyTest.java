@@ -0,0 +1,170 @@
+package com.eyarko.ecom.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.eyarko.ecom.config.InventoryShardingProperties;
+import com.eyarko.ecom.entity.Category;
+import com.eyarko.ecom.entity.Product;
+import com.eyarko.ecom.infrastructure.cache.StockLevelCache;
+import com.eyarko.ecom.repository.CategoryRepository;
+import com.eyarko.ecom.repository.InventoryQuantityView;
+import com.eyarko.ecom.repository.InventoryRepository;
+import com.eyarko.ecom.repository.InventoryShardRepository;
+import com.eyarko.ecom.repository.InventoryStockRepository;
+import com.eyarko.ecom.repository.ProductRepository;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.web.server.ResponseStatusException;
+
+@DataJpaTest
+@ActiveProfiles("test")
+class ShardedInventoryStrategyTest {
+    private static final int SHARDS = 4;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private InventoryShardRepository shardRepository;
+    private Product hot;
+    private Product plain;
+    private ShardedInventoryStrategy strategy;
+    private InventoryShardMaintenance maintenance;
+
+    @BeforeEach
+    void setUp() {
+        Category category = categoryRepository.save(Category.builder().name("Flash sale").build());
+        hot = product(category, "Hot", 20);
+        plain = product(category, "Plain", 5);
+        shardRepository = new InventoryShardRepository(jdbcTemplate);
+        InventoryStockRepository stockRepository = new InventoryStockRepository(jdbcTemplate);
+        StockLevelCache stockLevelCache = new StockLevelCache(inventoryRepository);
+        InventoryShardingProperties properties = new InventoryShardingProperties();
+        properties.setProductIds(Set.of(hot.getId()));
+        properties.setShards(SHARDS);
+        strategy = new ShardedInventoryStrategy(
+            new ConditionalUpdateInventoryStrategy(stockRepository, stockLevelCache),
+            shardRepository, stockRepository, stockLevelCache, properties.getProductIds(), SHARDS
+        );
+        maintenance = new InventoryShardMaintenance(
+            shardRepository, stockRepository, stockLevelCache, properties, transactionManager
+        );
+        maintenance.rebalance(hot.getId(), true);
+    }
+
+    @Test
+    void shardingMovesStockOffTheRowAndReadsReportTheTotal() {
+        assertThat(shardRepository.findShards(hot.getId()))
+            .extracting(InventoryShardRepository.Shard::quantity)
+            .containsExactly(5, 5, 5, 5);
+        assertThat(rowQuantity(hot)).isZero();
+        assertThat(aggregated(hot)).isEqualTo(20);
+        assertThat(aggregated(plain)).isEqualTo(5);
+    }
+
+    @Test
+    void reservationsTakeFromOneShardThenAcrossShardsWithoutOverselling() {
+        strategy.reserve(hot.getId(), 3);
+        assertThat(aggregated(hot)).isEqualTo(17);
+
+        // No single shard holds 12, so this draws from several.
+        strategy.reserve(hot.getId(), 12);
+        assertThat(aggregated(hot)).isEqualTo(5);
+
+        assertThatThrownBy(() -> strategy.reserve(hot.getId(), 6))
+            .isInstanceOf(ResponseStatusException.class)
+            .hasMessageContaining("Insufficient stock");
+        assertThat(aggregated(hot)).isEqualTo(5);
+    }
+
+    @Test
+    void stockVersionMatchesTheCacheVersionAndStepsByOnePerShardWrite() {
+        long before = inventoryRepository.findQuantitiesByProductIds(List.of(hot.getId())).get(0).getVersion();
+        assertThat(shardRepository.stockVersion(hot.getId())).isEqualTo(before);
+
+        strategy.reserve(hot.getId(), 1);
+
+        assertThat(shardRepository.stockVersion(hot.getId())).isEqualTo(before + 1);
+        assertThat(shardRepository.stockVersion(-1L)).isEqualTo(-1L);
+    }
+
+    @Test
+    void mixedOrdersSplitBetweenShardsAndTheDelegate() {
+        strategy.reserveAll(Map.of(hot.getId(), 2, plain.getId(), 1));
+        strategy.restoreAll(Map.of(hot.getId(), 1));
+
+        assertThat(aggregated(hot)).isEqualTo(19);
+        assertThat(rowQuantity(plain)).isEqualTo(4);
+        assertThat(shardRepository.findShards(plain.getId())).isEmpty();
+    }
+
+    @Test
+    void setQuantityRespreadsAndUnshardingFoldsStockBack() {
+        assertThat(strategy.setQuantity(hot, 9).getQuantity()).isEqualTo(9);
+        assertThat(shardRepository.findShards(hot.getId()))
+            .extracting(InventoryShardRepository.Shard::quantity)
+            .containsExactly(3, 2, 2, 2);
+
+        maintenance.unshard(hot.getId());
+
+        assertThat(shardRepository.findShards(hot.getId())).isEmpty();
+        assertThat(rowQuantity(hot)).isEqualTo(9);
+    }
+
+    @Test
+    void rebalanceRefillsDrainedShards() {
+        jdbcTemplate.update(
+            "update inventory_shards set quantity = case when shard_no = 0 then 8 else 0 end where product_id = ?",
+            hot.getId()
+        );
+
+        maintenance.rebalance(hot.getId(), false);
+
+        assertThat(shardRepository.findShards(hot.getId()))
+            .extracting(InventoryShardRepository.Shard::quantity)
+            .containsExactly(2, 2, 2, 2);
+    }
+
+    private Product product(Category category, String name, int quantity) {
+        Product product = productRepository.saveAndFlush(
+            Product.builder().category(category).name(name).price(BigDecimal.ONE).build()
+        );
+        jdbcTemplate.update(
+            "insert into inventory (product_id, quantity, inventory_status) values (?, ?, 'In stock')",
+            product.getId(), quantity
+        );
+        return product;
+    }
+
+    private int rowQuantity(Product product) {
+        return jdbcTemplate.queryForObject(
+            "select quantity from inventory where product_id = ?", Integer.class, product.getId()
+        );
+    }
+
+    private int aggregated(Product product) {
+        List<InventoryQuantityView> views = inventoryRepository.findQuantitiesByProductIds(List.of(product.getId()));
+        return views.get(0).getQuantity();
+    }
+}
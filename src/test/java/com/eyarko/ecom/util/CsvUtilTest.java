@@ -0,0 +1,24 @@
+package com.eyarko.ecom.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.jupiter.api.Test;
+
+class CsvUtilTest {
+    @Test
+    void parseLine_handlesQuotesAndEmptyFields() {
+        assertThat(CsvUtil.parseLine("a,\"b,c\",,\"d\"\"e\"")).containsExactly("a", "b,c", "", "d\"e");
+        assertThatThrownBy(() -> CsvUtil.parseLine("a,\"b")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void appendLine_quotesOnlyWhenNeededAndRoundTrips() {
+        String line = CsvUtil.appendLine(new StringBuilder(), 1, null, "Lamp, LED", "say \"hi\"", "two\nlines")
+            .toString();
+
+        assertThat(line).isEqualTo("1,,\"Lamp, LED\",\"say \"\"hi\"\"\",two lines\n");
+        assertThat(CsvUtil.parseLine(line.substring(0, line.length() - 1)))
+            .containsExactly("1", "", "Lamp, LED", "say \"hi\"", "two lines");
+    }
+}
@@ -0,0 +1,76 @@
+package com.eyarko.ecom.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.eyarko.ecom.document.Review;
+import com.eyarko.ecom.entity.Order;
+import com.eyarko.ecom.entity.OrderStatus;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Date;
+import java.util.Map;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+class CursorUtilTest {
+    private static final Sort SORT = Sort.by("status", "id");
+
+    @Test
+    void enumKeysRoundTrip() {
+        Map<String, Object> keys = Map.of("status", OrderStatus.SHIPPED, "id", 7L);
+        String cursor = CursorUtil.encode(ScrollPosition.forward(keys), SORT);
+
+        KeysetScrollPosition position = (KeysetScrollPosition) CursorUtil.decode(cursor, SORT, Order.class);
+
+        assertThat(position.getKeys()).containsEntry("status", OrderStatus.SHIPPED).containsEntry("id", 7L);
+    }
+
+    @Test
+    void documentCursorsUseStoredFieldNamesAndTypes() {
+        Sort sort = Sort.by("createdAt", "id");
+        Map<String, Object> keys = Map.of("createdAt", new Date(0), "_id", new ObjectId());
+        String cursor = CursorUtil.encode(ScrollPosition.forward(keys), sort);
+
+        KeysetScrollPosition position = (KeysetScrollPosition) CursorUtil.decode(cursor, sort, Review.class);
+
+        assertThat(position.getKeys()).isEqualTo(keys);
+    }
+
+    @Test
+    void malformedOrUnlistedValuesAreBadRequests() {
+        String fingerprint = encode(SORT.toString());
+
+        assertBadRequest(encode("v1\n" + fingerprint + "\nid:L:***"));
+        assertBadRequest(encode("v1\n" + fingerprint + "\nstatus:E:" + encode("java.lang.Thread#NEW")));
+        assertBadRequest(encode("v1\n" + fingerprint + "\nstatus:E:" + encode("com.eyarko.ecom.Missing#X")));
+    }
+
+    @Test
+    void cursorsWithMissingExtraOrMistypedKeysAreBadRequests() {
+        String fingerprint = encode(SORT.toString());
+        String status = "status:E:" + encode(OrderStatus.class.getName() + "#SHIPPED");
+        String id = "\nid:L:" + encode("1");
+
+        assertBadRequest(encode("v1\n" + fingerprint + "\n" + status));
+        assertBadRequest(encode("v1\n" + fingerprint + "\n" + status + id + "\nx:L:" + encode("2")));
+        assertBadRequest(encode("v1\n" + fingerprint + "\n" + status + "\nuser:L:" + encode("1")));
+        assertBadRequest(encode("v1\n" + fingerprint + "\n" + status + "\nid:S:" + encode("1")));
+        assertBadRequest(encode("v1\n" + fingerprint + "\nstatus:L:" + encode("1") + id));
+    }
+
+    private static void assertBadRequest(String cursor) {
+        assertThatThrownBy(() -> CursorUtil.decode(cursor, SORT, Order.class))
+            .isInstanceOfSatisfying(ResponseStatusException.class,
+                ex -> assertThat(ex.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST));
+    }
+
+    private static String encode(String text) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(text.getBytes(StandardCharsets.UTF_8));
+    }
+}